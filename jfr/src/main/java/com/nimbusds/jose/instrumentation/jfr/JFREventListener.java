@@ -0,0 +1,216 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.nimbusds.jose.instrumentation.jfr;
+
+
+import jdk.jfr.Event;
+
+import com.nimbusds.jose.instrumentation.JOSEEvent;
+import com.nimbusds.jose.instrumentation.JOSEEventListener;
+import com.nimbusds.jose.instrumentation.JOSEStageListener;
+import net.jcip.annotations.ThreadSafe;
+
+
+/**
+ * JOSE event listener which emits Java Flight Recorder (JFR) events:
+ *
+ * <ul>
+ *     <li>{@link JOSEOperationEvent com.nimbusds.jose.Operation} for JWS
+ *         signing and verification, and JWE encryption and decryption.
+ *     <li>{@link RetrievalEvent com.nimbusds.jose.Retrieval} for remote
+ *         JWK set and resource retrievals.
+ * </ul>
+ *
+ * <p>The JFR events begin when the operation starts and end when it
+ * completes, so their start time and duration are those of the operation.
+ * JFR thresholds apply and the events line up with GC pauses and other
+ * events in the recording timeline. When the JFR event types are not
+ * enabled in a recording the cost is a check per operation.
+ *
+ * <p>All completed JOSE events are passed to the optional delegate
+ * listener.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * JOSEInstrumentation.setListener(new JFREventListener());
+ * </pre>
+ *
+ * <p>Requires Java 11 or newer, the class is in the optional
+ * nimbus-jose-jwt-jfr artifact.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+@ThreadSafe
+public class JFREventListener implements JOSEStageListener {
+
+
+	/**
+	 * The delegate listener, {@code null} if none.
+	 */
+	private final JOSEEventListener delegate;
+
+
+	/**
+	 * Creates a new JFR event listener.
+	 */
+	public JFREventListener() {
+
+		this(null);
+	}
+
+
+	/**
+	 * Creates a new JFR event listener.
+	 *
+	 * @param delegate Listener to pass all events to, {@code null} if
+	 *                 none.
+	 */
+	public JFREventListener(final JOSEEventListener delegate) {
+
+		this.delegate = delegate;
+	}
+
+
+	/**
+	 * Returns the delegate listener.
+	 *
+	 * @return The delegate listener, {@code null} if none.
+	 */
+	public JOSEEventListener getDelegate() {
+
+		return delegate;
+	}
+
+
+	/**
+	 * {@inheritDoc} Begins the JFR event for the operation, if its type
+	 * is enabled.
+	 */
+	@Override
+	public Object onStart(final JOSEEvent.Type type) {
+
+		final Event jfrEvent;
+
+		switch (type) {
+
+			case SIGNING:
+			case SIGNATURE_VERIFICATION:
+			case ENCRYPTION:
+			case DECRYPTION:
+				jfrEvent = new JOSEOperationEvent();
+				break;
+
+			case JWK_SET_RETRIEVAL:
+			case RESOURCE_RETRIEVAL:
+				jfrEvent = new RetrievalEvent();
+				break;
+
+			default:
+				// No JFR event
+				return null;
+		}
+
+		if (! jfrEvent.isEnabled()) {
+			return null;
+		}
+
+		jfrEvent.begin();
+		return jfrEvent;
+	}
+
+
+	/**
+	 * {@inheritDoc} Ends and commits the JFR event begun for the
+	 * operation, if any.
+	 */
+	@Override
+	public void onEnd(final JOSEEvent event, final Object context) {
+
+		if (context instanceof JOSEOperationEvent) {
+			commitOperationEvent((JOSEOperationEvent)context, event);
+		} else if (context instanceof RetrievalEvent) {
+			commitRetrievalEvent((RetrievalEvent)context, event);
+		}
+
+		if (delegate != null) {
+			delegate.onEvent(event);
+		}
+	}
+
+
+	/**
+	 * {@inheritDoc} Called only for events of stages started before
+	 * this listener was registered, which have no JFR event.
+	 */
+	@Override
+	public void onEvent(final JOSEEvent event) {
+
+		onEnd(event, null);
+	}
+
+
+	/**
+	 * Ends a JOSE operation JFR event and commits it if it passes the
+	 * recording settings, such as the threshold.
+	 *
+	 * @param jfrEvent The begun JFR event. Must not be {@code null}.
+	 * @param event    The JOSE event. Must not be {@code null}.
+	 */
+	private static void commitOperationEvent(final JOSEOperationEvent jfrEvent, final JOSEEvent event) {
+
+		jfrEvent.end();
+
+		if (! jfrEvent.shouldCommit()) {
+			return;
+		}
+
+		jfrEvent.operation = event.getType().name();
+		jfrEvent.algorithm = event.getAlgorithm() != null ? event.getAlgorithm().getName() : null;
+		jfrEvent.encryptionMethod = event.getEncryptionMethod() != null ? event.getEncryptionMethod().getName() : null;
+		jfrEvent.keyID = event.getKeyID();
+		jfrEvent.payloadSize = event.getPayloadSize();
+		jfrEvent.success = event.isSuccess();
+		jfrEvent.failureReason = event.getFailureReason();
+		jfrEvent.commit();
+	}
+
+
+	/**
+	 * Ends a retrieval JFR event and commits it if it passes the
+	 * recording settings, such as the threshold.
+	 *
+	 * @param jfrEvent The begun JFR event. Must not be {@code null}.
+	 * @param event    The JOSE event. Must not be {@code null}.
+	 */
+	private static void commitRetrievalEvent(final RetrievalEvent jfrEvent, final JOSEEvent event) {
+
+		jfrEvent.end();
+
+		if (! jfrEvent.shouldCommit()) {
+			return;
+		}
+
+		jfrEvent.retrieval = event.getType().name();
+		jfrEvent.keyID = event.getKeyID();
+		jfrEvent.contentSize = event.getPayloadSize();
+		jfrEvent.success = event.isSuccess();
+		jfrEvent.failureReason = event.getFailureReason();
+		jfrEvent.commit();
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.nimbusds.jose.instrumentation.jfr;
+
+
+import jdk.jfr.*;
+
+
+/**
+ * JFR event for a JOSE signing, signature verification, encryption or
+ * decryption operation.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+@Name("com.nimbusds.jose.Operation")
+@Label("JOSE Operation")
+@Category({"Nimbus JOSE+JWT"})
+@Description("JOSE signing, signature verification, encryption or decryption")
+@StackTrace(false)
+public class JOSEOperationEvent extends Event {
+
+
+	/**
+	 * The operation.
+	 */
+	@Label("Operation")
+	String operation;
+
+
+	/**
+	 * The JWS / JWE algorithm.
+	 */
+	@Label("Algorithm")
+	String algorithm;
+
+
+	/**
+	 * The JWE encryption method.
+	 */
+	@Label("Encryption Method")
+	String encryptionMethod;
+
+
+	/**
+	 * The key ID.
+	 */
+	@Label("Key ID")
+	String keyID;
+
+
+	/**
+	 * The payload size.
+	 */
+	@Label("Payload Size")
+	@DataAmount
+	long payloadSize;
+
+
+	/**
+	 * The outcome.
+	 */
+	@Label("Success")
+	boolean success;
+
+
+	/**
+	 * The failure reason.
+	 */
+	@Label("Failure Reason")
+	String failureReason;
+}
@@ -0,0 +1,71 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.nimbusds.jose.instrumentation.jfr;
+
+
+import jdk.jfr.*;
+
+
+/**
+ * JFR event for a remote JWK set retrieval or a resource retrieval.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+@Name("com.nimbusds.jose.Retrieval")
+@Label("JOSE Retrieval")
+@Category({"Nimbus JOSE+JWT"})
+@Description("Retrieval of a remote JWK set or resource")
+@StackTrace(false)
+public class RetrievalEvent extends Event {
+
+
+	/**
+	 * The retrieval type.
+	 */
+	@Label("Retrieval")
+	String retrieval;
+
+
+	/**
+	 * The key ID which caused the retrieval.
+	 */
+	@Label("Key ID")
+	String keyID;
+
+
+	/**
+	 * The retrieved content size.
+	 */
+	@Label("Content Size")
+	@DataAmount
+	long contentSize;
+
+
+	/**
+	 * The outcome.
+	 */
+	@Label("Success")
+	boolean success;
+
+
+	/**
+	 * The failure reason.
+	 */
+	@Label("Failure Reason")
+	String failureReason;
+}
@@ -0,0 +1,25 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+/**
+ * Java Flight Recorder (JFR) events for JOSE operations and remote resource
+ * retrievals, fed by {@link com.nimbusds.jose.instrumentation.jfr.JFREventListener}.
+ *
+ * <p>Requires Java 11 or newer. The classes in this package are in the
+ * separate optional nimbus-jose-jwt-jfr artifact, the library itself remains
+ * usable on older Java versions without them.
+ */
+package com.nimbusds.jose.instrumentation.jfr;
@@ -0,0 +1,231 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.nimbusds.jose.instrumentation.jfr;
+
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import junit.framework.TestCase;
+
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jose.instrumentation.JOSEEvent;
+import com.nimbusds.jose.instrumentation.JOSEEventListener;
+import com.nimbusds.jose.instrumentation.JOSEInstrumentation;
+import com.nimbusds.jose.util.Base64URL;
+
+
+/**
+ * Tests the JFR event listener.
+ */
+public class JFREventListenerTest extends TestCase {
+
+
+	@Override
+	public void tearDown() {
+
+		JOSEInstrumentation.setListener(null);
+	}
+
+
+	private static List<RecordedEvent> readOperationEvents(final File file)
+		throws Exception {
+
+		List<RecordedEvent> recordedEvents = new ArrayList<>();
+
+		for (RecordedEvent recordedEvent: RecordingFile.readAllEvents(file.toPath())) {
+			if ("com.nimbusds.jose.Operation".equals(recordedEvent.getEventType().getName())) {
+				recordedEvents.add(recordedEvent);
+			}
+		}
+
+		return recordedEvents;
+	}
+
+
+	/**
+	 * MAC signer which takes at least 50 ms.
+	 */
+	private static class SlowMACSigner extends MACSigner {
+
+
+		SlowMACSigner(final byte[] secret)
+			throws KeyLengthException {
+
+			super(secret);
+		}
+
+
+		@Override
+		public Base64URL sign(final JWSHeader header, final byte[] signingInput)
+			throws JOSEException {
+
+			try {
+				Thread.sleep(50L);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+
+			return super.sign(header, signingInput);
+		}
+	}
+
+
+	public void testDelegate() {
+
+		final List<JOSEEvent> events = new ArrayList<>();
+
+		JOSEEventListener delegate = new JOSEEventListener() {
+			@Override
+			public void onEvent(JOSEEvent event) {
+				events.add(event);
+			}
+		};
+
+		assertNull(new JFREventListener().getDelegate());
+
+		JFREventListener listener = new JFREventListener(delegate);
+		assertEquals(delegate, listener.getDelegate());
+
+		JOSEEvent event = new JOSEEvent(JOSEEvent.Type.KEY_SELECTION, JWSAlgorithm.HS256, null, 10L, null);
+		listener.onEvent(event);
+		assertEquals(event, events.get(0));
+
+		event = new JOSEEvent(JOSEEvent.Type.SIGNING, JWSAlgorithm.HS256, null, 10L, null);
+		listener.onEnd(event, listener.onStart(JOSEEvent.Type.SIGNING));
+		assertEquals(event, events.get(1));
+	}
+
+
+	public void testNoJFREventWhenNotRecording() {
+
+		JFREventListener listener = new JFREventListener();
+		assertNull(listener.onStart(JOSEEvent.Type.SIGNING));
+		assertNull(listener.onStart(JOSEEvent.Type.KEY_SELECTION));
+	}
+
+
+	public void testRecordedEvents()
+		throws Exception {
+
+		byte[] secret = new byte[32];
+
+		JWSObject jwsObject = new JWSObject(new JWSHeader.Builder(JWSAlgorithm.HS256).keyID("1").build(), new Payload("Hello, world!"));
+
+		JOSEInstrumentation.setListener(new JFREventListener());
+
+		File file = File.createTempFile("jose", ".jfr");
+
+		try (Recording recording = new Recording()) {
+
+			recording.enable("com.nimbusds.jose.Operation");
+			recording.enable("com.nimbusds.jose.Retrieval");
+			recording.start();
+
+			jwsObject.sign(new MACSigner(secret));
+			assertTrue(JWSObject.parse(jwsObject.serialize()).verify(new MACVerifier(secret)));
+
+			recording.stop();
+			recording.dump(file.toPath());
+		}
+
+		List<RecordedEvent> recordedEvents = readOperationEvents(file);
+
+		file.delete();
+
+		assertEquals(2, recordedEvents.size());
+
+		assertEquals("SIGNING", recordedEvents.get(0).getString("operation"));
+		assertEquals("SIGNATURE_VERIFICATION", recordedEvents.get(1).getString("operation"));
+
+		for (RecordedEvent recordedEvent: recordedEvents) {
+			assertEquals("HS256", recordedEvent.getString("algorithm"));
+			assertNull(recordedEvent.getString("encryptionMethod"));
+			assertEquals("1", recordedEvent.getString("keyID"));
+			assertEquals(jwsObject.getSigningInput().length, recordedEvent.getLong("payloadSize"));
+			assertFalse(recordedEvent.getDuration().isNegative());
+			assertTrue(recordedEvent.getBoolean("success"));
+			assertNull(recordedEvent.getString("failureReason"));
+		}
+	}
+
+
+	public void testNativeDurationCoversOperation()
+		throws Exception {
+
+		JWSObject jwsObject = new JWSObject(new JWSHeader(JWSAlgorithm.HS256), new Payload("Hello, world!"));
+
+		JOSEInstrumentation.setListener(new JFREventListener());
+
+		File file = File.createTempFile("jose", ".jfr");
+
+		try (Recording recording = new Recording()) {
+
+			recording.enable("com.nimbusds.jose.Operation");
+			recording.start();
+
+			jwsObject.sign(new SlowMACSigner(new byte[32]));
+
+			recording.stop();
+			recording.dump(file.toPath());
+		}
+
+		List<RecordedEvent> recordedEvents = readOperationEvents(file);
+
+		file.delete();
+
+		assertEquals(1, recordedEvents.size());
+		assertEquals("SIGNING", recordedEvents.get(0).getString("operation"));
+		assertTrue(recordedEvents.get(0).getDuration().compareTo(Duration.ofMillis(50L)) >= 0);
+	}
+
+
+	public void testThreshold()
+		throws Exception {
+
+		JOSEInstrumentation.setListener(new JFREventListener());
+
+		File file = File.createTempFile("jose", ".jfr");
+
+		try (Recording recording = new Recording()) {
+
+			recording.enable("com.nimbusds.jose.Operation").withThreshold(Duration.ofMillis(20L));
+			recording.start();
+
+			new JWSObject(new JWSHeader(JWSAlgorithm.HS256), new Payload("fast")).sign(new MACSigner(new byte[32]));
+			new JWSObject(new JWSHeader(JWSAlgorithm.HS256), new Payload("slow")).sign(new SlowMACSigner(new byte[32]));
+
+			recording.stop();
+			recording.dump(file.toPath());
+		}
+
+		List<RecordedEvent> recordedEvents = readOperationEvents(file);
+
+		file.delete();
+
+		assertEquals(1, recordedEvents.size());
+		// Only the slow signing passed the threshold
+		assertTrue(recordedEvents.get(0).getDuration().compareTo(Duration.ofMillis(50L)) >= 0);
+	}
+}
@@ -36,7 +36,7 @@ import com.nimbusds.jose.util.JSONObjectUtils;
  * parameters}; these will be serialised and parsed along the registered ones.
  *
  * @author Vladimir Dzhuvinov
- * @version 2014-08-21
+ * @version 2026-10-18
  */
 public abstract class Header implements Serializable {
 
@@ -308,7 +308,7 @@ public abstract class Header implements Serializable {
 	 */
 	public String toString() {
 
-		return toJSONObject().toString();
+		return JSONObjectUtils.toJSONString(toJSONObject());
 	}
 
 
@@ -326,7 +326,7 @@ public abstract class Header implements Serializable {
 		if (parsedBase64URL == null) {
 
 			// Header was created from scratch, return new Base64URL
-			return Base64URL.encode(toString());
+			return Base64URL.encode(JSONObjectUtils.toJSONBytes(toJSONObject()));
 
 		} else {
 
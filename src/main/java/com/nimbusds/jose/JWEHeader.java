@@ -76,7 +76,7 @@ import com.nimbusds.jose.util.X509CertChainUtils;
  * </pre>
  *
  * @author Vladimir Dzhuvinov
- * @version 2017-04-09
+ * @version 2026-10-18
  */
 @Immutable
 public final class JWEHeader extends CommonSEHeader {
@@ -214,7 +214,7 @@ public final class JWEHeader extends CommonSEHeader {
 		/**
 		 * The ephemeral public key.
 		 */
-		private ECKey epk;
+		private JWK epk;
 
 
 		/**
@@ -318,7 +318,7 @@ public final class JWEHeader extends CommonSEHeader {
 			x5c = jweHeader.getX509CertChain();
 			kid = jweHeader.getKeyID();
 
-			epk = jweHeader.getEphemeralPublicKey();
+			epk = jweHeader.getEphemeralPublicJWK();
 			zip = jweHeader.getCompressionAlgorithm();
 			apu = jweHeader.getAgreementPartyUInfo();
 			apv = jweHeader.getAgreementPartyVInfo();
@@ -501,6 +501,24 @@ public final class JWEHeader extends CommonSEHeader {
 		}
 
 
+		/**
+		 * Sets the Ephemeral Public Key ({@code epk}) parameter as a
+		 * generic JWK. Use this method for an
+		 * {@link com.nimbusds.jose.jwk.OctetKeyPair OKP} ephemeral key,
+		 * such as X25519.
+		 *
+		 * @param epk The Ephemeral Public Key parameter, an EC JWK or
+		 *            an OKP JWK, {@code null} if not specified.
+		 *
+		 * @return This builder.
+		 */
+		public Builder ephemeralPublicJWK(final JWK epk) {
+
+			this.epk = epk;
+			return this;
+		}
+
+
 		/**
 		 * Sets the compression algorithm ({@code zip}) parameter.
 		 *
@@ -698,7 +716,7 @@ public final class JWEHeader extends CommonSEHeader {
 	/**
 	 * The ephemeral public key ({@code epk}) parameter.
 	 */
-	private final ECKey epk;
+	private final JWK epk;
 
 
 	/**
@@ -842,6 +860,89 @@ public final class JWEHeader extends CommonSEHeader {
 			 final Map<String,Object> customParams,
 			 final Base64URL parsedBase64URL) {
 
+		this(alg, enc, typ, cty, crit, jku, jwk, x5u, x5t, x5t256, x5c, kid,
+			(JWK)epk, zip, apu, apv, p2s, p2c, iv, tag, customParams, parsedBase64URL);
+	}
+
+
+	/**
+	 * Creates a new JSON Web Encryption (JWE) header.
+	 *
+	 * <p>Note: Use {@link PlainHeader} to create a header with algorithm
+	 * {@link Algorithm#NONE none}.
+	 *
+	 * @param alg             The JWE algorithm ({@code alg}) parameter.
+	 *                        Must not be "none" or {@code null}.
+	 * @param enc             The encryption method parameter. Must not be
+	 *                        {@code null}.
+	 * @param typ             The type ({@code typ}) parameter,
+	 *                        {@code null} if not specified.
+	 * @param cty             The content type ({@code cty}) parameter,
+	 *                        {@code null} if not specified.
+	 * @param crit            The names of the critical header
+	 *                        ({@code crit}) parameters, empty set or
+	 *                        {@code null} if none.
+	 * @param jku             The JSON Web Key (JWK) Set URL ({@code jku})
+	 *                        parameter, {@code null} if not specified.
+	 * @param jwk             The X.509 certificate URL ({@code jwk})
+	 *                        parameter, {@code null} if not specified.
+	 * @param x5u             The X.509 certificate URL parameter
+	 *                        ({@code x5u}), {@code null} if not specified.
+	 * @param x5t             The X.509 certificate SHA-1 thumbprint
+	 *                        ({@code x5t}) parameter, {@code null} if not
+	 *                        specified.
+	 * @param x5t256          The X.509 certificate SHA-256 thumbprint
+	 *                        ({@code x5t#S256}) parameter, {@code null} if
+	 *                        not specified.
+	 * @param x5c             The X.509 certificate chain ({@code x5c})
+	 *                        parameter, {@code null} if not specified.
+	 * @param kid             The key ID ({@code kid}) parameter,
+	 *                        {@code null} if not specified.
+	 * @param epk             The Ephemeral Public Key ({@code epk})
+	 *                        parameter, an EC JWK or an OKP JWK,
+	 *                        {@code null} if not specified.
+	 * @param zip             The compression algorithm ({@code zip})
+	 *                        parameter, {@code null} if not specified.
+	 * @param apu             The agreement PartyUInfo ({@code apu})
+	 *                        parameter, {@code null} if not specified.
+	 * @param apv             The agreement PartyVInfo ({@code apv})
+	 *                        parameter, {@code null} if not specified.
+	 * @param p2s             The PBES2 salt ({@code p2s}) parameter,
+	 *                        {@code null} if not specified.
+	 * @param p2c             The PBES2 count ({@code p2c}) parameter, zero
+	 *                        if not specified. Must not be negative.
+	 * @param iv              The initialisation vector ({@code iv})
+	 *                        parameter, {@code null} if not specified.
+	 * @param tag             The authentication tag ({@code tag})
+	 *                        parameter, {@code null} if not specified.
+	 * @param customParams    The custom parameters, empty map or
+	 *                        {@code null} if none.
+	 * @param parsedBase64URL The parsed Base64URL, {@code null} if the
+	 *                        header is created from scratch.
+	 */
+	private JWEHeader(final Algorithm alg,
+			 final EncryptionMethod enc,
+			 final JOSEObjectType typ,
+			 final String cty,
+			 final Set<String> crit,
+			 final URI jku,
+			 final JWK jwk,
+			 final URI x5u,
+			 final Base64URL x5t,
+			 final Base64URL x5t256,
+			 final List<Base64> x5c,
+			 final String kid,
+			 final JWK epk,
+			 final CompressionAlgorithm zip,
+			 final Base64URL apu,
+			 final Base64URL apv,
+			 final Base64URL p2s,
+			 final int p2c,
+			 final Base64URL iv,
+			 final Base64URL tag,
+			 final Map<String,Object> customParams,
+			 final Base64URL parsedBase64URL) {
+
 		super(alg, typ, cty, crit, jku, jwk, x5u, x5t, x5t256, x5c, kid, customParams, parsedBase64URL);
 
 		if (alg.getName().equals(Algorithm.NONE.getName())) {
@@ -885,7 +986,7 @@ public final class JWEHeader extends CommonSEHeader {
 			jweHeader.getX509CertSHA256Thumbprint(),
 			jweHeader.getX509CertChain(),
 			jweHeader.getKeyID(),
-			jweHeader.getEphemeralPublicKey(),
+			jweHeader.getEphemeralPublicJWK(),
 			jweHeader.getCompressionAlgorithm(),
 			jweHeader.getAgreementPartyUInfo(),
 			jweHeader.getAgreementPartyVInfo(),
@@ -936,10 +1037,25 @@ public final class JWEHeader extends CommonSEHeader {
 	 * Gets the Ephemeral Public Key ({@code epk}) parameter.
 	 *
 	 * @return The Ephemeral Public Key parameter, {@code null} if not
-	 *         specified.
+	 *         specified or not an EC JWK.
 	 */
 	public ECKey getEphemeralPublicKey() {
 
+		return epk instanceof ECKey ? (ECKey)epk : null;
+	}
+
+
+	/**
+	 * Gets the Ephemeral Public Key ({@code epk}) parameter as a generic
+	 * JWK. Can be an {@link ECKey EC JWK} or an
+	 * {@link com.nimbusds.jose.jwk.OctetKeyPair OKP JWK}, such as an
+	 * X25519 key.
+	 *
+	 * @return The Ephemeral Public Key parameter, {@code null} if not
+	 *         specified.
+	 */
+	public JWK getEphemeralPublicJWK() {
+
 		return epk;
 	}
 
@@ -1207,7 +1323,7 @@ public final class JWEHeader extends CommonSEHeader {
 			} else if("kid".equals(name)) {
 				header = header.keyID(JSONObjectUtils.getString(jsonObject, name));
 			} else if("epk".equals(name)) {
-				header = header.ephemeralPublicKey(ECKey.parse(JSONObjectUtils.getJSONObject(jsonObject, name)));
+				header = header.ephemeralPublicJWK(JWK.parse(JSONObjectUtils.getJSONObject(jsonObject, name)));
 			} else if("zip".equals(name)) {
 				header = header.compressionAlgorithm(new CompressionAlgorithm(JSONObjectUtils.getString(jsonObject, name)));
 			} else if("apu".equals(name)) {
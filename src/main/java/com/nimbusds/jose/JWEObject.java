@@ -19,17 +19,25 @@ package com.nimbusds.jose;
 
 
 import java.text.ParseException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import net.jcip.annotations.ThreadSafe;
 
+import com.nimbusds.jose.instrumentation.JOSEEvent;
+import com.nimbusds.jose.instrumentation.JOSEInstrumentation;
 import com.nimbusds.jose.util.Base64URL;
 
 
 /**
  * JSON Web Encryption (JWE) secured object. This class is thread-safe.
  *
+ * <p>The state transitions are lock-free, no monitor is held while the
+ * encrypter or decrypter runs, so that blocking key management (e.g.
+ * PKCS#11 or remote) doesn't pin the carrier threads of virtual threads.
+ *
  * @author Vladimir Dzhuvinov
- * @version 2016-04-13
+ * @version 2026-10-18
  */
 @ThreadSafe
 public class JWEObject extends JOSEObject {
@@ -95,9 +103,16 @@ public class JWEObject extends JOSEObject {
 
 
 	/**
-	 * The JWE object state.
+	 * The JWE object state. The other fields are written before the
+	 * state is updated, which publishes them.
+	 */
+	private final AtomicReference<State> state = new AtomicReference<>();
+
+
+	/**
+	 * {@code true} while the JWE object is being encrypted or decrypted.
 	 */
-	private State state;
+	private final AtomicBoolean inTransition = new AtomicBoolean();
 
 
 	/**
@@ -128,7 +143,7 @@ public class JWEObject extends JOSEObject {
 
 		cipherText = null;
 
-		state = State.UNENCRYPTED;
+		state.set(State.UNENCRYPTED);
 	}
 
 
@@ -205,7 +220,7 @@ public class JWEObject extends JOSEObject {
 			authTag = fifthPart;
 		}
 
-		state = State.ENCRYPTED; // but not decrypted yet!
+		state.set(State.ENCRYPTED); // but not decrypted yet!
 
 		setParsedParts(firstPart, secondPart, thirdPart, fourthPart, fifthPart);
 	}
@@ -273,7 +288,7 @@ public class JWEObject extends JOSEObject {
 	 */
 	public State getState() {
 
-		return state;
+		return state.get();
 	}
 
 
@@ -285,7 +300,7 @@ public class JWEObject extends JOSEObject {
 	 */
 	private void ensureUnencryptedState() {
 
-		if (state != State.UNENCRYPTED) {
+		if (state.get() != State.UNENCRYPTED) {
 
 			throw new IllegalStateException("The JWE object must be in an unencrypted state");
 		}
@@ -299,7 +314,7 @@ public class JWEObject extends JOSEObject {
 	 */
 	private void ensureEncryptedState() {
 
-		if (state != State.ENCRYPTED) {
+		if (state.get() != State.ENCRYPTED) {
 
 			throw new IllegalStateException("The JWE object must be in an encrypted state");
 		}
@@ -315,7 +330,9 @@ public class JWEObject extends JOSEObject {
 	 */
 	private void ensureEncryptedOrDecryptedState() {
 
-		if (state != State.ENCRYPTED && state != State.DECRYPTED) {
+		State current = state.get();
+
+		if (current != State.ENCRYPTED && current != State.DECRYPTED) {
 
 			throw new IllegalStateException("The JWE object must be in an encrypted or decrypted state");
 		}
@@ -357,29 +374,63 @@ public class JWEObject extends JOSEObject {
 	 * @throws JOSEException         If the JWE object couldn't be 
 	 *                               encrypted.
 	 */
-	public synchronized void encrypt(final JWEEncrypter encrypter)
+	public void encrypt(final JWEEncrypter encrypter)
 		throws JOSEException {
 
 		ensureUnencryptedState();
 
 		ensureJWEEncrypterSupport(encrypter);
 
+		// Claim the transition, concurrent encrypt calls fail
+		if (! inTransition.compareAndSet(false, true)) {
+			throw new IllegalStateException("The JWE object must be in an unencrypted state");
+		}
+
+		try {
+			ensureUnencryptedState();
+			performEncryption(encrypter);
+		} finally {
+			inTransition.set(false);
+		}
+	}
+
+
+	/**
+	 * Encrypts this JWE object with the specified encrypter and sets the
+	 * {@link State#ENCRYPTED encrypted} state. Must be called with the
+	 * transition claimed.
+	 *
+	 * @param encrypter The JWE encrypter. Must not be {@code null}.
+	 *
+	 * @throws JOSEException If the JWE object couldn't be encrypted.
+	 */
+	private void performEncryption(final JWEEncrypter encrypter)
+		throws JOSEException {
+
+		final JOSEInstrumentation.Stage stage = JOSEInstrumentation.start(JOSEEvent.Type.ENCRYPTION);
+
+		final byte[] clearText = getPayload().toBytes();
+
 		JWECryptoParts parts;
 
 		try {
-			parts = encrypter.encrypt(getHeader(), getPayload().toBytes());
+			parts = encrypter.encrypt(getHeader(), clearText);
 
 		} catch (JOSEException e) {
 
+			JOSEInstrumentation.reportFailure(stage, getHeader(), clearText.length, e);
 			throw e;
 		
 		} catch (Exception e) {
 
 			// Prevent throwing unchecked exceptions at this point,
 			// see issue #20
+			JOSEInstrumentation.reportFailure(stage, getHeader(), clearText.length, e);
 			throw new JOSEException(e.getMessage(), e);
 		}
 
+		JOSEInstrumentation.report(stage, getHeader(), clearText.length, null);
+
 		// Check if the header has been modified
 		if (parts.getHeader() != null) {
 			header = parts.getHeader();
@@ -390,7 +441,7 @@ public class JWEObject extends JOSEObject {
 		cipherText = parts.getCipherText();
 		authTag = parts.getAuthenticationTag();
 
-		state = State.ENCRYPTED;
+		state.set(State.ENCRYPTED);
 	}
 
 
@@ -406,11 +457,39 @@ public class JWEObject extends JOSEObject {
 	 * @throws JOSEException         If the JWE object couldn't be 
 	 *                               decrypted.
 	 */
-	public synchronized void decrypt(final JWEDecrypter decrypter)
+	public void decrypt(final JWEDecrypter decrypter)
 		throws JOSEException {
 
 		ensureEncryptedState();
 
+		// Claim the transition, concurrent decrypt calls fail
+		if (! inTransition.compareAndSet(false, true)) {
+			throw new IllegalStateException("The JWE object must be in an encrypted state");
+		}
+
+		try {
+			ensureEncryptedState();
+			performDecryption(decrypter);
+		} finally {
+			inTransition.set(false);
+		}
+	}
+
+
+	/**
+	 * Decrypts this JWE object with the specified decrypter and sets the
+	 * {@link State#DECRYPTED decrypted} state. Must be called with the
+	 * transition claimed.
+	 *
+	 * @param decrypter The JWE decrypter. Must not be {@code null}.
+	 *
+	 * @throws JOSEException If the JWE object couldn't be decrypted.
+	 */
+	private void performDecryption(final JWEDecrypter decrypter)
+		throws JOSEException {
+
+		final JOSEInstrumentation.Stage stage = JOSEInstrumentation.start(JOSEEvent.Type.DECRYPTION);
+
 		try {
 			setPayload(new Payload(decrypter.decrypt(getHeader(), 
 					       getEncryptedKey(), 
@@ -420,16 +499,22 @@ public class JWEObject extends JOSEObject {
 
 		} catch (JOSEException e) {
 
+			JOSEInstrumentation.reportFailure(stage, getHeader(), e);
 			throw e;
 
 		} catch (Exception e) {
 
 			// Prevent throwing unchecked exceptions at this point,
 			// see issue #20
+			JOSEInstrumentation.reportFailure(stage, getHeader(), e);
 			throw new JOSEException(e.getMessage(), e);
 		}
 
-		state = State.DECRYPTED;
+		if (stage != null) {
+			JOSEInstrumentation.report(stage, getHeader(), getPayload().toBytes().length, null);
+		}
+
+		state.set(State.DECRYPTED);
 	}
 
 
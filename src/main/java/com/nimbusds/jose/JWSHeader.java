@@ -54,6 +54,10 @@ import net.minidev.json.JSONObject;
  * <p>The header may also include {@link #getCustomParams custom
  * parameters}; these will be serialised and parsed along the registered ones.
  *
+ * <p>The {@code b64} parameter for unencoded payloads
+ * (<a href="https://tools.ietf.org/html/rfc7797">RFC 7797</a>) is kept
+ * among the custom parameters, see {@link #isBase64URLEncodePayload}.
+ *
  * <p>Example header of a JSON Web Signature (JWS) object using the 
  * {@link JWSAlgorithm#HS256 HMAC SHA-256 algorithm}:
  *
@@ -64,7 +68,7 @@ import net.minidev.json.JSONObject;
  * </pre>
  *
  * @author Vladimir Dzhuvinov
- * @version 2017-04-09
+ * @version 2026-10-18
  */
 @Immutable
 public final class JWSHeader extends CommonSEHeader {
@@ -425,6 +429,33 @@ public final class JWSHeader extends CommonSEHeader {
 		}
 
 
+		/**
+		 * Sets the base64url-encode payload ({@code b64}) parameter
+		 * (RFC 7797). If {@code false} the parameter should also be
+		 * marked {@link #criticalParams critical}.
+		 *
+		 * @param b64 {@code true} to base64url-encode the payload (the
+		 *            default, the parameter is omitted), {@code false}
+		 *            for an unencoded payload.
+		 *
+		 * @return This builder.
+		 */
+		public Builder base64URLEncodePayload(final boolean b64) {
+
+			Map<String,Object> params = customParams != null ? new HashMap<>(customParams) : new HashMap<String,Object>();
+
+			if (b64) {
+				params.remove("b64");
+			} else {
+				params.put("b64", false);
+			}
+
+			customParams = params;
+
+			return this;
+		}
+
+
 		/**
 		 * Sets the custom (non-registered) parameters. The values must
 		 * be serialisable to a JSON entity, otherwise will be ignored.
@@ -592,6 +623,20 @@ public final class JWSHeader extends CommonSEHeader {
 	}
 
 
+	/**
+	 * Returns the base64url-encode payload ({@code b64}) parameter
+	 * (RFC 7797).
+	 *
+	 * @return {@code true} if the payload is base64url-encoded (the
+	 *         default, also if the parameter is not specified),
+	 *         {@code false} for an unencoded payload.
+	 */
+	public boolean isBase64URLEncodePayload() {
+
+		return ! Boolean.FALSE.equals(getCustomParam("b64"));
+	}
+
+
 	/**
 	 * Parses a JWS header from the specified JSON object.
 	 *
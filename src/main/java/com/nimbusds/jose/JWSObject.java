@@ -19,7 +19,11 @@ package com.nimbusds.jose;
 
 
 import java.text.ParseException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
+import com.nimbusds.jose.instrumentation.JOSEEvent;
+import com.nimbusds.jose.instrumentation.JOSEInstrumentation;
 import com.nimbusds.jose.util.Base64URL;
 import com.nimbusds.jose.util.StandardCharset;
 import net.jcip.annotations.ThreadSafe;
@@ -28,8 +32,12 @@ import net.jcip.annotations.ThreadSafe;
 /**
  * JSON Web Signature (JWS) secured object. This class is thread-safe.
  *
+ * <p>The state transitions are lock-free, no monitor is held while the
+ * signer or verifier runs, so that blocking signers (e.g. PKCS#11 or
+ * remote) don't pin the carrier threads of virtual threads.
+ *
  * @author Vladimir Dzhuvinov
- * @version 2016-07-26
+ * @version 2026-10-18
  */
 @ThreadSafe
 public class JWSObject extends JOSEObject {
@@ -84,13 +92,19 @@ public class JWSObject extends JOSEObject {
 	/**
 	 * The signature, {@code null} if not signed.
 	 */
-	private Base64URL signature;
+	private volatile Base64URL signature;
 
 
 	/**
 	 * The JWS object state.
 	 */
-	private State state;
+	private final AtomicReference<State> state = new AtomicReference<>();
+
+
+	/**
+	 * {@code true} while the JWS object is being signed.
+	 */
+	private final AtomicBoolean signing = new AtomicBoolean();
 
 
 	/**
@@ -121,7 +135,7 @@ public class JWSObject extends JOSEObject {
 
 		signature = null;
 
-		state = State.UNSIGNED;
+		state.set(State.UNSIGNED);
 	}
 
 
@@ -170,7 +184,7 @@ public class JWSObject extends JOSEObject {
 
 		signature = thirdPart;
 
-		state = State.SIGNED; // but signature not verified yet!
+		state.set(State.SIGNED); // but signature not verified yet!
 
 		setParsedParts(firstPart, secondPart, thirdPart);
 	}
@@ -241,7 +255,7 @@ public class JWSObject extends JOSEObject {
 	 */
 	public State getState() {
 
-		return state;
+		return state.get();
 	}
 
 
@@ -252,7 +266,7 @@ public class JWSObject extends JOSEObject {
 	 */
 	private void ensureUnsignedState() {
 
-		if (state != State.UNSIGNED) {
+		if (state.get() != State.UNSIGNED) {
 
 			throw new IllegalStateException("The JWS object must be in an unsigned state");
 		}
@@ -268,7 +282,9 @@ public class JWSObject extends JOSEObject {
 	 */
 	private void ensureSignedOrVerifiedState() {
 
-		if (state != State.SIGNED && state != State.VERIFIED) {
+		State current = state.get();
+
+		if (current != State.SIGNED && current != State.VERIFIED) {
 
 			throw new IllegalStateException("The JWS object must be in a signed or verified state");
 		}
@@ -302,28 +318,66 @@ public class JWSObject extends JOSEObject {
 	 *                               {@link State#UNSIGNED unsigned state}.
 	 * @throws JOSEException         If the JWS object couldn't be signed.
 	 */
-	public synchronized void sign(final JWSSigner signer)
+	public void sign(final JWSSigner signer)
 		throws JOSEException {
 
 		ensureUnsignedState();
 
 		ensureJWSSignerSupport(signer);
 
+		// Claim the transition, concurrent sign calls fail
+		if (! signing.compareAndSet(false, true)) {
+			throw new IllegalStateException("The JWS object must be in an unsigned state");
+		}
+
 		try {
-			signature = signer.sign(getHeader(), getSigningInput());
+			ensureUnsignedState();
+			signature = computeSignature(signer);
+			state.set(State.SIGNED);
+		} finally {
+			signing.set(false);
+		}
+	}
+
+
+	/**
+	 * Computes the signature of this JWS object with the specified
+	 * signer.
+	 *
+	 * @param signer The JWS signer. Must not be {@code null}.
+	 *
+	 * @return The signature.
+	 *
+	 * @throws JOSEException If the JWS object couldn't be signed.
+	 */
+	private Base64URL computeSignature(final JWSSigner signer)
+		throws JOSEException {
+
+		final JOSEInstrumentation.Stage stage = JOSEInstrumentation.start(JOSEEvent.Type.SIGNING);
+
+		final byte[] signingInput = getSigningInput();
+
+		final Base64URL computedSignature;
+
+		try {
+			computedSignature = signer.sign(getHeader(), signingInput);
 
 		} catch (JOSEException e) {
 
+			JOSEInstrumentation.reportFailure(stage, getHeader(), signingInput.length, e);
 			throw e;
 				
 		} catch (Exception e) {
 
 			// Prevent throwing unchecked exceptions at this point,
 			// see issue #20
+			JOSEInstrumentation.reportFailure(stage, getHeader(), signingInput.length, e);
 			throw new JOSEException(e.getMessage(), e);
 		}
 
-		state = State.SIGNED;
+		JOSEInstrumentation.report(stage, getHeader(), signingInput.length, null);
+
+		return computedSignature;
 	}
 
 
@@ -342,30 +396,38 @@ public class JWSObject extends JOSEObject {
 	 * @throws JOSEException         If the JWS object couldn't be
 	 *                               verified.
 	 */
-	public synchronized boolean verify(final JWSVerifier verifier)
+	public boolean verify(final JWSVerifier verifier)
 		throws JOSEException {
 
 		ensureSignedOrVerifiedState();
 
+		final JOSEInstrumentation.Stage stage = JOSEInstrumentation.start(JOSEEvent.Type.SIGNATURE_VERIFICATION);
+
+		final byte[] signingInput = getSigningInput();
+
 		boolean verified;
 
 		try {
-			verified = verifier.verify(getHeader(), getSigningInput(), getSignature());
+			verified = verifier.verify(getHeader(), signingInput, getSignature());
 
 		} catch (JOSEException e) {
 
+			JOSEInstrumentation.reportFailure(stage, getHeader(), signingInput.length, e);
 			throw e;
 
 		} catch (Exception e) {
 
 			// Prevent throwing unchecked exceptions at this point,
 			// see issue #20
+			JOSEInstrumentation.reportFailure(stage, getHeader(), signingInput.length, e);
 			throw new JOSEException(e.getMessage(), e);
 		}
 
+		JOSEInstrumentation.report(stage, getHeader(), signingInput.length, verified ? null : JOSEEvent.Reason.INVALID_SIGNATURE);
+
 		if (verified) {
 
-			state = State.VERIFIED;
+			state.compareAndSet(State.SIGNED, State.VERIFIED);
 		}
 
 		return verified;
@@ -20,6 +20,8 @@ package com.nimbusds.jose;
 
 import java.io.Serializable;
 import java.text.ParseException;
+import java.util.Map;
+import java.util.Set;
 
 import com.nimbusds.jose.util.Base64URL;
 import com.nimbusds.jose.util.JSONObjectUtils;
@@ -48,7 +50,7 @@ import net.minidev.json.JSONObject;
  * </pre>
  *
  * @author Vladimir Dzhuvinov
- * @version 2016-07-26
+ * @version 2026-10-18
  */
 @Immutable
 public final class Payload implements Serializable {
@@ -342,15 +344,79 @@ public final class Payload implements Serializable {
 
 		// Convert
 
-		String s = toString();
+		try {
+			if (bytes != null) {
+				return JSONObjectUtils.parse(bytes);
+			}
+
+			if (base64URL != null) {
+				return JSONObjectUtils.parse(base64URL.decode());
+			}
+
+			String s = toString();
 
-		if (s == null) {
-			// to string conversion failed
+			if (s == null) {
+				// to string conversion failed
+				return null;
+			}
+
+			return JSONObjectUtils.parse(s);
+
+		} catch (ParseException e) {
+			// Payload not a JSON object
 			return null;
 		}
+	}
+
+
+	/**
+	 * Returns a JSON object representation of selected top-level members
+	 * of this payload. Intended for routing and pre-checks that need only
+	 * a few members of a large payload: with the default JSON provider
+	 * the payload bytes are scanned in a single pass and the values of
+	 * other members are not materialised.
+	 *
+	 * @param memberNames The names of the members to return. Must not be
+	 *                    {@code null}.
+	 *
+	 * @return The JSON object with the selected members found in the
+	 *         payload, {@code null} if the payload couldn't be converted
+	 *         to a JSON object.
+	 */
+	public JSONObject toJSONObject(final Set<String> memberNames) {
+
+		if (jsonObject != null) {
+
+			JSONObject selected = new JSONObject();
+
+			for (Map.Entry<String,Object> member: jsonObject.entrySet()) {
+				if (memberNames.contains(member.getKey())) {
+					selected.put(member.getKey(), member.getValue());
+				}
+			}
+
+			return selected;
+		}
+
+		final byte[] json;
+
+		if (bytes != null) {
+			json = bytes;
+		} else if (base64URL != null) {
+			json = base64URL.decode();
+		} else {
+			String s = toString();
+
+			if (s == null) {
+				// to string conversion failed
+				return null;
+			}
+
+			json = stringToByteArray(s);
+		}
 
 		try {
-			return JSONObjectUtils.parse(s);
+			return JSONObjectUtils.parse(json, memberNames);
 
 		} catch (ParseException e) {
 			// Payload not a JSON object
@@ -383,7 +449,7 @@ public final class Payload implements Serializable {
 
 		} else if (jsonObject != null) {
 
-			return jsonObject.toString();
+			return JSONObjectUtils.toJSONString(jsonObject);
 
 		} else if (bytes != null) {
 
@@ -415,6 +481,10 @@ public final class Payload implements Serializable {
 
 		}
 
+		if (jsonObject != null) {
+			return JSONObjectUtils.toJSONBytes(jsonObject);
+		}
+
 		return stringToByteArray(toString());
 	}
 
@@ -18,11 +18,11 @@
 package com.nimbusds.jose.crypto;
 
 
-import java.nio.ByteBuffer;
 import java.security.Provider;
 import java.security.SecureRandom;
 import java.util.Arrays;
 import javax.crypto.Cipher;
+import javax.crypto.Mac;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
@@ -46,7 +46,7 @@ import net.jcip.annotations.ThreadSafe;
  *
  * @author Vladimir Dzhuvinov
  * @author Axel Nennker
- * @version 2017-05-30
+ * @version 2026-10-18
  */
 @ThreadSafe
 class AESCBC {
@@ -88,18 +88,46 @@ class AESCBC {
 	 *
 	 * @return The AES/CBC/PKCS5Padding cipher.
 	 */
-	private static Cipher createAESCBCCipher(final SecretKey secretKey,
-		                                 final boolean forEncryption,
-		                                 final byte[] iv,
-		                                 final Provider provider)
+	public static Cipher createAESCBCCipher(final SecretKey secretKey,
+		                                final boolean forEncryption,
+		                                final byte[] iv,
+		                                final Provider provider)
+		throws JOSEException {
+
+		return createAESCBCCipher(secretKey, forEncryption, iv, provider, null);
+	}
+
+
+	/**
+	 * Creates a new AES/CBC/PKCS5Padding cipher, or initialises a pooled
+	 * cipher instance from the specified key-bound context. The pooled
+	 * cipher should be released back to the context after the operation.
+	 *
+	 * @param secretKey     The AES key. Must not be {@code null}.
+	 * @param forEncryption If {@code true} creates an encryption cipher,
+	 *                      else creates a decryption cipher.
+	 * @param iv            The initialisation vector (IV). Must not be
+	 *                      {@code null}.
+	 * @param provider      The JCA provider, or {@code null} to use the
+	 *                      default one.
+	 * @param context       The cipher context bound to the AES key,
+	 *                      {@code null} if none.
+	 *
+	 * @return The AES/CBC/PKCS5Padding cipher.
+	 */
+	public static Cipher createAESCBCCipher(final SecretKey secretKey,
+		                                final boolean forEncryption,
+		                                final byte[] iv,
+		                                final Provider provider,
+		                                final KeyBoundCipherContext context)
 		throws JOSEException {
 
 		Cipher cipher;
 
 		try {
-			cipher = CipherHelper.getInstance("AES/CBC/PKCS5Padding", provider);
+			cipher = CipherHelper.getInstance("AES/CBC/PKCS5Padding", provider, context);
 
-			SecretKeySpec keyspec = new SecretKeySpec(secretKey.getEncoded(), "AES");
+			SecretKey keyspec = "AES".equals(secretKey.getAlgorithm()) ? secretKey : new SecretKeySpec(secretKey.getEncoded(), "AES");
 
 			IvParameterSpec ivSpec = new IvParameterSpec(iv);
 
@@ -141,7 +169,34 @@ class AESCBC {
 		                     final Provider provider)
 		throws JOSEException {
 
-		Cipher cipher = createAESCBCCipher(secretKey, true, iv, provider);
+		return encrypt(secretKey, iv, plainText, provider, null);
+	}
+
+
+	/**
+	 * Encrypts the specified plain text using AES/CBC/PKCS5Padding.
+	 *
+	 * @param secretKey The AES key. Must not be {@code null}.
+	 * @param iv        The initialisation vector (IV). Must not be
+	 *                  {@code null}.
+	 * @param plainText The plain text. Must not be {@code null}.
+	 * @param provider  The JCA provider, or {@code null} to use the
+	 *                  default one.
+	 * @param context   The cipher context bound to the AES key,
+	 *                  {@code null} if none.
+	 *
+	 * @return The cipher text.
+	 *
+	 * @throws JOSEException If encryption failed.
+	 */
+	public static byte[] encrypt(final SecretKey secretKey,
+		                     final byte[] iv,
+		                     final byte[] plainText,
+		                     final Provider provider,
+		                     final KeyBoundCipherContext context)
+		throws JOSEException {
+
+		Cipher cipher = createAESCBCCipher(secretKey, true, iv, provider, context);
 
 		try {
 			return cipher.doFinal(plainText);	
@@ -149,10 +204,96 @@ class AESCBC {
 		} catch (Exception e) {
 
 			throw new JOSEException(e.getMessage(), e);
+
+		} finally {
+			CipherHelper.release("AES/CBC/PKCS5Padding", provider, cipher, context);
 		}
 	}
 
 
+	/**
+	 * Gets the AES/CBC/HMAC-SHA2 composite key for the specified secret
+	 * key.
+	 *
+	 * @param secretKey The secret key. Must be 256, 384 or 512 bits long.
+	 *                  Must not be {@code null}.
+	 * @param context   The cipher context bound to the secret key,
+	 *                  {@code null} if none.
+	 *
+	 * @return The composite key, reused from the context if set.
+	 *
+	 * @throws JOSEException If the key length is invalid.
+	 */
+	private static CompositeKey getCompositeKey(final SecretKey secretKey,
+						    final KeyBoundCipherContext context)
+		throws JOSEException {
+
+		if (context != null) {
+			return context.getCompositeKey(secretKey);
+		}
+
+		return new CompositeKey(secretKey);
+	}
+
+
+	/**
+	 * Computes the full AES/CBC/HMAC-SHA2 MAC over the AAD, the IV, the
+	 * cipher text and the AAD length (AL). The inputs are fed to the MAC
+	 * one after the other, without concatenating them into a new array.
+	 *
+	 * @param compositeKey The composite key. Must not be {@code null}.
+	 * @param aad          The additional authenticated data. Must not be
+	 *                     {@code null}.
+	 * @param iv           The initialisation vector (IV). Must not be
+	 *                     {@code null}.
+	 * @param cipherText   The cipher text. Must not be {@code null}.
+	 * @param macProvider  The JCA provider for the MAC computation, or
+	 *                     {@code null} to use the default one.
+	 * @param context      The cipher context bound to the secret key,
+	 *                     {@code null} if none. If set the MAC is taken
+	 *                     from its pool already initialised.
+	 *
+	 * @return The full (untruncated) MAC.
+	 *
+	 * @throws JOSEException If the MAC computation failed.
+	 */
+	private static byte[] computeMAC(final CompositeKey compositeKey,
+					 final byte[] aad,
+					 final byte[] iv,
+					 final byte[] cipherText,
+					 final Provider macProvider,
+					 final KeyBoundCipherContext context)
+		throws JOSEException {
+
+		final Mac mac;
+
+		if (context != null) {
+			mac = context.getMac(compositeKey.getMACKey(), macProvider);
+		} else {
+			mac = HMAC.getInitMac(compositeKey.getMACKey(), macProvider);
+		}
+
+		// AAD length in bits as 64 bit big endian integer
+		final long al = ByteUtils.safeBitLength(aad);
+
+		mac.update(aad);
+		mac.update(iv);
+		mac.update(cipherText);
+
+		for (int shift = 56; shift >= 0; shift -= 8) {
+			mac.update((byte)(al >>> shift));
+		}
+
+		final byte[] hmac = mac.doFinal();
+
+		if (context != null) {
+			context.releaseMac(compositeKey.getMACKey(), macProvider, mac);
+		}
+
+		return hmac;
+	}
+
+
 	/**
 	 * Encrypts the specified plain text using AES/CBC/PKCS5Padding/
 	 * HMAC-SHA2.
@@ -185,19 +326,49 @@ class AESCBC {
 								   final Provider macProvider)
 		throws JOSEException {
 
+		return encryptAuthenticated(secretKey, iv, plainText, aad, ceProvider, macProvider, null);
+	}
+
+
+	/**
+	 * Encrypts the specified plain text using AES/CBC/PKCS5Padding/
+	 * HMAC-SHA2.
+	 *
+	 * @param secretKey   The secret key. Must be 256 or 512 bits long.
+	 *                    Must not be {@code null}.
+	 * @param iv          The initialisation vector (IV). Must not be
+	 *                    {@code null}.
+	 * @param plainText   The plain text. Must not be {@code null}.
+	 * @param aad         The additional authenticated data. Must not be
+	 *                    {@code null}.
+	 * @param ceProvider  The JCA provider for the content encryption, or
+	 *                    {@code null} to use the default one.
+	 * @param macProvider The JCA provider for the MAC computation, or
+	 *                    {@code null} to use the default one.
+	 * @param context     The cipher context bound to the secret key,
+	 *                    {@code null} if none.
+	 *
+	 * @return The authenticated cipher text.
+	 *
+	 * @throws JOSEException If encryption failed.
+	 */
+	public static AuthenticatedCipherText encryptAuthenticated(final SecretKey secretKey,
+		                                                   final byte[] iv,
+		                                                   final byte[] plainText,
+		                                                   final byte[] aad,
+		                                                   final Provider ceProvider,
+		                                                   final Provider macProvider,
+		                                                   final KeyBoundCipherContext context)
+		throws JOSEException {
+
 		// Extract MAC + AES/CBC keys from input secret key
-		CompositeKey compositeKey = new CompositeKey(secretKey);
+		CompositeKey compositeKey = getCompositeKey(secretKey, context);
 
 		// Encrypt plain text
-		byte[] cipherText = encrypt(compositeKey.getAESKey(), iv, plainText, ceProvider);
-
-		// AAD length to 8 byte array
-		byte[] al = AAD.computeLength(aad);
+		byte[] cipherText = encrypt(compositeKey.getAESKey(), iv, plainText, ceProvider, context);
 
 		// Do MAC
-		int hmacInputLength = aad.length + iv.length + cipherText.length + al.length;
-		byte[] hmacInput = ByteBuffer.allocate(hmacInputLength).put(aad).put(iv).put(cipherText).put(al).array();
-		byte[] hmac = HMAC.compute(compositeKey.getMACKey(), hmacInput, macProvider);
+		byte[] hmac = computeMAC(compositeKey, aad, iv, cipherText, macProvider, context);
 		byte[] authTag = Arrays.copyOf(hmac, compositeKey.getTruncatedMACByteLength());
 
 		return new AuthenticatedCipherText(cipherText, authTag);
@@ -286,7 +457,34 @@ class AESCBC {
 		                     final Provider provider)
 		throws JOSEException {
 
-		Cipher cipher = createAESCBCCipher(secretKey, false, iv, provider);
+		return decrypt(secretKey, iv, cipherText, provider, null);
+	}
+
+
+	/**
+	 * Decrypts the specified cipher text using AES/CBC/PKCS5Padding.
+	 *
+	 * @param secretKey  The AES key. Must not be {@code null}.
+	 * @param iv         The initialisation vector (IV). Must not be
+	 *                   {@code null}.
+	 * @param cipherText The cipher text. Must not be {@code null}.
+	 * @param provider   The JCA provider, or {@code null} to use the
+	 *                   default one.
+	 * @param context    The cipher context bound to the AES key,
+	 *                   {@code null} if none.
+	 *
+	 * @return The decrypted plain text.
+	 *
+	 * @throws JOSEException If decryption failed.
+	 */
+	public static byte[] decrypt(final SecretKey secretKey,
+		                     final byte[] iv,
+		                     final byte[] cipherText,
+		                     final Provider provider,
+		                     final KeyBoundCipherContext context)
+		throws JOSEException {
+
+		Cipher cipher = createAESCBCCipher(secretKey, false, iv, provider, context);
 
 		try {
 			return cipher.doFinal(cipherText);
@@ -294,6 +492,9 @@ class AESCBC {
 		} catch (Exception e) {
 
 			throw new JOSEException(e.getMessage(), e);
+
+		} finally {
+			CipherHelper.release("AES/CBC/PKCS5Padding", provider, cipher, context);
 		}
 	}
 
@@ -332,30 +533,56 @@ class AESCBC {
 						  final Provider macProvider)
 		throws JOSEException {
 
+		return decryptAuthenticated(secretKey, iv, cipherText, aad, authTag, ceProvider, macProvider, null);
+	}
 
-		// Extract MAC + AES/CBC keys from input secret key
-		CompositeKey compositeKey = new CompositeKey(secretKey);
 
-		// AAD length to 8 byte array
-		byte[] al = AAD.computeLength(aad);
+	/**
+	 * Decrypts the specified cipher text using AES/CBC/PKCS5Padding/
+	 * HMAC-SHA2.
+	 *
+	 * @param secretKey   The secret key. Must be 256 or 512 bits long.
+	 *                    Must not be {@code null}.
+	 * @param iv          The initialisation vector (IV). Must not be
+	 *                    {@code null}.
+	 * @param cipherText  The cipher text. Must not be {@code null}.
+	 * @param aad         The additional authenticated data. Must not be
+	 *                    {@code null}.
+	 * @param authTag     The authentication tag. Must not be {@code null}.
+	 * @param ceProvider  The JCA provider for the content encryption, or
+	 *                    {@code null} to use the default one.
+	 * @param macProvider The JCA provider for the MAC computation, or
+	 *                    {@code null} to use the default one.
+	 * @param context     The cipher context bound to the secret key,
+	 *                    {@code null} if none.
+	 *
+	 * @return The decrypted plain text.
+	 *
+	 * @throws JOSEException If decryption failed.
+	 */
+	public static byte[] decryptAuthenticated(final SecretKey secretKey,
+		                                  final byte[] iv,
+		                                  final byte[] cipherText,
+		                                  final byte[] aad,
+		                                  final byte[] authTag,
+		                                  final Provider ceProvider,
+		                                  final Provider macProvider,
+		                                  final KeyBoundCipherContext context)
+		throws JOSEException {
+
+		// Extract MAC + AES/CBC keys from input secret key
+		CompositeKey compositeKey = getCompositeKey(secretKey, context);
 
-		// Check MAC
-		int hmacInputLength = aad.length + iv.length + cipherText.length + al.length;
-		byte[] hmacInput = ByteBuffer.allocate(hmacInputLength).
-			put(aad).
-			put(iv).
-			put(cipherText).
-			put(al).
-			array();
-		byte[] hmac = HMAC.compute(compositeKey.getMACKey(), hmacInput, macProvider);
+		// Check MAC, compare the truncated MAC in place
+		byte[] hmac = computeMAC(compositeKey, aad, iv, cipherText, macProvider, context);
 
-		byte[] expectedAuthTag = Arrays.copyOf(hmac, compositeKey.getTruncatedMACByteLength());
+		final int authTagLength = compositeKey.getTruncatedMACByteLength();
 
-		if (! ConstantTimeUtils.areEqual(expectedAuthTag, authTag)) {
+		if (authTag.length != authTagLength || ! ConstantTimeUtils.areEqual(hmac, 0, authTag, 0, authTagLength)) {
 			throw new JOSEException("MAC check failed");
 		}
 
-		return decrypt(compositeKey.getAESKey(), iv, cipherText, ceProvider);
+		return decrypt(compositeKey.getAESKey(), iv, cipherText, ceProvider, context);
 	}
 
 
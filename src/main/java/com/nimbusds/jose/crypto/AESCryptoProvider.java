@@ -56,9 +56,12 @@ import com.nimbusds.jose.util.ByteUtils;
  *     <li>{@link com.nimbusds.jose.EncryptionMethod#A256CBC_HS512_DEPRECATED}
  * </ul>
  *
+ * <p>The key wrap ciphers are pooled and re-initialised with the KEK for
+ * every message, see {@link KeyBoundCipherContext}.
+ *
  * @author Melisa Halsband
  * @author Vladimir Dzhuvinov
- * @version 2015-06-29
+ * @version 2026-10-18
  */
 abstract class AESCryptoProvider extends BaseJWEProvider {
 
@@ -114,6 +117,12 @@ abstract class AESCryptoProvider extends BaseJWEProvider {
 	private final SecretKey kek;
 
 
+	/**
+	 * The pooled key wrap ciphers for the KEK.
+	 */
+	private final KeyBoundCipherContext cipherContext = new KeyBoundCipherContext();
+
+
 	/**
 	 * Returns the compatible JWE algorithms for the specified Key
 	 * Encryption Key (CEK) length.
@@ -164,4 +173,15 @@ abstract class AESCryptoProvider extends BaseJWEProvider {
 
 		return kek;
 	}
+
+
+	/**
+	 * Returns the cipher context bound to the KEK.
+	 *
+	 * @return The cipher context.
+	 */
+	KeyBoundCipherContext getCipherContext() {
+
+		return cipherContext;
+	}
 }
@@ -69,7 +69,7 @@ import com.nimbusds.jose.util.Base64URL;
  *
  * @author Melisa Halsband
  * @author Vladimir Dzhuvinov
- * @version 2015-06-29
+ * @version 2026-10-18
  */
 @ThreadSafe
 public class AESDecrypter extends AESCryptoProvider implements JWEDecrypter, CriticalHeaderParamsAware {
@@ -186,6 +186,20 @@ public class AESDecrypter extends AESCryptoProvider implements JWEDecrypter, Cri
 			throw new JOSEException("Missing JWE authentication tag");
 		}
 
+		final SecretKey cek = decryptCEK(header, encryptedKey);
+
+		return ContentCryptoProvider.decrypt(header, encryptedKey, iv, cipherText, authTag, cek, getJCAContext());
+	}
+
+
+	@Override
+	SecretKey decryptCEK(final JWEHeader header, final Base64URL encryptedKey)
+		throws JOSEException {
+
+		if (encryptedKey == null) {
+			throw new JOSEException("Missing JWE encrypted key");
+		}
+
 		critPolicy.ensureHeaderPasses(header);
 
 		// Derive the content encryption key
@@ -198,7 +212,7 @@ public class AESDecrypter extends AESCryptoProvider implements JWEDecrypter, Cri
 		    alg.equals(JWEAlgorithm.A192KW) ||
 		    alg.equals(JWEAlgorithm.A256KW))   {
 
-			cek = AESKW.unwrapCEK(getKey(), encryptedKey.decode(), getJCAContext().getKeyEncryptionProvider());
+			cek = AESKW.unwrapCEK(getKey(), encryptedKey.decode(), getJCAContext().getKeyEncryptionProvider(), getCipherContext());
 
 		} else if (alg.equals(JWEAlgorithm.A128GCMKW) ||
 			   alg.equals(JWEAlgorithm.A192GCMKW) ||
@@ -217,13 +231,13 @@ public class AESDecrypter extends AESCryptoProvider implements JWEDecrypter, Cri
 			byte[] keyTag = header.getAuthTag().decode();
 
 			AuthenticatedCipherText authEncrCEK = new AuthenticatedCipherText(encryptedKey.decode(), keyTag);
-			cek = AESGCMKW.decryptCEK(getKey(), keyIV, authEncrCEK, keyLength, getJCAContext().getKeyEncryptionProvider());
+			cek = AESGCMKW.decryptCEK(getKey(), keyIV, authEncrCEK, keyLength, getJCAContext().getKeyEncryptionProvider(), getCipherContext());
 
 		} else {
 
 			throw new JOSEException(AlgorithmSupportMessage.unsupportedJWEAlgorithm(alg, SUPPORTED_ALGORITHMS));
 		}
 
-		return ContentCryptoProvider.decrypt(header, encryptedKey, iv, cipherText, authTag, cek, getJCAContext());
+		return cek;
 	}
 }
\ No newline at end of file
@@ -70,7 +70,7 @@ import net.jcip.annotations.ThreadSafe;
  * @author Melisa Halsband
  * @author Vladimir Dzhuvinov
  * @author Dimitar A. Stoikov
- * @version 2017-06-01
+ * @version 2026-10-18
  */
 @ThreadSafe
 public class AESEncrypter extends AESCryptoProvider implements JWEEncrypter {
@@ -137,6 +137,16 @@ public class AESEncrypter extends AESCryptoProvider implements JWEEncrypter {
 	public JWECryptoParts encrypt(final JWEHeader header, final byte[] clearText)
 		throws JOSEException {
 
+		final ContentEncryptionKey key = encryptCEK(header);
+
+		return ContentCryptoProvider.encrypt(key.getHeader(), clearText, key.getCEK(), key.getEncryptedKey(), getJCAContext());
+	}
+
+
+	@Override
+	ContentEncryptionKey encryptCEK(final JWEHeader header)
+		throws JOSEException {
+
 		final JWEAlgorithm alg = header.getAlgorithm();
 
 		// Check the AES key size and determine the algorithm family
@@ -199,13 +209,13 @@ public class AESEncrypter extends AESCryptoProvider implements JWEEncrypter {
 
 		if(AlgFamily.AESKW.equals(algFamily)) {
 
-			encryptedKey = Base64URL.encode(AESKW.wrapCEK(cek, getKey(), getJCAContext().getKeyEncryptionProvider()));
+			encryptedKey = Base64URL.encode(AESKW.wrapCEK(cek, getKey(), getJCAContext().getKeyEncryptionProvider(), getCipherContext()));
 			updatedHeader = header; // simply copy ref
 
 		} else if(AlgFamily.AESGCMKW.equals(algFamily)) {
 
 			final Container<byte[]> keyIV = new Container<>(AESGCM.generateIV(getJCAContext().getSecureRandom()));
-			final AuthenticatedCipherText authCiphCEK = AESGCMKW.encryptCEK(cek, keyIV, getKey(), getJCAContext().getKeyEncryptionProvider());
+			final AuthenticatedCipherText authCiphCEK = AESGCMKW.encryptCEK(cek, keyIV, getKey(), getJCAContext().getKeyEncryptionProvider(), getCipherContext());
 			encryptedKey = Base64URL.encode(authCiphCEK.getCipherText());
 
 			// Add iv and tag to the header
@@ -218,6 +228,6 @@ public class AESEncrypter extends AESCryptoProvider implements JWEEncrypter {
 			throw new JOSEException("Unexpected JWE algorithm: " + alg);
 		}
 
-		return ContentCryptoProvider.encrypt(updatedHeader, clearText, cek, encryptedKey, getJCAContext());
+		return new ContentEncryptionKey(updatedHeader, cek, encryptedKey);
 	}
 }
\ No newline at end of file
@@ -38,7 +38,7 @@ import net.jcip.annotations.ThreadSafe;
  * @author Vladimir Dzhuvinov
  * @author Axel Nennker
  * @author Dimitar A. Stoikov
- * @version 2017-06-01
+ * @version 2026-10-18
  */
 @ThreadSafe
 class AESGCM {
@@ -102,16 +102,44 @@ class AESGCM {
 		                                      final Provider provider)
 		throws JOSEException {
 
+		return encrypt(secretKey, ivContainer, plainText, authData, provider, null);
+	}
+
+
+	/**
+	 * Encrypts the specified plain text using AES/GCM/NoPadding.
+	 *
+	 * @param secretKey   The AES key. Must not be {@code null}.
+	 * @param plainText   The plain text. Must not be {@code null}.
+	 * @param ivContainer The initialisation vector (IV). Must not be
+	 *                    {@code null}. This is both input and output
+	 *                    parameter. On input, it carries externally
+	 *                    generated IV; on output, it carries the IV the
+	 *                    cipher actually used.
+	 * @param authData    The authenticated data. Must not be {@code null}.
+	 * @param provider    The JCA provider, or {@code null} to use the
+	 *                    default one.
+	 * @param context     The cipher context bound to the AES key,
+	 *                    {@code null} if none.
+	 *
+	 * @return The authenticated cipher text.
+	 *
+	 * @throws JOSEException If encryption failed.
+	 */
+	public static AuthenticatedCipherText encrypt(final SecretKey secretKey,
+		                                      final Container<byte[]> ivContainer,
+		                                      final byte[] plainText,
+		                                      final byte[] authData,
+		                                      final Provider provider,
+		                                      final KeyBoundCipherContext context)
+		throws JOSEException {
+
 		Cipher cipher;
 
 		byte[] iv = ivContainer.get();
 
 		try {
-			if (provider != null) {
-				cipher = Cipher.getInstance("AES/GCM/NoPadding", provider);
-			} else {
-				cipher = Cipher.getInstance("AES/GCM/NoPadding");
-			}
+			cipher = CipherHelper.getInstance("AES/GCM/NoPadding", provider, context);
 
 			GCMParameterSpec gcmSpec = new GCMParameterSpec(AUTH_TAG_BIT_LENGTH, iv);
 			cipher.init(Cipher.ENCRYPT_MODE, secretKey, gcmSpec);
@@ -126,16 +154,22 @@ class AESGCM {
 			return LegacyAESGCM.encrypt(secretKey, iv, plainText, authData);
 		}
 
-		cipher.updateAAD(authData);
-
 		byte[] cipherOutput;
 
 		try {
+			cipher.updateAAD(authData);
+
 			cipherOutput = cipher.doFinal(plainText);
 
+			// retrieve the actual IV used by the cipher -- it may be internally-generated.
+			ivContainer.set(actualIVOf(cipher));
+
 		} catch (IllegalBlockSizeException | BadPaddingException e) {
 
 			throw new JOSEException("Couldn't encrypt with AES/GCM/NoPadding: " + e.getMessage(), e);
+
+		} finally {
+			CipherHelper.release("AES/GCM/NoPadding", provider, cipher, context);
 		}
 
 		final int tagPos = cipherOutput.length - ByteUtils.byteLength(AUTH_TAG_BIT_LENGTH);
@@ -143,13 +177,54 @@ class AESGCM {
 		byte[] cipherText = ByteUtils.subArray(cipherOutput, 0, tagPos);
 		byte[] authTag = ByteUtils.subArray(cipherOutput, tagPos, ByteUtils.byteLength(AUTH_TAG_BIT_LENGTH));
 
-		// retrieve the actual IV used by the cipher -- it may be internally-generated.
-		ivContainer.set(actualIVOf(cipher));
-
 		return new AuthenticatedCipherText(cipherText, authTag);
 	}
 
 	
+	/**
+	 * Creates a new AES/GCM/NoPadding cipher.
+	 *
+	 * @param secretKey     The AES key. Must not be {@code null}.
+	 * @param forEncryption If {@code true} creates an encryption cipher,
+	 *                      else creates a decryption cipher.
+	 * @param iv            The initialisation vector (IV). Must not be
+	 *                      {@code null}. For encryption the cipher may
+	 *                      use an internally generated IV instead, see
+	 *                      {@link #actualIVOf}.
+	 * @param provider      The JCA provider, or {@code null} to use the
+	 *                      default one.
+	 *
+	 * @return The AES/GCM/NoPadding cipher.
+	 *
+	 * @throws JOSEException If the cipher couldn't be created.
+	 */
+	public static Cipher createAESGCMCipher(final SecretKey secretKey,
+						final boolean forEncryption,
+						final byte[] iv,
+						final Provider provider)
+		throws JOSEException {
+
+		Cipher cipher;
+
+		try {
+			if (provider != null) {
+				cipher = Cipher.getInstance("AES/GCM/NoPadding", provider);
+			} else {
+				cipher = Cipher.getInstance("AES/GCM/NoPadding");
+			}
+
+			GCMParameterSpec gcmSpec = new GCMParameterSpec(AUTH_TAG_BIT_LENGTH, iv);
+			cipher.init(forEncryption ? Cipher.ENCRYPT_MODE : Cipher.DECRYPT_MODE, secretKey, gcmSpec);
+
+		} catch (NoSuchAlgorithmException | NoSuchPaddingException | InvalidKeyException | InvalidAlgorithmParameterException e) {
+
+			throw new JOSEException("Couldn't create AES/GCM/NoPadding cipher: " + e.getMessage(), e);
+		}
+
+		return cipher;
+	}
+
+
 	/**
 	 * Retrieves the actual algorithm parameters and validates them.
 	 *
@@ -165,7 +240,7 @@ class AESGCM {
 	 * @see {@link #actualParamsOf(Cipher)}
 	 * @see #validate(byte[], int)
 	 */
-	private static byte[] actualIVOf(final Cipher cipher)
+	public static byte[] actualIVOf(final Cipher cipher)
 		throws JOSEException {
 		
 		GCMParameterSpec actualParams = actualParamsOf(cipher);
@@ -262,14 +337,41 @@ class AESGCM {
 		                     final Provider provider)
 		throws JOSEException {
 
+		return decrypt(secretKey, iv, cipherText, authData, authTag, provider, null);
+	}
+
+
+	/**
+	 * Decrypts the specified cipher text using AES/GCM/NoPadding.
+	 *
+	 * @param secretKey  The AES key. Must not be {@code null}.
+	 * @param iv         The initialisation vector (IV). Must not be
+	 *                   {@code null}.
+	 * @param cipherText The cipher text. Must not be {@code null}.
+	 * @param authData   The authenticated data. Must not be {@code null}.
+	 * @param authTag    The authentication tag. Must not be {@code null}.
+	 * @param provider   The JCA provider, or {@code null} to use the
+	 *                   default one.
+	 * @param context    The cipher context bound to the AES key,
+	 *                   {@code null} if none.
+	 *
+	 * @return The decrypted plain text.
+	 *
+	 * @throws JOSEException If decryption failed.
+	 */
+	public static byte[] decrypt(final SecretKey secretKey,
+		                     final byte[] iv,
+		                     final byte[] cipherText,
+		                     final byte[] authData,
+		                     final byte[] authTag,
+		                     final Provider provider,
+		                     final KeyBoundCipherContext context)
+		throws JOSEException {
+
 		Cipher cipher;
 
 		try {
-			if (provider != null) {
-				cipher = Cipher.getInstance("AES/GCM/NoPadding", provider);
-			} else {
-				cipher = Cipher.getInstance("AES/GCM/NoPadding");
-			}
+			cipher = CipherHelper.getInstance("AES/GCM/NoPadding", provider, context);
 
 			GCMParameterSpec gcmSpec = new GCMParameterSpec(AUTH_TAG_BIT_LENGTH, iv);
 			cipher.init(Cipher.DECRYPT_MODE, secretKey, gcmSpec);
@@ -284,14 +386,17 @@ class AESGCM {
 			return LegacyAESGCM.decrypt(secretKey, iv, cipherText, authData, authTag);
 		}
 
-		cipher.updateAAD(authData);
-
 		try {
+			cipher.updateAAD(authData);
+
 			return cipher.doFinal(ByteUtils.concat(cipherText, authTag));
 
 		} catch (IllegalBlockSizeException | BadPaddingException e) {
 
 			throw new JOSEException("AES/GCM/NoPadding decryption failed: " + e.getMessage(), e);
+
+		} finally {
+			CipherHelper.release("AES/GCM/NoPadding", provider, cipher, context);
 		}
 	}
 
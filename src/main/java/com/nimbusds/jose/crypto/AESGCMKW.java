@@ -38,7 +38,7 @@ import com.nimbusds.jose.util.Container;
  *
  * @author Melisa Halsband
  * @author Vladimir Dzhuvinov
- * @version 2017-06-01
+ * @version 2026-10-18
  */
 @ThreadSafe
 class AESGCMKW {
@@ -67,7 +67,37 @@ class AESGCMKW {
 							 Provider provider)
 		throws JOSEException {
 
-		return AESGCM.encrypt(kek, iv, cek.getEncoded(), new byte[0], provider);
+		return encryptCEK(cek, iv, kek, provider, null);
+	}
+
+
+	/**
+	 * Encrypts the specified Content Encryption Key (CEK).
+	 *
+	 * @param cek	   The Content Encryption Key (CEK) to encrypt. Must
+	 *		   not be {@code null}.
+	 * @param iv	   The initialisation vector (IV). Must not be
+	 *		   {@code null}. The contained IV must not be
+	 *		   {@code null} either.
+	 * @param kek	   The AES Key Encryption Key (KEK). Must not be
+	 *		   {@code null}.
+	 * @param provider The specific JCA provider to use, {@code null}
+	 *                 implies the default system one.
+	 * @param context  The cipher context bound to the KEK, {@code null}
+	 *                 if none.
+	 *
+	 * @return The encrypted Content Encryption Key (CEK).
+	 *
+	 * @throws JOSEException If encryption failed.
+	 */
+	public static AuthenticatedCipherText encryptCEK(final SecretKey cek,
+							 final Container<byte[]> iv,
+							 final SecretKey kek,
+							 final Provider provider,
+							 final KeyBoundCipherContext context)
+		throws JOSEException {
+
+		return AESGCM.encrypt(kek, iv, cek.getEncoded(), new byte[0], provider, context);
 	}
 
 
@@ -95,7 +125,39 @@ class AESGCMKW {
 					   final Provider provider)
 		throws JOSEException {
 
-		byte[] keyBytes = AESGCM.decrypt(kek, iv, authEncrCEK.getCipherText(), new byte[0], authEncrCEK.getAuthenticationTag(), provider);
+		return decryptCEK(kek, iv, authEncrCEK, keyLength, provider, null);
+	}
+
+
+	/**
+	 * Decrypts the specified encrypted Content Encryption Key (CEK).
+	 *
+	 * @param kek	       The AES Key Encription Key. Must not be
+	 *                     {@code null}.
+	 * @param iv	       The initialisation vector (IV). Must not be
+	 *		       {@code null}.
+	 * @param authEncrCEK  The encrypted Content Encryption Key (CEK) to
+	 *		       decrypt and authentication tag. Must not be
+	 *		       {@code null}.
+	 * @param keyLength    The expected CEK length in bits.
+	 * @param provider     The JCA provider, or {@code null} to use the
+	 *		       default one.
+	 * @param context      The cipher context bound to the KEK,
+	 *                     {@code null} if none.
+	 *
+	 * @return The decrypted Content Encryption Key (CEK).
+	 *
+	 * @throws JOSEException If decryption failed.
+	 */
+	public static SecretKey decryptCEK(final SecretKey kek,
+					   final byte[] iv,
+					   final AuthenticatedCipherText authEncrCEK,
+					   final int keyLength,
+					   final Provider provider,
+					   final KeyBoundCipherContext context)
+		throws JOSEException {
+
+		byte[] keyBytes = AESGCM.decrypt(kek, iv, authEncrCEK.getCipherText(), new byte[0], authEncrCEK.getAuthenticationTag(), provider, context);
 
 		if (ByteUtils.safeBitLength(keyBytes) != keyLength) {
 
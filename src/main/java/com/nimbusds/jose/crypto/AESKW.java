@@ -39,7 +39,7 @@ import com.nimbusds.jose.JOSEException;
  *
  * @author Melisa Halsband
  * @author Vladimir Dzhuvinov
- * @version 2015-06-07
+ * @version 2026-10-18
  */
 @ThreadSafe
 class AESKW {
@@ -64,20 +64,45 @@ class AESKW {
 				     final Provider provider)
 		throws JOSEException {
 
-		try {
-			Cipher cipher;
+		return wrapCEK(cek, kek, provider, null);
+	}
+
+
+	/**
+	 * Wraps the specified Content Encryption Key (CEK).
+	 *
+	 * @param cek      The Content Encryption Key (CEK) to wrap. Must not
+	 *                 be {@code null}.
+	 * @param kek      The AES Key Encryption Key (KEK) (wrapping key).
+	 *                 Must not be {@code null}.
+	 * @param provider The specific JCA provider to use, {@code null}
+	 *                 implies the default system one.
+	 * @param context  The cipher context bound to the KEK, {@code null}
+	 *                 if none.
+	 *
+	 * @return The wrapped Content Encryption Key (CEK).
+	 *
+	 * @throws JOSEException If wrapping failed.
+	 */
+	public static byte[] wrapCEK(final SecretKey cek,
+				     final SecretKey kek,
+				     final Provider provider,
+				     final KeyBoundCipherContext context)
+		throws JOSEException {
 
-			if (provider != null) {
-				cipher = Cipher.getInstance("AESWrap", provider);
-			} else {
-				cipher = Cipher.getInstance("AESWrap");
-			}
+		Cipher cipher = null;
+
+		try {
+			cipher = CipherHelper.getInstance("AESWrap", provider, context);
 
 			cipher.init(Cipher.WRAP_MODE, kek);
 			return cipher.wrap(cek);
 
 		} catch (NoSuchAlgorithmException | NoSuchPaddingException | InvalidKeyException | IllegalBlockSizeException e) {
 			throw new JOSEException("Couldn't wrap AES key: " + e.getMessage(), e);
+
+		} finally {
+			CipherHelper.release("AESWrap", provider, cipher, context);
 		}
 	}
 
@@ -101,14 +126,36 @@ class AESKW {
 					  final Provider provider)
 		throws JOSEException {
 
-		try {
-			Cipher cipher;
+		return unwrapCEK(kek, encryptedCEK, provider, null);
+	}
+
+
+	/**
+	 * Unwraps the specified encrypted Content Encryption Key (CEK).
+	 *
+	 * @param kek          The AES Key Encryption Key (KEK) (wrapping key).
+	 *                     Must not be {@code null}.
+	 * @param encryptedCEK The wrapped Content Encryption Key (CEK) with
+	 *                     authentication tag. Must not be {@code null}.
+	 * @param provider     The specific JCA provider to use, {@code null}
+	 *                     implies the default system one.
+	 * @param context      The cipher context bound to the KEK,
+	 *                     {@code null} if none.
+	 *
+	 * @return The unwrapped Content Encryption Key (CEK).
+	 *
+	 * @throws JOSEException If unwrapping failed.
+	 */
+	public static SecretKey unwrapCEK(final SecretKey kek,
+					  final byte[] encryptedCEK,
+					  final Provider provider,
+					  final KeyBoundCipherContext context)
+		throws JOSEException {
 
-			if (provider != null) {
-				cipher = Cipher.getInstance("AESWrap", provider);
-			} else {
-				cipher = Cipher.getInstance("AESWrap");
-			}
+		Cipher cipher = null;
+
+		try {
+			cipher = CipherHelper.getInstance("AESWrap", provider, context);
 
 			cipher.init(Cipher.UNWRAP_MODE, kek);
 			return (SecretKey)cipher.unwrap(encryptedCEK, "AES", Cipher.SECRET_KEY);
@@ -116,6 +163,9 @@ class AESKW {
 		} catch (NoSuchAlgorithmException | NoSuchPaddingException | InvalidKeyException e) {
 
 			throw new JOSEException("Couldn't unwrap AES key: " + e.getMessage(), e);
+
+		} finally {
+			CipherHelper.release("AESWrap", provider, cipher, context);
 		}
 	}
 
@@ -0,0 +1,130 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.crypto;
+
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jose.util.ByteUtils;
+import com.nimbusds.jose.util.StandardCharset;
+import net.jcip.annotations.NotThreadSafe;
+
+
+/**
+ * BASE64URL encoder writing to an output stream. Carries over the trailing
+ * bytes which don't complete a 3 byte quantum, so that the input can be
+ * supplied in chunks of arbitrary length. Used in streaming JWE and JWS
+ * processing.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+@NotThreadSafe
+class Base64URLWriter {
+
+
+	/**
+	 * The output stream.
+	 */
+	private final OutputStream out;
+
+
+	/**
+	 * The carried over bytes.
+	 */
+	private final byte[] carry = new byte[2];
+
+
+	/**
+	 * The number of carried over bytes.
+	 */
+	private int carryLength = 0;
+
+
+	/**
+	 * Creates a new BASE64URL encoder.
+	 *
+	 * @param out The output stream. Must not be {@code null}.
+	 */
+	public Base64URLWriter(final OutputStream out) {
+		this.out = out;
+	}
+
+
+	/**
+	 * Encodes the specified bytes.
+	 *
+	 * @param bytes The bytes, {@code null} if none.
+	 *
+	 * @throws IOException If writing failed.
+	 */
+	public void write(final byte[] bytes)
+		throws IOException {
+
+		if (bytes == null) {
+			return;
+		}
+
+		write(bytes, 0, bytes.length);
+	}
+
+
+	/**
+	 * Encodes the specified bytes.
+	 *
+	 * @param bytes The bytes. Must not be {@code null}.
+	 * @param off   The offset.
+	 * @param len   The length.
+	 *
+	 * @throws IOException If writing failed.
+	 */
+	public void write(final byte[] bytes, final int off, final int len)
+		throws IOException {
+
+		if (len == 0) {
+			return;
+		}
+
+		final byte[] input = ByteUtils.concat(ByteUtils.subArray(carry, 0, carryLength), ByteUtils.subArray(bytes, off, len));
+		final int encodeLength = input.length - input.length % 3;
+
+		if (encodeLength > 0) {
+			out.write(Base64URL.encode(ByteUtils.subArray(input, 0, encodeLength)).toString().getBytes(StandardCharset.UTF_8));
+		}
+
+		carryLength = input.length - encodeLength;
+		System.arraycopy(input, encodeLength, carry, 0, carryLength);
+	}
+
+
+	/**
+	 * Encodes the carried over bytes, without padding.
+	 *
+	 * @throws IOException If writing failed.
+	 */
+	public void finish()
+		throws IOException {
+
+		if (carryLength > 0) {
+			out.write(Base64URL.encode(ByteUtils.subArray(carry, 0, carryLength)).toString().getBytes(StandardCharset.UTF_8));
+			carryLength = 0;
+		}
+	}
+}
@@ -20,11 +20,11 @@ package com.nimbusds.jose.crypto;
 
 import java.util.Collections;
 import java.util.Set;
+import javax.crypto.SecretKey;
 
-import com.nimbusds.jose.EncryptionMethod;
-import com.nimbusds.jose.JWEAlgorithm;
-import com.nimbusds.jose.JWEProvider;
+import com.nimbusds.jose.*;
 import com.nimbusds.jose.jca.JWEJCAContext;
+import com.nimbusds.jose.util.Base64URL;
 
 
 /**
@@ -32,7 +32,7 @@ import com.nimbusds.jose.jca.JWEJCAContext;
  * decrypters.
  *
  * @author Vladimir Dzhuvinov
- * @version 2015-11-16
+ * @version 2026-10-18
  */
 abstract class BaseJWEProvider implements JWEProvider {
 
@@ -100,5 +100,46 @@ abstract class BaseJWEProvider implements JWEProvider {
 
 		return jcaContext;
 	}
-}
 
+
+	/**
+	 * Performs the key management step of JWE encryption: determines the
+	 * Content Encryption Key (CEK) and the encrypted CEK for the specified
+	 * header. Overridden by the JWE encrypters which support streaming
+	 * encryption.
+	 *
+	 * @param header The JWE header. Must not be {@code null}.
+	 *
+	 * @return The CEK, together with the final JWE header and the
+	 *         encrypted CEK.
+	 *
+	 * @throws JOSEException If the key management step failed or isn't
+	 *                       supported.
+	 */
+	ContentEncryptionKey encryptCEK(final JWEHeader header)
+		throws JOSEException {
+
+		throw new JOSEException("Content Encryption Key (CEK) encryption not supported by " + getClass().getSimpleName());
+	}
+
+
+	/**
+	 * Performs the key management step of JWE decryption: checks the
+	 * header and recovers the Content Encryption Key (CEK). Overridden by
+	 * the JWE decrypters which support streaming decryption.
+	 *
+	 * @param header       The JWE header. Must not be {@code null}.
+	 * @param encryptedKey The encrypted key, {@code null} if not
+	 *                     specified.
+	 *
+	 * @return The CEK.
+	 *
+	 * @throws JOSEException If the key management step failed or isn't
+	 *                       supported.
+	 */
+	SecretKey decryptCEK(final JWEHeader header, final Base64URL encryptedKey)
+		throws JOSEException {
+
+		throw new JOSEException("Content Encryption Key (CEK) decryption not supported by " + getClass().getSimpleName());
+	}
+}
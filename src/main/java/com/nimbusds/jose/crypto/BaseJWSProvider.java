@@ -21,7 +21,9 @@ package com.nimbusds.jose.crypto;
 import java.util.Collections;
 import java.util.Set;
 
+import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
 import com.nimbusds.jose.JWSProvider;
 import com.nimbusds.jose.jca.JCAContext;
 
@@ -30,7 +32,7 @@ import com.nimbusds.jose.jca.JCAContext;
  * The base abstract class for JSON Web Signature (JWS) signers and verifiers.
  *
  * @author Vladimir Dzhuvinov
- * @version 2015-11-16
+ * @version 2026-10-18
  */
 abstract class BaseJWSProvider implements JWSProvider {
 
@@ -75,5 +77,50 @@ abstract class BaseJWSProvider implements JWSProvider {
 
 		return jcaContext;
 	}
+
+
+	/**
+	 * Initialises a streaming signature computation for the specified
+	 * header. Overridden by the JWS signers which support streaming
+	 * signing.
+	 *
+	 * @param header The JWS header. Must not be {@code null}.
+	 *
+	 * @return The streaming signature, ready to consume the signing
+	 *         input.
+	 *
+	 * @throws JOSEException If the signature computation couldn't be
+	 *                       initialised or isn't supported.
+	 */
+	StreamingSignature initSigning(final JWSHeader header)
+		throws JOSEException {
+
+		throw new JOSEException("Streaming JWS signing not supported by " + getClass().getSimpleName());
+	}
+
+
+	/**
+	 * Initialises a streaming signature verification for the specified
+	 * header. Overridden by the JWS verifiers which support streaming
+	 * verification.
+	 *
+	 * @param header              The JWS header. Must not be
+	 *                            {@code null}.
+	 * @param processedCritParams The names of the additional critical
+	 *                            header parameters which are processed by
+	 *                            the caller, empty set if none.
+	 *
+	 * @return The streaming signature, ready to consume the signing
+	 *         input, {@code null} if the header doesn't pass the critical
+	 *         header parameters check.
+	 *
+	 * @throws JOSEException If the signature verification couldn't be
+	 *                       initialised or isn't supported.
+	 */
+	StreamingSignature initVerification(final JWSHeader header, final Set<String> processedCritParams)
+		throws JOSEException {
+
+		throw new JOSEException("Streaming JWS verification not supported by " + getClass().getSimpleName());
+	}
 }
 
@@ -30,7 +30,8 @@ import java.security.Provider;
  * Helper utilities for instantiating ciphers.
  *
  * @author Cedric Staub
- * @version 2014-01-22
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
  */
 @ThreadSafe
 class CipherHelper {
@@ -52,4 +53,45 @@ class CipherHelper {
 			return Cipher.getInstance(name, provider);
 		}
 	}
+
+
+	/**
+	 * Instantiates a cipher with an (optional) JCA provider, or takes a
+	 * pooled cipher instance from the specified key-bound context. The
+	 * cipher should be released with {@link #release} after the
+	 * operation.
+	 *
+	 * @param name     The name of the cipher. Must not be {@code null}.
+	 * @param provider The JCA provider, or {@code null} to use the default
+	 *                 one.
+	 * @param context  The key-bound cipher context, {@code null} if none.
+	 */
+	static Cipher getInstance(String name, Provider provider, KeyBoundCipherContext context)
+		throws NoSuchAlgorithmException, NoSuchPaddingException {
+
+		if (context == null) {
+			return getInstance(name, provider);
+		} else {
+			return context.getCipher(name, provider);
+		}
+	}
+
+
+	/**
+	 * Releases a cipher obtained with
+	 * {@link #getInstance(String, Provider, KeyBoundCipherContext)} back
+	 * to the key-bound context, if any.
+	 *
+	 * @param name     The name of the cipher. Must not be {@code null}.
+	 * @param provider The JCA provider, or {@code null} for the default
+	 *                 one.
+	 * @param cipher   The cipher, {@code null} if none.
+	 * @param context  The key-bound cipher context, {@code null} if none.
+	 */
+	static void release(String name, Provider provider, Cipher cipher, KeyBoundCipherContext context) {
+
+		if (context != null) {
+			context.releaseCipher(name, provider, cipher);
+		}
+	}
 }
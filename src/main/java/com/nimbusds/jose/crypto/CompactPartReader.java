@@ -0,0 +1,232 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.crypto;
+
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.ParseException;
+
+import com.nimbusds.jose.util.StandardCharset;
+import net.jcip.annotations.NotThreadSafe;
+
+
+/**
+ * Reader of the dot-separated parts of a compact JOSE serialisation from an
+ * input stream. Reads through a fixed-size buffer, so that parts of
+ * arbitrary length, such as a JWE cipher text, can be processed in chunks.
+ * This class is not thread-safe.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+@NotThreadSafe
+class CompactPartReader {
+
+
+	/**
+	 * The input stream.
+	 */
+	private final InputStream in;
+
+
+	/**
+	 * The read buffer.
+	 */
+	private final byte[] buf;
+
+
+	/**
+	 * The position of the next unread byte in the buffer.
+	 */
+	private int pos = 0;
+
+
+	/**
+	 * The number of valid bytes in the buffer.
+	 */
+	private int limit = 0;
+
+
+	/**
+	 * Set when the end of the input stream is reached.
+	 */
+	private boolean eof = false;
+
+
+	/**
+	 * Set when the end of the current part is reached.
+	 */
+	private boolean endOfPart = false;
+
+
+	/**
+	 * The number of part delimiters consumed so far.
+	 */
+	private int delimiterCount = 0;
+
+
+	/**
+	 * Creates a new compact part reader.
+	 *
+	 * @param in         The input stream. Must not be {@code null}.
+	 * @param bufferSize The read buffer size. Must be positive.
+	 */
+	public CompactPartReader(final InputStream in, final int bufferSize) {
+
+		if (in == null) {
+			throw new IllegalArgumentException("The input stream must not be null");
+		}
+
+		this.in = in;
+		buf = new byte[bufferSize];
+	}
+
+
+	/**
+	 * Returns the number of part delimiters consumed so far.
+	 *
+	 * @return The number of part delimiters.
+	 */
+	public int getDelimiterCount() {
+
+		return delimiterCount;
+	}
+
+
+	/**
+	 * Reads up to {@code len} characters of the current part.
+	 *
+	 * @param dst The destination buffer. Must not be {@code null}.
+	 * @param off The offset in the destination buffer.
+	 * @param len The maximum number of characters to read.
+	 *
+	 * @return The number of characters read, which may be zero, or -1 if
+	 *         the end of the current part is reached.
+	 *
+	 * @throws IOException If reading the input stream failed.
+	 */
+	public int read(final byte[] dst, final int off, final int len)
+		throws IOException {
+
+		if (endOfPart) {
+			return -1;
+		}
+
+		if (pos == limit && ! fill()) {
+			endOfPart = true;
+			return -1;
+		}
+
+		final int end = Math.min(limit, pos + len);
+
+		for (int i = pos; i < end; i++) {
+
+			if (buf[i] == '.') {
+				final int n = i - pos;
+				System.arraycopy(buf, pos, dst, off, n);
+				pos = i + 1;
+				endOfPart = true;
+				delimiterCount++;
+				return n;
+			}
+		}
+
+		final int n = end - pos;
+		System.arraycopy(buf, pos, dst, off, n);
+		pos = end;
+		return n;
+	}
+
+
+	/**
+	 * Reads the remainder of the current part and advances to the next
+	 * part.
+	 *
+	 * @param maxLength The maximum allowed part length, in characters.
+	 *
+	 * @return The part, empty if none.
+	 *
+	 * @throws IOException    If reading the input stream failed.
+	 * @throws ParseException If the part exceeds the maximum allowed
+	 *                        length.
+	 */
+	public String readPart(final int maxLength)
+		throws IOException, ParseException {
+
+		StringBuilder sb = new StringBuilder();
+		byte[] chunk = new byte[Math.min(buf.length, maxLength + 1)];
+
+		int n;
+
+		while ((n = read(chunk, 0, chunk.length)) != -1) {
+
+			if (sb.length() + n > maxLength) {
+				throw new ParseException("Invalid serialized JOSE object: Part exceeds maximum length of " + maxLength + " characters", 0);
+			}
+
+			sb.append(new String(chunk, 0, n, StandardCharset.UTF_8));
+		}
+
+		nextPart();
+
+		return sb.toString();
+	}
+
+
+	/**
+	 * Advances to the next part. Must be called after the end of the
+	 * current part is reached.
+	 */
+	public void nextPart() {
+
+		endOfPart = false;
+	}
+
+
+	/**
+	 * Fills the buffer from the input stream.
+	 *
+	 * @return {@code true} if bytes were read, {@code false} if the end
+	 *         of the input stream is reached.
+	 *
+	 * @throws IOException If reading the input stream failed.
+	 */
+	private boolean fill()
+		throws IOException {
+
+		if (eof) {
+			return false;
+		}
+
+		int n;
+
+		do {
+			n = in.read(buf, 0, buf.length);
+		} while (n == 0);
+
+		if (n < 0) {
+			eof = true;
+			return false;
+		}
+
+		pos = 0;
+		limit = n;
+		return true;
+	}
+}
@@ -35,7 +35,7 @@ import com.nimbusds.jose.util.IntegerOverflowException;
  * JWE content encryption / decryption provider.
  *
  * @author Vladimir Dzhuvinov
- * @version 2017-06-01
+ * @version 2026-10-18
  */
 class ContentCryptoProvider {
 
@@ -124,7 +124,7 @@ class ContentCryptoProvider {
 	 * @throws KeyLengthException If the CEK length doesn't match the
 	 *                            encryption method.
 	 */
-	private static void checkCEKLength(final SecretKey cek, final EncryptionMethod enc)
+	public static void checkCEKLength(final SecretKey cek, final EncryptionMethod enc)
 		throws KeyLengthException {
 
 		try {
@@ -160,6 +160,36 @@ class ContentCryptoProvider {
 					     final JWEJCAContext jcaProvider)
 		throws JOSEException {
 
+		return encrypt(header, clearText, cek, encryptedKey, jcaProvider, null);
+	}
+
+
+	/**
+	 * Encrypts the specified clear text (content).
+	 *
+	 * @param header       The final JWE header. Must not be {@code null}.
+	 * @param clearText    The clear text to encrypt and optionally
+	 *                     compress. Must not be {@code null}.
+	 * @param cek          The Content Encryption Key (CEK). Must not be
+	 *                     {@code null}.
+	 * @param encryptedKey The encrypted CEK, {@code null} if not required.
+	 * @param jcaProvider  The JWE JCA provider specification. Must not be
+	 *                     {@code null}.
+	 * @param cekContext   The cipher context bound to the CEK,
+	 *                     {@code null} if none.
+	 *
+	 * @return The JWE crypto parts.
+	 *
+	 * @throws JOSEException If encryption failed.
+	 */
+	static JWECryptoParts encrypt(final JWEHeader header,
+				      final byte[] clearText,
+				      final SecretKey cek,
+				      final Base64URL encryptedKey,
+				      final JWEJCAContext jcaProvider,
+				      final KeyBoundCipherContext cekContext)
+		throws JOSEException {
+
 		checkCEKLength(cek, header.getEncryptionMethod());
 
 		// Apply compression if instructed
@@ -181,7 +211,8 @@ class ContentCryptoProvider {
 			authCipherText = AESCBC.encryptAuthenticated(
 				cek, iv, plainText, aad,
 				jcaProvider.getContentEncryptionProvider(),
-				jcaProvider.getMACProvider());
+				jcaProvider.getMACProvider(),
+				cekContext);
 
 		} else if (header.getEncryptionMethod().equals(EncryptionMethod.A128GCM) ||
 			   header.getEncryptionMethod().equals(EncryptionMethod.A192GCM) ||
@@ -191,7 +222,8 @@ class ContentCryptoProvider {
 
 			authCipherText = AESGCM.encrypt(
 				cek, ivContainer, plainText, aad,
-				jcaProvider.getContentEncryptionProvider());
+				jcaProvider.getContentEncryptionProvider(),
+				cekContext);
 
 			iv = ivContainer.get();
 
@@ -250,6 +282,42 @@ class ContentCryptoProvider {
 				     final JWEJCAContext jcaProvider)
 		throws JOSEException {
 
+		return decrypt(header, encryptedKey, iv, cipherText, authTag, cek, jcaProvider, null);
+	}
+
+
+	/**
+	 * Decrypts the specified cipher text.
+	 *
+	 * @param header       The JWE header. Must not be {@code null}.
+	 * @param encryptedKey The encrypted key, {@code null} if not
+	 *                     specified.
+	 * @param iv           The initialisation vector (IV). Must not be
+	 *                     {@code null}.
+	 * @param cipherText   The cipher text. Must not be {@code null}.
+	 * @param authTag      The authentication tag. Must not be
+	 *                     {@code null}.
+	 * @param cek          The Content Encryption Key (CEK). Must not be
+	 *                     {@code null}.
+	 * @param jcaProvider  The JWE JCA provider specification. Must not be
+	 *                     {@code null}.
+	 * @param cekContext   The cipher context bound to the CEK,
+	 *                     {@code null} if none.
+	 *
+	 * @return The clear text.
+	 *
+	 * @throws JOSEException If decryption failed.
+	 */
+	static byte[] decrypt(final JWEHeader header,
+			      final Base64URL encryptedKey,
+			      final Base64URL iv,
+			      final Base64URL cipherText,
+			      final Base64URL authTag,
+			      final SecretKey cek,
+			      final JWEJCAContext jcaProvider,
+			      final KeyBoundCipherContext cekContext)
+		throws JOSEException {
+
 		checkCEKLength(cek, header.getEncryptionMethod());
 
 		// Compose the AAD
@@ -270,7 +338,8 @@ class ContentCryptoProvider {
 				aad,
 				authTag.decode(),
 				jcaProvider.getContentEncryptionProvider(),
-				jcaProvider.getMACProvider());
+				jcaProvider.getMACProvider(),
+				cekContext);
 
 		} else if (header.getEncryptionMethod().equals(EncryptionMethod.A128GCM) ||
 			header.getEncryptionMethod().equals(EncryptionMethod.A192GCM) ||
@@ -282,7 +351,8 @@ class ContentCryptoProvider {
 				cipherText.decode(),
 				aad,
 				authTag.decode(),
-				jcaProvider.getContentEncryptionProvider());
+				jcaProvider.getContentEncryptionProvider(),
+				cekContext);
 
 		} else if (header.getEncryptionMethod().equals(EncryptionMethod.A128CBC_HS256_DEPRECATED) ||
 			header.getEncryptionMethod().equals(EncryptionMethod.A256CBC_HS512_DEPRECATED)) {
@@ -305,6 +375,10 @@ class ContentCryptoProvider {
 
 
 		// Apply decompression if requested
-		return DeflateHelper.applyDecompression(header, plainText);
+		return DeflateHelper.applyDecompression(
+			header,
+			plainText,
+			jcaProvider.getMaxDecompressedLength(),
+			jcaProvider.getMaxCompressionRatio());
 	}
 }
@@ -0,0 +1,118 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.crypto;
+
+
+import javax.crypto.SecretKey;
+
+import com.nimbusds.jose.JWEHeader;
+import com.nimbusds.jose.util.Base64URL;
+import net.jcip.annotations.Immutable;
+
+
+/**
+ * Content Encryption Key (CEK) produced by the key management step of a JWE
+ * encrypter, together with the final JWE header and the encrypted CEK. This
+ * class is immutable.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+@Immutable
+final class ContentEncryptionKey {
+
+
+	/**
+	 * The final JWE header.
+	 */
+	private final JWEHeader header;
+
+
+	/**
+	 * The CEK.
+	 */
+	private final SecretKey cek;
+
+
+	/**
+	 * The encrypted CEK, {@code null} if not required.
+	 */
+	private final Base64URL encryptedKey;
+
+
+	/**
+	 * Creates a new Content Encryption Key (CEK).
+	 *
+	 * @param header       The final JWE header, updated with any key
+	 *                     management parameters. Must not be
+	 *                     {@code null}.
+	 * @param cek          The CEK. Must not be {@code null}.
+	 * @param encryptedKey The encrypted CEK, {@code null} if not
+	 *                     required.
+	 */
+	public ContentEncryptionKey(final JWEHeader header,
+				    final SecretKey cek,
+				    final Base64URL encryptedKey) {
+
+		if (header == null)
+			throw new IllegalArgumentException("The JWE header must not be null");
+
+		this.header = header;
+
+
+		if (cek == null)
+			throw new IllegalArgumentException("The CEK must not be null");
+
+		this.cek = cek;
+
+		this.encryptedKey = encryptedKey;
+	}
+
+
+	/**
+	 * Gets the final JWE header.
+	 *
+	 * @return The JWE header.
+	 */
+	public JWEHeader getHeader() {
+
+		return header;
+	}
+
+
+	/**
+	 * Gets the CEK.
+	 *
+	 * @return The CEK.
+	 */
+	public SecretKey getCEK() {
+
+		return cek;
+	}
+
+
+	/**
+	 * Gets the encrypted CEK.
+	 *
+	 * @return The encrypted CEK, {@code null} if not required.
+	 */
+	public Base64URL getEncryptedKey() {
+
+		return encryptedKey;
+	}
+}
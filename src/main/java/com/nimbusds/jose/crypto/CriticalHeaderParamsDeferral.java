@@ -33,7 +33,7 @@ import com.nimbusds.jose.JWEHeader;
  * @see CriticalHeaderParamsAware
  *
  * @author Vladimir Dzhuvinov
- * @version 2015-05-20
+ * @version 2026-10-18
  */
 class CriticalHeaderParamsDeferral {
 
@@ -101,14 +101,46 @@ class CriticalHeaderParamsDeferral {
 	 */
 	public boolean headerPasses(final Header header) {
 
+		return headerPasses(header, Collections.<String>emptySet());
+	}
+
+
+	/**
+	 * Returns {@code true} if the specified header passes the critical
+	 * parameters check.
+	 *
+	 * @param header          The JWS or JWE header to check. Must not be
+	 *                        {@code null}.
+	 * @param processedParams The names of the additional critical header
+	 *                        parameters which are processed by the
+	 *                        caller, empty set if none.
+	 *
+	 * @return {@code true} if the header passes, {@code false} if the
+	 *         header contains one or more critical header parameters which
+	 *         are neither processed nor marked for deferral to the
+	 *         application.
+	 */
+	public boolean headerPasses(final Header header, final Set<String> processedParams) {
+
 		Set<String> crit = header.getCriticalParams();
 
 		if (crit == null || crit.isEmpty()) {
 			return true; // OK
 		}
 
-		// Ensure all marked as deferred
-		return deferredParams != null && deferredParams.containsAll(crit);
+		// Ensure all processed or marked as deferred
+		for (String param: crit) {
+
+			if (processedParams.contains(param)) {
+				continue;
+			}
+
+			if (deferredParams == null || ! deferredParams.contains(param)) {
+				return false;
+			}
+		}
+
+		return true;
 	}
 
 
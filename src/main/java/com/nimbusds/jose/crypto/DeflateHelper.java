@@ -31,7 +31,7 @@ import com.nimbusds.jose.util.DeflateUtils;
  * decrypters. This class is thread-safe.
  *
  * @author Vladimir Dzhuvinov
- * @version 2014-07-08
+ * @version 2026-10-18
  */
 @ThreadSafe
 class DeflateHelper {
@@ -76,16 +76,25 @@ class DeflateHelper {
 
 	/**
 	 * Applies decompression to the specified plain text if requested.
+	 * The decompressed length is limited to the maximum length and, if
+	 * specified, to the maximum compression ratio, enforced while
+	 * inflating.
 	 *
 	 * @param jweHeader The JWE header. Must not be {@code null}.
 	 * @param bytes     The plain text bytes. Must not be {@code null}.
+	 * @param maxLength The maximum decompressed length, in bytes.
+	 * @param maxRatio  The maximum compression ratio, zero for no limit.
 	 *
 	 * @return The output bytes, decompressed if requested.
 	 *
-	 * @throws JOSEException If decompression failed or the requested 
-	 *                       compression algorithm is not supported.
+	 * @throws JOSEException If decompression failed, a limit was
+	 *                       exceeded or the requested compression
+	 *                       algorithm is not supported.
 	 */
-	public static byte[] applyDecompression(final JWEHeader jweHeader, final byte[] bytes)
+	public static byte[] applyDecompression(final JWEHeader jweHeader,
+						final byte[] bytes,
+						final int maxLength,
+						final int maxRatio)
 		throws JOSEException {
 
 		CompressionAlgorithm compressionAlg = jweHeader.getCompressionAlgorithm();
@@ -97,7 +106,7 @@ class DeflateHelper {
 		} else if (compressionAlg.equals(CompressionAlgorithm.DEF)) {
 
 			try {
-				return DeflateUtils.decompress(bytes);
+				return DeflateUtils.decompress(bytes, computeMaxDecompressedLength(bytes.length, maxLength, maxRatio));
 
 			} catch (Exception e) {
 
@@ -109,4 +118,26 @@ class DeflateHelper {
 			throw new JOSEException("Unsupported compression algorithm: " + compressionAlg);
 		}
 	}
+
+
+	/**
+	 * Computes the effective maximum decompressed length.
+	 *
+	 * @param compressedLength The compressed length, in bytes.
+	 * @param maxLength        The maximum decompressed length, in bytes.
+	 * @param maxRatio         The maximum compression ratio, zero for no
+	 *                         limit.
+	 *
+	 * @return The effective maximum decompressed length, in bytes.
+	 */
+	public static int computeMaxDecompressedLength(final long compressedLength,
+						       final int maxLength,
+						       final int maxRatio) {
+
+		if (maxRatio > 0) {
+			return (int)Math.min(maxLength, compressedLength * maxRatio);
+		}
+
+		return maxLength;
+	}
 }
\ No newline at end of file
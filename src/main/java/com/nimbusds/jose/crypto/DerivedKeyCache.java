@@ -0,0 +1,247 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.crypto;
+
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jose.util.IntegerUtils;
+import com.nimbusds.jose.util.StandardCharset;
+import net.jcip.annotations.ThreadSafe;
+
+
+/**
+ * Bounded least-recently-used cache of derived keys. The key material of
+ * evicted, replaced and cleared entries is overwritten with zeros.
+ *
+ * <p>The cache keys are digests of the parameters that determine the
+ * derived key, see {@link #computeCacheKey}.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+@ThreadSafe
+class DerivedKeyCache {
+
+
+	/**
+	 * Cached derived key entry.
+	 */
+	private static final class Entry {
+
+
+		/**
+		 * The key material.
+		 */
+		private final byte[] keyBytes;
+
+
+		/**
+		 * The key algorithm.
+		 */
+		private final String algorithm;
+
+
+		/**
+		 * Creates a new cached derived key entry.
+		 *
+		 * @param keyBytes  The key material. Must not be {@code null}.
+		 * @param algorithm The key algorithm. Must not be
+		 *                  {@code null}.
+		 */
+		private Entry(final byte[] keyBytes, final String algorithm) {
+			this.keyBytes = keyBytes;
+			this.algorithm = algorithm;
+		}
+
+
+		/**
+		 * Overwrites the key material with zeros.
+		 */
+		private void wipe() {
+			Arrays.fill(keyBytes, (byte)0);
+		}
+	}
+
+
+	/**
+	 * The maximum number of entries.
+	 */
+	private final int maxEntries;
+
+
+	/**
+	 * The entries, in access order.
+	 */
+	private final LinkedHashMap<String,Entry> entries;
+
+
+	/**
+	 * Creates a new derived key cache.
+	 *
+	 * @param maxEntries The maximum number of entries. Must be positive.
+	 */
+	DerivedKeyCache(final int maxEntries) {
+
+		if (maxEntries < 1) {
+			throw new IllegalArgumentException("The maximum number of derived key cache entries must be positive");
+		}
+
+		this.maxEntries = maxEntries;
+
+		entries = new LinkedHashMap<String,Entry>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<String,Entry> eldest) {
+
+				if (size() > DerivedKeyCache.this.maxEntries) {
+					eldest.getValue().wipe();
+					return true;
+				}
+
+				return false;
+			}
+		};
+	}
+
+
+	/**
+	 * Returns the maximum number of entries.
+	 *
+	 * @return The maximum number of entries.
+	 */
+	int getMaxEntries() {
+
+		return maxEntries;
+	}
+
+
+	/**
+	 * Returns the current number of entries.
+	 *
+	 * @return The number of entries.
+	 */
+	synchronized int size() {
+
+		return entries.size();
+	}
+
+
+	/**
+	 * Gets the derived key for the specified cache key.
+	 *
+	 * @param cacheKey The cache key. Must not be {@code null}.
+	 *
+	 * @return The derived key, {@code null} if not cached.
+	 */
+	synchronized SecretKey get(final String cacheKey) {
+
+		Entry entry = entries.get(cacheKey);
+
+		if (entry == null) {
+			return null;
+		}
+
+		return new SecretKeySpec(entry.keyBytes, entry.algorithm);
+	}
+
+
+	/**
+	 * Caches the specified derived key.
+	 *
+	 * @param cacheKey   The cache key. Must not be {@code null}.
+	 * @param derivedKey The derived key. Must not be {@code null}.
+	 */
+	synchronized void put(final String cacheKey, final SecretKey derivedKey) {
+
+		Entry previous = entries.put(cacheKey, new Entry(derivedKey.getEncoded(), derivedKey.getAlgorithm()));
+
+		if (previous != null) {
+			previous.wipe();
+		}
+	}
+
+
+	/**
+	 * Removes all entries, overwriting their key material with zeros.
+	 */
+	synchronized void clear() {
+
+		Iterator<Entry> it = entries.values().iterator();
+
+		while (it.hasNext()) {
+			it.next().wipe();
+			it.remove();
+		}
+	}
+
+
+	/**
+	 * Computes a cache key as the SHA-256 digest of the specified
+	 * parameters. Each parameter is prefixed with its length to prevent
+	 * ambiguous concatenations.
+	 *
+	 * @param params The parameters, {@code null} elements are allowed.
+	 *
+	 * @return The cache key.
+	 *
+	 * @throws JOSEException If SHA-256 is not supported.
+	 */
+	static String computeCacheKey(final Object ... params)
+		throws JOSEException {
+
+		MessageDigest md;
+
+		try {
+			md = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new JOSEException("Couldn't compute derived key cache key: " + e.getMessage(), e);
+		}
+
+		for (Object param: params) {
+
+			final byte[] bytes;
+
+			if (param == null) {
+				bytes = new byte[0];
+			} else if (param instanceof byte[]) {
+				bytes = (byte[])param;
+			} else if (param instanceof Base64URL) {
+				bytes = ((Base64URL)param).decode();
+			} else {
+				bytes = param.toString().getBytes(StandardCharset.UTF_8);
+			}
+
+			md.update(IntegerUtils.toBytes(bytes.length));
+			md.update(bytes);
+		}
+
+		return Base64URL.encode(md.digest()).toString();
+	}
+}
@@ -50,9 +50,12 @@ import com.nimbusds.jose.util.ByteUtils;
  *     <li>{@link com.nimbusds.jose.EncryptionMethod#A128CBC_HS256_DEPRECATED}
  *     <li>{@link com.nimbusds.jose.EncryptionMethod#A256CBC_HS512_DEPRECATED}
  * </ul>
+ *
+ * <p>The content ciphers are pooled and re-initialised with the CEK for
+ * every message, see {@link KeyBoundCipherContext}.
  * 
  * @author Vladimir Dzhuvinov
- * @version 2015-06-29
+ * @version 2026-10-18
  */
 abstract class DirectCryptoProvider extends BaseJWEProvider {
 
@@ -106,6 +109,12 @@ abstract class DirectCryptoProvider extends BaseJWEProvider {
 	private final SecretKey cek;
 
 
+	/**
+	 * The pooled content encryption ciphers for the CEK.
+	 */
+	private final KeyBoundCipherContext cipherContext = new KeyBoundCipherContext();
+
+
 	/**
 	 * Creates a new direct encryption / decryption provider.
 	 *
@@ -125,6 +134,17 @@ abstract class DirectCryptoProvider extends BaseJWEProvider {
 	}
 
 
+	/**
+	 * Returns the cipher context bound to the CEK.
+	 *
+	 * @return The cipher context.
+	 */
+	KeyBoundCipherContext getCipherContext() {
+
+		return cipherContext;
+	}
+
+
 	/**
 	 * Gets the Content Encryption Key (CEK).
 	 *
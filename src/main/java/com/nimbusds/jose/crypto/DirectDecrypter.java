@@ -59,7 +59,7 @@ import com.nimbusds.jose.util.Base64URL;
  * </ul>
  * 
  * @author Vladimir Dzhuvinov
- * @version 2015-06-29
+ * @version 2026-10-18
  */
 @ThreadSafe
 public class DirectDecrypter extends DirectCryptoProvider implements JWEDecrypter, CriticalHeaderParamsAware {
@@ -185,6 +185,20 @@ public class DirectDecrypter extends DirectCryptoProvider implements JWEDecrypte
 		}
 		
 
+		final SecretKey cek = decryptCEK(header, null);
+
+		return ContentCryptoProvider.decrypt(header, null, iv, cipherText, authTag, cek, getJCAContext(), getCipherContext());
+	}
+
+
+	@Override
+	SecretKey decryptCEK(final JWEHeader header, final Base64URL encryptedKey)
+		throws JOSEException {
+
+		if (encryptedKey != null) {
+			throw new JOSEException("Unexpected present JWE encrypted key");
+		}
+
 		JWEAlgorithm alg = header.getAlgorithm();
 
 		if (! alg.equals(JWEAlgorithm.DIR)) {
@@ -193,7 +207,7 @@ public class DirectDecrypter extends DirectCryptoProvider implements JWEDecrypte
 
 		critPolicy.ensureHeaderPasses(header);
 
-		return ContentCryptoProvider.decrypt(header, null, iv, cipherText, authTag, getKey(), getJCAContext());
+		return getKey();
 	}
 }
 
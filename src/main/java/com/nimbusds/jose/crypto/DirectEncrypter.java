@@ -59,7 +59,7 @@ import com.nimbusds.jose.util.ByteUtils;
  * </ul>
  *
  * @author Vladimir Dzhuvinov
- * @version 2017-06-01
+ * @version 2026-10-18
  */
 @ThreadSafe
 public class DirectEncrypter extends DirectCryptoProvider implements JWEEncrypter {
@@ -123,6 +123,16 @@ public class DirectEncrypter extends DirectCryptoProvider implements JWEEncrypte
 	public JWECryptoParts encrypt(final JWEHeader header, final byte[] clearText)
 		throws JOSEException {
 
+		final ContentEncryptionKey key = encryptCEK(header);
+
+		return ContentCryptoProvider.encrypt(key.getHeader(), clearText, key.getCEK(), key.getEncryptedKey(), getJCAContext(), getCipherContext());
+	}
+
+
+	@Override
+	ContentEncryptionKey encryptCEK(final JWEHeader header)
+		throws JOSEException {
+
 		JWEAlgorithm alg = header.getAlgorithm();
 
 		if (! alg.equals(JWEAlgorithm.DIR)) {
@@ -138,6 +148,6 @@ public class DirectEncrypter extends DirectCryptoProvider implements JWEEncrypte
 
 		final Base64URL encryptedKey = null; // The second JWE part
 
-		return ContentCryptoProvider.encrypt(header, clearText, getKey(), encryptedKey, getJCAContext());
+		return new ContentEncryptionKey(header, getKey(), encryptedKey);
 	}
 }
\ No newline at end of file
@@ -21,7 +21,9 @@ package com.nimbusds.jose.crypto;
 import java.nio.charset.Charset;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
 import java.security.Provider;
+import java.security.PublicKey;
 import java.security.interfaces.ECPrivateKey;
 import java.security.interfaces.ECPublicKey;
 import javax.crypto.KeyAgreement;
@@ -38,7 +40,7 @@ import com.nimbusds.jose.JWEHeader;
  * Elliptic Curve Diffie-Hellman key agreement functions and utilities.
  *
  * @author Vladimir Dzhuvinov
- * @version 2017-04-13
+ * @version 2026-10-18
  */
 class ECDH {
 
@@ -155,18 +157,83 @@ class ECDH {
 					    final Provider provider)
 		throws JOSEException {
 
-		// Get an ECDH key agreement instance from the JCA provider
+		return new SecretKeySpec(agreeKey("ECDH", publicKey, privateKey, provider), "AES");
+	}
+
+
+	/**
+	 * Derives a shared secret (also called 'Z') from the specified X25519
+	 * key agreement (RFC 7748). The all-zero shared secret resulting from
+	 * a small-order public key is rejected, as required by RFC 8037,
+	 * section 3.2.
+	 *
+	 * @param publicKey  The public X25519 key, i.e. the consumer's public
+	 *                   key on encryption, or the ephemeral public key on
+	 *                   decryption. Must not be {@code null}.
+	 * @param privateKey The private X25519 key, i.e. the ephemeral
+	 *                   private key on encryption, or the consumer's
+	 *                   private key on decryption. Must not be
+	 *                   {@code null}.
+	 * @param provider   The specific JCA provider for the X25519 key
+	 *                   agreement, {@code null} to use the default one.
+	 *
+	 * @return The derived shared secret ('Z'), with algorithm "AES".
+	 *
+	 * @throws JOSEException If derivation of the shared secret failed.
+	 */
+	static SecretKey deriveX25519SharedSecret(final PublicKey publicKey,
+						  final PrivateKey privateKey,
+						  final Provider provider)
+		throws JOSEException {
+
+		byte[] sharedSecret = agreeKey("X25519", publicKey, privateKey, provider);
+
+		int allZero = 0;
+
+		for (byte b: sharedSecret) {
+			allZero |= b;
+		}
+
+		if (allZero == 0) {
+			throw new JOSEException("Invalid X25519 key agreement: The shared secret is all-zero");
+		}
+
+		return new SecretKeySpec(sharedSecret, "AES");
+	}
+
+
+	/**
+	 * Performs a key agreement with the specified JCA algorithm.
+	 *
+	 * @param jcaAlg     The JCA key agreement algorithm name. Must not
+	 *                   be {@code null}.
+	 * @param publicKey  The public key. Must not be {@code null}.
+	 * @param privateKey The private key. Must not be {@code null}.
+	 * @param provider   The specific JCA provider for the key agreement,
+	 *                   {@code null} to use the default one.
+	 *
+	 * @return The agreed secret.
+	 *
+	 * @throws JOSEException If the key agreement failed.
+	 */
+	private static byte[] agreeKey(final String jcaAlg,
+				       final PublicKey publicKey,
+				       final PrivateKey privateKey,
+				       final Provider provider)
+		throws JOSEException {
+
+		// Get a key agreement instance from the JCA provider
 		KeyAgreement keyAgreement;
 
 		try {
 			if (provider != null) {
-				keyAgreement = KeyAgreement.getInstance("ECDH", provider);
+				keyAgreement = KeyAgreement.getInstance(jcaAlg, provider);
 			} else {
-				keyAgreement = KeyAgreement.getInstance("ECDH");
+				keyAgreement = KeyAgreement.getInstance(jcaAlg);
 			}
 
 		} catch (NoSuchAlgorithmException e) {
-			throw new JOSEException("Couldn't get an ECDH key agreement instance: " + e.getMessage(), e);
+			throw new JOSEException("Couldn't get an " + jcaAlg + " key agreement instance: " + e.getMessage(), e);
 		}
 
 		try {
@@ -174,10 +241,10 @@ class ECDH {
 			keyAgreement.doPhase(publicKey, true);
 
 		} catch (InvalidKeyException e) {
-			throw new JOSEException("Invalid key for ECDH key agreement: " + e.getMessage(), e);
+			throw new JOSEException("Invalid key for " + jcaAlg + " key agreement: " + e.getMessage(), e);
 		}
 
-		return new SecretKeySpec(keyAgreement.generateSecret(), "AES");
+		return keyAgreement.generateSecret();
 	}
 
 
@@ -22,10 +22,11 @@ import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
-import com.nimbusds.jose.EncryptionMethod;
-import com.nimbusds.jose.JOSEException;
-import com.nimbusds.jose.JWEAlgorithm;
+import javax.crypto.SecretKey;
+
+import com.nimbusds.jose.*;
 import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.util.Base64URL;
 
 
 /**
@@ -49,6 +50,9 @@ import com.nimbusds.jose.jwk.Curve;
  *     <li>{@link com.nimbusds.jose.jwk.Curve#P_521}
  * </ul>
  *
+ * <p>Subclasses for other curves, such as the X25519 provider, specify
+ * their own set of supported curves.
+ *
  * <p>Supports the following content encryption algorithms:
  *
  * <ul>
@@ -63,7 +67,7 @@ import com.nimbusds.jose.jwk.Curve;
  * </ul>
  *
  * @author Vladimir Dzhuvinov
- * @version 2015-05-26
+ * @version 2026-10-18
  */
 abstract class ECDHCryptoProvider extends BaseJWEProvider {
 
@@ -108,6 +112,12 @@ abstract class ECDHCryptoProvider extends BaseJWEProvider {
 	private final Curve curve;
 
 
+	/**
+	 * The supported elliptic curves.
+	 */
+	private final Set<Curve> supportedCurves;
+
+
 	/**
 	 * The Concatenation Key Derivation Function (KDF).
 	 */
@@ -126,16 +136,35 @@ abstract class ECDHCryptoProvider extends BaseJWEProvider {
 	protected ECDHCryptoProvider(final Curve curve)
 		throws JOSEException {
 
+		this(curve, SUPPORTED_ELLIPTIC_CURVES);
+	}
+
+
+	/**
+	 * Creates a new Elliptic Curve Diffie-Hellman encryption /decryption
+	 * provider for the specified set of supported curves.
+	 *
+	 * @param curve           The elliptic curve. Must be supported and
+	 *                        not {@code null}.
+	 * @param supportedCurves The supported elliptic curves. Must not be
+	 *                        {@code null}.
+	 *
+	 * @throws JOSEException If the elliptic curve is not supported.
+	 */
+	protected ECDHCryptoProvider(final Curve curve, final Set<Curve> supportedCurves)
+		throws JOSEException {
+
 		super(SUPPORTED_ALGORITHMS, ContentCryptoProvider.SUPPORTED_ENCRYPTION_METHODS);
 
 		Curve definedCurve = curve != null ? curve : new Curve("unknown");
 
-		if (! SUPPORTED_ELLIPTIC_CURVES.contains(curve)) {
+		if (! supportedCurves.contains(curve)) {
 			throw new JOSEException(AlgorithmSupportMessage.unsupportedEllipticCurve(
-				definedCurve, SUPPORTED_ELLIPTIC_CURVES));
+				definedCurve, supportedCurves));
 		}
 
 		this.curve = curve;
+		this.supportedCurves = supportedCurves;
 
 		concatKDF = new ConcatKDF("SHA-256");
 	}
@@ -152,6 +181,129 @@ abstract class ECDHCryptoProvider extends BaseJWEProvider {
 	}
 
 
+	/**
+	 * Ensures the specified ephemeral key pair pool, if any, is for the
+	 * curve of this provider.
+	 *
+	 * @param keyPairPool The ephemeral key pair pool, {@code null} if
+	 *                    none.
+	 *
+	 * @return The ephemeral key pair pool, {@code null} if none.
+	 *
+	 * @throws JOSEException If the curve of the pool doesn't match.
+	 */
+	protected EphemeralKeyPairPool ensureCurveMatch(final EphemeralKeyPairPool keyPairPool)
+		throws JOSEException {
+
+		if (keyPairPool != null && ! curve.equals(keyPairPool.getCurve())) {
+			throw new JOSEException("The ephemeral key pair pool curve " + keyPairPool.getCurve() +
+				" doesn't match the key curve " + curve);
+		}
+
+		return keyPairPool;
+	}
+
+
+	/**
+	 * Determines the content encryption key (CEK) using the specified
+	 * shared secret ('Z'). Derives the shared key via the concat KDF and
+	 * then, depending on the ECDH algorithm mode, uses it directly as the
+	 * CEK or to wrap a generated CEK.
+	 *
+	 * @param header The JWE header, with the ephemeral public key
+	 *               ({@code epk}) set. Must not be {@code null}.
+	 * @param Z      The derived shared secret ('Z'). Must not be
+	 *               {@code null}.
+	 *
+	 * @return The CEK, together with the JWE header and the encrypted
+	 *         CEK.
+	 *
+	 * @throws JOSEException If the CEK couldn't be determined.
+	 */
+	ContentEncryptionKey encryptCEKWithZ(final JWEHeader header, final SecretKey Z)
+		throws JOSEException {
+
+		final JWEAlgorithm alg = header.getAlgorithm();
+		final ECDH.AlgorithmMode algMode = ECDH.resolveAlgorithmMode(alg);
+		final EncryptionMethod enc = header.getEncryptionMethod();
+
+		// Derive shared key via concat KDF
+		SecretKey sharedKey = deriveSharedKey(header, Z);
+
+		final SecretKey cek;
+		final Base64URL encryptedKey; // The CEK encrypted (second JWE part)
+
+		if (algMode.equals(ECDH.AlgorithmMode.DIRECT)) {
+			cek = sharedKey;
+			encryptedKey = null;
+		} else if (algMode.equals(ECDH.AlgorithmMode.KW)) {
+			cek = ContentCryptoProvider.generateCEK(enc, getJCAContext().getSecureRandom());
+			encryptedKey = Base64URL.encode(AESKW.wrapCEK(cek, sharedKey, getJCAContext().getKeyEncryptionProvider()));
+		} else {
+			throw new JOSEException("Unexpected JWE ECDH algorithm mode: " + algMode);
+		}
+
+		return new ContentEncryptionKey(header, cek, encryptedKey);
+	}
+
+
+	/**
+	 * Derives the shared key from the specified shared secret ('Z') via
+	 * the concat KDF.
+	 *
+	 * @param header The JWE header. Must not be {@code null}.
+	 * @param Z      The derived shared secret ('Z'). Must not be
+	 *               {@code null}.
+	 *
+	 * @return The derived shared key.
+	 *
+	 * @throws JOSEException If derivation of the shared key failed.
+	 */
+	protected SecretKey deriveSharedKey(final JWEHeader header, final SecretKey Z)
+		throws JOSEException {
+
+		getConcatKDF().getJCAContext().setProvider(getJCAContext().getMACProvider()); // update before concat
+		return ECDH.deriveSharedKey(header, Z, getConcatKDF());
+	}
+
+
+	/**
+	 * Recovers the content encryption key (CEK) using the specified
+	 * shared key derived via the concat KDF. Depending on the ECDH
+	 * algorithm mode, the shared key is used directly as the CEK or to
+	 * unwrap the encrypted CEK.
+	 *
+	 * @param header       The JWE header. Must not be {@code null}.
+	 * @param sharedKey    The derived shared key. Must not be
+	 *                     {@code null}.
+	 * @param encryptedKey The encrypted key, {@code null} if not
+	 *                     required by the JWE algorithm.
+	 *
+	 * @return The CEK.
+	 *
+	 * @throws JOSEException If the CEK couldn't be recovered.
+	 */
+	protected SecretKey decryptCEKWithSharedKey(final JWEHeader header,
+						    final SecretKey sharedKey,
+						    final Base64URL encryptedKey)
+		throws JOSEException {
+
+		final JWEAlgorithm alg = header.getAlgorithm();
+		final ECDH.AlgorithmMode algMode = ECDH.resolveAlgorithmMode(alg);
+
+		if (algMode.equals(ECDH.AlgorithmMode.DIRECT)) {
+			return sharedKey;
+		} else if (algMode.equals(ECDH.AlgorithmMode.KW)) {
+			if (encryptedKey == null) {
+				throw new JOSEException("Missing JWE encrypted key");
+			}
+			return AESKW.unwrapCEK(sharedKey, encryptedKey.decode(), getJCAContext().getKeyEncryptionProvider());
+		} else {
+			throw new JOSEException("Unexpected JWE ECDH algorithm mode: " + algMode);
+		}
+	}
+
+
 	/**
 	 * Returns the names of the supported elliptic curves. These correspond
 	 * to the {@code crv} EC JWK parameter.
@@ -160,7 +312,7 @@ abstract class ECDHCryptoProvider extends BaseJWEProvider {
 	 */
 	public Set<Curve> supportedEllipticCurves() {
 
-		return SUPPORTED_ELLIPTIC_CURVES;
+		return supportedCurves;
 	}
 
 
@@ -27,6 +27,7 @@ import com.nimbusds.jose.*;
 import com.nimbusds.jose.crypto.utils.ECChecks;
 import com.nimbusds.jose.jwk.Curve;
 import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
 import com.nimbusds.jose.util.Base64URL;
 
 
@@ -71,8 +72,16 @@ import com.nimbusds.jose.util.Base64URL;
  *     <li>{@link com.nimbusds.jose.EncryptionMethod#A256CBC_HS512_DEPRECATED}
  * </ul>
  *
+ * <p>An optional bounded cache of derived shared keys can be enabled for
+ * senders that reuse an ephemeral key within a short time window. The cache
+ * is keyed by the ephemeral public key thumbprint, the JWE algorithm and
+ * encryption method, and the agreement PartyUInfo and PartyVInfo, and saves
+ * the key agreement and the concat KDF on a hit. Evicted entries are wiped.
+ * Caching is off by default; enable it only when ephemeral key reuse is
+ * acceptable under the application's threat model.
+ *
  * @author Vladimir Dzhuvinov
- * @version 2017-04-13
+ * @version 2026-10-18
  */
 public class ECDHDecrypter extends ECDHCryptoProvider implements JWEDecrypter, CriticalHeaderParamsAware {
 
@@ -89,6 +98,12 @@ public class ECDHDecrypter extends ECDHCryptoProvider implements JWEDecrypter, C
 	private final CriticalHeaderParamsDeferral critPolicy = new CriticalHeaderParamsDeferral();
 
 
+	/**
+	 * The derived shared key cache, {@code null} if disabled.
+	 */
+	private final DerivedKeyCache derivedKeyCache;
+
+
 	/**
 	 * Creates a new Elliptic Curve Diffie-Hellman decrypter.
 	 *
@@ -121,6 +136,8 @@ public class ECDHDecrypter extends ECDHCryptoProvider implements JWEDecrypter, C
 		}
 
 		this.privateKey = ecJWK.toECPrivateKey();
+
+		derivedKeyCache = null;
 	}
 
 
@@ -137,11 +154,41 @@ public class ECDHDecrypter extends ECDHCryptoProvider implements JWEDecrypter, C
 	public ECDHDecrypter(final ECPrivateKey privateKey, final Set<String> defCritHeaders)
 		throws JOSEException {
 
+		this(privateKey, defCritHeaders, 0);
+	}
+
+
+	/**
+	 * Creates a new Elliptic Curve Diffie-Hellman decrypter.
+	 *
+	 * @param privateKey          The private EC key. Must not be
+	 *                            {@code null}.
+	 * @param defCritHeaders      The names of the critical header
+	 *                            parameters that are deferred to the
+	 *                            application for processing, empty set or
+	 *                            {@code null} if none.
+	 * @param derivedKeyCacheSize The maximum number of derived shared
+	 *                            keys to cache, zero to disable caching.
+	 *                            Must not be negative.
+	 *
+	 * @throws JOSEException If the elliptic curve is not supported.
+	 */
+	public ECDHDecrypter(final ECPrivateKey privateKey,
+			     final Set<String> defCritHeaders,
+			     final int derivedKeyCacheSize)
+		throws JOSEException {
+
 		super(Curve.forECParameterSpec(privateKey.getParams()));
 
 		critPolicy.setDeferredCriticalHeaderParams(defCritHeaders);
 
 		this.privateKey = privateKey;
+
+		if (derivedKeyCacheSize < 0) {
+			throw new IllegalArgumentException("The derived key cache size must not be negative");
+		}
+
+		derivedKeyCache = derivedKeyCacheSize > 0 ? new DerivedKeyCache(derivedKeyCacheSize) : null;
 	}
 
 
@@ -156,6 +203,40 @@ public class ECDHDecrypter extends ECDHCryptoProvider implements JWEDecrypter, C
 	}
 
 
+	/**
+	 * Returns the maximum number of derived shared keys to cache.
+	 *
+	 * @return The derived key cache size, zero if caching is disabled.
+	 */
+	public int getDerivedKeyCacheSize() {
+
+		return derivedKeyCache != null ? derivedKeyCache.getMaxEntries() : 0;
+	}
+
+
+	/**
+	 * Returns the derived shared key cache.
+	 *
+	 * @return The derived key cache, {@code null} if disabled.
+	 */
+	DerivedKeyCache getDerivedKeyCache() {
+
+		return derivedKeyCache;
+	}
+
+
+	/**
+	 * Removes all cached derived shared keys, overwriting their key
+	 * material. Has no effect if caching is disabled.
+	 */
+	public void clearDerivedKeyCache() {
+
+		if (derivedKeyCache != null) {
+			derivedKeyCache.clear();
+		}
+	}
+
+
 	@Override
 	public Set<String> getProcessedCriticalHeaderParams() {
 
@@ -178,19 +259,50 @@ public class ECDHDecrypter extends ECDHCryptoProvider implements JWEDecrypter, C
 			      final Base64URL authTag)
 		throws JOSEException {
 
-		final JWEAlgorithm alg = header.getAlgorithm();
-		final ECDH.AlgorithmMode algMode = ECDH.resolveAlgorithmMode(alg);
+		final SecretKey cek = decryptCEK(header, encryptedKey);
+
+		return ContentCryptoProvider.decrypt(header, encryptedKey, iv, cipherText, authTag, cek, getJCAContext());
+	}
+
+
+	@Override
+	SecretKey decryptCEK(final JWEHeader header, final Base64URL encryptedKey)
+		throws JOSEException {
 
 		critPolicy.ensureHeaderPasses(header);
 
 		// Get ephemeral EC key
-		ECKey ephemeralKey = header.getEphemeralPublicKey();
+		JWK ephemeralKey = header.getEphemeralPublicJWK();
 
 		if (ephemeralKey == null) {
 			throw new JOSEException("Missing ephemeral public EC key \"epk\" JWE header parameter");
 		}
 
-		ECPublicKey ephemeralPublicKey = ephemeralKey.toECPublicKey();
+		if (! (ephemeralKey instanceof ECKey)) {
+			throw new JOSEException("The ephemeral public key \"epk\" JWE header parameter must be an EC JWK");
+		}
+
+		final String cacheKey;
+
+		if (derivedKeyCache != null) {
+
+			cacheKey = DerivedKeyCache.computeCacheKey(
+				ephemeralKey.computeThumbprint(),
+				header.getAlgorithm(),
+				header.getEncryptionMethod(),
+				header.getAgreementPartyUInfo(),
+				header.getAgreementPartyVInfo());
+
+			SecretKey sharedKey = derivedKeyCache.get(cacheKey);
+
+			if (sharedKey != null) {
+				return decryptCEKWithSharedKey(header, sharedKey, encryptedKey);
+			}
+		} else {
+			cacheKey = null;
+		}
+
+		ECPublicKey ephemeralPublicKey = ((ECKey)ephemeralKey).toECPublicKey();
 		
 		// Curve check
 		if (! ECChecks.isPointOnCurve(ephemeralPublicKey, getPrivateKey())) {
@@ -204,22 +316,12 @@ public class ECDHDecrypter extends ECDHCryptoProvider implements JWEDecrypter, C
 			getJCAContext().getKeyEncryptionProvider());
 
 		// Derive shared key via concat KDF
-		getConcatKDF().getJCAContext().setProvider(getJCAContext().getMACProvider()); // update before concat
-		SecretKey sharedKey = ECDH.deriveSharedKey(header, Z, getConcatKDF());
-
-		final SecretKey cek;
+		SecretKey sharedKey = deriveSharedKey(header, Z);
 
-		if (algMode.equals(ECDH.AlgorithmMode.DIRECT)) {
-			cek = sharedKey;
-		} else if (algMode.equals(ECDH.AlgorithmMode.KW)) {
-			if (encryptedKey == null) {
-				throw new JOSEException("Missing JWE encrypted key");
-			}
-			cek = AESKW.unwrapCEK(sharedKey, encryptedKey.decode(), getJCAContext().getKeyEncryptionProvider());
-		} else {
-			throw new JOSEException("Unexpected JWE ECDH algorithm mode: " + algMode);
+		if (cacheKey != null) {
+			derivedKeyCache.put(cacheKey, sharedKey);
 		}
 
-		return ContentCryptoProvider.decrypt(header, encryptedKey, iv, cipherText, authTag, cek, getJCAContext());
+		return decryptCEKWithSharedKey(header, sharedKey, encryptedKey);
 	}
 }
@@ -27,7 +27,6 @@ import javax.crypto.SecretKey;
 import com.nimbusds.jose.*;
 import com.nimbusds.jose.jwk.Curve;
 import com.nimbusds.jose.jwk.ECKey;
-import com.nimbusds.jose.util.Base64URL;
 import net.jcip.annotations.ThreadSafe;
 
 
@@ -72,8 +71,12 @@ import net.jcip.annotations.ThreadSafe;
  *     <li>{@link com.nimbusds.jose.EncryptionMethod#A256CBC_HS512_DEPRECATED}
  * </ul>
  *
+ * <p>The ephemeral EC key pairs can optionally be taken from an
+ * {@link EphemeralKeyPairPool}, which generates them in the background. If
+ * the pool is empty the key pair is generated inline.
+ *
  * @author Vladimir Dzhuvinov
- * @version 2015-06-08
+ * @version 2026-10-18
  */
 @ThreadSafe
 public class ECDHEncrypter extends ECDHCryptoProvider implements JWEEncrypter {
@@ -85,6 +88,13 @@ public class ECDHEncrypter extends ECDHCryptoProvider implements JWEEncrypter {
 	private final ECPublicKey publicKey;
 
 
+	/**
+	 * The pool of pre-generated ephemeral key pairs, {@code null} if
+	 * none.
+	 */
+	private final EphemeralKeyPairPool keyPairPool;
+
+
 	/**
 	 * Creates a new Elliptic Curve Diffie-Hellman encrypter.
 	 *
@@ -95,9 +105,29 @@ public class ECDHEncrypter extends ECDHCryptoProvider implements JWEEncrypter {
 	public ECDHEncrypter(final ECPublicKey publicKey)
 		throws JOSEException {
 
+		this(publicKey, null);
+	}
+
+
+	/**
+	 * Creates a new Elliptic Curve Diffie-Hellman encrypter.
+	 *
+	 * @param publicKey   The public EC key. Must not be {@code null}.
+	 * @param keyPairPool The pool of pre-generated ephemeral key pairs,
+	 *                    {@code null} to always generate them inline.
+	 *                    Must be for the curve of the public key.
+	 *
+	 * @throws JOSEException If the elliptic curve is not supported or
+	 *                       doesn't match the curve of the pool.
+	 */
+	public ECDHEncrypter(final ECPublicKey publicKey, final EphemeralKeyPairPool keyPairPool)
+		throws JOSEException {
+
 		super(Curve.forECParameterSpec(publicKey.getParams()));
 
 		this.publicKey = publicKey;
+
+		this.keyPairPool = ensureCurveMatch(keyPairPool);
 	}
 
 
@@ -111,9 +141,30 @@ public class ECDHEncrypter extends ECDHCryptoProvider implements JWEEncrypter {
 	public ECDHEncrypter(final ECKey ecJWK)
 		throws JOSEException {
 
+		this(ecJWK, null);
+	}
+
+
+	/**
+	 * Creates a new Elliptic Curve Diffie-Hellman encrypter.
+	 *
+	 * @param ecJWK       The EC JSON Web Key (JWK). Must not be
+	 *                    {@code null}.
+	 * @param keyPairPool The pool of pre-generated ephemeral key pairs,
+	 *                    {@code null} to always generate them inline.
+	 *                    Must be for the curve of the JWK.
+	 *
+	 * @throws JOSEException If the elliptic curve is not supported or
+	 *                       doesn't match the curve of the pool.
+	 */
+	public ECDHEncrypter(final ECKey ecJWK, final EphemeralKeyPairPool keyPairPool)
+		throws JOSEException {
+
 		super(ecJWK.getCurve());
 
 		publicKey = ecJWK.toECPublicKey();
+
+		this.keyPairPool = ensureCurveMatch(keyPairPool);
 	}
 
 
@@ -128,48 +179,54 @@ public class ECDHEncrypter extends ECDHCryptoProvider implements JWEEncrypter {
 	}
 
 
+	/**
+	 * Returns the pool of pre-generated ephemeral key pairs.
+	 *
+	 * @return The key pair pool, {@code null} if none.
+	 */
+	public EphemeralKeyPairPool getKeyPairPool() {
+
+		return keyPairPool;
+	}
+
+
 	@Override
 	public JWECryptoParts encrypt(final JWEHeader header, final byte[] clearText)
 		throws JOSEException {
 
-		final JWEAlgorithm alg = header.getAlgorithm();
-		final ECDH.AlgorithmMode algMode = ECDH.resolveAlgorithmMode(alg);
-		final EncryptionMethod enc = header.getEncryptionMethod();
+		final ContentEncryptionKey key = encryptCEK(header);
 
-		// Generate ephemeral EC key pair on the same curve as the consumer's public key
-		KeyPair ephemeralKeyPair = generateEphemeralKeyPair(publicKey.getParams());
-		ECPublicKey ephemeralPublicKey = (ECPublicKey)ephemeralKeyPair.getPublic();
-		ECPrivateKey ephemeralPrivateKey = (ECPrivateKey)ephemeralKeyPair.getPrivate();
+		return ContentCryptoProvider.encrypt(key.getHeader(), clearText, key.getCEK(), key.getEncryptedKey(), getJCAContext());
+	}
 
-		// Derive 'Z'
-		SecretKey Z = ECDH.deriveSharedSecret(
-			publicKey,
-			ephemeralPrivateKey,
-			getJCAContext().getKeyEncryptionProvider());
 
-		// Derive shared key via concat KDF
-		getConcatKDF().getJCAContext().setProvider(getJCAContext().getMACProvider()); // update before concat
-		SecretKey sharedKey = ECDH.deriveSharedKey(header, Z, getConcatKDF());
-
-		final SecretKey cek;
-		final Base64URL encryptedKey; // The CEK encrypted (second JWE part)
-
-		if (algMode.equals(ECDH.AlgorithmMode.DIRECT)) {
-			cek = sharedKey;
-			encryptedKey = null;
-		} else if (algMode.equals(ECDH.AlgorithmMode.KW)) {
-			cek = ContentCryptoProvider.generateCEK(enc, getJCAContext().getSecureRandom());
-			encryptedKey = Base64URL.encode(AESKW.wrapCEK(cek, sharedKey, getJCAContext().getKeyEncryptionProvider()));
-		} else {
-			throw new JOSEException("Unexpected JWE ECDH algorithm mode: " + algMode);
+	@Override
+	ContentEncryptionKey encryptCEK(final JWEHeader header)
+		throws JOSEException {
+
+		// Take a pre-generated ephemeral EC key pair, or generate one on
+		// the same curve as the consumer's public key
+		KeyPair ephemeralKeyPair = keyPairPool != null ? keyPairPool.poll() : null;
+
+		if (ephemeralKeyPair == null) {
+			ephemeralKeyPair = generateEphemeralKeyPair(publicKey.getParams());
 		}
 
+		ECPublicKey ephemeralPublicKey = (ECPublicKey)ephemeralKeyPair.getPublic();
+		ECPrivateKey ephemeralPrivateKey = (ECPrivateKey)ephemeralKeyPair.getPrivate();
+
 		// Add the ephemeral public EC key to the header
 		JWEHeader updatedHeader = new JWEHeader.Builder(header).
 			ephemeralPublicKey(new ECKey.Builder(getCurve(), ephemeralPublicKey).build()).
 			build();
 
-		return ContentCryptoProvider.encrypt(updatedHeader, clearText, cek, encryptedKey, getJCAContext());
+		// Derive 'Z'
+		SecretKey Z = ECDH.deriveSharedSecret(
+			publicKey,
+			ephemeralPrivateKey,
+			getJCAContext().getKeyEncryptionProvider());
+
+		return encryptCEKWithZ(updatedHeader, Z);
 	}
 
 
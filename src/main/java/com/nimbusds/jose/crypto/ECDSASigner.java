@@ -21,7 +21,6 @@ package com.nimbusds.jose.crypto;
 import java.security.InvalidKeyException;
 import java.security.PrivateKey;
 import java.security.Signature;
-import java.security.SignatureException;
 import java.security.interfaces.ECPrivateKey;
 
 import com.nimbusds.jose.JOSEException;
@@ -55,7 +54,7 @@ import net.jcip.annotations.ThreadSafe;
  * 
  * @author Axel Nennker
  * @author Vladimir Dzhuvinov
- * @version 2016-11-30
+ * @version 2026-10-18
  */
 @ThreadSafe
 public class ECDSASigner extends ECDSAProvider implements JWSSigner {
@@ -157,29 +156,32 @@ public class ECDSASigner extends ECDSAProvider implements JWSSigner {
 	public Base64URL sign(final JWSHeader header, final byte[] signingInput)
 		throws JOSEException {
 
+		StreamingSignature signature = initSigning(header);
+		signature.update(signingInput);
+		return signature.sign();
+	}
+
+
+	@Override
+	StreamingSignature initSigning(final JWSHeader header)
+		throws JOSEException {
+
 		final JWSAlgorithm alg = header.getAlgorithm();
 
 		if (! supportedJWSAlgorithms().contains(alg)) {
 			throw new JOSEException(AlgorithmSupportMessage.unsupportedJWSAlgorithm(alg, supportedJWSAlgorithms()));
 		}
 
-		// DER-encoded signature, according to JCA spec
-		// (sequence of two integers - R + S)
-		final byte[] jcaSignature;
+		Signature dsa = ECDSA.getSignerAndVerifier(alg, getJCAContext().getProvider());
 
 		try {
-			Signature dsa = ECDSA.getSignerAndVerifier(alg, getJCAContext().getProvider());
 			dsa.initSign(privateKey, getJCAContext().getSecureRandom());
-			dsa.update(signingInput);
-			jcaSignature = dsa.sign();
 
-		} catch (InvalidKeyException | SignatureException e) {
+		} catch (InvalidKeyException e) {
 
 			throw new JOSEException(e.getMessage(), e);
 		}
 
-		final int rsByteArrayLength = ECDSA.getSignatureByteArrayLength(header.getAlgorithm());
-		final byte[] jwsSignature = ECDSA.transcodeSignatureToConcat(jcaSignature, rsByteArrayLength);
-		return Base64URL.encode(jwsSignature);
+		return StreamingSignature.forECDSA(dsa, ECDSA.getSignatureByteArrayLength(alg));
 	}
 }
@@ -20,8 +20,8 @@ package com.nimbusds.jose.crypto;
 
 import java.security.InvalidKeyException;
 import java.security.Signature;
-import java.security.SignatureException;
 import java.security.interfaces.ECPublicKey;
+import java.util.Collections;
 import java.util.Set;
 
 import com.nimbusds.jose.*;
@@ -53,7 +53,7 @@ import net.jcip.annotations.ThreadSafe;
  * 
  * @author Axel Nennker
  * @author Vladimir Dzhuvinov
- * @version 2017-04-13
+ * @version 2026-10-18
  */
 @ThreadSafe
 public class ECDSAVerifier extends ECDSAProvider implements JWSVerifier, CriticalHeaderParamsAware {
@@ -160,38 +160,45 @@ public class ECDSAVerifier extends ECDSAProvider implements JWSVerifier, Critica
 		              final Base64URL signature)
 		throws JOSEException {
 
-		final JWSAlgorithm alg = header.getAlgorithm();
+		StreamingSignature verification = initVerification(header, Collections.<String>emptySet());
 
-		if (! supportedJWSAlgorithms().contains(alg)) {
-			throw new JOSEException(AlgorithmSupportMessage.unsupportedJWSAlgorithm(alg, supportedJWSAlgorithms()));
+		if (verification == null) {
+			return false;
 		}
 
-		if (! critPolicy.headerPasses(header)) {
+		try {
+			verification.update(signedContent);
+		} catch (JOSEException e) {
 			return false;
 		}
 
-		final byte[] jwsSignature = signature.decode();
+		return verification.verify(signature);
+	}
 
-		final byte[] derSignature;
 
-		try {
-			derSignature = ECDSA.transcodeSignatureToDER(jwsSignature);
-		} catch (JOSEException e) {
-			// Invalid signature format
-			return false;
+	@Override
+	StreamingSignature initVerification(final JWSHeader header, final Set<String> processedCritParams)
+		throws JOSEException {
+
+		final JWSAlgorithm alg = header.getAlgorithm();
+
+		if (! supportedJWSAlgorithms().contains(alg)) {
+			throw new JOSEException(AlgorithmSupportMessage.unsupportedJWSAlgorithm(alg, supportedJWSAlgorithms()));
+		}
+
+		if (! critPolicy.headerPasses(header, processedCritParams)) {
+			return null;
 		}
 
 		Signature sig = ECDSA.getSignerAndVerifier(alg, getJCAContext().getProvider());
 
 		try {
 			sig.initVerify(publicKey);
-			sig.update(signedContent);
-			return sig.verify(derSignature);
 
 		} catch (InvalidKeyException e) {
 			throw new JOSEException("Invalid EC public key: " + e.getMessage(), e);
-		} catch (SignatureException e) {
-			return false;
 		}
+
+		return StreamingSignature.forECDSA(sig, ECDSA.getSignatureByteArrayLength(alg));
 	}
 }
@@ -0,0 +1,388 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.crypto;
+
+
+import java.security.*;
+import java.security.spec.ECParameterSpec;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.Curve;
+import net.jcip.annotations.ThreadSafe;
+
+
+/**
+ * Pool of pre-generated ephemeral key pairs for Elliptic Curve Diffie-Hellman
+ * (ECDH) encryption. Takes the key pair generation, which dominates the cost
+ * of ECDH-ES encryption, off the encrypting thread.
+ *
+ * <p>The pool is replenished in the background, on the supplied
+ * {@link Executor} or on a dedicated daemon thread, up to the configured
+ * depth. Each key pair is handed out exactly once. When the pool is empty
+ * {@link #poll()} returns {@code null} and the caller is expected to
+ * generate a key pair inline.
+ *
+ * <p>Supports the following elliptic curves:
+ *
+ * <ul>
+ *     <li>{@link com.nimbusds.jose.jwk.Curve#P_256}
+ *     <li>{@link com.nimbusds.jose.jwk.Curve#P_384}
+ *     <li>{@link com.nimbusds.jose.jwk.Curve#P_521}
+ *     <li>{@link com.nimbusds.jose.jwk.Curve#X25519}
+ * </ul>
+ *
+ * <p>Example use with an ECDH encrypter:
+ *
+ * <pre>
+ * EphemeralKeyPairPool pool = new EphemeralKeyPairPool(Curve.P_256, 64);
+ * JWEEncrypter encrypter = new ECDHEncrypter(ecPublicKey, pool);
+ * </pre>
+ *
+ * <p>This class is thread-safe.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+@ThreadSafe
+public class EphemeralKeyPairPool {
+
+
+	/**
+	 * The supported curves: those of the NIST ECDH encrypter and of the
+	 * X25519 encrypter.
+	 */
+	public static final Set<Curve> SUPPORTED_ELLIPTIC_CURVES;
+
+
+	static {
+		Set<Curve> curves = new LinkedHashSet<>(ECDHCryptoProvider.SUPPORTED_ELLIPTIC_CURVES);
+		curves.addAll(X25519Encrypter.SUPPORTED_ELLIPTIC_CURVES);
+		SUPPORTED_ELLIPTIC_CURVES = Collections.unmodifiableSet(curves);
+	}
+
+
+	/**
+	 * The curve of the generated key pairs.
+	 */
+	private final Curve curve;
+
+
+	/**
+	 * The maximum number of pre-generated key pairs to hold.
+	 */
+	private final int depth;
+
+
+	/**
+	 * The specific JCA provider for the key pair generation, {@code null}
+	 * for the default one.
+	 */
+	private final Provider provider;
+
+
+	/**
+	 * The executor for the background key pair generation.
+	 */
+	private final Executor executor;
+
+
+	/**
+	 * The executor service owned by this pool, {@code null} if the
+	 * executor was supplied.
+	 */
+	private final ExecutorService ownExecutorService;
+
+
+	/**
+	 * The pre-generated key pairs.
+	 */
+	private final BlockingQueue<KeyPair> keyPairs;
+
+
+	/**
+	 * Set while a replenishment task is scheduled or running.
+	 */
+	private final AtomicBoolean replenishing = new AtomicBoolean(false);
+
+
+	/**
+	 * Set when the pool is shut down.
+	 */
+	private volatile boolean shutdown = false;
+
+
+	/**
+	 * Creates a new ephemeral key pair pool which replenishes itself on
+	 * a dedicated daemon thread. The pool starts filling immediately.
+	 *
+	 * @param curve The curve of the key pairs. Must be supported and not
+	 *              {@code null}.
+	 * @param depth The maximum number of pre-generated key pairs to hold.
+	 *              Must be positive.
+	 *
+	 * @throws JOSEException If the curve is not supported.
+	 */
+	public EphemeralKeyPairPool(final Curve curve, final int depth)
+		throws JOSEException {
+
+		this(curve, depth, null, null);
+	}
+
+
+	/**
+	 * Creates a new ephemeral key pair pool. The pool starts filling
+	 * immediately.
+	 *
+	 * @param curve    The curve of the key pairs. Must be supported and
+	 *                 not {@code null}.
+	 * @param depth    The maximum number of pre-generated key pairs to
+	 *                 hold. Must be positive.
+	 * @param provider The specific JCA provider for the key pair
+	 *                 generation, {@code null} to use the default one.
+	 * @param executor The executor for the background key pair
+	 *                 generation, {@code null} to use a dedicated daemon
+	 *                 thread.
+	 *
+	 * @throws JOSEException If the curve is not supported.
+	 */
+	public EphemeralKeyPairPool(final Curve curve,
+				    final int depth,
+				    final Provider provider,
+				    final Executor executor)
+		throws JOSEException {
+
+		if (curve == null || ! SUPPORTED_ELLIPTIC_CURVES.contains(curve)) {
+			throw new JOSEException(AlgorithmSupportMessage.unsupportedEllipticCurve(
+				curve != null ? curve : new Curve("unknown"),
+				SUPPORTED_ELLIPTIC_CURVES));
+		}
+
+		this.curve = curve;
+
+		if (depth < 1) {
+			throw new IllegalArgumentException("The pool depth must be positive");
+		}
+
+		this.depth = depth;
+		this.provider = provider;
+
+		// Fail early if key pairs cannot be generated
+		generateKeyPair(curve, provider);
+
+		if (executor != null) {
+			this.executor = executor;
+			ownExecutorService = null;
+		} else {
+			ownExecutorService = Executors.newSingleThreadExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(final Runnable r) {
+					Thread thread = new Thread(r, "nimbus-jose-ephemeral-key-pool-" + curve);
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			this.executor = ownExecutorService;
+		}
+
+		keyPairs = new ArrayBlockingQueue<>(depth);
+
+		scheduleReplenishment();
+	}
+
+
+	/**
+	 * Returns the curve of the generated key pairs.
+	 *
+	 * @return The curve.
+	 */
+	public Curve getCurve() {
+
+		return curve;
+	}
+
+
+	/**
+	 * Returns the maximum number of pre-generated key pairs to hold.
+	 *
+	 * @return The pool depth.
+	 */
+	public int getDepth() {
+
+		return depth;
+	}
+
+
+	/**
+	 * Returns the number of currently available pre-generated key pairs.
+	 *
+	 * @return The number of available key pairs.
+	 */
+	public int size() {
+
+		return keyPairs.size();
+	}
+
+
+	/**
+	 * Retrieves and removes a pre-generated key pair from the pool. Each
+	 * key pair is returned at most once. Triggers replenishment of the
+	 * pool in the background.
+	 *
+	 * @return The key pair, {@code null} if the pool is empty.
+	 */
+	public KeyPair poll() {
+
+		KeyPair keyPair = keyPairs.poll();
+		scheduleReplenishment();
+		return keyPair;
+	}
+
+
+	/**
+	 * Retrieves and removes a pre-generated key pair from the pool, or
+	 * generates a new one inline if the pool is empty.
+	 *
+	 * @return The key pair.
+	 *
+	 * @throws JOSEException If the key pair couldn't be generated.
+	 */
+	public KeyPair pollOrGenerate()
+		throws JOSEException {
+
+		KeyPair keyPair = poll();
+
+		if (keyPair != null) {
+			return keyPair;
+		}
+
+		return generateKeyPair(curve, provider);
+	}
+
+
+	/**
+	 * Shuts down the pool. Clears the pre-generated key pairs and, if
+	 * the pool owns its background thread, stops it. Subsequent calls
+	 * to {@link #poll()} return {@code null}.
+	 */
+	public void shutdown() {
+
+		shutdown = true;
+
+		if (ownExecutorService != null) {
+			ownExecutorService.shutdownNow();
+		}
+
+		keyPairs.clear();
+	}
+
+
+	/**
+	 * Schedules a background replenishment of the pool unless one is
+	 * already pending or the pool is full.
+	 */
+	private void scheduleReplenishment() {
+
+		if (shutdown || keyPairs.remainingCapacity() == 0) {
+			return;
+		}
+
+		if (! replenishing.compareAndSet(false, true)) {
+			return; // Already scheduled
+		}
+
+		try {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					replenish();
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			// Callers fall back to inline generation
+			replenishing.set(false);
+		}
+	}
+
+
+	/**
+	 * Fills the pool up to its depth.
+	 */
+	private void replenish() {
+
+		try {
+			while (! shutdown && keyPairs.remainingCapacity() > 0) {
+
+				if (! keyPairs.offer(generateKeyPair(curve, provider))) {
+					break;
+				}
+			}
+		} catch (JOSEException e) {
+			// Callers fall back to inline generation
+			return;
+		} finally {
+			replenishing.set(false);
+		}
+
+		// Catch key pairs taken after the last fill check
+		if (keyPairs.remainingCapacity() > 0) {
+			scheduleReplenishment();
+		}
+	}
+
+
+	/**
+	 * Generates a new key pair with the specified curve.
+	 *
+	 * @param curve    The curve. Must be supported and not {@code null}.
+	 * @param provider The specific JCA provider for the key pair
+	 *                 generation, {@code null} to use the default one.
+	 *
+	 * @return The key pair.
+	 *
+	 * @throws JOSEException If the key pair couldn't be generated.
+	 */
+	static KeyPair generateKeyPair(final Curve curve, final Provider provider)
+		throws JOSEException {
+
+		final String jcaAlg = Curve.X25519.equals(curve) ? "X25519" : "EC";
+
+		try {
+			KeyPairGenerator generator;
+
+			if (provider != null) {
+				generator = KeyPairGenerator.getInstance(jcaAlg, provider);
+			} else {
+				generator = KeyPairGenerator.getInstance(jcaAlg);
+			}
+
+			if ("EC".equals(jcaAlg)) {
+				ECParameterSpec ecParameterSpec = curve.toECParameterSpec();
+				generator.initialize(ecParameterSpec);
+			}
+
+			return generator.generateKeyPair();
+		} catch (NoSuchAlgorithmException | InvalidAlgorithmParameterException e) {
+			throw new JOSEException("Couldn't generate ephemeral " + curve + " key pair: " + e.getMessage(), e);
+		}
+	}
+}
@@ -0,0 +1,430 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.nimbusds.jose.crypto;
+
+
+import java.security.Provider;
+import java.security.Security;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.crypto.factories.DefaultJWEDecrypterFactory;
+import com.nimbusds.jose.crypto.factories.DefaultJWSVerifierFactory;
+import com.nimbusds.jose.jca.JCAContext;
+import com.nimbusds.jose.jca.JCAProviderProfile;
+import com.nimbusds.jose.jca.JWEJCAContext;
+import com.nimbusds.jose.util.Base64URL;
+import net.jcip.annotations.ThreadSafe;
+
+
+/**
+ * Java Cryptography Architecture (JCA) provider calibration. Measures the
+ * throughput of the candidate JCA providers for each JWS algorithm and for
+ * each combination of JWE algorithm and encryption method, and returns a
+ * {@link JCAProviderProfile profile} with the fastest provider for each
+ * operation.
+ *
+ * <p>The signing, verification, encryption and decryption operations are
+ * timed separately, on throwaway keys, with the signers, verifiers,
+ * encrypters and decrypters of this library configured with the candidate
+ * provider. The fastest signing provider may therefore differ from the
+ * fastest verification provider for the same algorithm. Providers that
+ * don't support an operation are skipped. Operations that no candidate
+ * provider supports are omitted from the profile.
+ *
+ * <p>Calibration can take a few seconds, depending on the number of
+ * algorithms and providers. The resulting profile can be persisted with
+ * {@link JCAProviderProfile#toJSONObject()} and reloaded on the next
+ * startup.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * List&lt;Provider&gt; candidates = new ArrayList&lt;&gt;(Arrays.asList(Security.getProviders()));
+ * candidates.add(BouncyCastleProviderSingleton.getInstance());
+ *
+ * JCAProviderProfile profile = JCAProviderCalibration.calibrate(
+ *         Collections.singleton(JWSAlgorithm.ES256),
+ *         null,
+ *         null,
+ *         candidates,
+ *         JCAProviderCalibration.DEFAULT_MEASUREMENT_TIME);
+ *
+ * // Apply to the verifiers created by the JWT processor
+ * DefaultJWSVerifierFactory verifierFactory = new DefaultJWSVerifierFactory();
+ * verifierFactory.setJCAProviderProfile(profile);
+ * jwtProcessor.setJWSVerifierFactory(verifierFactory);
+ *
+ * // Apply to a signer
+ * profile.configure(signer, JWSAlgorithm.ES256);
+ * </pre>
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+@ThreadSafe
+public final class JCAProviderCalibration {
+
+
+	/**
+	 * The default measurement time per operation, algorithm and provider,
+	 * in milliseconds.
+	 */
+	public static final long DEFAULT_MEASUREMENT_TIME = 200L;
+
+
+	/**
+	 * Timed operation.
+	 */
+	private interface Operation {
+
+
+		/**
+		 * Performs the operation.
+		 *
+		 * @throws JOSEException If the operation failed.
+		 */
+		void run() throws JOSEException;
+	}
+
+
+	/**
+	 * Calibrates the installed JCA providers for the specified
+	 * algorithms, with the {@link #DEFAULT_MEASUREMENT_TIME default
+	 * measurement time}.
+	 *
+	 * @param jwsAlgs The JWS algorithms, empty set or {@code null} if
+	 *                none.
+	 * @param jweAlgs The JWE algorithms, empty set or {@code null} if
+	 *                none.
+	 * @param encs    The JWE encryption methods, combined with each JWE
+	 *                algorithm, empty set or {@code null} if none.
+	 *
+	 * @return The JCA provider profile.
+	 */
+	public static JCAProviderProfile calibrate(final Set<JWSAlgorithm> jwsAlgs,
+						   final Set<JWEAlgorithm> jweAlgs,
+						   final Set<EncryptionMethod> encs) {
+
+		return calibrate(jwsAlgs, jweAlgs, encs, Arrays.asList(Security.getProviders()), DEFAULT_MEASUREMENT_TIME);
+	}
+
+
+	/**
+	 * Calibrates the specified JCA providers for the specified
+	 * algorithms.
+	 *
+	 * @param jwsAlgs         The JWS algorithms, empty set or
+	 *                        {@code null} if none.
+	 * @param jweAlgs         The JWE algorithms, empty set or
+	 *                        {@code null} if none.
+	 * @param encs            The JWE encryption methods, combined with
+	 *                        each JWE algorithm, empty set or
+	 *                        {@code null} if none.
+	 * @param providers       The candidate JCA providers. Need not be
+	 *                        installed. Must not be {@code null}.
+	 * @param measurementTime The measurement time per operation,
+	 *                        algorithm and provider, in milliseconds.
+	 *                        Must be positive.
+	 *
+	 * @return The JCA provider profile.
+	 */
+	public static JCAProviderProfile calibrate(final Set<JWSAlgorithm> jwsAlgs,
+						   final Set<JWEAlgorithm> jweAlgs,
+						   final Set<EncryptionMethod> encs,
+						   final List<Provider> providers,
+						   final long measurementTime) {
+
+		if (providers == null) {
+			throw new IllegalArgumentException("The candidate providers must not be null");
+		}
+
+		if (measurementTime < 1) {
+			throw new IllegalArgumentException("The measurement time must be positive");
+		}
+
+		final JOSEWarmup.Keys keys = new JOSEWarmup.Keys();
+
+		JCAProviderProfile.Builder builder = new JCAProviderProfile.Builder();
+
+		for (JWSAlgorithm alg: jwsAlgs != null ? jwsAlgs : Collections.<JWSAlgorithm>emptySet()) {
+			calibrate(alg, keys, providers, measurementTime, builder);
+		}
+
+		for (JWEAlgorithm alg: jweAlgs != null ? jweAlgs : Collections.<JWEAlgorithm>emptySet()) {
+			for (EncryptionMethod enc: encs != null ? encs : Collections.<EncryptionMethod>emptySet()) {
+				calibrate(alg, enc, keys, providers, measurementTime, builder);
+			}
+		}
+
+		return builder.build();
+	}
+
+
+	/**
+	 * Calibrates the specified JCA providers for signing and
+	 * verification with the specified JWS algorithm.
+	 *
+	 * @param alg             The JWS algorithm.
+	 * @param keys            The throwaway keys.
+	 * @param providers       The candidate JCA providers.
+	 * @param measurementTime The measurement time, in milliseconds.
+	 * @param builder         The profile builder to put the fastest
+	 *                        providers into.
+	 */
+	private static void calibrate(final JWSAlgorithm alg,
+				      final JOSEWarmup.Keys keys,
+				      final List<Provider> providers,
+				      final long measurementTime,
+				      final JCAProviderProfile.Builder builder) {
+
+		final JOSEWarmup.JWSSetup setup;
+
+		try {
+			setup = JOSEWarmup.createJWSSetup(alg, keys);
+		} catch (JOSEException e) {
+			// Unsupported algorithm
+			return;
+		}
+
+		final JWSSigner signer = setup.signer;
+		final JWSHeader header = new JWSHeader.Builder(alg).keyID("calibration").build();
+		final byte[] signingInput = new JWSObject(header, JOSEWarmup.createPayload()).getSigningInput();
+
+		Provider fastest = select(providers, measurementTime, signer.getJCAContext(), new Operation() {
+			@Override
+			public void run() throws JOSEException {
+				signer.sign(header, signingInput);
+			}
+		});
+
+		if (fastest == null) {
+			return;
+		}
+
+		builder.signingProvider(alg, fastest);
+
+		final Base64URL signature;
+		final JWSVerifier verifier;
+
+		try {
+			signer.getJCAContext().setProvider(fastest);
+			signature = signer.sign(header, signingInput);
+			verifier = new DefaultJWSVerifierFactory().createJWSVerifier(header, setup.verificationKey);
+		} catch (JOSEException e) {
+			return;
+		}
+
+		fastest = select(providers, measurementTime, verifier.getJCAContext(), new Operation() {
+			@Override
+			public void run() throws JOSEException {
+				if (! verifier.verify(header, signingInput, signature)) {
+					throw new JOSEException("Calibration JWS verification failed: " + header.getAlgorithm());
+				}
+			}
+		});
+
+		if (fastest != null) {
+			builder.verificationProvider(alg, fastest);
+		}
+	}
+
+
+	/**
+	 * Calibrates the specified JCA providers for encryption and
+	 * decryption with the specified JWE algorithm and encryption method.
+	 *
+	 * @param alg             The JWE algorithm.
+	 * @param enc             The encryption method.
+	 * @param keys            The throwaway keys.
+	 * @param providers       The candidate JCA providers.
+	 * @param measurementTime The measurement time, in milliseconds.
+	 * @param builder         The profile builder to put the fastest
+	 *                        providers into.
+	 */
+	private static void calibrate(final JWEAlgorithm alg,
+				      final EncryptionMethod enc,
+				      final JOSEWarmup.Keys keys,
+				      final List<Provider> providers,
+				      final long measurementTime,
+				      final JCAProviderProfile.Builder builder) {
+
+		final JOSEWarmup.JWESetup setup;
+
+		try {
+			setup = JOSEWarmup.createJWESetup(alg, enc, keys);
+		} catch (JOSEException e) {
+			// Unsupported algorithm or encryption method
+			return;
+		}
+
+		final JWEEncrypter encrypter = setup.encrypter;
+		final JWEHeader header = new JWEHeader.Builder(alg, enc).keyID("calibration").build();
+		final byte[] clearText = JOSEWarmup.createPayload().toBytes();
+
+		Provider fastest = select(providers, measurementTime, encrypter.getJCAContext(), new Operation() {
+			@Override
+			public void run() throws JOSEException {
+				encrypter.encrypt(header, clearText);
+			}
+		});
+
+		if (fastest == null) {
+			return;
+		}
+
+		builder.encryptionProvider(alg, enc, fastest);
+
+		final JWECryptoParts parts;
+		final JWEHeader decryptionHeader;
+		final JWEDecrypter decrypter;
+
+		try {
+			setProvider(encrypter.getJCAContext(), fastest);
+			parts = encrypter.encrypt(header, clearText);
+			// The encrypter may add parameters, such as the ephemeral
+			// public key for ECDH
+			decryptionHeader = parts.getHeader() != null ? parts.getHeader() : header;
+			decrypter = new DefaultJWEDecrypterFactory().createJWEDecrypter(decryptionHeader, setup.decryptionKey);
+		} catch (JOSEException e) {
+			return;
+		}
+
+		fastest = select(providers, measurementTime, decrypter.getJCAContext(), new Operation() {
+			@Override
+			public void run() throws JOSEException {
+				decrypter.decrypt(
+					decryptionHeader,
+					parts.getEncryptedKey(),
+					parts.getInitializationVector(),
+					parts.getCipherText(),
+					parts.getAuthenticationTag());
+			}
+		});
+
+		if (fastest != null) {
+			builder.decryptionProvider(alg, enc, fastest);
+		}
+	}
+
+
+	/**
+	 * Selects the provider with the highest throughput for the specified
+	 * operation.
+	 *
+	 * @param providers       The candidate JCA providers.
+	 * @param measurementTime The measurement time, in milliseconds.
+	 * @param jcaContext      The JCA context of the signer, verifier,
+	 *                        encrypter or decrypter performing the
+	 *                        operation, to set the candidate provider in.
+	 * @param operation       The operation.
+	 *
+	 * @return The fastest provider, {@code null} if none supports the
+	 *         operation.
+	 */
+	private static Provider select(final List<Provider> providers,
+				       final long measurementTime,
+				       final JCAContext jcaContext,
+				       final Operation operation) {
+
+		Provider fastest = null;
+		double fastestRate = 0;
+
+		for (Provider provider: providers) {
+
+			if (jcaContext instanceof JWEJCAContext) {
+				setProvider((JWEJCAContext)jcaContext, provider);
+			} else {
+				jcaContext.setProvider(provider);
+			}
+
+			double rate = measure(operation, measurementTime);
+
+			if (rate > fastestRate) {
+				fastest = provider;
+				fastestRate = rate;
+			}
+		}
+
+		return fastest;
+	}
+
+
+	/**
+	 * Sets the specified provider in the specified JWE JCA context, for
+	 * the key encryption, the content encryption and the MAC computation.
+	 *
+	 * @param jcaContext The JWE JCA context.
+	 * @param provider   The JCA provider.
+	 */
+	private static void setProvider(final JWEJCAContext jcaContext, final Provider provider) {
+
+		jcaContext.setKeyEncryptionProvider(provider);
+		jcaContext.setContentEncryptionProvider(provider);
+		jcaContext.setMACProvider(provider);
+	}
+
+
+	/**
+	 * Measures the throughput of the specified operation. The operation
+	 * is first run for half the measurement time to warm up.
+	 *
+	 * @param operation       The operation. Must not be {@code null}.
+	 * @param measurementTime The measurement time, in milliseconds.
+	 *
+	 * @return The operations per second, zero if the operation failed,
+	 *         for instance because the provider doesn't support the
+	 *         algorithm.
+	 */
+	private static double measure(final Operation operation, final long measurementTime) {
+
+		try {
+			// Warm up
+			final long warmupEnd = System.nanoTime() + measurementTime * 500000L;
+
+			do {
+				operation.run();
+			} while (System.nanoTime() < warmupEnd);
+
+			// Measure
+			final long start = System.nanoTime();
+			final long end = start + measurementTime * 1000000L;
+			long count = 0;
+			long now;
+
+			do {
+				operation.run();
+				count++;
+				now = System.nanoTime();
+			} while (now < end);
+
+			return count * 1e9 / (now - start);
+
+		} catch (JOSEException | RuntimeException e) {
+			return 0;
+		}
+	}
+
+
+	/**
+	 * Prevents public instantiation.
+	 */
+	private JCAProviderCalibration() { }
+}
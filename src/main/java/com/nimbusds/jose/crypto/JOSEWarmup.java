@@ -0,0 +1,599 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.nimbusds.jose.crypto;
+
+
+import java.security.*;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.text.ParseException;
+import java.util.*;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.crypto.factories.DefaultJWEDecrypterFactory;
+import com.nimbusds.jose.crypto.factories.DefaultJWSVerifierFactory;
+import com.nimbusds.jose.jca.JCASupport;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.util.StandardCharset;
+import net.jcip.annotations.ThreadSafe;
+import net.minidev.json.JSONObject;
+
+
+/**
+ * Warm-up of the JOSE signing, verification, encryption and decryption
+ * paths. Intended to be run once at application startup, before the
+ * application is reported as ready, so that the first real JOSE objects
+ * are not slowed down by JCA provider lookups, class loading and code that
+ * hasn't been compiled by the JIT yet.
+ *
+ * <p>The warm-up generates throwaway keys and repeatedly performs
+ * synthetic round trips for each requested algorithm: JWS sign, serialise,
+ * parse and verify, and JWE encrypt, serialise, parse and decrypt. The
+ * verifiers and decrypters are created with the
+ * {@link DefaultJWSVerifierFactory default JWS verifier} and
+ * {@link DefaultJWEDecrypterFactory default JWE decrypter} factories, as
+ * JOSE and JWT processors do.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * JOSEWarmup.run(
+ *         Collections.singleton(JWSAlgorithm.RS256),
+ *         Collections.singleton(JWEAlgorithm.RSA_OAEP_256),
+ *         Collections.singleton(EncryptionMethod.A128GCM));
+ *
+ * // Readiness probe
+ * boolean ready = JOSEWarmup.isComplete();
+ * </pre>
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+@ThreadSafe
+public final class JOSEWarmup {
+
+
+	/**
+	 * The default number of round trips per algorithm.
+	 */
+	public static final int DEFAULT_ITERATIONS = 1000;
+
+
+	/**
+	 * The default maximum warm-up duration, in milliseconds.
+	 */
+	public static final long DEFAULT_MAX_DURATION = 10000L;
+
+
+	/**
+	 * The password for the PBES2 round trips.
+	 */
+	private static final String PASSWORD = "nimbus-jose-warm-up";
+
+
+	/**
+	 * Synthetic round trip.
+	 */
+	interface RoundTrip {
+
+
+		/**
+		 * Performs the round trip.
+		 *
+		 * @throws JOSEException If the round trip failed.
+		 */
+		void run() throws JOSEException;
+	}
+
+
+	/**
+	 * JWS signer with the matching verification key.
+	 */
+	static final class JWSSetup {
+
+
+		/**
+		 * The JWS signer.
+		 */
+		final JWSSigner signer;
+
+
+		/**
+		 * The verification key.
+		 */
+		final Key verificationKey;
+
+
+		/**
+		 * Creates a new JWS setup.
+		 *
+		 * @param signer          The JWS signer.
+		 * @param verificationKey The verification key.
+		 */
+		private JWSSetup(final JWSSigner signer, final Key verificationKey) {
+
+			this.signer = signer;
+			this.verificationKey = verificationKey;
+		}
+	}
+
+
+	/**
+	 * JWE encrypter with the matching decryption key.
+	 */
+	static final class JWESetup {
+
+
+		/**
+		 * The JWE encrypter.
+		 */
+		final JWEEncrypter encrypter;
+
+
+		/**
+		 * The decryption key.
+		 */
+		final Key decryptionKey;
+
+
+		/**
+		 * Creates a new JWE setup.
+		 *
+		 * @param encrypter     The JWE encrypter.
+		 * @param decryptionKey The decryption key.
+		 */
+		private JWESetup(final JWEEncrypter encrypter, final Key decryptionKey) {
+
+			this.encrypter = encrypter;
+			this.decryptionKey = decryptionKey;
+		}
+	}
+
+
+	/**
+	 * {@code true} if a warm-up has completed.
+	 */
+	private static volatile boolean complete = false;
+
+
+	/**
+	 * Returns {@code true} if a warm-up has completed, for use in
+	 * readiness probes.
+	 *
+	 * @return {@code true} if a warm-up has completed, else
+	 *         {@code false}.
+	 */
+	public static boolean isComplete() {
+
+		return complete;
+	}
+
+
+	/**
+	 * Runs a warm-up for the specified algorithms, with the
+	 * {@link #DEFAULT_ITERATIONS default number of iterations} and the
+	 * {@link #DEFAULT_MAX_DURATION default maximum duration}.
+	 *
+	 * @param jwsAlgs The JWS algorithms, empty set or {@code null} if
+	 *                none.
+	 * @param jweAlgs The JWE algorithms, empty set or {@code null} if
+	 *                none.
+	 * @param encs    The JWE encryption methods, combined with each JWE
+	 *                algorithm, empty set or {@code null} if none.
+	 *
+	 * @return The number of performed round trips.
+	 *
+	 * @throws JOSEException If an algorithm is not supported or a round
+	 *                       trip failed.
+	 */
+	public static int run(final Set<JWSAlgorithm> jwsAlgs,
+			      final Set<JWEAlgorithm> jweAlgs,
+			      final Set<EncryptionMethod> encs)
+		throws JOSEException {
+
+		return run(jwsAlgs, jweAlgs, encs, DEFAULT_ITERATIONS, DEFAULT_MAX_DURATION);
+	}
+
+
+	/**
+	 * Runs a warm-up for the specified algorithms. The round trips for
+	 * the algorithms are interleaved until the number of iterations is
+	 * reached or the maximum duration elapses, whichever comes first.
+	 *
+	 * @param jwsAlgs     The JWS algorithms, empty set or {@code null} if
+	 *                    none.
+	 * @param jweAlgs     The JWE algorithms, empty set or {@code null} if
+	 *                    none.
+	 * @param encs        The JWE encryption methods, combined with each
+	 *                    JWE algorithm, empty set or {@code null} if none.
+	 * @param iterations  The number of round trips per algorithm. Must be
+	 *                    positive.
+	 * @param maxDuration The maximum warm-up duration, in milliseconds,
+	 *                    excluding the key generation. Must be positive.
+	 *
+	 * @return The number of performed round trips.
+	 *
+	 * @throws JOSEException If an algorithm is not supported or a round
+	 *                       trip failed.
+	 */
+	public static int run(final Set<JWSAlgorithm> jwsAlgs,
+			      final Set<JWEAlgorithm> jweAlgs,
+			      final Set<EncryptionMethod> encs,
+			      final int iterations,
+			      final long maxDuration)
+		throws JOSEException {
+
+		if (iterations < 1) {
+			throw new IllegalArgumentException("The number of iterations must be positive");
+		}
+
+		if (maxDuration < 1) {
+			throw new IllegalArgumentException("The maximum duration must be positive");
+		}
+
+		final List<RoundTrip> roundTrips = new ArrayList<>();
+		final Keys keys = new Keys();
+
+		for (JWSAlgorithm alg: jwsAlgs != null ? jwsAlgs : Collections.<JWSAlgorithm>emptySet()) {
+			roundTrips.add(createJWSRoundTrip(alg, keys));
+		}
+
+		for (JWEAlgorithm alg: jweAlgs != null ? jweAlgs : Collections.<JWEAlgorithm>emptySet()) {
+			for (EncryptionMethod enc: encs != null ? encs : Collections.<EncryptionMethod>emptySet()) {
+				roundTrips.add(createJWERoundTrip(alg, enc, keys));
+			}
+		}
+
+		final long deadline = System.currentTimeMillis() + maxDuration;
+
+		int count = 0;
+
+		for (int i=0; i < iterations && System.currentTimeMillis() < deadline; i++) {
+
+			for (RoundTrip roundTrip: roundTrips) {
+				roundTrip.run();
+				count++;
+			}
+		}
+
+		complete = true;
+
+		return count;
+	}
+
+
+	/**
+	 * Creates the synthetic payload, with typical JWT claims.
+	 *
+	 * @return The payload.
+	 */
+	static Payload createPayload() {
+
+		final long now = System.currentTimeMillis() / 1000;
+
+		JSONObject claims = new JSONObject();
+		claims.put("iss", "https://warm-up.example.com");
+		claims.put("sub", "warm-up");
+		claims.put("aud", "warm-up");
+		claims.put("iat", now);
+		claims.put("exp", now + 60);
+		return new Payload(claims);
+	}
+
+
+	/**
+	 * Creates a JWS signer and the matching verification key for the
+	 * specified algorithm.
+	 *
+	 * @param alg  The JWS algorithm. Must not be {@code null}.
+	 * @param keys The throwaway keys. Must not be {@code null}.
+	 *
+	 * @return The JWS setup.
+	 *
+	 * @throws JOSEException If the JWS algorithm is not supported.
+	 */
+	static JWSSetup createJWSSetup(final JWSAlgorithm alg, final Keys keys)
+		throws JOSEException {
+
+		// Warm up the provider lookups, the actual support is
+		// determined by the round trip
+		JCASupport.isSupported(alg);
+
+		final JWSSigner signer;
+		final Key verificationKey;
+
+		if (MACSigner.SUPPORTED_ALGORITHMS.contains(alg)) {
+			SecretKey secretKey = keys.secretKey(MACSigner.getMinRequiredSecretLength(alg) / 8, "HMAC");
+			signer = new MACSigner(secretKey);
+			verificationKey = secretKey;
+		} else if (RSASSASigner.SUPPORTED_ALGORITHMS.contains(alg)) {
+			KeyPair keyPair = keys.rsaKeyPair();
+			signer = new RSASSASigner(keyPair.getPrivate());
+			verificationKey = keyPair.getPublic();
+		} else if (ECDSASigner.SUPPORTED_ALGORITHMS.contains(alg)) {
+			KeyPair keyPair = keys.ecKeyPair(Curve.forJWSAlgorithm(alg).iterator().next());
+			signer = new ECDSASigner((ECPrivateKey)keyPair.getPrivate());
+			verificationKey = keyPair.getPublic();
+		} else {
+			throw new JOSEException("Unsupported JWS algorithm: " + alg);
+		}
+
+		return new JWSSetup(signer, verificationKey);
+	}
+
+
+	/**
+	 * Creates a JWS round trip for the specified algorithm.
+	 *
+	 * @param alg  The JWS algorithm. Must not be {@code null}.
+	 * @param keys The throwaway keys. Must not be {@code null}.
+	 *
+	 * @return The round trip.
+	 *
+	 * @throws JOSEException If the JWS algorithm is not supported.
+	 */
+	static RoundTrip createJWSRoundTrip(final JWSAlgorithm alg, final Keys keys)
+		throws JOSEException {
+
+		final JWSSetup setup = createJWSSetup(alg, keys);
+		final DefaultJWSVerifierFactory verifierFactory = new DefaultJWSVerifierFactory();
+
+		return new RoundTrip() {
+			@Override
+			public void run() throws JOSEException {
+
+				JWSObject jwsObject = new JWSObject(new JWSHeader.Builder(alg).keyID("warm-up").build(), createPayload());
+				jwsObject.sign(setup.signer);
+
+				JWSObject parsed;
+
+				try {
+					parsed = JWSObject.parse(jwsObject.serialize());
+				} catch (ParseException e) {
+					throw new JOSEException("Warm-up JWS parsing failed: " + e.getMessage(), e);
+				}
+
+				if (! parsed.verify(verifierFactory.createJWSVerifier(parsed.getHeader(), setup.verificationKey))) {
+					throw new JOSEException("Warm-up JWS verification failed: " + alg);
+				}
+
+				parsed.getPayload().toJSONObject();
+			}
+		};
+	}
+
+
+	/**
+	 * Creates a JWE encrypter and the matching decryption key for the
+	 * specified algorithm and encryption method.
+	 *
+	 * @param alg  The JWE algorithm. Must not be {@code null}.
+	 * @param enc  The encryption method. Must not be {@code null}.
+	 * @param keys The throwaway keys. Must not be {@code null}.
+	 *
+	 * @return The JWE setup.
+	 *
+	 * @throws JOSEException If the JWE algorithm or encryption method is
+	 *                       not supported.
+	 */
+	static JWESetup createJWESetup(final JWEAlgorithm alg, final EncryptionMethod enc, final Keys keys)
+		throws JOSEException {
+
+		// Warm up the provider lookups, the actual support is
+		// determined by the round trip
+		JCASupport.isSupported(alg);
+		JCASupport.isSupported(enc);
+
+		final JWEEncrypter encrypter;
+		final Key decryptionKey;
+
+		if (RSAEncrypter.SUPPORTED_ALGORITHMS.contains(alg)) {
+			KeyPair keyPair = keys.rsaKeyPair();
+			encrypter = new RSAEncrypter((RSAPublicKey)keyPair.getPublic());
+			decryptionKey = keyPair.getPrivate();
+		} else if (ECDHEncrypter.SUPPORTED_ALGORITHMS.contains(alg)) {
+			KeyPair keyPair = keys.ecKeyPair(Curve.P_256);
+			encrypter = new ECDHEncrypter((ECPublicKey)keyPair.getPublic());
+			decryptionKey = keyPair.getPrivate();
+		} else if (DirectEncrypter.SUPPORTED_ALGORITHMS.contains(alg)) {
+			SecretKey cek = keys.secretKey(enc.cekBitLength() / 8, "AES");
+			encrypter = new DirectEncrypter(cek);
+			decryptionKey = cek;
+		} else if (AESEncrypter.SUPPORTED_ALGORITHMS.contains(alg)) {
+			SecretKey kek = keys.secretKey(aesKeyLength(alg), "AES");
+			encrypter = new AESEncrypter(kek);
+			decryptionKey = kek;
+		} else if (PasswordBasedEncrypter.SUPPORTED_ALGORITHMS.contains(alg)) {
+			encrypter = new PasswordBasedEncrypter(PASSWORD, PasswordBasedEncrypter.MIN_SALT_LENGTH, PasswordBasedEncrypter.MIN_RECOMMENDED_ITERATION_COUNT);
+			decryptionKey = new SecretKeySpec(PASSWORD.getBytes(StandardCharset.UTF_8), "PBES2");
+		} else {
+			throw new JOSEException("Unsupported JWE algorithm: " + alg);
+		}
+
+		if (! encrypter.supportedEncryptionMethods().contains(enc)) {
+			throw new JOSEException("Unsupported JWE encryption method: " + enc);
+		}
+
+		return new JWESetup(encrypter, decryptionKey);
+	}
+
+
+	/**
+	 * Creates a JWE round trip for the specified algorithm and
+	 * encryption method.
+	 *
+	 * @param alg  The JWE algorithm. Must not be {@code null}.
+	 * @param enc  The encryption method. Must not be {@code null}.
+	 * @param keys The throwaway keys. Must not be {@code null}.
+	 *
+	 * @return The round trip.
+	 *
+	 * @throws JOSEException If the JWE algorithm or encryption method is
+	 *                       not supported.
+	 */
+	static RoundTrip createJWERoundTrip(final JWEAlgorithm alg, final EncryptionMethod enc, final Keys keys)
+		throws JOSEException {
+
+		final JWESetup setup = createJWESetup(alg, enc, keys);
+		final DefaultJWEDecrypterFactory decrypterFactory = new DefaultJWEDecrypterFactory();
+
+		return new RoundTrip() {
+			@Override
+			public void run() throws JOSEException {
+
+				JWEObject jweObject = new JWEObject(new JWEHeader.Builder(alg, enc).keyID("warm-up").build(), createPayload());
+				jweObject.encrypt(setup.encrypter);
+
+				JWEObject parsed;
+
+				try {
+					parsed = JWEObject.parse(jweObject.serialize());
+				} catch (ParseException e) {
+					throw new JOSEException("Warm-up JWE parsing failed: " + e.getMessage(), e);
+				}
+
+				parsed.decrypt(decrypterFactory.createJWEDecrypter(parsed.getHeader(), setup.decryptionKey));
+
+				parsed.getPayload().toJSONObject();
+			}
+		};
+	}
+
+
+	/**
+	 * Returns the AES key length for the specified AES key wrap
+	 * algorithm.
+	 *
+	 * @param alg The JWE algorithm. Must not be {@code null}.
+	 *
+	 * @return The key length, in bytes.
+	 */
+	private static int aesKeyLength(final JWEAlgorithm alg) {
+
+		if (JWEAlgorithm.A128KW.equals(alg) || JWEAlgorithm.A128GCMKW.equals(alg)) {
+			return 16;
+		} else if (JWEAlgorithm.A192KW.equals(alg) || JWEAlgorithm.A192GCMKW.equals(alg)) {
+			return 24;
+		} else {
+			return 32;
+		}
+	}
+
+
+	/**
+	 * The throwaway keys of a warm-up, generated on demand and shared
+	 * between the round trips.
+	 */
+	static final class Keys {
+
+
+		/**
+		 * The secure random generator.
+		 */
+		private final SecureRandom secureRandom = new SecureRandom();
+
+
+		/**
+		 * The RSA key pair, {@code null} if not generated yet.
+		 */
+		private KeyPair rsaKeyPair;
+
+
+		/**
+		 * The EC key pairs.
+		 */
+		private final Map<Curve,KeyPair> ecKeyPairs = new HashMap<>();
+
+
+		/**
+		 * Returns a random secret key.
+		 *
+		 * @param length    The key length, in bytes.
+		 * @param algorithm The key algorithm.
+		 *
+		 * @return The secret key.
+		 */
+		private SecretKey secretKey(final int length, final String algorithm) {
+
+			byte[] keyBytes = new byte[length];
+			secureRandom.nextBytes(keyBytes);
+			return new SecretKeySpec(keyBytes, algorithm);
+		}
+
+
+		/**
+		 * Returns the 2048-bit RSA key pair.
+		 *
+		 * @return The RSA key pair.
+		 *
+		 * @throws JOSEException If key generation failed.
+		 */
+		private KeyPair rsaKeyPair()
+			throws JOSEException {
+
+			if (rsaKeyPair == null) {
+				try {
+					KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+					generator.initialize(2048, secureRandom);
+					rsaKeyPair = generator.generateKeyPair();
+				} catch (NoSuchAlgorithmException e) {
+					throw new JOSEException("Couldn't generate warm-up RSA key pair: " + e.getMessage(), e);
+				}
+			}
+
+			return rsaKeyPair;
+		}
+
+
+		/**
+		 * Returns the EC key pair for the specified curve.
+		 *
+		 * @param curve The curve. Must not be {@code null}.
+		 *
+		 * @return The EC key pair.
+		 *
+		 * @throws JOSEException If key generation failed.
+		 */
+		private KeyPair ecKeyPair(final Curve curve)
+			throws JOSEException {
+
+			KeyPair keyPair = ecKeyPairs.get(curve);
+
+			if (keyPair == null) {
+				try {
+					KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+					generator.initialize(curve.toECParameterSpec(), secureRandom);
+					keyPair = generator.generateKeyPair();
+				} catch (NoSuchAlgorithmException | InvalidAlgorithmParameterException e) {
+					throw new JOSEException("Couldn't generate warm-up EC key pair: " + e.getMessage(), e);
+				}
+				ecKeyPairs.put(curve, keyPair);
+			}
+
+			return keyPair;
+		}
+	}
+
+
+	/**
+	 * Prevents public instantiation.
+	 */
+	private JOSEWarmup() { }
+}
@@ -0,0 +1,304 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.nimbusds.jose.crypto;
+
+
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.NoSuchPaddingException;
+import javax.crypto.SecretKey;
+
+import net.jcip.annotations.ThreadSafe;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.KeyLengthException;
+
+
+/**
+ * Pool of JCA cipher and MAC instances for a single long-lived key, such as
+ * the Key Encryption Key (KEK) of an AES key wrap encrypter or the Content
+ * Encryption Key (CEK) of a direct encrypter.
+ *
+ * <p>A cipher for a given transformation and JCA provider is taken from the
+ * pool for the duration of an operation and then released back to it, which
+ * saves the cipher lookup on every message. The cipher must still be
+ * initialised for every operation, with the new IV; because it is always
+ * initialised with the same key the JCA provider can keep the expanded AES
+ * key schedule (the SunJCE provider does this) instead of recomputing it.
+ *
+ * <p>The ciphers must only be initialised with the key the context is bound
+ * to, else there is no benefit, and must not be used after they are
+ * released. A cipher that is not released, e.g. after an exception, is
+ * simply left to the garbage collector.
+ *
+ * <p>For AES/CBC/HMAC-SHA2 the context also keeps the split
+ * {@link CompositeKey} and pooled MACs that stay initialised with the MAC
+ * key, since a MAC resets to its keyed state after each computation.
+ *
+ * <p>The pool retains at most {@link #MAX_POOLED_INSTANCES} idle instances
+ * per transformation and JCA provider, regardless of the number of threads
+ * using the context. The instances are held by the context only, and are
+ * released with it.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+@ThreadSafe
+class KeyBoundCipherContext {
+
+
+	/**
+	 * The maximum number of idle cipher or MAC instances retained per
+	 * transformation and JCA provider, equal to the number of available
+	 * processors.
+	 */
+	static final int MAX_POOLED_INSTANCES = Runtime.getRuntime().availableProcessors();
+
+
+	/**
+	 * The idle cipher instances, keyed by transformation and JCA provider
+	 * name.
+	 */
+	private final ConcurrentMap<String,BlockingQueue<Cipher>> cipherPools = new ConcurrentHashMap<>();
+
+
+	/**
+	 * The idle MAC instances, keyed by algorithm and JCA provider name.
+	 */
+	private final ConcurrentMap<String,BlockingQueue<KeyedMac>> macPools = new ConcurrentHashMap<>();
+
+
+	/**
+	 * The composite key for AES/CBC/HMAC-SHA2, {@code null} if not
+	 * created yet.
+	 */
+	private volatile CompositeKey compositeKey;
+
+
+	/**
+	 * MAC initialised with a particular key.
+	 */
+	private static final class KeyedMac {
+
+
+		/**
+		 * The MAC.
+		 */
+		private final Mac mac;
+
+
+		/**
+		 * The key the MAC is initialised with.
+		 */
+		private final SecretKey key;
+
+
+		/**
+		 * Creates a new MAC initialised with a particular key.
+		 *
+		 * @param mac The MAC. Must not be {@code null}.
+		 * @param key The key the MAC is initialised with. Must not
+		 *            be {@code null}.
+		 */
+		private KeyedMac(final Mac mac, final SecretKey key) {
+			this.mac = mac;
+			this.key = key;
+		}
+	}
+
+
+	/**
+	 * Gets the pool for the specified cache key, creating it if
+	 * necessary.
+	 *
+	 * @param pools    The pools. Must not be {@code null}.
+	 * @param cacheKey The cache key. Must not be {@code null}.
+	 *
+	 * @return The pool.
+	 */
+	private static <T> BlockingQueue<T> getPool(final ConcurrentMap<String,BlockingQueue<T>> pools,
+						    final String cacheKey) {
+
+		BlockingQueue<T> pool = pools.get(cacheKey);
+
+		if (pool != null) {
+			return pool;
+		}
+
+		pool = new ArrayBlockingQueue<>(MAX_POOLED_INSTANCES);
+		BlockingQueue<T> existing = pools.putIfAbsent(cacheKey, pool);
+		return existing != null ? existing : pool;
+	}
+
+
+	/**
+	 * Composes the cache key for the specified algorithm and JCA
+	 * provider.
+	 *
+	 * @param alg      The algorithm or transformation. Must not be
+	 *                 {@code null}.
+	 * @param provider The JCA provider, or {@code null} for the default
+	 *                 one.
+	 *
+	 * @return The cache key.
+	 */
+	private static String cacheKey(final String alg, final Provider provider) {
+
+		return provider != null ? alg + "@" + provider.getName() : alg;
+	}
+
+
+	/**
+	 * Takes a cipher instance from the pool, or creates a new one if the
+	 * pool is empty. The cipher should be released with
+	 * {@link #releaseCipher} after the operation.
+	 *
+	 * @param transformation The cipher transformation. Must not be
+	 *                       {@code null}.
+	 * @param provider       The JCA provider, or {@code null} to use the
+	 *                       default one.
+	 *
+	 * @return The cipher, to be initialised by the caller.
+	 *
+	 * @throws NoSuchAlgorithmException If the transformation is not
+	 *                                  supported.
+	 * @throws NoSuchPaddingException   If the padding is not supported.
+	 */
+	Cipher getCipher(final String transformation, final Provider provider)
+		throws NoSuchAlgorithmException, NoSuchPaddingException {
+
+		Cipher cipher = getPool(cipherPools, cacheKey(transformation, provider)).poll();
+
+		if (cipher != null && (provider == null || cipher.getProvider() == provider)) {
+			return cipher;
+		}
+
+		return CipherHelper.getInstance(transformation, provider);
+	}
+
+
+	/**
+	 * Releases a cipher instance back to the pool after the operation.
+	 * If the pool is full the cipher is discarded.
+	 *
+	 * @param transformation The cipher transformation. Must not be
+	 *                       {@code null}.
+	 * @param provider       The JCA provider, or {@code null} for the
+	 *                       default one.
+	 * @param cipher         The cipher, {@code null} if none.
+	 */
+	void releaseCipher(final String transformation, final Provider provider, final Cipher cipher) {
+
+		if (cipher != null) {
+			getPool(cipherPools, cacheKey(transformation, provider)).offer(cipher);
+		}
+	}
+
+
+	/**
+	 * Gets the AES/CBC/HMAC-SHA2 composite key for the specified input
+	 * key, reusing the previously split key if the input key is the same
+	 * instance.
+	 *
+	 * @param inputKey The input key. Must be 256, 384 or 512 bits long.
+	 *                 Must not be {@code null}.
+	 *
+	 * @return The composite key.
+	 *
+	 * @throws KeyLengthException If the input key length is invalid.
+	 */
+	CompositeKey getCompositeKey(final SecretKey inputKey)
+		throws KeyLengthException {
+
+		CompositeKey key = compositeKey;
+
+		if (key != null && key.getInputKey() == inputKey) {
+			return key;
+		}
+
+		key = new CompositeKey(inputKey);
+		compositeKey = key;
+		return key;
+	}
+
+
+	/**
+	 * Takes a MAC instance from the pool, initialised with the specified
+	 * key, or creates a new one if the pool is empty. The MAC is only
+	 * re-initialised if the key is not the same instance as it was
+	 * initialised with. The MAC should be released with
+	 * {@link #releaseMac} after the computation.
+	 *
+	 * @param macKey   The MAC key. Must not be {@code null}.
+	 * @param provider The JCA provider, or {@code null} to use the
+	 *                 default one.
+	 *
+	 * @return The initialised MAC.
+	 *
+	 * @throws JOSEException If the MAC couldn't be created or
+	 *                       initialised.
+	 */
+	Mac getMac(final SecretKey macKey, final Provider provider)
+		throws JOSEException {
+
+		KeyedMac keyedMac = getPool(macPools, cacheKey(macKey.getAlgorithm(), provider)).poll();
+
+		if (keyedMac != null && (provider == null || keyedMac.mac.getProvider() == provider)) {
+
+			if (keyedMac.key == macKey) {
+				// Discard any state left by a failed computation
+				keyedMac.mac.reset();
+				return keyedMac.mac;
+			}
+
+			try {
+				keyedMac.mac.init(macKey);
+			} catch (InvalidKeyException e) {
+				throw new JOSEException("Invalid HMAC key: " + e.getMessage(), e);
+			}
+
+			return keyedMac.mac;
+		}
+
+		return HMAC.getInitMac(macKey, provider);
+	}
+
+
+	/**
+	 * Releases a MAC instance back to the pool after the computation. If
+	 * the pool is full the MAC is discarded.
+	 *
+	 * @param macKey   The key the MAC is initialised with. Must not be
+	 *                 {@code null}.
+	 * @param provider The JCA provider, or {@code null} for the default
+	 *                 one.
+	 * @param mac      The MAC, {@code null} if none.
+	 */
+	void releaseMac(final SecretKey macKey, final Provider provider, final Mac mac) {
+
+		if (mac != null) {
+			getPool(macPools, cacheKey(macKey.getAlgorithm(), provider)).offer(new KeyedMac(mac, macKey));
+		}
+	}
+}
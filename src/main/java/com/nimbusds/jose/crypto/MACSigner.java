@@ -21,7 +21,9 @@ package com.nimbusds.jose.crypto;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Set;
+import javax.crypto.Mac;
 import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
 
 import com.nimbusds.jose.*;
 import com.nimbusds.jose.jwk.OctetSequenceKey;
@@ -51,7 +53,7 @@ import net.jcip.annotations.ThreadSafe;
  * </ul>
  * 
  * @author Vladimir Dzhuvinov
- * @version 2016-07-27
+ * @version 2026-10-18
  */
 @ThreadSafe
 public class MACSigner extends MACProvider implements JWSSigner {
@@ -180,6 +182,16 @@ public class MACSigner extends MACProvider implements JWSSigner {
 	public Base64URL sign(final JWSHeader header, final byte[] signingInput)
 		throws JOSEException {
 
+		StreamingSignature signature = initSigning(header);
+		signature.update(signingInput);
+		return signature.sign();
+	}
+
+
+	@Override
+	StreamingSignature initSigning(final JWSHeader header)
+		throws JOSEException {
+
 		final int minRequiredLength = getMinRequiredSecretLength(header.getAlgorithm());
 
 		if (getSecret().length < ByteUtils.byteLength(minRequiredLength)) {
@@ -187,7 +199,7 @@ public class MACSigner extends MACProvider implements JWSSigner {
 		}
 
 		String jcaAlg = getJCAAlgorithmName(header.getAlgorithm());
-		byte[] hmac = HMAC.compute(jcaAlg, getSecret(), signingInput, getJCAContext().getProvider());
-		return Base64URL.encode(hmac);
+		Mac mac = HMAC.getInitMac(new SecretKeySpec(getSecret(), jcaAlg), getJCAContext().getProvider());
+		return StreamingSignature.forMAC(mac);
 	}
 }
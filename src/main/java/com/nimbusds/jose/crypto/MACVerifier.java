@@ -18,14 +18,16 @@
 package com.nimbusds.jose.crypto;
 
 
+import java.util.Collections;
 import java.util.Set;
+import javax.crypto.Mac;
 import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
 
 import com.nimbusds.jose.CriticalHeaderParamsAware;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSHeader;
 import com.nimbusds.jose.JWSVerifier;
-import com.nimbusds.jose.crypto.utils.ConstantTimeUtils;
 import com.nimbusds.jose.jwk.OctetSequenceKey;
 import com.nimbusds.jose.util.Base64URL;
 import com.nimbusds.jose.util.StandardCharset;
@@ -51,7 +53,7 @@ import net.jcip.annotations.ThreadSafe;
  * </ul>
  * 
  * @author Vladimir Dzhuvinov
- * @version 2016-06-26
+ * @version 2026-10-18
  */
 @ThreadSafe
 public class MACVerifier extends MACProvider implements JWSVerifier, CriticalHeaderParamsAware {
@@ -169,12 +171,27 @@ public class MACVerifier extends MACProvider implements JWSVerifier, CriticalHea
 		              final Base64URL signature)
 		throws JOSEException {
 
-		if (! critPolicy.headerPasses(header)) {
+		StreamingSignature verification = initVerification(header, Collections.<String>emptySet());
+
+		if (verification == null) {
 			return false;
 		}
 
+		verification.update(signedContent);
+		return verification.verify(signature);
+	}
+
+
+	@Override
+	StreamingSignature initVerification(final JWSHeader header, final Set<String> processedCritParams)
+		throws JOSEException {
+
+		if (! critPolicy.headerPasses(header, processedCritParams)) {
+			return null;
+		}
+
 		String jcaAlg = getJCAAlgorithmName(header.getAlgorithm());
-		byte[] expectedHMAC = HMAC.compute(jcaAlg, getSecret(), signedContent, getJCAContext().getProvider());
-		return ConstantTimeUtils.areEqual(expectedHMAC, signature.decode());
+		Mac mac = HMAC.getInitMac(new SecretKeySpec(getSecret(), jcaAlg), getJCAContext().getProvider());
+		return StreamingSignature.forMAC(mac);
 	}
 }
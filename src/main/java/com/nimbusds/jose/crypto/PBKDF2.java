@@ -20,13 +20,20 @@ package com.nimbusds.jose.crypto;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import javax.crypto.Mac;
 import javax.crypto.SecretKey;
+import javax.crypto.ShortBufferException;
 import javax.crypto.spec.SecretKeySpec;
 
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWEAlgorithm;
-import com.nimbusds.jose.util.ByteUtils;
 import com.nimbusds.jose.util.IntegerUtils;
 import com.nimbusds.jose.util.StandardCharset;
 
@@ -36,9 +43,14 @@ import com.nimbusds.jose.util.StandardCharset;
  * methods to generate Key Encryption Keys (KEK) from passwords. Adopted from
  * jose4j by Brian Campbell.
  *
+ * <p>The PRF iterations write into fixed scratch buffers, without
+ * allocating per iteration. When the derived key spans more than one PRF
+ * output block the blocks are computed in parallel.
+ *
  * @author Brian Campbell
  * @author Yavor Vassilev
- * @version 2016-07-26
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
  */
 class PBKDF2 {
 
@@ -49,6 +61,20 @@ class PBKDF2 {
 	public static byte[] ZERO_BYTE = { 0 };
 
 
+	/**
+	 * Lazily created executor for the parallel computation of derived key
+	 * blocks. The worker threads are daemon threads.
+	 */
+	private static final class BlockExecutorHolder {
+
+
+		/**
+		 * The executor.
+		 */
+		static final ExecutorService EXECUTOR = new ForkJoinPool();
+	}
+
+
 	/**
 	 * Formats the specified cryptographic salt for use in PBKDF2.
 	 *
@@ -158,59 +184,179 @@ class PBKDF2 {
 		//
 		//               DK = T_1 || T_2 ||  ...  || T_l<0..r-1>
 		//
-		ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-		for (int i = 0; i < l; i++) {
-			byte[] block = extractBlock(formattedSalt, iterationCount, i + 1, prf);
-			if (i == (l - 1)) {
-				block = ByteUtils.subArray(block, 0, r);
-			}
-			byteArrayOutputStream.write(block, 0, block.length);
+		final byte[] dk = new byte[prfParams.getDerivedKeyByteLength()];
+
+		if (l > 1) {
+			extractBlocksInParallel(formattedSalt, iterationCount, l, r, prf, macKey, prfParams, dk);
+		} else {
+			extractBlock(formattedSalt, iterationCount, 1, prf, new byte[hLen], new byte[hLen], dk, 0, r);
 		}
 
 		//  5. Output the derived key DK.
-		return new SecretKeySpec(byteArrayOutputStream.toByteArray(), "AES");
+		return new SecretKeySpec(dk, "AES");
+	}
+
+
+	/**
+	 * Computes the blocks of a derived key which spans more than one PRF
+	 * output block in parallel, each with its own PRF instance. The first
+	 * block is computed on the calling thread.
+	 *
+	 * @param salt           The cryptographic salt. Must not be
+	 *                       {@code null}.
+	 * @param iterationCount The iteration count.
+	 * @param l              The number of blocks.
+	 * @param r              The number of octets in the last block.
+	 * @param prf            The initialised pseudo-random function
+	 *                       (HMAC). Must not be {@code null}.
+	 * @param macKey         The HMAC key, for new PRF instances if
+	 *                       {@code prf} cannot be cloned. Must not be
+	 *                       {@code null}.
+	 * @param prfParams      The Pseudo-Random Function (PRF) parameters.
+	 *                       Must not be {@code null}.
+	 * @param dk             The derived key output. Must not be
+	 *                       {@code null}.
+	 *
+	 * @throws JOSEException If the key derivation failed.
+	 */
+	private static void extractBlocksInParallel(final byte[] salt,
+						    final int iterationCount,
+						    final int l,
+						    final int r,
+						    final Mac prf,
+						    final SecretKey macKey,
+						    final PRFParams prfParams,
+						    final byte[] dk)
+		throws JOSEException {
+
+		final int hLen = prf.getMacLength();
+
+		List<Future<Void>> futures = new ArrayList<>(l - 1);
+
+		for (int i = 2; i <= l; i++) {
+
+			final int blockIndex = i;
+			final Mac blockPRF = newPRF(prf, macKey, prfParams);
+
+			futures.add(BlockExecutorHolder.EXECUTOR.submit(new Callable<Void>() {
+				@Override
+				public Void call()
+					throws JOSEException {
+
+					extractBlock(salt, iterationCount, blockIndex, blockPRF,
+						new byte[hLen], new byte[hLen],
+						dk, (blockIndex - 1) * hLen, blockIndex == l ? r : hLen);
+					return null;
+				}
+			}));
+		}
+
+		extractBlock(salt, iterationCount, 1, prf, new byte[hLen], new byte[hLen], dk, 0, hLen);
+
+		for (Future<Void> future: futures) {
+
+			try {
+				future.get();
+
+			} catch (InterruptedException e) {
+
+				Thread.currentThread().interrupt();
+				throw new JOSEException("Interrupted PBKDF2 key derivation", e);
+
+			} catch (ExecutionException e) {
+
+				if (e.getCause() instanceof JOSEException) {
+					throw (JOSEException)e.getCause();
+				}
+
+				throw new JOSEException(e.getCause().getMessage(), e.getCause());
+			}
+		}
 	}
 
 
 	/**
-	 * Block extraction iteration.
+	 * Creates a new pseudo-random function (PRF) instance with the same
+	 * key as the specified one.
+	 *
+	 * @param prf       The initialised pseudo-random function (HMAC).
+	 *                  Must not be {@code null}.
+	 * @param macKey    The HMAC key. Must not be {@code null}.
+	 * @param prfParams The Pseudo-Random Function (PRF) parameters. Must
+	 *                  not be {@code null}.
+	 *
+	 * @return The new PRF instance.
+	 *
+	 * @throws JOSEException If the PRF instance couldn't be created.
+	 */
+	private static Mac newPRF(final Mac prf, final SecretKey macKey, final PRFParams prfParams)
+		throws JOSEException {
+
+		try {
+			return (Mac)prf.clone();
+		} catch (CloneNotSupportedException e) {
+			return HMAC.getInitMac(macKey, prfParams.getMacProvider());
+		}
+	}
+
+
+	/**
+	 * Block extraction iteration. Writes the PRF outputs into the
+	 * specified scratch buffers, without allocating per iteration.
 	 *
 	 * @param salt           The cryptographic salt. Must not be
 	 *                       {@code null}.
 	 * @param iterationCount The iteration count.
 	 * @param blockIndex     The block index.
 	 * @param prf            The pseudo-random function (HMAC). Must not be
-	 *                       {@code null.
+	 *                       {@code null}.
+	 * @param u              Scratch buffer for the current PRF output,
+	 *                       with the PRF output length. Must not be
+	 *                       {@code null}.
+	 * @param xorU           Scratch buffer for the XOR sum, with the PRF
+	 *                       output length. Must not be {@code null}.
+	 * @param dk             The derived key output. Must not be
+	 *                       {@code null}.
+	 * @param dkOffset       The block offset in the derived key output.
+	 * @param blockLength    The number of block octets to output.
 	 *
-	 * @return The block.
+	 * @throws JOSEException If the PRF computation failed.
 	 */
-	private static byte[] extractBlock(byte[] salt, int iterationCount, int blockIndex, Mac prf) {
-
-		byte[] currentU;
-		byte[] lastU = null;
-		byte[] xorU = null;
-
-		for (int i = 1; i <= iterationCount; i++)
-		{
-			byte[] inputBytes;
-			if (i == 1)
-			{
-				inputBytes = ByteUtils.concat(salt, IntegerUtils.toBytes(blockIndex));
-				currentU = prf.doFinal(inputBytes);
-				xorU = currentU;
-			}
-			else
-			{
-				currentU = prf.doFinal(lastU);
-				for (int j = 0; j < currentU.length; j++)
-				{
-					xorU[j] = (byte) (currentU[j] ^ xorU[j]);
+	private static void extractBlock(final byte[] salt,
+					 final int iterationCount,
+					 final int blockIndex,
+					 final Mac prf,
+					 final byte[] u,
+					 final byte[] xorU,
+					 final byte[] dk,
+					 final int dkOffset,
+					 final int blockLength)
+		throws JOSEException {
+
+		try {
+			// U_1 = PRF (P, S || INT (i))
+			prf.update(salt);
+			prf.update(IntegerUtils.toBytes(blockIndex));
+			prf.doFinal(u, 0);
+			System.arraycopy(u, 0, xorU, 0, u.length);
+
+			// U_c = PRF (P, U_{c-1})
+			for (int i = 2; i <= iterationCount; i++) {
+
+				prf.update(u);
+				prf.doFinal(u, 0);
+
+				for (int j = 0; j < u.length; j++) {
+					xorU[j] ^= u[j];
 				}
 			}
 
-			lastU = currentU;
+		} catch (ShortBufferException e) {
+
+			throw new JOSEException(e.getMessage(), e);
 		}
-		return xorU;
+
+		System.arraycopy(xorU, 0, dk, dkOffset, blockLength);
 	}
 
 
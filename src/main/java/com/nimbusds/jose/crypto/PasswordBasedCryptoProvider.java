@@ -21,8 +21,10 @@ package com.nimbusds.jose.crypto;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Set;
+import javax.crypto.SecretKey;
 
 import com.nimbusds.jose.EncryptionMethod;
+import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWEAlgorithm;
 import com.nimbusds.jose.util.StandardCharset;
 
@@ -53,7 +55,7 @@ import com.nimbusds.jose.util.StandardCharset;
  * </ul>
  *
  * @author Vladimir Dzhuvinov
- * @version 2016-07-26
+ * @version 2026-10-18
  */
 abstract class PasswordBasedCryptoProvider extends BaseJWEProvider {
 
@@ -125,4 +127,51 @@ abstract class PasswordBasedCryptoProvider extends BaseJWEProvider {
 
 		return new String(password, StandardCharset.UTF_8);
 	}
+
+
+	/**
+	 * Derives the PBES2 key encryption key (KEK) from the password and the
+	 * specified parameters. If a derived key cache is specified it is
+	 * consulted first, keyed by the formatted salt, the iteration count
+	 * and the PRF. The password is implied by the provider instance and
+	 * is not part of the cache key.
+	 *
+	 * @param alg            The JWE algorithm. Must not be {@code null}.
+	 * @param salt           The cryptographic salt. Must not be
+	 *                       {@code null}.
+	 * @param iterationCount The iteration count. Must be positive.
+	 * @param cache          The derived key cache, {@code null} if none.
+	 *
+	 * @return The derived key.
+	 *
+	 * @throws JOSEException If the key derivation failed.
+	 */
+	SecretKey deriveKey(final JWEAlgorithm alg,
+			    final byte[] salt,
+			    final int iterationCount,
+			    final DerivedKeyCache cache)
+		throws JOSEException {
+
+		final byte[] formattedSalt = PBKDF2.formatSalt(alg, salt);
+		final PRFParams prfParams = PRFParams.resolve(alg, getJCAContext().getMACProvider());
+
+		if (cache == null) {
+			return PBKDF2.deriveKey(password, formattedSalt, iterationCount, prfParams);
+		}
+
+		final String cacheKey = DerivedKeyCache.computeCacheKey(
+			formattedSalt,
+			iterationCount,
+			prfParams.getMACAlgorithm(),
+			prfParams.getDerivedKeyByteLength());
+
+		SecretKey psKey = cache.get(cacheKey);
+
+		if (psKey == null) {
+			psKey = PBKDF2.deriveKey(password, formattedSalt, iterationCount, prfParams);
+			cache.put(cacheKey, psKey);
+		}
+
+		return psKey;
+	}
 }
@@ -58,8 +58,14 @@ import net.jcip.annotations.ThreadSafe;
  *     <li>{@link com.nimbusds.jose.EncryptionMethod#A256CBC_HS512_DEPRECATED}
  * </ul>
  *
+ * <p>An optional bounded cache of derived key encryption keys (KEK) can be
+ * enabled for applications that receive many JWE objects with repeating
+ * salt ({@code p2s}), iteration count ({@code p2c}) and algorithm, so that
+ * PBKDF2 runs only once for each combination. Evicted entries are wiped.
+ * Caching is off by default.
+ *
  * @author Vladimir Dzhuvinov
- * @version 2016-07-26
+ * @version 2026-10-18
  */
 @ThreadSafe
 public class PasswordBasedDecrypter extends PasswordBasedCryptoProvider implements JWEDecrypter, CriticalHeaderParamsAware {
@@ -71,6 +77,12 @@ public class PasswordBasedDecrypter extends PasswordBasedCryptoProvider implemen
 	private final CriticalHeaderParamsDeferral critPolicy = new CriticalHeaderParamsDeferral();
 
 
+	/**
+	 * The derived key cache, {@code null} if disabled.
+	 */
+	private final DerivedKeyCache derivedKeyCache;
+
+
 	/**
 	 * Creates a new password-based decrypter.
 	 *
@@ -79,7 +91,28 @@ public class PasswordBasedDecrypter extends PasswordBasedCryptoProvider implemen
 	 */
 	public PasswordBasedDecrypter(final byte[] password) {
 
+		this(password, 0);
+	}
+
+
+	/**
+	 * Creates a new password-based decrypter.
+	 *
+	 * @param password            The password bytes. Must not be empty
+	 *                            or {@code null}.
+	 * @param derivedKeyCacheSize The maximum number of derived keys to
+	 *                            cache, zero to disable caching. Must not
+	 *                            be negative.
+	 */
+	public PasswordBasedDecrypter(final byte[] password, final int derivedKeyCacheSize) {
+
 		super(password);
+
+		if (derivedKeyCacheSize < 0) {
+			throw new IllegalArgumentException("The derived key cache size must not be negative");
+		}
+
+		derivedKeyCache = derivedKeyCacheSize > 0 ? new DerivedKeyCache(derivedKeyCacheSize) : null;
 	}
 
 
@@ -91,7 +124,41 @@ public class PasswordBasedDecrypter extends PasswordBasedCryptoProvider implemen
 	 */
 	public PasswordBasedDecrypter(final String password) {
 
-		super(password.getBytes(StandardCharset.UTF_8));
+		this(password.getBytes(StandardCharset.UTF_8));
+	}
+
+
+	/**
+	 * Returns the maximum number of derived keys to cache.
+	 *
+	 * @return The derived key cache size, zero if caching is disabled.
+	 */
+	public int getDerivedKeyCacheSize() {
+
+		return derivedKeyCache != null ? derivedKeyCache.getMaxEntries() : 0;
+	}
+
+
+	/**
+	 * Returns the derived key cache.
+	 *
+	 * @return The derived key cache, {@code null} if disabled.
+	 */
+	DerivedKeyCache getDerivedKeyCache() {
+
+		return derivedKeyCache;
+	}
+
+
+	/**
+	 * Removes all cached derived keys, overwriting their key material.
+	 * Has no effect if caching is disabled.
+	 */
+	public void clearDerivedKeyCache() {
+
+		if (derivedKeyCache != null) {
+			derivedKeyCache.clear();
+		}
 	}
 
 
@@ -130,6 +197,20 @@ public class PasswordBasedDecrypter extends PasswordBasedCryptoProvider implemen
 			throw new JOSEException("Missing JWE authentication tag");
 		}
 
+		final SecretKey cek = decryptCEK(header, encryptedKey);
+
+		return ContentCryptoProvider.decrypt(header, encryptedKey, iv, cipherText, authTag, cek, getJCAContext());
+	}
+
+
+	@Override
+	SecretKey decryptCEK(final JWEHeader header, final Base64URL encryptedKey)
+		throws JOSEException {
+
+		if (encryptedKey == null) {
+			throw new JOSEException("Missing JWE encrypted key");
+		}
+
 		if (header.getPBES2Salt() == null) {
 			throw new JOSEException("Missing JWE \"p2s\" header parameter");
 		}
@@ -144,13 +225,8 @@ public class PasswordBasedDecrypter extends PasswordBasedCryptoProvider implemen
 
 		critPolicy.ensureHeaderPasses(header);
 
-		final JWEAlgorithm alg = header.getAlgorithm();
-		final byte[] formattedSalt = PBKDF2.formatSalt(alg, salt);
-		final PRFParams prfParams = PRFParams.resolve(alg, getJCAContext().getMACProvider());
-		final SecretKey psKey = PBKDF2.deriveKey(getPassword(), formattedSalt, iterationCount, prfParams);
-
-		final SecretKey cek = AESKW.unwrapCEK(psKey, encryptedKey.decode(), getJCAContext().getKeyEncryptionProvider());
+		final SecretKey psKey = deriveKey(header.getAlgorithm(), salt, iterationCount, derivedKeyCache);
 
-		return ContentCryptoProvider.decrypt(header, encryptedKey, iv, cipherText, authTag, cek, getJCAContext());
+		return AESKW.unwrapCEK(psKey, encryptedKey.decode(), getJCAContext().getKeyEncryptionProvider());
 	}
 }
@@ -57,8 +57,16 @@ import net.jcip.annotations.ThreadSafe;
  *     <li>{@link com.nimbusds.jose.EncryptionMethod#A256CBC_HS512_DEPRECATED}
  * </ul>
  *
+ * <p>By default a fresh salt is generated for each JWE object. Optionally,
+ * a salt can be reused for a configurable number of JWE objects, so that
+ * the PBKDF2 cost is paid once per salt instead of once per object. The
+ * content encryption key (CEK) is still unique for each object. Note that
+ * all objects sharing a salt are encrypted with the same key encryption
+ * key (KEK) and can be linked by their {@code p2s} header parameter; enable
+ * salt reuse only when this is acceptable.
+ *
  * @author Vladimir Dzhuvinov
- * @version 2016-07-26
+ * @version 2026-10-18
  */
 @ThreadSafe
 public class PasswordBasedEncrypter extends PasswordBasedCryptoProvider implements JWEEncrypter {
@@ -88,6 +96,31 @@ public class PasswordBasedEncrypter extends PasswordBasedCryptoProvider implemen
 	private final int iterationCount;
 
 
+	/**
+	 * The number of JWE objects for which a salt is used.
+	 */
+	private final int saltReuseCount;
+
+
+	/**
+	 * The derived key cache for the current reused salt, {@code null} if
+	 * salts are not reused.
+	 */
+	private final DerivedKeyCache derivedKeyCache;
+
+
+	/**
+	 * The current reused salt, {@code null} if none.
+	 */
+	private byte[] reusedSalt;
+
+
+	/**
+	 * The number of times the current reused salt was used.
+	 */
+	private int reusedSaltUses;
+
+
 	/**
 	 * Creates a new password-based encrypter.
 	 *
@@ -102,6 +135,29 @@ public class PasswordBasedEncrypter extends PasswordBasedCryptoProvider implemen
 				      final int saltLength,
 				      final int iterationCount) {
 
+		this(password, saltLength, iterationCount, 1);
+	}
+
+
+	/**
+	 * Creates a new password-based encrypter which reuses each generated
+	 * cryptographic salt for the specified number of JWE objects.
+	 *
+	 * @param password       The password bytes. Must not be empty or
+	 *                       {@code null}.
+	 * @param saltLength     The length of the generated cryptographic
+	 *                       salts, in bytes. Must be at least 8 bytes.
+	 * @param iterationCount The pseudo-random function (PRF) iteration
+	 *                       count. Must be at least 1000.
+	 * @param saltReuseCount The number of JWE objects for which a
+	 *                       generated salt is used, 1 to generate a fresh
+	 *                       salt for each object. Must be positive.
+	 */
+	public PasswordBasedEncrypter(final byte[] password,
+				      final int saltLength,
+				      final int iterationCount,
+				      final int saltReuseCount) {
+
 		super(password);
 
 		if (saltLength < MIN_SALT_LENGTH) {
@@ -115,6 +171,14 @@ public class PasswordBasedEncrypter extends PasswordBasedCryptoProvider implemen
 		}
 
 		this.iterationCount = iterationCount;
+
+		if (saltReuseCount < 1) {
+			throw new IllegalArgumentException("The salt reuse count must be positive");
+		}
+
+		this.saltReuseCount = saltReuseCount;
+
+		derivedKeyCache = saltReuseCount > 1 ? new DerivedKeyCache(SUPPORTED_ALGORITHMS.size()) : null;
 	}
 
 
@@ -140,14 +204,21 @@ public class PasswordBasedEncrypter extends PasswordBasedCryptoProvider implemen
 	public JWECryptoParts encrypt(final JWEHeader header, final byte[] clearText)
 		throws JOSEException {
 
+		final ContentEncryptionKey key = encryptCEK(header);
+
+		return ContentCryptoProvider.encrypt(key.getHeader(), clearText, key.getCEK(), key.getEncryptedKey(), getJCAContext());
+	}
+
+
+	@Override
+	ContentEncryptionKey encryptCEK(final JWEHeader header)
+		throws JOSEException {
+
 		final JWEAlgorithm alg = header.getAlgorithm();
 		final EncryptionMethod enc = header.getEncryptionMethod();
 
-		final byte[] salt = new byte[saltLength];
-		getJCAContext().getSecureRandom().nextBytes(salt);
-		final byte[] formattedSalt = PBKDF2.formatSalt(alg, salt);
-		final PRFParams prfParams = PRFParams.resolve(alg, getJCAContext().getMACProvider());
-		final SecretKey psKey = PBKDF2.deriveKey(getPassword(), formattedSalt, iterationCount, prfParams);
+		final byte[] salt = nextSalt();
+		final SecretKey psKey = deriveKey(alg, salt, iterationCount, derivedKeyCache);
 
 		// We need to work on the header
 		final JWEHeader updatedHeader = new JWEHeader.Builder(header).
@@ -160,7 +231,36 @@ public class PasswordBasedEncrypter extends PasswordBasedCryptoProvider implemen
 		// The second JWE part
 		final Base64URL encryptedKey = Base64URL.encode(AESKW.wrapCEK(cek, psKey, getJCAContext().getKeyEncryptionProvider()));
 
-		return  ContentCryptoProvider.encrypt(updatedHeader, clearText, cek, encryptedKey, getJCAContext());
+		return new ContentEncryptionKey(updatedHeader, cek, encryptedKey);
+	}
+
+
+	/**
+	 * Returns the cryptographic salt for the next JWE object. Generates a
+	 * fresh salt, unless the current salt can be reused.
+	 *
+	 * @return The salt.
+	 */
+	private byte[] nextSalt() {
+
+		if (saltReuseCount == 1) {
+			final byte[] salt = new byte[saltLength];
+			getJCAContext().getSecureRandom().nextBytes(salt);
+			return salt;
+		}
+
+		synchronized (this) {
+
+			if (reusedSalt == null || reusedSaltUses >= saltReuseCount) {
+				reusedSalt = new byte[saltLength];
+				getJCAContext().getSecureRandom().nextBytes(reusedSalt);
+				reusedSaltUses = 0;
+				derivedKeyCache.clear();
+			}
+
+			reusedSaltUses++;
+			return reusedSalt;
+		}
 	}
 
 
@@ -184,4 +284,17 @@ public class PasswordBasedEncrypter extends PasswordBasedCryptoProvider implemen
 
 		return iterationCount;
 	}
+
+
+	/**
+	 * Returns the number of JWE objects for which a generated
+	 * cryptographic salt is used.
+	 *
+	 * @return The salt reuse count, 1 if a fresh salt is generated for
+	 *         each object.
+	 */
+	public int getSaltReuseCount() {
+
+		return saltReuseCount;
+	}
 }
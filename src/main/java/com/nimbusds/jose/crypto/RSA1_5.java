@@ -20,6 +20,7 @@ package com.nimbusds.jose.crypto;
 
 import java.security.PrivateKey;
 import java.security.Provider;
+import java.security.SecureRandom;
 import java.security.interfaces.RSAPublicKey;
 import javax.crypto.Cipher;
 import javax.crypto.IllegalBlockSizeException;
@@ -36,7 +37,7 @@ import net.jcip.annotations.ThreadSafe;
  * decryption. This class is thread-safe.
  *
  * @author Vladimir Dzhuvinov
- * @version 2017-06-01
+ * @version 2026-10-18
  */
 @ThreadSafe
 class RSA1_5 {
@@ -58,9 +59,38 @@ class RSA1_5 {
 	public static byte[] encryptCEK(final RSAPublicKey pub, final SecretKey cek, Provider provider)
 		throws JOSEException {
 
+		return encryptCEK(pub, cek, provider, null);
+	}
+
+
+	/**
+	 * Encrypts the specified Content Encryption Key (CEK).
+	 *
+	 * @param pub       The public RSA key. Must not be {@code null}.
+	 * @param cek       The Content Encryption Key (CEK) to encrypt. Must
+	 *                  not be {@code null}.
+	 * @param provider  The JCA provider, or {@code null} to use the
+	 *                  default one.
+	 * @param randomGen The secure random generator for the padding,
+	 *                  {@code null} to use the default one.
+	 *
+	 * @return The encrypted Content Encryption Key (CEK).
+	 *
+	 * @throws JOSEException If encryption failed.
+	 */
+	public static byte[] encryptCEK(final RSAPublicKey pub,
+					final SecretKey cek,
+					final Provider provider,
+					final SecureRandom randomGen)
+		throws JOSEException {
+
 		try {
 			Cipher cipher = CipherHelper.getInstance("RSA/ECB/PKCS1Padding", provider);
-			cipher.init(Cipher.ENCRYPT_MODE, pub);
+			if (randomGen != null) {
+				cipher.init(Cipher.ENCRYPT_MODE, pub, randomGen);
+			} else {
+				cipher.init(Cipher.ENCRYPT_MODE, pub);
+			}
 			return cipher.doFinal(cek.getEncoded());
 			
 		} catch (IllegalBlockSizeException e) {
@@ -18,6 +18,7 @@
 package com.nimbusds.jose.crypto;
 
 
+import java.security.SecureRandom;
 import java.security.interfaces.RSAPublicKey;
 import javax.crypto.SecretKey;
 
@@ -70,7 +71,7 @@ import com.nimbusds.jose.util.Base64URL;
  *
  * @author David Ortiz
  * @author Vladimir Dzhuvinov
- * @version 2015-06-08
+ * @version 2026-10-18
  */
 @ThreadSafe
 public class RSAEncrypter extends RSACryptoProvider implements JWEEncrypter {
@@ -126,31 +127,42 @@ public class RSAEncrypter extends RSACryptoProvider implements JWEEncrypter {
 	public JWECryptoParts encrypt(final JWEHeader header, final byte[] clearText)
 		throws JOSEException {
 
+		final ContentEncryptionKey key = encryptCEK(header);
+
+		return ContentCryptoProvider.encrypt(key.getHeader(), clearText, key.getCEK(), key.getEncryptedKey(), getJCAContext());
+	}
+
+
+	@Override
+	ContentEncryptionKey encryptCEK(final JWEHeader header)
+		throws JOSEException {
+
 		final JWEAlgorithm alg = header.getAlgorithm();
 		final EncryptionMethod enc = header.getEncryptionMethod();
 
 		// Generate and encrypt the CEK according to the enc method
-		final SecretKey cek = ContentCryptoProvider.generateCEK(enc, getJCAContext().getSecureRandom());
+		final SecureRandom randomGen = getJCAContext().getSecureRandom();
+		final SecretKey cek = ContentCryptoProvider.generateCEK(enc, randomGen);
 
 		final Base64URL encryptedKey; // The second JWE part
 
 		if (alg.equals(JWEAlgorithm.RSA1_5)) {
 
-			encryptedKey = Base64URL.encode(RSA1_5.encryptCEK(publicKey, cek, getJCAContext().getKeyEncryptionProvider()));
+			encryptedKey = Base64URL.encode(RSA1_5.encryptCEK(publicKey, cek, getJCAContext().getKeyEncryptionProvider(), randomGen));
 
 		} else if (alg.equals(JWEAlgorithm.RSA_OAEP)) {
 
-			encryptedKey = Base64URL.encode(RSA_OAEP.encryptCEK(publicKey, cek, getJCAContext().getKeyEncryptionProvider()));
+			encryptedKey = Base64URL.encode(RSA_OAEP.encryptCEK(publicKey, cek, getJCAContext().getKeyEncryptionProvider(), randomGen));
 
 		} else if (alg.equals(JWEAlgorithm.RSA_OAEP_256)) {
 			
-			encryptedKey = Base64URL.encode(RSA_OAEP_256.encryptCEK(publicKey, cek, getJCAContext().getKeyEncryptionProvider()));
+			encryptedKey = Base64URL.encode(RSA_OAEP_256.encryptCEK(publicKey, cek, getJCAContext().getKeyEncryptionProvider(), randomGen));
 			
 		} else {
 
 			throw new JOSEException(AlgorithmSupportMessage.unsupportedJWEAlgorithm(alg, SUPPORTED_ALGORITHMS));
 		}
 
-		return ContentCryptoProvider.encrypt(header, clearText, cek, encryptedKey, getJCAContext());
+		return new ContentEncryptionKey(header, cek, encryptedKey);
 	}
 }
\ No newline at end of file
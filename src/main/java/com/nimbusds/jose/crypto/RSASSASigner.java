@@ -21,7 +21,6 @@ package com.nimbusds.jose.crypto;
 import java.security.InvalidKeyException;
 import java.security.PrivateKey;
 import java.security.Signature;
-import java.security.SignatureException;
 
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSHeader;
@@ -56,7 +55,7 @@ import net.jcip.annotations.ThreadSafe;
  * 
  * @author Vladimir Dzhuvinov
  * @author Omer Levi Hevroni
- * @version 2016-11-30
+ * @version 2026-10-18
  */
 @ThreadSafe
 public class RSASSASigner extends RSASSAProvider implements JWSSigner {
@@ -130,18 +129,25 @@ public class RSASSASigner extends RSASSAProvider implements JWSSigner {
 	public Base64URL sign(final JWSHeader header, final byte[] signingInput)
 		throws JOSEException {
 
+		StreamingSignature signature = initSigning(header);
+		signature.update(signingInput);
+		return signature.sign();
+	}
+
+
+	@Override
+	StreamingSignature initSigning(final JWSHeader header)
+		throws JOSEException {
+
 		Signature signer = RSASSA.getSignerAndVerifier(header.getAlgorithm(), getJCAContext().getProvider());
 
 		try {
 			signer.initSign(privateKey);
-			signer.update(signingInput);
-			return Base64URL.encode(signer.sign());
 
 		} catch (InvalidKeyException e) {
 			throw new JOSEException("Invalid private RSA key: " + e.getMessage(), e);
-
-		} catch (SignatureException e) {
-			throw new JOSEException("RSA signature exception: " + e.getMessage(), e);
 		}
+
+		return StreamingSignature.forSignature(signer);
 	}
 }
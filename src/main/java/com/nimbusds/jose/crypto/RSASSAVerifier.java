@@ -20,8 +20,8 @@ package com.nimbusds.jose.crypto;
 
 import java.security.InvalidKeyException;
 import java.security.Signature;
-import java.security.SignatureException;
 import java.security.interfaces.RSAPublicKey;
+import java.util.Collections;
 import java.util.Set;
 
 import net.jcip.annotations.ThreadSafe;
@@ -54,7 +54,7 @@ import com.nimbusds.jose.util.Base64URL;
  * </ul>
  * 
  * @author Vladimir Dzhuvinov
- * @version 2015-06-02
+ * @version 2026-10-18
  */
 @ThreadSafe
 public class RSASSAVerifier extends RSASSAProvider implements JWSVerifier, CriticalHeaderParamsAware {
@@ -149,10 +149,30 @@ public class RSASSAVerifier extends RSASSAProvider implements JWSVerifier, Criti
 		              final Base64URL signature)
 		throws JOSEException {
 
-		if (! critPolicy.headerPasses(header)) {
+		StreamingSignature verification = initVerification(header, Collections.<String>emptySet());
+
+		if (verification == null) {
+			return false;
+		}
+
+		try {
+			verification.update(signedContent);
+		} catch (JOSEException e) {
 			return false;
 		}
 
+		return verification.verify(signature);
+	}
+
+
+	@Override
+	StreamingSignature initVerification(final JWSHeader header, final Set<String> processedCritParams)
+		throws JOSEException {
+
+		if (! critPolicy.headerPasses(header, processedCritParams)) {
+			return null;
+		}
+
 		final Signature verifier = RSASSA.getSignerAndVerifier(header.getAlgorithm(), getJCAContext().getProvider());
 
 		try {
@@ -162,12 +182,6 @@ public class RSASSAVerifier extends RSASSAProvider implements JWSVerifier, Criti
 			throw new JOSEException("Invalid public RSA key: " + e.getMessage(), e);
 		}
 
-		try {
-			verifier.update(signedContent);
-			return verifier.verify(signature.decode());
-
-		} catch (SignatureException e) {
-			return false;
-		}
+		return StreamingSignature.forSignature(verifier);
 	}
 }
@@ -38,7 +38,7 @@ import com.nimbusds.jose.JOSEException;
  * decryption. Uses the BouncyCastle.org provider. This class is thread-safe
  *
  * @author Vladimir Dzhuvinov
- * @version 2016-12-04
+ * @version 2026-10-18
  */
 @ThreadSafe
 class RSA_OAEP {
@@ -60,9 +60,34 @@ class RSA_OAEP {
 	public static byte[] encryptCEK(final RSAPublicKey pub, final SecretKey cek, final Provider provider)
 		throws JOSEException {
 
+		return encryptCEK(pub, cek, provider, null);
+	}
+
+
+	/**
+	 * Encrypts the specified Content Encryption Key (CEK).
+	 *
+	 * @param pub       The public RSA key. Must not be {@code null}.
+	 * @param cek       The Content Encryption Key (CEK) to encrypt. Must
+	 *                  not be {@code null}.
+	 * @param provider  The JCA provider, or {@code null} to use the
+	 *                  default one.
+	 * @param randomGen The secure random generator for the padding,
+	 *                  {@code null} to use the default one.
+	 *
+	 * @return The encrypted Content Encryption Key (CEK).
+	 *
+	 * @throws JOSEException If encryption failed.
+	 */
+	public static byte[] encryptCEK(final RSAPublicKey pub,
+					final SecretKey cek,
+					final Provider provider,
+					final SecureRandom randomGen)
+		throws JOSEException {
+
 		try {
 			Cipher cipher = CipherHelper.getInstance("RSA/ECB/OAEPWithSHA-1AndMGF1Padding", provider);
-			cipher.init(Cipher.ENCRYPT_MODE, pub, new SecureRandom());
+			cipher.init(Cipher.ENCRYPT_MODE, pub, randomGen != null ? randomGen : new SecureRandom());
 			return cipher.doFinal(cek.getEncoded());
 			
 		} catch (IllegalBlockSizeException e) {
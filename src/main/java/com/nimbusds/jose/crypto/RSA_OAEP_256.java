@@ -21,6 +21,7 @@ package com.nimbusds.jose.crypto;
 import java.security.AlgorithmParameters;
 import java.security.PrivateKey;
 import java.security.Provider;
+import java.security.SecureRandom;
 import java.security.interfaces.RSAPublicKey;
 import java.security.spec.AlgorithmParameterSpec;
 import java.security.spec.MGF1ParameterSpec;
@@ -43,7 +44,7 @@ import com.nimbusds.jose.JOSEException;
  *
  * @author Vladimir Dzhuvinov
  * @author Justin Richer
- * @version 2016-12-04
+ * @version 2026-10-18
  */
 @ThreadSafe
 class RSA_OAEP_256 {
@@ -65,12 +66,41 @@ class RSA_OAEP_256 {
 	public static byte[] encryptCEK(final RSAPublicKey pub, final SecretKey cek, final Provider provider)
 		throws JOSEException {
 
+		return encryptCEK(pub, cek, provider, null);
+	}
+
+
+	/**
+	 * Encrypts the specified Content Encryption Key (CEK).
+	 *
+	 * @param pub       The public RSA key. Must not be {@code null}.
+	 * @param cek       The Content Encryption Key (CEK) to encrypt. Must
+	 *                  not be {@code null}.
+	 * @param provider  The JCA provider, or {@code null} to use the
+	 *                  default one.
+	 * @param randomGen The secure random generator for the padding,
+	 *                  {@code null} to use the default one.
+	 *
+	 * @return The encrypted Content Encryption Key (CEK).
+	 *
+	 * @throws JOSEException If encryption failed.
+	 */
+	public static byte[] encryptCEK(final RSAPublicKey pub,
+					final SecretKey cek,
+					final Provider provider,
+					final SecureRandom randomGen)
+		throws JOSEException {
+
 		try {
 			AlgorithmParameters algp = AlgorithmParametersHelper.getInstance("OAEP", provider);
 			AlgorithmParameterSpec paramSpec = new OAEPParameterSpec("SHA-256", "MGF1", MGF1ParameterSpec.SHA256, PSource.PSpecified.DEFAULT);
 			algp.init(paramSpec);
 			Cipher cipher = CipherHelper.getInstance("RSA/ECB/OAEPWithSHA-256AndMGF1Padding", provider);
-			cipher.init(Cipher.ENCRYPT_MODE, pub, algp);
+			if (randomGen != null) {
+				cipher.init(Cipher.ENCRYPT_MODE, pub, algp, randomGen);
+			} else {
+				cipher.init(Cipher.ENCRYPT_MODE, pub, algp);
+			}
 			return cipher.doFinal(cek.getEncoded());
 			
 		} catch (IllegalBlockSizeException e) {
@@ -0,0 +1,888 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.crypto;
+
+
+import java.io.*;
+import java.security.Provider;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterOutputStream;
+import java.util.zip.ZipException;
+import javax.crypto.BadPaddingException;
+import javax.crypto.Cipher;
+import javax.crypto.IllegalBlockSizeException;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.crypto.utils.ConstantTimeUtils;
+import com.nimbusds.jose.jca.JWEJCAContext;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jose.util.ByteUtils;
+import com.nimbusds.jose.util.StandardCharset;
+import net.jcip.annotations.ThreadSafe;
+
+
+/**
+ * Streaming JWE content encryption / decryption provider. Processes the
+ * content in fixed-size chunks, so that the memory use doesn't depend on
+ * the content size. This class is thread-safe.
+ *
+ * <p>Supports the following encryption methods:
+ *
+ * <ul>
+ *     <li>{@link com.nimbusds.jose.EncryptionMethod#A128CBC_HS256}
+ *     <li>{@link com.nimbusds.jose.EncryptionMethod#A192CBC_HS384}
+ *     <li>{@link com.nimbusds.jose.EncryptionMethod#A256CBC_HS512}
+ *     <li>{@link com.nimbusds.jose.EncryptionMethod#A128GCM}
+ *     <li>{@link com.nimbusds.jose.EncryptionMethod#A192GCM}
+ *     <li>{@link com.nimbusds.jose.EncryptionMethod#A256GCM}
+ * </ul>
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+@ThreadSafe
+class StreamingContentCryptoProvider {
+
+
+	/**
+	 * The supported encryption methods.
+	 */
+	public static final Set<EncryptionMethod> SUPPORTED_ENCRYPTION_METHODS;
+
+
+	static {
+		Set<EncryptionMethod> methods = new LinkedHashSet<>();
+		methods.add(EncryptionMethod.A128CBC_HS256);
+		methods.add(EncryptionMethod.A192CBC_HS384);
+		methods.add(EncryptionMethod.A256CBC_HS512);
+		methods.add(EncryptionMethod.A128GCM);
+		methods.add(EncryptionMethod.A192GCM);
+		methods.add(EncryptionMethod.A256GCM);
+		SUPPORTED_ENCRYPTION_METHODS = Collections.unmodifiableSet(methods);
+	}
+
+
+	/**
+	 * The chunk size, in bytes. A multiple of 3 and 4 so that chunks
+	 * align with BASE64URL quanta.
+	 */
+	static final int CHUNK_SIZE = 12 * 1024;
+
+
+	/**
+	 * Omit the zlib header and checksum, as specified by RFC 1951.
+	 */
+	private static final boolean NOWRAP = true;
+
+
+	/**
+	 * Authenticated AES cipher operating on chunks of content.
+	 */
+	private static abstract class AuthenticatedCipher {
+
+
+		/**
+		 * Returns the initialisation vector (IV).
+		 *
+		 * @return The IV.
+		 */
+		abstract byte[] getIV();
+
+
+		/**
+		 * Continues the encryption or decryption of the content.
+		 *
+		 * @param input The input bytes. Must not be {@code null}.
+		 * @param off   The input offset.
+		 * @param len   The input length.
+		 *
+		 * @return The output bytes, {@code null} if none.
+		 */
+		abstract byte[] update(final byte[] input, final int off, final int len);
+
+
+		/**
+		 * Finishes the encryption of the content.
+		 *
+		 * @return The last cipher text bytes and the authentication
+		 *         tag.
+		 *
+		 * @throws JOSEException If encryption failed.
+		 */
+		abstract AuthenticatedCipherText finishEncryption()
+			throws JOSEException;
+
+
+		/**
+		 * Finishes the decryption of the content after checking the
+		 * authentication tag.
+		 *
+		 * @param authTag The authentication tag. Must not be
+		 *                {@code null}.
+		 *
+		 * @return The last plain text bytes, {@code null} if none.
+		 *
+		 * @throws JOSEException If the authentication tag check or
+		 *                       decryption failed.
+		 */
+		abstract byte[] finishDecryption(final byte[] authTag)
+			throws JOSEException;
+	}
+
+
+	/**
+	 * AES/GCM/NoPadding cipher.
+	 */
+	private static final class AESGCMCipher extends AuthenticatedCipher {
+
+
+		/**
+		 * The underlying cipher.
+		 */
+		private final Cipher cipher;
+
+
+		/**
+		 * Creates a new AES/GCM/NoPadding cipher.
+		 *
+		 * @param cek           The content encryption key. Must not
+		 *                      be {@code null}.
+		 * @param forEncryption If {@code true} creates an encryption
+		 *                      cipher, else creates a decryption
+		 *                      cipher.
+		 * @param iv            The initialisation vector (IV). Must
+		 *                      not be {@code null}.
+		 * @param aad           The additional authenticated data.
+		 *                      Must not be {@code null}.
+		 * @param provider      The JCA provider, {@code null} to use
+		 *                      the default one.
+		 *
+		 * @throws JOSEException If the cipher couldn't be created.
+		 */
+		AESGCMCipher(final SecretKey cek,
+			     final boolean forEncryption,
+			     final byte[] iv,
+			     final byte[] aad,
+			     final Provider provider)
+			throws JOSEException {
+
+			cipher = AESGCM.createAESGCMCipher(cek, forEncryption, iv, provider);
+			cipher.updateAAD(aad);
+		}
+
+
+		@Override
+		byte[] getIV() {
+
+			try {
+				return AESGCM.actualIVOf(cipher);
+			} catch (JOSEException e) {
+				throw new IllegalStateException(e.getMessage(), e);
+			}
+		}
+
+
+		@Override
+		byte[] update(final byte[] input, final int off, final int len) {
+
+			return cipher.update(input, off, len);
+		}
+
+
+		@Override
+		AuthenticatedCipherText finishEncryption()
+			throws JOSEException {
+
+			final byte[] cipherOutput;
+
+			try {
+				cipherOutput = cipher.doFinal();
+			} catch (IllegalBlockSizeException | BadPaddingException e) {
+				throw new JOSEException("Couldn't encrypt with AES/GCM/NoPadding: " + e.getMessage(), e);
+			}
+
+			// The tag is appended to the remaining cipher text
+			final int tagLength = ByteUtils.byteLength(AESGCM.AUTH_TAG_BIT_LENGTH);
+			final int tagPos = cipherOutput.length - tagLength;
+
+			return new AuthenticatedCipherText(
+				ByteUtils.subArray(cipherOutput, 0, tagPos),
+				ByteUtils.subArray(cipherOutput, tagPos, tagLength));
+		}
+
+
+		@Override
+		byte[] finishDecryption(final byte[] authTag)
+			throws JOSEException {
+
+			try {
+				return cipher.doFinal(authTag);
+			} catch (IllegalBlockSizeException | BadPaddingException e) {
+				throw new JOSEException("AES/GCM/NoPadding decryption failed: " + e.getMessage(), e);
+			}
+		}
+	}
+
+
+	/**
+	 * AES/CBC/PKCS5Padding/HMAC-SHA2 cipher.
+	 */
+	private static final class AESCBCHMACCipher extends AuthenticatedCipher {
+
+
+		/**
+		 * The MAC + AES/CBC composite key.
+		 */
+		private final CompositeKey compositeKey;
+
+
+		/**
+		 * The IV.
+		 */
+		private final byte[] iv;
+
+
+		/**
+		 * The AAD length, as a 64 bit big-endian representation.
+		 */
+		private final byte[] al;
+
+
+		/**
+		 * The underlying cipher.
+		 */
+		private final Cipher cipher;
+
+
+		/**
+		 * The MAC, updated with the cipher text.
+		 */
+		private final Mac mac;
+
+
+		/**
+		 * {@code true} for encryption, {@code false} for decryption.
+		 */
+		private final boolean forEncryption;
+
+
+		/**
+		 * Creates a new AES/CBC/PKCS5Padding/HMAC-SHA2 cipher.
+		 *
+		 * @param cek           The content encryption key. Must not
+		 *                      be {@code null}.
+		 * @param forEncryption If {@code true} creates an encryption
+		 *                      cipher, else creates a decryption
+		 *                      cipher.
+		 * @param iv            The initialisation vector (IV). Must
+		 *                      not be {@code null}.
+		 * @param aad           The additional authenticated data.
+		 *                      Must not be {@code null}.
+		 * @param ceProvider    The JCA provider for the content
+		 *                      encryption, {@code null} to use the
+		 *                      default one.
+		 * @param macProvider   The JCA provider for the MAC
+		 *                      computation, {@code null} to use the
+		 *                      default one.
+		 *
+		 * @throws JOSEException If the cipher couldn't be created.
+		 */
+		AESCBCHMACCipher(final SecretKey cek,
+				 final boolean forEncryption,
+				 final byte[] iv,
+				 final byte[] aad,
+				 final Provider ceProvider,
+				 final Provider macProvider)
+			throws JOSEException {
+
+			compositeKey = new CompositeKey(cek);
+			this.iv = iv;
+			al = AAD.computeLength(aad);
+			this.forEncryption = forEncryption;
+			cipher = AESCBC.createAESCBCCipher(compositeKey.getAESKey(), forEncryption, iv, ceProvider);
+			mac = HMAC.getInitMac(compositeKey.getMACKey(), macProvider);
+			mac.update(aad);
+			mac.update(iv);
+		}
+
+
+		@Override
+		byte[] getIV() {
+
+			return iv;
+		}
+
+
+		@Override
+		byte[] update(final byte[] input, final int off, final int len) {
+
+			if (forEncryption) {
+				byte[] cipherText = cipher.update(input, off, len);
+				if (cipherText != null) {
+					mac.update(cipherText);
+				}
+				return cipherText;
+			} else {
+				mac.update(input, off, len);
+				return cipher.update(input, off, len);
+			}
+		}
+
+
+		/**
+		 * Computes the truncated MAC over the cipher text passed so
+		 * far.
+		 *
+		 * @return The authentication tag.
+		 */
+		private byte[] computeAuthTag() {
+
+			mac.update(al);
+			return Arrays.copyOf(mac.doFinal(), compositeKey.getTruncatedMACByteLength());
+		}
+
+
+		@Override
+		AuthenticatedCipherText finishEncryption()
+			throws JOSEException {
+
+			final byte[] cipherText;
+
+			try {
+				cipherText = cipher.doFinal();
+			} catch (IllegalBlockSizeException | BadPaddingException e) {
+				throw new JOSEException(e.getMessage(), e);
+			}
+
+			mac.update(cipherText);
+
+			return new AuthenticatedCipherText(cipherText, computeAuthTag());
+		}
+
+
+		@Override
+		byte[] finishDecryption(final byte[] authTag)
+			throws JOSEException {
+
+			// Check the MAC before the padding
+			if (! ConstantTimeUtils.areEqual(computeAuthTag(), authTag)) {
+				throw new JOSEException("MAC check failed");
+			}
+
+			try {
+				return cipher.doFinal();
+			} catch (IllegalBlockSizeException | BadPaddingException e) {
+				throw new JOSEException(e.getMessage(), e);
+			}
+		}
+	}
+
+
+	/**
+	 * Output stream which encrypts the written bytes and writes the
+	 * BASE64URL-encoded cipher text to the underlying output stream.
+	 */
+	private static final class EncryptingOutputStream extends OutputStream {
+
+
+		/**
+		 * The cipher.
+		 */
+		private final AuthenticatedCipher cipher;
+
+
+		/**
+		 * The BASE64URL-encoding output.
+		 */
+		private final Base64URLWriter out;
+
+
+		/**
+		 * Creates a new encrypting output stream.
+		 *
+		 * @param cipher The cipher. Must not be {@code null}.
+		 * @param out    The BASE64URL-encoding output. Must not be
+		 *               {@code null}.
+		 */
+		EncryptingOutputStream(final AuthenticatedCipher cipher, final Base64URLWriter out) {
+			this.cipher = cipher;
+			this.out = out;
+		}
+
+
+		@Override
+		public void write(final int b)
+			throws IOException {
+
+			write(new byte[]{(byte)b}, 0, 1);
+		}
+
+
+		@Override
+		public void write(final byte[] b, final int off, final int len)
+			throws IOException {
+
+			out.write(cipher.update(b, off, len));
+		}
+	}
+
+
+	/**
+	 * Output stream which decrypts the written cipher text bytes and
+	 * writes the plain text to the underlying output stream.
+	 */
+	private static final class DecryptingOutputStream extends OutputStream {
+
+
+		/**
+		 * The cipher.
+		 */
+		private final AuthenticatedCipher cipher;
+
+
+		/**
+		 * The plain text output.
+		 */
+		private final OutputStream out;
+
+
+		/**
+		 * Creates a new decrypting output stream.
+		 *
+		 * @param cipher The cipher. Must not be {@code null}.
+		 * @param out    The plain text output. Must not be
+		 *               {@code null}.
+		 */
+		DecryptingOutputStream(final AuthenticatedCipher cipher, final OutputStream out) {
+			this.cipher = cipher;
+			this.out = out;
+		}
+
+
+		@Override
+		public void write(final int b)
+			throws IOException {
+
+			write(new byte[]{(byte)b}, 0, 1);
+		}
+
+
+		@Override
+		public void write(final byte[] b, final int off, final int len)
+			throws IOException {
+
+			byte[] plainText = cipher.update(b, off, len);
+
+			if (plainText != null) {
+				out.write(plainText);
+			}
+		}
+	}
+
+
+	/**
+	 * Output stream for inflated plain text which enforces the maximum
+	 * decompressed length and the maximum compression ratio. The ratio is
+	 * checked against the compressed input consumed so far.
+	 */
+	private static final class LimitedInflaterOutputStream extends OutputStream {
+
+
+		/**
+		 * The plain text output.
+		 */
+		private final OutputStream out;
+
+
+		/**
+		 * The inflater.
+		 */
+		private final Inflater inflater;
+
+
+		/**
+		 * The maximum decompressed length, in bytes.
+		 */
+		private final int maxLength;
+
+
+		/**
+		 * The maximum compression ratio, zero for no limit.
+		 */
+		private final int maxRatio;
+
+
+		/**
+		 * The number of bytes written so far.
+		 */
+		private long count = 0;
+
+
+		/**
+		 * Creates a new limited inflater output stream.
+		 *
+		 * @param out       The plain text output. Must not be
+		 *                  {@code null}.
+		 * @param inflater  The inflater. Must not be {@code null}.
+		 * @param maxLength The maximum decompressed length, in bytes.
+		 * @param maxRatio  The maximum compression ratio, zero for no
+		 *                  limit.
+		 */
+		LimitedInflaterOutputStream(final OutputStream out,
+					    final Inflater inflater,
+					    final int maxLength,
+					    final int maxRatio) {
+			this.out = out;
+			this.inflater = inflater;
+			this.maxLength = maxLength;
+			this.maxRatio = maxRatio;
+		}
+
+
+		@Override
+		public void write(final int b)
+			throws IOException {
+
+			write(new byte[]{(byte)b}, 0, 1);
+		}
+
+
+		@Override
+		public void write(final byte[] b, final int off, final int len)
+			throws IOException {
+
+			count += len;
+
+			final int limit = DeflateHelper.computeMaxDecompressedLength(inflater.getBytesRead(), maxLength, maxRatio);
+
+			if (count > limit) {
+				throw new ZipException("Decompressed size exceeds the maximum of " + limit + " bytes");
+			}
+
+			out.write(b, off, len);
+		}
+
+
+		@Override
+		public void flush()
+			throws IOException {
+
+			out.flush();
+		}
+	}
+
+
+	/**
+	 * Ensures the specified JWE header has a supported encryption method
+	 * and compression algorithm.
+	 *
+	 * @param header The JWE header. Must not be {@code null}.
+	 *
+	 * @throws JOSEException If the encryption method or compression
+	 *                       algorithm is not supported.
+	 */
+	public static void ensureSupported(final JWEHeader header)
+		throws JOSEException {
+
+		if (! SUPPORTED_ENCRYPTION_METHODS.contains(header.getEncryptionMethod())) {
+			throw new JOSEException(AlgorithmSupportMessage.unsupportedEncryptionMethod(
+				header.getEncryptionMethod(),
+				SUPPORTED_ENCRYPTION_METHODS));
+		}
+
+		CompressionAlgorithm zip = header.getCompressionAlgorithm();
+
+		if (zip != null && ! zip.equals(CompressionAlgorithm.DEF)) {
+			throw new JOSEException("Unsupported compression algorithm: " + zip);
+		}
+	}
+
+
+	/**
+	 * Creates an authenticated cipher for the specified JWE header.
+	 *
+	 * @param header        The JWE header. Must not be {@code null}.
+	 * @param cek           The Content Encryption Key (CEK). Must not
+	 *                      be {@code null}.
+	 * @param forEncryption If {@code true} creates an encryption cipher,
+	 *                      else creates a decryption cipher.
+	 * @param iv            The initialisation vector (IV) for decryption,
+	 *                      {@code null} to generate one for encryption.
+	 * @param aad           The additional authenticated data. Must not be
+	 *                      {@code null}.
+	 * @param jcaProvider   The JWE JCA provider specification. Must not
+	 *                      be {@code null}.
+	 *
+	 * @return The authenticated cipher.
+	 *
+	 * @throws JOSEException If the cipher couldn't be created.
+	 */
+	private static AuthenticatedCipher createCipher(final JWEHeader header,
+							final SecretKey cek,
+							final boolean forEncryption,
+							final byte[] iv,
+							final byte[] aad,
+							final JWEJCAContext jcaProvider)
+		throws JOSEException {
+
+		ensureSupported(header);
+
+		ContentCryptoProvider.checkCEKLength(cek, header.getEncryptionMethod());
+
+		if (EncryptionMethod.Family.AES_GCM.contains(header.getEncryptionMethod())) {
+
+			return new AESGCMCipher(
+				cek,
+				forEncryption,
+				iv != null ? iv : AESGCM.generateIV(jcaProvider.getSecureRandom()),
+				aad,
+				jcaProvider.getContentEncryptionProvider());
+
+		} else {
+
+			return new AESCBCHMACCipher(
+				cek,
+				forEncryption,
+				iv != null ? iv : AESCBC.generateIV(jcaProvider.getSecureRandom()),
+				aad,
+				jcaProvider.getContentEncryptionProvider(),
+				jcaProvider.getMACProvider());
+		}
+	}
+
+
+	/**
+	 * Encrypts the specified clear text stream and writes the resulting
+	 * JWE in compact serialisation to the specified output stream.
+	 *
+	 * @param header       The final JWE header. Must not be {@code null}.
+	 * @param clearText    The clear text to encrypt and optionally
+	 *                     compress. Must not be {@code null}.
+	 * @param cek          The Content Encryption Key (CEK). Must not be
+	 *                     {@code null}.
+	 * @param encryptedKey The encrypted CEK, {@code null} if not required.
+	 * @param out          The output stream for the compact
+	 *                     serialisation. Must not be {@code null}.
+	 * @param jcaProvider  The JWE JCA provider specification. Must not be
+	 *                     {@code null}.
+	 *
+	 * @throws JOSEException If encryption failed.
+	 * @throws IOException   If reading the clear text or writing the
+	 *                       output failed.
+	 */
+	public static void encrypt(final JWEHeader header,
+				   final InputStream clearText,
+				   final SecretKey cek,
+				   final Base64URL encryptedKey,
+				   final OutputStream out,
+				   final JWEJCAContext jcaProvider)
+		throws JOSEException, IOException {
+
+		final Base64URL encodedHeader = header.toBase64URL();
+
+		final AuthenticatedCipher cipher = createCipher(header, cek, true, null, AAD.compute(encodedHeader), jcaProvider);
+
+		final StringBuilder prefix = new StringBuilder(encodedHeader.toString());
+		prefix.append('.');
+		if (encryptedKey != null) {
+			prefix.append(encryptedKey.toString());
+		}
+		prefix.append('.');
+		prefix.append(Base64URL.encode(cipher.getIV()).toString());
+		prefix.append('.');
+		out.write(prefix.toString().getBytes(StandardCharset.UTF_8));
+
+		final Base64URLWriter cipherTextWriter = new Base64URLWriter(out);
+
+		final EncryptingOutputStream encryptingOut = new EncryptingOutputStream(cipher, cipherTextWriter);
+
+		if (CompressionAlgorithm.DEF.equals(header.getCompressionAlgorithm())) {
+
+			final Deflater deflater = new Deflater(Deflater.DEFLATED, NOWRAP);
+
+			try {
+				DeflaterOutputStream deflaterOut = new DeflaterOutputStream(encryptingOut, deflater, CHUNK_SIZE);
+				copy(clearText, deflaterOut);
+				deflaterOut.finish();
+			} finally {
+				deflater.end();
+			}
+
+		} else {
+			copy(clearText, encryptingOut);
+		}
+
+		final AuthenticatedCipherText last = cipher.finishEncryption();
+		cipherTextWriter.write(last.getCipherText());
+		cipherTextWriter.finish();
+
+		out.write('.');
+		out.write(Base64URL.encode(last.getAuthenticationTag()).toString().getBytes(StandardCharset.UTF_8));
+	}
+
+
+	/**
+	 * Decrypts the cipher text part read from the specified compact
+	 * serialisation reader and writes the plain text to the specified
+	 * output stream.
+	 *
+	 * <p>Important: With AES/CBC/HMAC-SHA2 and with JCA providers which
+	 * don't buffer AES/GCM decryption, plain text is written before the
+	 * authentication tag at the end of the input is checked. The output
+	 * must be discarded if this method throws an exception.
+	 *
+	 * @param header      The JWE header. Must not be {@code null}.
+	 * @param iv          The initialisation vector (IV). Must not be
+	 *                    {@code null}.
+	 * @param reader      The compact serialisation reader, positioned
+	 *                    at the cipher text part. Must not be
+	 *                    {@code null}.
+	 * @param cek         The Content Encryption Key (CEK). Must not be
+	 *                    {@code null}.
+	 * @param out         The output stream for the plain text. Must not
+	 *                    be {@code null}.
+	 * @param jcaProvider The JWE JCA provider specification. Must not be
+	 *                    {@code null}.
+	 *
+	 * @throws ParseException If the cipher text or authentication tag
+	 *                        parts couldn't be parsed.
+	 * @throws JOSEException  If decryption failed.
+	 * @throws IOException    If reading the input or writing the plain
+	 *                        text failed.
+	 */
+	public static void decrypt(final JWEHeader header,
+				   final Base64URL iv,
+				   final CompactPartReader reader,
+				   final SecretKey cek,
+				   final OutputStream out,
+				   final JWEJCAContext jcaProvider)
+		throws ParseException, JOSEException, IOException {
+
+		final AuthenticatedCipher cipher = createCipher(header, cek, false, iv.decode(), AAD.compute(header), jcaProvider);
+
+		final Inflater inflater;
+		final InflaterOutputStream inflaterOut;
+		final OutputStream plainTextOut;
+
+		if (CompressionAlgorithm.DEF.equals(header.getCompressionAlgorithm())) {
+			inflater = new Inflater(NOWRAP);
+			inflaterOut = new InflaterOutputStream(
+				new LimitedInflaterOutputStream(out, inflater, jcaProvider.getMaxDecompressedLength(), jcaProvider.getMaxCompressionRatio()),
+				inflater,
+				CHUNK_SIZE);
+			plainTextOut = inflaterOut;
+		} else {
+			inflater = null;
+			inflaterOut = null;
+			plainTextOut = out;
+		}
+
+		try {
+			final DecryptingOutputStream decryptingOut = new DecryptingOutputStream(cipher, plainTextOut);
+
+			// Decode the cipher text in whole BASE64URL quanta
+			final byte[] chars = new byte[CHUNK_SIZE];
+			int carryLength = 0;
+			int n;
+
+			while ((n = reader.read(chars, carryLength, chars.length - carryLength)) != -1) {
+
+				final int available = carryLength + n;
+				final int decodeLength = available - available % 4;
+
+				if (decodeLength > 0) {
+					decryptingOut.write(new Base64URL(new String(chars, 0, decodeLength, StandardCharset.UTF_8)).decode());
+				}
+
+				carryLength = available - decodeLength;
+				System.arraycopy(chars, decodeLength, chars, 0, carryLength);
+			}
+
+			if (carryLength > 0) {
+				decryptingOut.write(new Base64URL(new String(chars, 0, carryLength, StandardCharset.UTF_8)).decode());
+			}
+
+			reader.nextPart();
+
+			if (reader.getDelimiterCount() != 4) {
+				throw new ParseException("Unexpected number of Base64URL parts, must be five", 0);
+			}
+
+			final Base64URL authTag = new Base64URL(reader.readPart(CHUNK_SIZE));
+
+			if (reader.getDelimiterCount() != 4) {
+				throw new ParseException("Unexpected number of Base64URL parts, must be five", 0);
+			}
+
+			final byte[] lastPlainText = cipher.finishDecryption(authTag.decode());
+
+			if (lastPlainText != null) {
+				plainTextOut.write(lastPlainText);
+			}
+
+			if (inflaterOut != null) {
+				inflaterOut.finish();
+			}
+
+		} catch (ZipException e) {
+
+			throw new JOSEException("Couldn't decompress plain text: " + e.getMessage(), e);
+
+		} finally {
+			if (inflater != null) {
+				inflater.end();
+			}
+		}
+	}
+
+
+	/**
+	 * Copies the specified input stream to the specified output stream
+	 * in chunks.
+	 *
+	 * @param in  The input stream. Must not be {@code null}.
+	 * @param out The output stream. Must not be {@code null}.
+	 *
+	 * @throws IOException If reading or writing failed.
+	 */
+	private static void copy(final InputStream in, final OutputStream out)
+		throws IOException {
+
+		final byte[] buf = new byte[CHUNK_SIZE];
+		int n;
+
+		while ((n = in.read(buf)) != -1) {
+			out.write(buf, 0, n);
+		}
+	}
+
+
+	/**
+	 * Prevents public instantiation.
+	 */
+	private StreamingContentCryptoProvider() { }
+}
@@ -0,0 +1,204 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.crypto;
+
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.text.ParseException;
+import javax.crypto.SecretKey;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWEDecrypter;
+import com.nimbusds.jose.JWEHeader;
+import com.nimbusds.jose.util.Base64URL;
+import net.jcip.annotations.ThreadSafe;
+
+
+/**
+ * Streaming JSON Web Encryption (JWE) decrypter. Decrypts a JWE in compact
+ * serialisation read from an input stream and writes the plain text to an
+ * output stream, in fixed-size chunks. The memory use is constant,
+ * regardless of the cipher text size, except for AES/GCM with JCA
+ * providers which buffer the cipher text until the authentication tag is
+ * checked, such as the default SunJCE provider.
+ *
+ * <p>Important: The authentication tag comes at the end of the JWE, so
+ * plain text may be written to the output stream before the integrity of
+ * the JWE is established. The written plain text must not be used and
+ * must be discarded if {@link #decrypt} throws an exception. For AES/CBC
+ * the HMAC is checked before the final block and its padding are
+ * decrypted.
+ *
+ * <p>The key management is delegated to one of the JWE decrypters in this
+ * package:
+ *
+ * <ul>
+ *     <li>{@link RSADecrypter}
+ *     <li>{@link AESDecrypter}
+ *     <li>{@link DirectDecrypter}
+ *     <li>{@link ECDHDecrypter}
+ *     <li>{@link X25519Decrypter}
+ *     <li>{@link PasswordBasedDecrypter}
+ * </ul>
+ *
+ * <p>Supports the following content encryption methods:
+ *
+ * <ul>
+ *     <li>{@link com.nimbusds.jose.EncryptionMethod#A128CBC_HS256}
+ *     <li>{@link com.nimbusds.jose.EncryptionMethod#A192CBC_HS384}
+ *     <li>{@link com.nimbusds.jose.EncryptionMethod#A256CBC_HS512}
+ *     <li>{@link com.nimbusds.jose.EncryptionMethod#A128GCM}
+ *     <li>{@link com.nimbusds.jose.EncryptionMethod#A192GCM}
+ *     <li>{@link com.nimbusds.jose.EncryptionMethod#A256GCM}
+ * </ul>
+ *
+ * <p>DEFLATE compression ({@code zip=DEF}) is supported.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+@ThreadSafe
+public class StreamingJWEDecrypter {
+
+
+	/**
+	 * The maximum allowed length of the JWE header, encrypted key and
+	 * IV parts, in characters.
+	 */
+	public static final int MAX_PART_LENGTH = 1024 * 1024;
+
+
+	/**
+	 * The underlying JWE decrypter.
+	 */
+	private final JWEDecrypter decrypter;
+
+
+	/**
+	 * Creates a new streaming JWE decrypter.
+	 *
+	 * @param decrypter The JWE decrypter for the key management. Must
+	 *                  be one of the JWE decrypters in this package and
+	 *                  not {@code null}.
+	 */
+	public StreamingJWEDecrypter(final JWEDecrypter decrypter) {
+
+		if (! (decrypter instanceof BaseJWEProvider)) {
+			throw new IllegalArgumentException("The JWE decrypter must be one of the com.nimbusds.jose.crypto decrypters");
+		}
+
+		this.decrypter = decrypter;
+	}
+
+
+	/**
+	 * Returns the underlying JWE decrypter.
+	 *
+	 * @return The JWE decrypter.
+	 */
+	public JWEDecrypter getJWEDecrypter() {
+
+		return decrypter;
+	}
+
+
+	/**
+	 * Decrypts the JWE in compact serialisation read from the specified
+	 * input stream and writes the plain text to the specified output
+	 * stream. Neither stream is closed. The written plain text must be
+	 * discarded if an exception is thrown.
+	 *
+	 * @param in  The input stream. Must not be {@code null}.
+	 * @param out The output stream for the plain text. Must not be
+	 *            {@code null}.
+	 *
+	 * @return The JWE header.
+	 *
+	 * @throws ParseException If the input couldn't be parsed to a JWE.
+	 * @throws JOSEException  If the JWE algorithm or method is not
+	 *                        supported, if a critical header parameter
+	 *                        is not supported or marked for deferral to
+	 *                        the application, or if decryption failed
+	 *                        for some other reason.
+	 * @throws IOException    If reading the input or writing the plain
+	 *                        text failed.
+	 */
+	public JWEHeader decrypt(final InputStream in, final OutputStream out)
+		throws ParseException, JOSEException, IOException {
+
+		CompactPartReader reader = new CompactPartReader(in, StreamingContentCryptoProvider.CHUNK_SIZE);
+
+		Base64URL encodedHeader = new Base64URL(readPart(reader, 1));
+
+		JWEHeader header;
+
+		try {
+			header = JWEHeader.parse(encodedHeader);
+		} catch (ParseException e) {
+			throw new ParseException("Invalid JWE header: " + e.getMessage(), 0);
+		}
+
+		String encryptedKey = readPart(reader, 2);
+
+		Base64URL iv = new Base64URL(readPart(reader, 3));
+
+		if (iv.toString().isEmpty()) {
+			throw new JOSEException("Missing JWE initialization vector (IV)");
+		}
+
+		StreamingContentCryptoProvider.ensureSupported(header);
+
+		SecretKey cek = ((BaseJWEProvider)decrypter).decryptCEK(
+			header,
+			encryptedKey.isEmpty() ? null : new Base64URL(encryptedKey));
+
+		StreamingContentCryptoProvider.decrypt(header, iv, reader, cek, out, decrypter.getJCAContext());
+
+		return header;
+	}
+
+
+	/**
+	 * Reads a JWE part preceding the cipher text.
+	 *
+	 * @param reader        The compact part reader. Must not be
+	 *                      {@code null}.
+	 * @param expectedCount The expected number of delimiters consumed
+	 *                      after reading the part.
+	 *
+	 * @return The part, empty if none.
+	 *
+	 * @throws ParseException If the part is missing or too long.
+	 * @throws IOException    If reading the input failed.
+	 */
+	private static String readPart(final CompactPartReader reader, final int expectedCount)
+		throws ParseException, IOException {
+
+		String part = reader.readPart(MAX_PART_LENGTH);
+
+		if (reader.getDelimiterCount() != expectedCount) {
+			throw new ParseException("Unexpected number of Base64URL parts, must be five", 0);
+		}
+
+		return part;
+	}
+}
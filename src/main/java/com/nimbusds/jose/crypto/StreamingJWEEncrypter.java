@@ -0,0 +1,152 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.crypto;
+
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWEEncrypter;
+import com.nimbusds.jose.JWEHeader;
+import net.jcip.annotations.ThreadSafe;
+
+
+/**
+ * Streaming JSON Web Encryption (JWE) encrypter. Encrypts clear text read
+ * from an input stream and writes the JWE in compact serialisation to an
+ * output stream, in fixed-size chunks. The memory use is constant,
+ * regardless of the clear text size, which makes it suitable for large
+ * payloads, such as document attachments.
+ *
+ * <p>The key management is delegated to one of the JWE encrypters in this
+ * package:
+ *
+ * <ul>
+ *     <li>{@link RSAEncrypter}
+ *     <li>{@link AESEncrypter}
+ *     <li>{@link DirectEncrypter}
+ *     <li>{@link ECDHEncrypter}
+ *     <li>{@link X25519Encrypter}
+ *     <li>{@link PasswordBasedEncrypter}
+ * </ul>
+ *
+ * <p>Supports the following content encryption methods:
+ *
+ * <ul>
+ *     <li>{@link com.nimbusds.jose.EncryptionMethod#A128CBC_HS256}
+ *     <li>{@link com.nimbusds.jose.EncryptionMethod#A192CBC_HS384}
+ *     <li>{@link com.nimbusds.jose.EncryptionMethod#A256CBC_HS512}
+ *     <li>{@link com.nimbusds.jose.EncryptionMethod#A128GCM}
+ *     <li>{@link com.nimbusds.jose.EncryptionMethod#A192GCM}
+ *     <li>{@link com.nimbusds.jose.EncryptionMethod#A256GCM}
+ * </ul>
+ *
+ * <p>DEFLATE compression ({@code zip=DEF}) is supported.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * StreamingJWEEncrypter encrypter = new StreamingJWEEncrypter(new RSAEncrypter(rsaPublicKey));
+ * JWEHeader header = new JWEHeader(JWEAlgorithm.RSA_OAEP_256, EncryptionMethod.A256GCM);
+ * encrypter.encrypt(header, fileInputStream, fileOutputStream);
+ * </pre>
+ *
+ * <p>This class is thread-safe.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+@ThreadSafe
+public class StreamingJWEEncrypter {
+
+
+	/**
+	 * The underlying JWE encrypter.
+	 */
+	private final JWEEncrypter encrypter;
+
+
+	/**
+	 * Creates a new streaming JWE encrypter.
+	 *
+	 * @param encrypter The JWE encrypter for the key management. Must
+	 *                  be one of the JWE encrypters in this package and
+	 *                  not {@code null}.
+	 */
+	public StreamingJWEEncrypter(final JWEEncrypter encrypter) {
+
+		if (! (encrypter instanceof BaseJWEProvider)) {
+			throw new IllegalArgumentException("The JWE encrypter must be one of the com.nimbusds.jose.crypto encrypters");
+		}
+
+		this.encrypter = encrypter;
+	}
+
+
+	/**
+	 * Returns the underlying JWE encrypter.
+	 *
+	 * @return The JWE encrypter.
+	 */
+	public JWEEncrypter getJWEEncrypter() {
+
+		return encrypter;
+	}
+
+
+	/**
+	 * Encrypts the clear text read from the specified input stream and
+	 * writes the resulting JWE in compact serialisation to the specified
+	 * output stream. Neither stream is closed.
+	 *
+	 * @param header    The JWE header. Must specify a supported JWE
+	 *                  algorithm and method. Must not be {@code null}.
+	 * @param clearText The clear text input stream. Must not be
+	 *                  {@code null}.
+	 * @param out       The output stream. Must not be {@code null}.
+	 *
+	 * @throws JOSEException If the JWE algorithm or method is not
+	 *                       supported or if encryption failed for some
+	 *                       other internal reason.
+	 * @throws IOException   If reading the clear text or writing the
+	 *                       output failed.
+	 */
+	public void encrypt(final JWEHeader header, final InputStream clearText, final OutputStream out)
+		throws JOSEException, IOException {
+
+		if (! encrypter.supportedJWEAlgorithms().contains(header.getAlgorithm())) {
+
+			throw new JOSEException("The \"" + header.getAlgorithm() +
+					        "\" algorithm is not supported by the JWE encrypter: Supported algorithms: " + encrypter.supportedJWEAlgorithms());
+		}
+
+		StreamingContentCryptoProvider.ensureSupported(header);
+
+		ContentEncryptionKey key = ((BaseJWEProvider)encrypter).encryptCEK(header);
+
+		StreamingContentCryptoProvider.encrypt(
+			key.getHeader(),
+			clearText,
+			key.getCEK(),
+			key.getEncryptedKey(),
+			out,
+			encrypter.getJCAContext());
+	}
+}
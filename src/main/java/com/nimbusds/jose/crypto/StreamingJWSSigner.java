@@ -0,0 +1,228 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.crypto;
+
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Set;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jose.util.StandardCharset;
+import net.jcip.annotations.ThreadSafe;
+
+
+/**
+ * Streaming JSON Web Signature (JWS) signer. Computes the signature over a
+ * payload read from an input stream, in fixed-size chunks, so that the
+ * memory use is constant regardless of the payload size. The signature can
+ * be output as a detached signature, or written together with the header
+ * and the payload as a JWS in compact serialisation.
+ *
+ * <p>The unencoded payload option ({@code "b64":false}) of
+ * <a href="https://tools.ietf.org/html/rfc7797">RFC 7797</a> is supported.
+ * The {@code b64} header parameter must then be marked critical. To sign
+ * the contents of a {@link java.nio.channels.FileChannel} wrap it with
+ * {@link java.nio.channels.Channels#newInputStream}.
+ *
+ * <p>The signature computation is delegated to one of the JWS signers in
+ * this package:
+ *
+ * <ul>
+ *     <li>{@link MACSigner}
+ *     <li>{@link RSASSASigner}
+ *     <li>{@link ECDSASigner}
+ * </ul>
+ *
+ * <p>This class is thread-safe.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+@ThreadSafe
+public class StreamingJWSSigner {
+
+
+	/**
+	 * The underlying JWS signer.
+	 */
+	private final JWSSigner signer;
+
+
+	/**
+	 * Creates a new streaming JWS signer.
+	 *
+	 * @param signer The JWS signer. Must be one of the JWS signers in
+	 *               this package and not {@code null}.
+	 */
+	public StreamingJWSSigner(final JWSSigner signer) {
+
+		if (! (signer instanceof BaseJWSProvider)) {
+			throw new IllegalArgumentException("The JWS signer must be one of the com.nimbusds.jose.crypto signers");
+		}
+
+		this.signer = signer;
+	}
+
+
+	/**
+	 * Returns the underlying JWS signer.
+	 *
+	 * @return The JWS signer.
+	 */
+	public JWSSigner getJWSSigner() {
+
+		return signer;
+	}
+
+
+	/**
+	 * Signs the payload read from the specified input stream and returns
+	 * the detached signature. The input stream is not closed.
+	 *
+	 * @param header  The JWS header. Must not be {@code null}.
+	 * @param payload The payload input stream. Must not be {@code null}.
+	 *
+	 * @return The JWS signature.
+	 *
+	 * @throws JOSEException If the JWS algorithm is not supported, if
+	 *                       {@code "b64":false} is not marked critical,
+	 *                       or if signing failed for some other reason.
+	 * @throws IOException   If reading the payload failed.
+	 */
+	public Base64URL sign(final JWSHeader header, final InputStream payload)
+		throws JOSEException, IOException {
+
+		return sign(header, payload, null, false);
+	}
+
+
+	/**
+	 * Signs the payload read from the specified input stream and writes
+	 * the JWS in compact serialisation to the specified output stream.
+	 * Neither stream is closed. The written output must be discarded if
+	 * an exception is thrown.
+	 *
+	 * @param header  The JWS header. Must not be {@code null}.
+	 * @param payload The payload input stream. Must not be {@code null}.
+	 * @param out     The output stream for the JWS. Must not be
+	 *                {@code null}.
+	 *
+	 * @throws JOSEException If the JWS algorithm is not supported, if
+	 *                       {@code "b64":false} is not marked critical,
+	 *                       if an unencoded payload contains a period
+	 *                       ('.') character, or if signing failed for
+	 *                       some other reason.
+	 * @throws IOException   If reading the payload or writing the output
+	 *                       failed.
+	 */
+	public void sign(final JWSHeader header, final InputStream payload, final OutputStream out)
+		throws JOSEException, IOException {
+
+		if (out == null) {
+			throw new IllegalArgumentException("The output stream must not be null");
+		}
+
+		Base64URL signature = sign(header, payload, out, true);
+
+		out.write('.');
+		out.write(signature.toString().getBytes(StandardCharset.UTF_8));
+	}
+
+
+	/**
+	 * Signs the payload read from the specified input stream.
+	 *
+	 * @param header   The JWS header. Must not be {@code null}.
+	 * @param payload  The payload input stream. Must not be
+	 *                 {@code null}.
+	 * @param out      The output stream for the encoded header and
+	 *                 payload, {@code null} if none.
+	 * @param attached {@code true} if the payload is to be attached to
+	 *                 the JWS.
+	 *
+	 * @return The JWS signature.
+	 *
+	 * @throws JOSEException If signing failed.
+	 * @throws IOException   If reading the payload or writing the output
+	 *                       failed.
+	 */
+	private Base64URL sign(final JWSHeader header,
+			       final InputStream payload,
+			       final OutputStream out,
+			       final boolean attached)
+		throws JOSEException, IOException {
+
+		if (payload == null) {
+			throw new IllegalArgumentException("The payload input stream must not be null");
+		}
+
+		final boolean b64 = header.isBase64URLEncodePayload();
+
+		if (! b64) {
+			Set<String> crit = header.getCriticalParams();
+
+			if (crit == null || ! crit.contains("b64")) {
+				throw new JOSEException("The b64 header parameter must be marked critical");
+			}
+		}
+
+		final StreamingSignature signature = ((BaseJWSProvider)signer).initSigning(header);
+
+		final StreamingSignature.SigningInputOutputStream signingInput = new StreamingSignature.SigningInputOutputStream(signature, out);
+
+		signingInput.write(header.toBase64URL().toString().getBytes(StandardCharset.UTF_8));
+		signingInput.write('.');
+
+		final Base64URLWriter encoder = b64 ? new Base64URLWriter(signingInput) : null;
+
+		final byte[] buf = new byte[StreamingContentCryptoProvider.CHUNK_SIZE];
+
+		int n;
+
+		while ((n = payload.read(buf)) != -1) {
+
+			if (b64) {
+				encoder.write(buf, 0, n);
+				continue;
+			}
+
+			if (attached) {
+				for (int i = 0; i < n; i++) {
+					if (buf[i] == '.') {
+						throw new JOSEException("The unencoded payload must not contain a period ('.') character");
+					}
+				}
+			}
+
+			signingInput.write(buf, 0, n);
+		}
+
+		if (b64) {
+			encoder.finish();
+		}
+
+		signingInput.checkError();
+
+		return signature.sign();
+	}
+}
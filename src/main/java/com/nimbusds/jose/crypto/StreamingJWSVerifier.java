@@ -0,0 +1,321 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.crypto;
+
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.text.ParseException;
+import java.util.Collections;
+import java.util.Set;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jose.util.ByteUtils;
+import com.nimbusds.jose.util.StandardCharset;
+import net.jcip.annotations.ThreadSafe;
+
+
+/**
+ * Streaming JSON Web Signature (JWS) verifier. Verifies the signature over
+ * a payload read from an input stream, in fixed-size chunks, so that the
+ * memory use is constant regardless of the payload size. Detached payloads
+ * and JWS objects in compact serialisation are supported.
+ *
+ * <p>The unencoded payload option ({@code "b64":false}) of
+ * <a href="https://tools.ietf.org/html/rfc7797">RFC 7797</a> is supported.
+ * The {@code b64} header parameter is processed by this class and must be
+ * marked critical when set to {@code false}, else verification fails. To
+ * verify the contents of a {@link java.nio.channels.FileChannel} wrap it
+ * with {@link java.nio.channels.Channels#newInputStream}.
+ *
+ * <p>The signature verification is delegated to one of the JWS verifiers
+ * in this package:
+ *
+ * <ul>
+ *     <li>{@link MACVerifier}
+ *     <li>{@link RSASSAVerifier}
+ *     <li>{@link ECDSAVerifier}
+ * </ul>
+ *
+ * <p>This class is thread-safe.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+@ThreadSafe
+public class StreamingJWSVerifier {
+
+
+	/**
+	 * The maximum allowed length of the JWS header and signature parts,
+	 * in characters.
+	 */
+	public static final int MAX_PART_LENGTH = 1024 * 1024;
+
+
+	/**
+	 * The critical header parameters processed by this class.
+	 */
+	private static final Set<String> PROCESSED_CRIT_PARAMS = Collections.singleton("b64");
+
+
+	/**
+	 * The underlying JWS verifier.
+	 */
+	private final JWSVerifier verifier;
+
+
+	/**
+	 * Creates a new streaming JWS verifier.
+	 *
+	 * @param verifier The JWS verifier. Must be one of the JWS verifiers
+	 *                 in this package and not {@code null}.
+	 */
+	public StreamingJWSVerifier(final JWSVerifier verifier) {
+
+		if (! (verifier instanceof BaseJWSProvider)) {
+			throw new IllegalArgumentException("The JWS verifier must be one of the com.nimbusds.jose.crypto verifiers");
+		}
+
+		this.verifier = verifier;
+	}
+
+
+	/**
+	 * Returns the underlying JWS verifier.
+	 *
+	 * @return The JWS verifier.
+	 */
+	public JWSVerifier getJWSVerifier() {
+
+		return verifier;
+	}
+
+
+	/**
+	 * Verifies the detached signature over the payload read from the
+	 * specified input stream. The input stream is not closed.
+	 *
+	 * @param header    The JWS header. Must not be {@code null}.
+	 * @param payload   The detached payload input stream. Must not be
+	 *                  {@code null}.
+	 * @param signature The JWS signature. Must not be {@code null}.
+	 *
+	 * @return {@code true} if the signature is valid, else
+	 *         {@code false}.
+	 *
+	 * @throws JOSEException If the JWS algorithm is not supported, or if
+	 *                       verification failed for some other reason.
+	 * @throws IOException   If reading the payload failed.
+	 */
+	public boolean verify(final JWSHeader header, final InputStream payload, final Base64URL signature)
+		throws JOSEException, IOException {
+
+		if (payload == null) {
+			throw new IllegalArgumentException("The payload input stream must not be null");
+		}
+
+		StreamingSignature verification = initVerification(header);
+
+		if (verification == null) {
+			return false;
+		}
+
+		StreamingSignature.SigningInputOutputStream signingInput = new StreamingSignature.SigningInputOutputStream(verification, null);
+
+		signingInput.write(header.toBase64URL().toString().getBytes(StandardCharset.UTF_8));
+		signingInput.write('.');
+
+		final boolean b64 = header.isBase64URLEncodePayload();
+		final Base64URLWriter encoder = b64 ? new Base64URLWriter(signingInput) : null;
+
+		final byte[] buf = new byte[StreamingContentCryptoProvider.CHUNK_SIZE];
+
+		int n;
+
+		while ((n = payload.read(buf)) != -1) {
+
+			if (b64) {
+				encoder.write(buf, 0, n);
+			} else {
+				signingInput.write(buf, 0, n);
+			}
+		}
+
+		if (b64) {
+			encoder.finish();
+		}
+
+		try {
+			signingInput.checkError();
+		} catch (JOSEException e) {
+			return false;
+		}
+
+		return verification.verify(signature);
+	}
+
+
+	/**
+	 * Verifies the JWS in compact serialisation read from the specified
+	 * input stream and writes the payload to the specified output stream.
+	 * Neither stream is closed.
+	 *
+	 * <p>Important: The signature comes at the end of the JWS, so the
+	 * payload is written to the output stream before its integrity is
+	 * established. The written payload must not be used and must be
+	 * discarded if the method returns {@code false} or throws an
+	 * exception.
+	 *
+	 * @param in  The input stream. Must not be {@code null}.
+	 * @param out The output stream for the payload. Must not be
+	 *            {@code null}.
+	 *
+	 * @return {@code true} if the signature is valid, else
+	 *         {@code false}.
+	 *
+	 * @throws ParseException If the input couldn't be parsed to a JWS.
+	 * @throws JOSEException  If the JWS algorithm is not supported, or if
+	 *                        verification failed for some other reason.
+	 * @throws IOException    If reading the input or writing the payload
+	 *                        failed.
+	 */
+	public boolean verify(final InputStream in, final OutputStream out)
+		throws ParseException, JOSEException, IOException {
+
+		if (out == null) {
+			throw new IllegalArgumentException("The output stream must not be null");
+		}
+
+		CompactPartReader reader = new CompactPartReader(in, StreamingContentCryptoProvider.CHUNK_SIZE);
+
+		String encodedHeader = reader.readPart(MAX_PART_LENGTH);
+
+		if (reader.getDelimiterCount() != 1) {
+			throw new ParseException("Unexpected number of Base64URL parts, must be three", 0);
+		}
+
+		JWSHeader header;
+
+		try {
+			header = JWSHeader.parse(new Base64URL(encodedHeader));
+		} catch (ParseException e) {
+			throw new ParseException("Invalid JWS header: " + e.getMessage(), 0);
+		}
+
+		StreamingSignature verification = initVerification(header);
+
+		StreamingSignature.SigningInputOutputStream signingInput = new StreamingSignature.SigningInputOutputStream(verification, null);
+
+		if (verification != null) {
+			signingInput.write(encodedHeader.getBytes(StandardCharset.UTF_8));
+			signingInput.write('.');
+		}
+
+		final boolean b64 = header.isBase64URLEncodePayload();
+
+		// Quantum of 4 BASE64URL characters, decoded to 3 bytes
+		final byte[] carry = new byte[3];
+		int carryLength = 0;
+
+		final byte[] buf = new byte[StreamingContentCryptoProvider.CHUNK_SIZE];
+
+		int n;
+
+		while ((n = reader.read(buf, 0, buf.length)) != -1) {
+
+			if (verification != null) {
+				signingInput.write(buf, 0, n);
+			}
+
+			if (! b64) {
+				out.write(buf, 0, n);
+				continue;
+			}
+
+			final byte[] input = ByteUtils.concat(ByteUtils.subArray(carry, 0, carryLength), ByteUtils.subArray(buf, 0, n));
+			final int decodeLength = input.length - input.length % 4;
+
+			if (decodeLength > 0) {
+				out.write(new Base64URL(new String(input, 0, decodeLength, StandardCharset.UTF_8)).decode());
+			}
+
+			carryLength = input.length - decodeLength;
+			System.arraycopy(input, decodeLength, carry, 0, carryLength);
+		}
+
+		reader.nextPart();
+
+		if (reader.getDelimiterCount() != 2) {
+			throw new ParseException("Unexpected number of Base64URL parts, must be three", 0);
+		}
+
+		if (carryLength > 0) {
+			out.write(new Base64URL(new String(carry, 0, carryLength, StandardCharset.UTF_8)).decode());
+		}
+
+		Base64URL signature = new Base64URL(reader.readPart(MAX_PART_LENGTH));
+
+		if (reader.getDelimiterCount() != 2) {
+			throw new ParseException("Unexpected number of Base64URL parts, must be three", 0);
+		}
+
+		if (verification == null) {
+			return false;
+		}
+
+		try {
+			signingInput.checkError();
+		} catch (JOSEException e) {
+			return false;
+		}
+
+		return verification.verify(signature);
+	}
+
+
+	/**
+	 * Initialises the signature verification for the specified JWS
+	 * header.
+	 *
+	 * @param header The JWS header. Must not be {@code null}.
+	 *
+	 * @return The streaming signature, {@code null} if the header
+	 *         doesn't pass the critical header parameters check.
+	 *
+	 * @throws JOSEException If the JWS algorithm is not supported, or if
+	 *                       the verification couldn't be initialised.
+	 */
+	private StreamingSignature initVerification(final JWSHeader header)
+		throws JOSEException {
+
+		if (! header.isBase64URLEncodePayload()) {
+			Set<String> crit = header.getCriticalParams();
+
+			if (crit == null || ! crit.contains("b64")) {
+				return null;
+			}
+		}
+
+		return ((BaseJWSProvider)verifier).initVerification(header, PROCESSED_CRIT_PARAMS);
+	}
+}
@@ -0,0 +1,341 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.crypto;
+
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.Signature;
+import java.security.SignatureException;
+import javax.crypto.Mac;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.crypto.utils.ConstantTimeUtils;
+import com.nimbusds.jose.util.Base64URL;
+import net.jcip.annotations.NotThreadSafe;
+
+
+/**
+ * JWS signature computation or verification which consumes the signing
+ * input incrementally. Wraps an initialised JCA {@link Mac} or
+ * {@link Signature}. This class is not thread-safe.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+@NotThreadSafe
+abstract class StreamingSignature {
+
+
+	/**
+	 * Continues the signature computation or verification with the
+	 * specified signing input bytes.
+	 *
+	 * @param input The input bytes. Must not be {@code null}.
+	 * @param off   The input offset.
+	 * @param len   The input length.
+	 *
+	 * @throws JOSEException If the update failed.
+	 */
+	public abstract void update(final byte[] input, final int off, final int len)
+		throws JOSEException;
+
+
+	/**
+	 * Continues the signature computation or verification with the
+	 * specified signing input bytes.
+	 *
+	 * @param input The input bytes. Must not be {@code null}.
+	 *
+	 * @throws JOSEException If the update failed.
+	 */
+	public void update(final byte[] input)
+		throws JOSEException {
+
+		update(input, 0, input.length);
+	}
+
+
+	/**
+	 * Completes the signature computation.
+	 *
+	 * @return The JWS signature.
+	 *
+	 * @throws JOSEException If signing failed.
+	 */
+	public abstract Base64URL sign()
+		throws JOSEException;
+
+
+	/**
+	 * Completes the signature verification.
+	 *
+	 * @param signature The JWS signature to check. Must not be
+	 *                  {@code null}.
+	 *
+	 * @return {@code true} if the signature is valid, else
+	 *         {@code false}.
+	 *
+	 * @throws JOSEException If verification failed for an internal
+	 *                       reason.
+	 */
+	public abstract boolean verify(final Base64URL signature)
+		throws JOSEException;
+
+
+	/**
+	 * Creates a new streaming signature for the specified initialised
+	 * HMAC.
+	 *
+	 * @param mac The initialised HMAC. Must not be {@code null}.
+	 *
+	 * @return The streaming signature.
+	 */
+	public static StreamingSignature forMAC(final Mac mac) {
+
+		return new StreamingSignature() {
+
+			@Override
+			public void update(final byte[] input, final int off, final int len) {
+
+				mac.update(input, off, len);
+			}
+
+
+			@Override
+			public Base64URL sign() {
+
+				return Base64URL.encode(mac.doFinal());
+			}
+
+
+			@Override
+			public boolean verify(final Base64URL signature) {
+
+				return ConstantTimeUtils.areEqual(mac.doFinal(), signature.decode());
+			}
+		};
+	}
+
+
+	/**
+	 * Creates a new streaming signature for the specified initialised
+	 * JCA signature, such as RSASSA, with identical JCA and JWS signature
+	 * formats.
+	 *
+	 * @param sig The initialised JCA signature. Must not be
+	 *            {@code null}.
+	 *
+	 * @return The streaming signature.
+	 */
+	public static StreamingSignature forSignature(final Signature sig) {
+
+		return new StreamingSignature() {
+
+			@Override
+			public void update(final byte[] input, final int off, final int len)
+				throws JOSEException {
+
+				try {
+					sig.update(input, off, len);
+				} catch (SignatureException e) {
+					throw new JOSEException(e.getMessage(), e);
+				}
+			}
+
+
+			@Override
+			public Base64URL sign()
+				throws JOSEException {
+
+				try {
+					return Base64URL.encode(sig.sign());
+				} catch (SignatureException e) {
+					throw new JOSEException(e.getMessage(), e);
+				}
+			}
+
+
+			@Override
+			public boolean verify(final Base64URL signature) {
+
+				try {
+					return sig.verify(signature.decode());
+				} catch (SignatureException e) {
+					return false;
+				}
+			}
+		};
+	}
+
+
+	/**
+	 * Creates a new streaming signature for the specified initialised
+	 * JCA ECDSA signature. Transcodes between the DER-encoded JCA
+	 * signature and the concatenated R + S JWS signature.
+	 *
+	 * @param sig               The initialised JCA ECDSA signature. Must
+	 *                          not be {@code null}.
+	 * @param rsByteArrayLength The expected byte length of the
+	 *                          concatenated R + S JWS signature.
+	 *
+	 * @return The streaming signature.
+	 */
+	public static StreamingSignature forECDSA(final Signature sig, final int rsByteArrayLength) {
+
+		final StreamingSignature jcaSignature = forSignature(sig);
+
+		return new StreamingSignature() {
+
+			@Override
+			public void update(final byte[] input, final int off, final int len)
+				throws JOSEException {
+
+				jcaSignature.update(input, off, len);
+			}
+
+
+			@Override
+			public Base64URL sign()
+				throws JOSEException {
+
+				// DER-encoded signature, according to JCA spec
+				// (sequence of two integers - R + S)
+				final byte[] derSignature;
+
+				try {
+					derSignature = sig.sign();
+				} catch (SignatureException e) {
+					throw new JOSEException(e.getMessage(), e);
+				}
+
+				return Base64URL.encode(ECDSA.transcodeSignatureToConcat(derSignature, rsByteArrayLength));
+			}
+
+
+			@Override
+			public boolean verify(final Base64URL signature) {
+
+				final byte[] jwsSignature = signature.decode();
+
+				if (jwsSignature.length != rsByteArrayLength) {
+					// Invalid signature length
+					return false;
+				}
+
+				final byte[] derSignature;
+
+				try {
+					derSignature = ECDSA.transcodeSignatureToDER(jwsSignature);
+				} catch (JOSEException e) {
+					// Invalid signature format
+					return false;
+				}
+
+				try {
+					return sig.verify(derSignature);
+				} catch (SignatureException e) {
+					return false;
+				}
+			}
+		};
+	}
+
+
+	/**
+	 * Output stream which updates a streaming signature with the written
+	 * signing input and optionally copies it to another output stream.
+	 */
+	static final class SigningInputOutputStream extends OutputStream {
+
+
+		/**
+		 * The streaming signature.
+		 */
+		private final StreamingSignature signature;
+
+
+		/**
+		 * The output stream for the copy, {@code null} if none.
+		 */
+		private final OutputStream out;
+
+
+		/**
+		 * The signature update exception, {@code null} if none.
+		 */
+		private JOSEException error;
+
+
+		/**
+		 * Creates a new signing input output stream.
+		 *
+		 * @param signature The streaming signature. Must not be
+		 *                  {@code null}.
+		 * @param out       The output stream for the copy, {@code null}
+		 *                  if none.
+		 */
+		SigningInputOutputStream(final StreamingSignature signature, final OutputStream out) {
+			this.signature = signature;
+			this.out = out;
+		}
+
+
+		@Override
+		public void write(final int b)
+			throws IOException {
+
+			write(new byte[]{(byte)b}, 0, 1);
+		}
+
+
+		@Override
+		public void write(final byte[] b, final int off, final int len)
+			throws IOException {
+
+			if (error != null) {
+				return;
+			}
+
+			try {
+				signature.update(b, off, len);
+			} catch (JOSEException e) {
+				error = e;
+				return;
+			}
+
+			if (out != null) {
+				out.write(b, off, len);
+			}
+		}
+
+
+		/**
+		 * Rethrows the signature update exception, if any.
+		 *
+		 * @throws JOSEException If a signature update failed.
+		 */
+		void checkError()
+			throws JOSEException {
+
+			if (error != null) {
+				throw error;
+			}
+		}
+	}
+}
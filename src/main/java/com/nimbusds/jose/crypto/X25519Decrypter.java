@@ -0,0 +1,239 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.crypto;
+
+
+import java.security.PrivateKey;
+import java.util.Set;
+import javax.crypto.SecretKey;
+
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.util.Base64URL;
+
+
+/**
+ * Elliptic Curve Diffie-Hellman decrypter of
+ * {@link com.nimbusds.jose.JWEObject JWE objects} for X25519 keys. Expects a
+ * private {@link OctetKeyPair OKP} key with an X25519 curve.
+ *
+ * <p>See RFC 8037
+ * <a href="https://tools.ietf.org/html/rfc8037#section-3.2">section 3.2</a>
+ * for more information.
+ *
+ * <p>The X25519 function must be supported by the underlying Java
+ * Cryptography Architecture (JCA) provider, which is the case with Java 11+
+ * or with BouncyCastle 1.60+. Unlike the NIST curves, X25519 public keys
+ * need no point-on-curve validation; the all-zero shared secret resulting
+ * from a small-order ephemeral public key is rejected.
+ *
+ * <p>This class is thread-safe.
+ *
+ * <p>Supports the following key management algorithms:
+ *
+ * <ul>
+ *     <li>{@link com.nimbusds.jose.JWEAlgorithm#ECDH_ES}
+ *     <li>{@link com.nimbusds.jose.JWEAlgorithm#ECDH_ES_A128KW}
+ *     <li>{@link com.nimbusds.jose.JWEAlgorithm#ECDH_ES_A192KW}
+ *     <li>{@link com.nimbusds.jose.JWEAlgorithm#ECDH_ES_A256KW}
+ * </ul>
+ *
+ * <p>Supports the following elliptic curves:
+ *
+ * <ul>
+ *     <li>{@link com.nimbusds.jose.jwk.Curve#X25519}
+ * </ul>
+ *
+ * <p>Supports the following content encryption algorithms:
+ *
+ * <ul>
+ *     <li>{@link com.nimbusds.jose.EncryptionMethod#A128CBC_HS256}
+ *     <li>{@link com.nimbusds.jose.EncryptionMethod#A192CBC_HS384}
+ *     <li>{@link com.nimbusds.jose.EncryptionMethod#A256CBC_HS512}
+ *     <li>{@link com.nimbusds.jose.EncryptionMethod#A128GCM}
+ *     <li>{@link com.nimbusds.jose.EncryptionMethod#A192GCM}
+ *     <li>{@link com.nimbusds.jose.EncryptionMethod#A256GCM}
+ *     <li>{@link com.nimbusds.jose.EncryptionMethod#A128CBC_HS256_DEPRECATED}
+ *     <li>{@link com.nimbusds.jose.EncryptionMethod#A256CBC_HS512_DEPRECATED}
+ * </ul>
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+public class X25519Decrypter extends ECDHCryptoProvider implements JWEDecrypter, CriticalHeaderParamsAware {
+
+
+	/**
+	 * The supported elliptic curves by the X25519 ECDH decrypter.
+	 */
+	public static final Set<Curve> SUPPORTED_ELLIPTIC_CURVES = X25519Encrypter.SUPPORTED_ELLIPTIC_CURVES;
+
+
+	/**
+	 * The private X25519 key.
+	 */
+	private final PrivateKey privateKey;
+
+
+	/**
+	 * The critical header policy.
+	 */
+	private final CriticalHeaderParamsDeferral critPolicy = new CriticalHeaderParamsDeferral();
+
+
+	/**
+	 * Creates a new X25519 Elliptic Curve Diffie-Hellman decrypter.
+	 *
+	 * @param okpJWK The X25519 OKP JSON Web Key (JWK). Must contain a
+	 *               private part. Must not be {@code null}.
+	 *
+	 * @throws JOSEException If the key subtype is not supported or the
+	 *                       key couldn't be converted.
+	 */
+	public X25519Decrypter(final OctetKeyPair okpJWK)
+		throws JOSEException {
+
+		this(okpJWK, null);
+	}
+
+
+	/**
+	 * Creates a new X25519 Elliptic Curve Diffie-Hellman decrypter.
+	 *
+	 * @param okpJWK         The X25519 OKP JSON Web Key (JWK). Must
+	 *                       contain a private part. Must not be
+	 *                       {@code null}.
+	 * @param defCritHeaders The names of the critical header parameters
+	 *                       that are deferred to the application for
+	 *                       processing, empty set or {@code null} if none.
+	 *
+	 * @throws JOSEException If the key subtype is not supported or the
+	 *                       key couldn't be converted.
+	 */
+	public X25519Decrypter(final OctetKeyPair okpJWK, final Set<String> defCritHeaders)
+		throws JOSEException {
+
+		super(okpJWK.getCurve(), SUPPORTED_ELLIPTIC_CURVES);
+
+		if (! okpJWK.isPrivate()) {
+			throw new JOSEException("The OKP JWK doesn't contain a private part");
+		}
+
+		critPolicy.setDeferredCriticalHeaderParams(defCritHeaders);
+
+		privateKey = okpJWK.toPrivateKey();
+	}
+
+
+	/**
+	 * Creates a new X25519 Elliptic Curve Diffie-Hellman decrypter.
+	 *
+	 * @param privateKey     The private X25519 key, as produced by a JCA
+	 *                       provider supporting X25519. Must not be
+	 *                       {@code null}.
+	 * @param defCritHeaders The names of the critical header parameters
+	 *                       that are deferred to the application for
+	 *                       processing, empty set or {@code null} if none.
+	 *
+	 * @throws JOSEException If the key couldn't be used.
+	 */
+	public X25519Decrypter(final PrivateKey privateKey, final Set<String> defCritHeaders)
+		throws JOSEException {
+
+		super(Curve.X25519, SUPPORTED_ELLIPTIC_CURVES);
+
+		if (privateKey == null) {
+			throw new JOSEException("The private X25519 key must not be null");
+		}
+
+		critPolicy.setDeferredCriticalHeaderParams(defCritHeaders);
+
+		this.privateKey = privateKey;
+	}
+
+
+	/**
+	 * Returns the private X25519 key.
+	 *
+	 * @return The private X25519 key.
+	 */
+	public PrivateKey getPrivateKey() {
+
+		return privateKey;
+	}
+
+
+	@Override
+	public Set<String> getProcessedCriticalHeaderParams() {
+
+		return critPolicy.getProcessedCriticalHeaderParams();
+	}
+
+
+	@Override
+	public Set<String> getDeferredCriticalHeaderParams() {
+
+		return critPolicy.getDeferredCriticalHeaderParams();
+	}
+
+
+	@Override
+	public byte[] decrypt(final JWEHeader header,
+			      final Base64URL encryptedKey,
+			      final Base64URL iv,
+			      final Base64URL cipherText,
+			      final Base64URL authTag)
+		throws JOSEException {
+
+		final SecretKey cek = decryptCEK(header, encryptedKey);
+
+		return ContentCryptoProvider.decrypt(header, encryptedKey, iv, cipherText, authTag, cek, getJCAContext());
+	}
+
+
+	@Override
+	SecretKey decryptCEK(final JWEHeader header, final Base64URL encryptedKey)
+		throws JOSEException {
+
+		// Check for supported algorithm before touching the header
+		ECDH.resolveAlgorithmMode(header.getAlgorithm());
+
+		critPolicy.ensureHeaderPasses(header);
+
+		// Get ephemeral X25519 key
+		JWK ephemeralKey = header.getEphemeralPublicJWK();
+
+		if (ephemeralKey == null) {
+			throw new JOSEException("Missing ephemeral public key \"epk\" JWE header parameter");
+		}
+
+		if (! (ephemeralKey instanceof OctetKeyPair) || ! Curve.X25519.equals(((OctetKeyPair)ephemeralKey).getCurve())) {
+			throw new JOSEException("The ephemeral public key \"epk\" JWE header parameter must be an X25519 OKP JWK");
+		}
+
+		// Derive 'Z'
+		SecretKey Z = ECDH.deriveX25519SharedSecret(
+			((OctetKeyPair)ephemeralKey).toPublicKey(getJCAContext().getKeyEncryptionProvider()),
+			privateKey,
+			getJCAContext().getKeyEncryptionProvider());
+
+		return decryptCEKWithSharedKey(header, deriveSharedKey(header, Z), encryptedKey);
+	}
+}
@@ -0,0 +1,214 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.crypto;
+
+
+import java.security.KeyPair;
+import java.security.Provider;
+import java.util.Collections;
+import java.util.Set;
+import javax.crypto.SecretKey;
+
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import net.jcip.annotations.ThreadSafe;
+
+
+/**
+ * Elliptic Curve Diffie-Hellman encrypter of
+ * {@link com.nimbusds.jose.JWEObject JWE objects} for X25519 keys. Expects a
+ * public {@link OctetKeyPair OKP} key with an X25519 curve.
+ *
+ * <p>See RFC 8037
+ * <a href="https://tools.ietf.org/html/rfc8037#section-3.2">section 3.2</a>
+ * for more information.
+ *
+ * <p>The X25519 function must be supported by the underlying Java
+ * Cryptography Architecture (JCA) provider, which is the case with Java 11+
+ * or with BouncyCastle 1.60+.
+ *
+ * <p>This class is thread-safe.
+ *
+ * <p>Supports the following key management algorithms:
+ *
+ * <ul>
+ *     <li>{@link com.nimbusds.jose.JWEAlgorithm#ECDH_ES}
+ *     <li>{@link com.nimbusds.jose.JWEAlgorithm#ECDH_ES_A128KW}
+ *     <li>{@link com.nimbusds.jose.JWEAlgorithm#ECDH_ES_A192KW}
+ *     <li>{@link com.nimbusds.jose.JWEAlgorithm#ECDH_ES_A256KW}
+ * </ul>
+ *
+ * <p>Supports the following elliptic curves:
+ *
+ * <ul>
+ *     <li>{@link com.nimbusds.jose.jwk.Curve#X25519}
+ * </ul>
+ *
+ * <p>Supports the following content encryption algorithms:
+ *
+ * <ul>
+ *     <li>{@link com.nimbusds.jose.EncryptionMethod#A128CBC_HS256}
+ *     <li>{@link com.nimbusds.jose.EncryptionMethod#A192CBC_HS384}
+ *     <li>{@link com.nimbusds.jose.EncryptionMethod#A256CBC_HS512}
+ *     <li>{@link com.nimbusds.jose.EncryptionMethod#A128GCM}
+ *     <li>{@link com.nimbusds.jose.EncryptionMethod#A192GCM}
+ *     <li>{@link com.nimbusds.jose.EncryptionMethod#A256GCM}
+ *     <li>{@link com.nimbusds.jose.EncryptionMethod#A128CBC_HS256_DEPRECATED}
+ *     <li>{@link com.nimbusds.jose.EncryptionMethod#A256CBC_HS512_DEPRECATED}
+ * </ul>
+ *
+ * <p>The ephemeral X25519 key pairs can optionally be taken from an
+ * {@link EphemeralKeyPairPool}, which generates them in the background. If
+ * the pool is empty the key pair is generated inline.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+@ThreadSafe
+public class X25519Encrypter extends ECDHCryptoProvider implements JWEEncrypter {
+
+
+	/**
+	 * The supported elliptic curves by the X25519 ECDH encrypter and
+	 * decrypter.
+	 */
+	public static final Set<Curve> SUPPORTED_ELLIPTIC_CURVES = Collections.singleton(Curve.X25519);
+
+
+	/**
+	 * The public X25519 key.
+	 */
+	private final OctetKeyPair publicKey;
+
+
+	/**
+	 * The pool of pre-generated ephemeral key pairs, {@code null} if
+	 * none.
+	 */
+	private final EphemeralKeyPairPool keyPairPool;
+
+
+	/**
+	 * Creates a new X25519 Elliptic Curve Diffie-Hellman encrypter.
+	 *
+	 * @param publicKey The public X25519 key. Must not be {@code null}.
+	 *
+	 * @throws JOSEException If the key subtype is not supported.
+	 */
+	public X25519Encrypter(final OctetKeyPair publicKey)
+		throws JOSEException {
+
+		this(publicKey, null);
+	}
+
+
+	/**
+	 * Creates a new X25519 Elliptic Curve Diffie-Hellman encrypter.
+	 *
+	 * @param publicKey   The public X25519 key. Must not be
+	 *                    {@code null}.
+	 * @param keyPairPool The pool of pre-generated ephemeral key pairs,
+	 *                    {@code null} to always generate them inline.
+	 *                    Must be for the X25519 curve.
+	 *
+	 * @throws JOSEException If the key subtype is not supported or
+	 *                       doesn't match the curve of the pool.
+	 */
+	public X25519Encrypter(final OctetKeyPair publicKey, final EphemeralKeyPairPool keyPairPool)
+		throws JOSEException {
+
+		super(publicKey.getCurve(), SUPPORTED_ELLIPTIC_CURVES);
+
+		if (publicKey.isPrivate()) {
+			throw new JOSEException("X25519Encrypter requires a public key, use OctetKeyPair.toPublicJWK()");
+		}
+
+		this.publicKey = publicKey;
+
+		this.keyPairPool = ensureCurveMatch(keyPairPool);
+	}
+
+
+	/**
+	 * Returns the public X25519 key.
+	 *
+	 * @return The public X25519 key.
+	 */
+	public OctetKeyPair getPublicKey() {
+
+		return publicKey;
+	}
+
+
+	/**
+	 * Returns the pool of pre-generated ephemeral key pairs.
+	 *
+	 * @return The key pair pool, {@code null} if none.
+	 */
+	public EphemeralKeyPairPool getKeyPairPool() {
+
+		return keyPairPool;
+	}
+
+
+	@Override
+	public JWECryptoParts encrypt(final JWEHeader header, final byte[] clearText)
+		throws JOSEException {
+
+		final ContentEncryptionKey key = encryptCEK(header);
+
+		return ContentCryptoProvider.encrypt(key.getHeader(), clearText, key.getCEK(), key.getEncryptedKey(), getJCAContext());
+	}
+
+
+	@Override
+	ContentEncryptionKey encryptCEK(final JWEHeader header)
+		throws JOSEException {
+
+		final Provider keProvider = getJCAContext().getKeyEncryptionProvider();
+
+		// Take a pre-generated ephemeral X25519 key pair, or generate one
+		KeyPair ephemeralKeyPair = keyPairPool != null ? keyPairPool.poll() : null;
+
+		if (ephemeralKeyPair == null) {
+			ephemeralKeyPair = EphemeralKeyPairPool.generateKeyPair(Curve.X25519, keProvider);
+		}
+
+		// Add the ephemeral public X25519 key to the header
+		final OctetKeyPair ephemeralPublicKey;
+
+		try {
+			ephemeralPublicKey = new OctetKeyPair.Builder(Curve.X25519, ephemeralKeyPair.getPublic()).build();
+		} catch (IllegalArgumentException e) {
+			throw new JOSEException(e.getMessage(), e);
+		}
+
+		JWEHeader updatedHeader = new JWEHeader.Builder(header).
+			ephemeralPublicJWK(ephemeralPublicKey).
+			build();
+
+		// Derive 'Z'
+		SecretKey Z = ECDH.deriveX25519SharedSecret(
+			publicKey.toPublicKey(keProvider),
+			ephemeralKeyPair.getPrivate(),
+			keProvider);
+
+		return encryptCEKWithZ(updatedHeader, Z);
+	}
+}
@@ -19,6 +19,7 @@ package com.nimbusds.jose.crypto.factories;
 
 
 import java.security.Key;
+import java.security.PrivateKey;
 import java.security.interfaces.ECPrivateKey;
 import java.security.interfaces.RSAPrivateKey;
 import java.util.Collections;
@@ -28,6 +29,7 @@ import javax.crypto.SecretKey;
 
 import com.nimbusds.jose.*;
 import com.nimbusds.jose.crypto.*;
+import com.nimbusds.jose.jca.JCAProviderProfile;
 import com.nimbusds.jose.jca.JWEJCAContext;
 import com.nimbusds.jose.proc.JWEDecrypterFactory;
 import net.jcip.annotations.ThreadSafe;
@@ -37,10 +39,12 @@ import net.jcip.annotations.ThreadSafe;
  * Default JSON Web Encryption (JWE) decrypter factory.
  *
  * <p>Supports all standard JWE algorithms implemented in the
- * {@link com.nimbusds.jose.crypto} package.
+ * {@link com.nimbusds.jose.crypto} package. For ECDH-ES with X25519 the
+ * private key must be a {@code java.security.PrivateKey} with algorithm
+ * "X25519" or "XDH", as produced by a JCA provider supporting X25519.
  *
  * @author Vladimir Dzhuvinov
- * @version 2015-11-16
+ * @version 2026-10-18
  */
 @ThreadSafe
 public class DefaultJWEDecrypterFactory implements JWEDecrypterFactory {
@@ -83,6 +87,12 @@ public class DefaultJWEDecrypterFactory implements JWEDecrypterFactory {
 	private final JWEJCAContext jcaContext = new JWEJCAContext();
 
 
+	/**
+	 * The JCA provider profile, {@code null} if none.
+	 */
+	private volatile JCAProviderProfile providerProfile;
+
+
 	@Override
 	public Set<JWEAlgorithm> supportedJWEAlgorithms() {
 
@@ -104,6 +114,32 @@ public class DefaultJWEDecrypterFactory implements JWEDecrypterFactory {
 	}
 
 
+	/**
+	 * Returns the JCA provider profile applied to the created decrypters.
+	 *
+	 * @return The JCA provider profile, {@code null} if none.
+	 */
+	public JCAProviderProfile getJCAProviderProfile() {
+
+		return providerProfile;
+	}
+
+
+	/**
+	 * Sets the JCA provider profile to apply to the created decrypters.
+	 * The decryption provider for the JWE algorithm and encryption method
+	 * from the profile takes precedence over the providers of the JCA
+	 * context of this factory.
+	 *
+	 * @param providerProfile The JCA provider profile, {@code null} if
+	 *                        none.
+	 */
+	public void setJCAProviderProfile(final JCAProviderProfile providerProfile) {
+
+		this.providerProfile = providerProfile;
+	}
+
+
 	@Override
 	public JWEDecrypter createJWEDecrypter(final JWEHeader header, final Key key)
 		throws JOSEException {
@@ -124,13 +160,15 @@ public class DefaultJWEDecrypterFactory implements JWEDecrypterFactory {
 		} else if (ECDHDecrypter.SUPPORTED_ALGORITHMS.contains(header.getAlgorithm()) &&
 			ECDHDecrypter.SUPPORTED_ENCRYPTION_METHODS.contains(header.getEncryptionMethod())) {
 
-			if (!(key instanceof ECPrivateKey)) {
+			if (key instanceof ECPrivateKey) {
+				ECPrivateKey ecPrivateKey = (ECPrivateKey)key;
+				decrypter = new ECDHDecrypter(ecPrivateKey);
+			} else if (key instanceof PrivateKey && isX25519(key)) {
+				decrypter = new X25519Decrypter((PrivateKey)key, null);
+			} else {
 				throw new KeyTypeException(ECPrivateKey.class);
 			}
 
-			ECPrivateKey ecPrivateKey = (ECPrivateKey)key;
-			decrypter = new ECDHDecrypter(ecPrivateKey);
-
 		} else if (DirectDecrypter.SUPPORTED_ALGORITHMS.contains(header.getAlgorithm()) &&
 			DirectDecrypter.SUPPORTED_ENCRYPTION_METHODS.contains(header.getEncryptionMethod())) {
 
@@ -185,6 +223,27 @@ public class DefaultJWEDecrypterFactory implements JWEDecrypterFactory {
 		decrypter.getJCAContext().setMACProvider(jcaContext.getMACProvider());
 		decrypter.getJCAContext().setContentEncryptionProvider(jcaContext.getContentEncryptionProvider());
 
+		// Apply JCA provider profile
+		JCAProviderProfile profile = providerProfile;
+
+		if (profile != null) {
+			profile.configure(decrypter, header.getAlgorithm(), header.getEncryptionMethod());
+		}
+
 		return decrypter;
 	}
+
+
+	/**
+	 * Returns {@code true} if the specified key is an X25519 key.
+	 *
+	 * @param key The key. Must not be {@code null}.
+	 *
+	 * @return {@code true} if the key is an X25519 key, else
+	 *         {@code false}.
+	 */
+	private static boolean isX25519(final Key key) {
+
+		return "X25519".equalsIgnoreCase(key.getAlgorithm()) || "XDH".equalsIgnoreCase(key.getAlgorithm());
+	}
 }
@@ -31,6 +31,7 @@ import com.nimbusds.jose.crypto.ECDSAVerifier;
 import com.nimbusds.jose.crypto.MACVerifier;
 import com.nimbusds.jose.crypto.RSASSAVerifier;
 import com.nimbusds.jose.jca.JCAContext;
+import com.nimbusds.jose.jca.JCAProviderProfile;
 import com.nimbusds.jose.proc.JWSVerifierFactory;
 import net.jcip.annotations.ThreadSafe;
 
@@ -42,7 +43,7 @@ import net.jcip.annotations.ThreadSafe;
  * {@link com.nimbusds.jose.crypto} package.
  *
  * @author Vladimir Dzhuvinov
- * @version 2015-11-16
+ * @version 2026-10-18
  */
 @ThreadSafe
 public class DefaultJWSVerifierFactory implements JWSVerifierFactory {
@@ -69,6 +70,12 @@ public class DefaultJWSVerifierFactory implements JWSVerifierFactory {
 	private final JCAContext jcaContext = new JCAContext();
 
 
+	/**
+	 * The JCA provider profile, {@code null} if none.
+	 */
+	private volatile JCAProviderProfile providerProfile;
+
+
 	@Override
 	public Set<JWSAlgorithm> supportedJWSAlgorithms() {
 
@@ -83,6 +90,32 @@ public class DefaultJWSVerifierFactory implements JWSVerifierFactory {
 	}
 
 
+	/**
+	 * Returns the JCA provider profile applied to the created verifiers.
+	 *
+	 * @return The JCA provider profile, {@code null} if none.
+	 */
+	public JCAProviderProfile getJCAProviderProfile() {
+
+		return providerProfile;
+	}
+
+
+	/**
+	 * Sets the JCA provider profile to apply to the created verifiers.
+	 * The verification provider for the JWS algorithm from the profile
+	 * takes precedence over the providers of the JCA context of this
+	 * factory.
+	 *
+	 * @param providerProfile The JCA provider profile, {@code null} if
+	 *                        none.
+	 */
+	public void setJCAProviderProfile(final JCAProviderProfile providerProfile) {
+
+		this.providerProfile = providerProfile;
+	}
+
+
 	@Override
 	public JWSVerifier createJWSVerifier(final JWSHeader header, final Key key)
 		throws JOSEException {
@@ -128,6 +161,13 @@ public class DefaultJWSVerifierFactory implements JWSVerifierFactory {
 		verifier.getJCAContext().setSecureRandom(jcaContext.getSecureRandom());
 		verifier.getJCAContext().setProvider(jcaContext.getProvider());
 
+		// Apply JCA provider profile
+		JCAProviderProfile profile = providerProfile;
+
+		if (profile != null) {
+			profile.configure(verifier, header.getAlgorithm());
+		}
+
 		return verifier;
 	}
 }
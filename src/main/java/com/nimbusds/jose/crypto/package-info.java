@@ -66,6 +66,11 @@
  *             <li>{@link com.nimbusds.jose.crypto.ECDHEncrypter}
  *             <li>{@link com.nimbusds.jose.crypto.ECDHDecrypter}
  *         </ul>
+ *     <li>For Elliptic Curve Diffie-Hellman (ECDH) encryption with X25519:
+ *         <ul>
+ *             <li>{@link com.nimbusds.jose.crypto.X25519Encrypter}
+ *             <li>{@link com.nimbusds.jose.crypto.X25519Decrypter}
+ *         </ul>
  *     <li>For password-based (PBKDF2) encryption:
  *         <ul>
  *             <li>{@link com.nimbusds.jose.crypto.PasswordBasedEncrypter}
@@ -77,6 +82,8 @@
  *
  * <ul>
  *     <li><a href="http://tools.ietf.org/html/rfc7518">RFC 7518 (JWA)</a>
+ *     <li><a href="http://tools.ietf.org/html/rfc8037">RFC 8037 (CFRG ECDH
+ *         and signatures in JOSE)</a>
  * </ul>
  */
 package com.nimbusds.jose.crypto;
@@ -22,7 +22,7 @@ package com.nimbusds.jose.crypto.utils;
  * Array utilities.
  *
  * @author Vladimir Dzhuvinov
- * @version 2017-04-26
+ * @version 2026-10-18
  */
 public class ConstantTimeUtils {
 
@@ -54,6 +54,40 @@ public class ConstantTimeUtils {
 	}
 
 
+	/**
+	 * Checks the specified array ranges for equality in constant time.
+	 * Intended to mitigate timing attacks. Saves copying the ranges into
+	 * new arrays, e.g. when comparing against a truncated MAC.
+	 *
+	 * @param a       The first array. Must not be {@code null}.
+	 * @param aOffset The offset of the range in the first array.
+	 * @param b       The second array. Must not be {@code null}.
+	 * @param bOffset The offset of the range in the second array.
+	 * @param length  The length of the ranges.
+	 *
+	 * @return {@code true} if the two ranges are equal, {@code false} if
+	 *         they differ or either is out of bounds.
+	 */
+	public static boolean areEqual(final byte[] a,
+				       final int aOffset,
+				       final byte[] b,
+				       final int bOffset,
+				       final int length) {
+
+		if (aOffset < 0 || bOffset < 0 || length < 0 ||
+		    length > a.length - aOffset || length > b.length - bOffset) {
+			return false;
+		}
+
+		int result = 0;
+		for (int i = 0; i < length; i++) {
+			result |= a[aOffset + i] ^ b[bOffset + i];
+		}
+
+		return result == 0;
+	}
+
+
 	/**
 	 * Prevents public instantiation.
 	 */
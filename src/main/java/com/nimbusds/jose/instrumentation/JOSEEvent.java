@@ -0,0 +1,469 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.nimbusds.jose.instrumentation;
+
+
+import com.nimbusds.jose.Algorithm;
+import com.nimbusds.jose.EncryptionMethod;
+import net.jcip.annotations.Immutable;
+
+
+/**
+ * JOSE processing event, reporting the duration and outcome of a
+ * processing stage. A failed stage has a {@link Reason reason}, suitable
+ * for use as a metrics label, and a failure message with details.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+@Immutable
+public final class JOSEEvent {
+
+
+	/**
+	 * Enumeration of the event types.
+	 */
+	public enum Type {
+
+
+		/**
+		 * Parsing of a JOSE object or JWT.
+		 */
+		PARSE,
+
+
+		/**
+		 * Retrieval of a remote resource, such as a JWK set, by a
+		 * {@link com.nimbusds.jose.util.ResourceRetriever}.
+		 */
+		RESOURCE_RETRIEVAL,
+
+
+		/**
+		 * Selection of the key candidates for a JWS / JWE object.
+		 */
+		KEY_SELECTION,
+
+
+		/**
+		 * A remote JWK set lookup served from the cached JWK set.
+		 */
+		JWK_SET_CACHE_HIT,
+
+
+		/**
+		 * A remote JWK set lookup that required a retrieval.
+		 */
+		JWK_SET_CACHE_MISS,
+
+
+		/**
+		 * Retrieval of a remote JWK set.
+		 */
+		JWK_SET_RETRIEVAL,
+
+
+		/**
+		 * Creation of a JWS verifier.
+		 */
+		VERIFIER_CREATION,
+
+
+		/**
+		 * Creation of a JWE decrypter.
+		 */
+		DECRYPTER_CREATION,
+
+
+		/**
+		 * JWS signing.
+		 */
+		SIGNING,
+
+
+		/**
+		 * JWS signature verification.
+		 */
+		SIGNATURE_VERIFICATION,
+
+
+		/**
+		 * JWE encryption.
+		 */
+		ENCRYPTION,
+
+
+		/**
+		 * JWE decryption.
+		 */
+		DECRYPTION,
+
+
+		/**
+		 * JWT claims verification.
+		 */
+		CLAIMS_VERIFICATION,
+
+
+		/**
+		 * Complete processing of a JOSE object or JWT, by a JOSE / JWT
+		 * processor.
+		 */
+		PROCESSING
+	}
+
+
+	/**
+	 * Enumeration of the failure reasons.
+	 */
+	public enum Reason {
+
+
+		/**
+		 * Invalid JWS signature.
+		 */
+		INVALID_SIGNATURE("Invalid signature"),
+
+
+		/**
+		 * The key selection returned no key candidates.
+		 */
+		NO_KEY_CANDIDATES("No key candidates"),
+
+
+		/**
+		 * No JWS verifier could be created for the key candidate.
+		 */
+		NO_MATCHING_VERIFIER("No matching verifier"),
+
+
+		/**
+		 * No JWE decrypter could be created for the key candidate.
+		 */
+		NO_MATCHING_DECRYPTER("No matching decrypter"),
+
+
+		/**
+		 * Parsing failed, see {@link java.text.ParseException}.
+		 */
+		PARSE_ERROR("Parse error"),
+
+
+		/**
+		 * Retrieval of a remote resource failed, see
+		 * {@link java.io.IOException}.
+		 */
+		RETRIEVAL_ERROR("Retrieval error"),
+
+
+		/**
+		 * The key source failed, see
+		 * {@link com.nimbusds.jose.KeySourceException}.
+		 */
+		KEY_SOURCE_ERROR("Key source error"),
+
+
+		/**
+		 * The JWS / JWE object was rejected, see
+		 * {@link com.nimbusds.jose.proc.BadJOSEException}.
+		 */
+		REJECTED("Rejected"),
+
+
+		/**
+		 * The JWT claims were rejected, see
+		 * {@link com.nimbusds.jwt.proc.BadJWTException}.
+		 */
+		CLAIMS_REJECTED("Claims rejected"),
+
+
+		/**
+		 * Internal JOSE processing error, see
+		 * {@link com.nimbusds.jose.JOSEException}.
+		 */
+		JOSE_ERROR("JOSE error"),
+
+
+		/**
+		 * Other failure.
+		 */
+		OTHER("Other");
+
+
+		/**
+		 * The default failure message.
+		 */
+		private final String message;
+
+
+		/**
+		 * Creates a new failure reason.
+		 *
+		 * @param message The default failure message.
+		 */
+		Reason(final String message) {
+			this.message = message;
+		}
+
+
+		/**
+		 * Returns the default failure message for this reason.
+		 *
+		 * @return The default failure message.
+		 */
+		public String getMessage() {
+			return message;
+		}
+	}
+
+
+	/**
+	 * The event type.
+	 */
+	private final Type type;
+
+
+	/**
+	 * The algorithm, {@code null} if not applicable.
+	 */
+	private final Algorithm algorithm;
+
+
+	/**
+	 * The JWE encryption method, {@code null} if not applicable.
+	 */
+	private final EncryptionMethod encryptionMethod;
+
+
+	/**
+	 * The key ID, {@code null} if not specified.
+	 */
+	private final String keyID;
+
+
+	/**
+	 * The payload size in bytes, -1 if not applicable.
+	 */
+	private final long payloadSize;
+
+
+	/**
+	 * The duration, in nanoseconds.
+	 */
+	private final long durationNanos;
+
+
+	/**
+	 * The failure reason, {@code null} on success.
+	 */
+	private final Reason reason;
+
+
+	/**
+	 * The failure message, {@code null} on success.
+	 */
+	private final String failureReason;
+
+
+	/**
+	 * Creates a new JOSE processing event.
+	 *
+	 * @param type          The event type. Must not be {@code null}.
+	 * @param algorithm     The JWS / JWE algorithm, {@code null} if not
+	 *                      applicable.
+	 * @param keyID         The key ID, {@code null} if not specified.
+	 * @param durationNanos The duration, in nanoseconds.
+	 * @param failureReason The failure message, {@code null} on success.
+	 *                      The reason is set to {@link Reason#OTHER} if
+	 *                      specified.
+	 */
+	public JOSEEvent(final Type type,
+			 final Algorithm algorithm,
+			 final String keyID,
+			 final long durationNanos,
+			 final String failureReason) {
+
+		this(type, algorithm, null, keyID, -1L, durationNanos, null, failureReason);
+	}
+
+
+	/**
+	 * Creates a new JOSE processing event.
+	 *
+	 * @param type             The event type. Must not be {@code null}.
+	 * @param algorithm        The JWS / JWE algorithm, {@code null} if
+	 *                         not applicable.
+	 * @param encryptionMethod The JWE encryption method, {@code null} if
+	 *                         not applicable.
+	 * @param keyID            The key ID, {@code null} if not specified.
+	 * @param payloadSize      The size in bytes of the signed, encrypted
+	 *                         or retrieved content, -1 if not
+	 *                         applicable.
+	 * @param durationNanos    The duration, in nanoseconds.
+	 * @param reason           The failure reason, {@code null} on
+	 *                         success, or if a failure message is
+	 *                         specified to set it to
+	 *                         {@link Reason#OTHER}.
+	 * @param failureReason    The failure message, {@code null} on
+	 *                         success, or if a reason is specified to
+	 *                         use its default message.
+	 */
+	public JOSEEvent(final Type type,
+			 final Algorithm algorithm,
+			 final EncryptionMethod encryptionMethod,
+			 final String keyID,
+			 final long payloadSize,
+			 final long durationNanos,
+			 final Reason reason,
+			 final String failureReason) {
+
+		if (type == null) {
+			throw new IllegalArgumentException("The event type must not be null");
+		}
+
+		this.type = type;
+		this.algorithm = algorithm;
+		this.encryptionMethod = encryptionMethod;
+		this.keyID = keyID;
+		this.payloadSize = payloadSize;
+		this.durationNanos = durationNanos;
+
+		if (reason == null && failureReason != null) {
+			this.reason = Reason.OTHER;
+		} else {
+			this.reason = reason;
+		}
+
+		if (failureReason == null && reason != null) {
+			this.failureReason = reason.getMessage();
+		} else {
+			this.failureReason = failureReason;
+		}
+	}
+
+
+	/**
+	 * Returns the event type.
+	 *
+	 * @return The event type.
+	 */
+	public Type getType() {
+
+		return type;
+	}
+
+
+	/**
+	 * Returns the JWS / JWE algorithm.
+	 *
+	 * @return The algorithm, {@code null} if not applicable.
+	 */
+	public Algorithm getAlgorithm() {
+
+		return algorithm;
+	}
+
+
+	/**
+	 * Returns the JWE encryption method.
+	 *
+	 * @return The encryption method, {@code null} if not applicable.
+	 */
+	public EncryptionMethod getEncryptionMethod() {
+
+		return encryptionMethod;
+	}
+
+
+	/**
+	 * Returns the key ID (kid).
+	 *
+	 * @return The key ID, {@code null} if not specified.
+	 */
+	public String getKeyID() {
+
+		return keyID;
+	}
+
+
+	/**
+	 * Returns the size of the signed, encrypted or retrieved content.
+	 *
+	 * @return The payload size in bytes, -1 if not applicable.
+	 */
+	public long getPayloadSize() {
+
+		return payloadSize;
+	}
+
+
+	/**
+	 * Returns the duration of the processing stage.
+	 *
+	 * @return The duration, in nanoseconds.
+	 */
+	public long getDurationNanos() {
+
+		return durationNanos;
+	}
+
+
+	/**
+	 * Returns {@code true} if the processing stage succeeded.
+	 *
+	 * @return {@code true} on success, else {@code false}.
+	 */
+	public boolean isSuccess() {
+
+		return reason == null;
+	}
+
+
+	/**
+	 * Returns the failure reason.
+	 *
+	 * @return The failure reason, {@code null} on success.
+	 */
+	public Reason getReason() {
+
+		return reason;
+	}
+
+
+	/**
+	 * Returns the failure message, typically the message of the exception
+	 * that ended the processing stage.
+	 *
+	 * @return The failure message, {@code null} on success.
+	 */
+	public String getFailureReason() {
+
+		return failureReason;
+	}
+
+
+	@Override
+	public String toString() {
+
+		return type + " alg=" + algorithm +
+			(encryptionMethod != null ? " enc=" + encryptionMethod : "") +
+			" kid=" + keyID +
+			(payloadSize >= 0 ? " size=" + payloadSize : "") +
+			" duration=" + durationNanos + "ns" +
+			(reason != null ? " failure=" + reason + " (" + failureReason + ")" : "");
+	}
+}
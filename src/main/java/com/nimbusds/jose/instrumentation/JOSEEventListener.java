@@ -0,0 +1,42 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.nimbusds.jose.instrumentation;
+
+
+/**
+ * Listener of JOSE processing {@link JOSEEvent events}. Register with
+ * {@link JOSEInstrumentation#setListener}.
+ *
+ * <p>Implementations must be thread-safe and should return quickly, the
+ * events are delivered synchronously on the processing thread. Runtime
+ * exceptions thrown by the listener are caught and ignored. Listeners
+ * that also need to be notified when a stage starts implement
+ * {@link JOSEStageListener}.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+public interface JOSEEventListener {
+
+
+	/**
+	 * Called when a processing stage has completed.
+	 *
+	 * @param event The event. Not {@code null}.
+	 */
+	void onEvent(final JOSEEvent event);
+}
@@ -0,0 +1,425 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.nimbusds.jose.instrumentation;
+
+
+import java.io.IOException;
+import java.text.ParseException;
+
+import com.nimbusds.jose.Algorithm;
+import com.nimbusds.jose.EncryptionMethod;
+import com.nimbusds.jose.Header;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWEHeader;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jwt.proc.BadJWTException;
+import net.jcip.annotations.ThreadSafe;
+
+
+/**
+ * JOSE instrumentation. Holds the global {@link JOSEEventListener listener}
+ * and provides the reporting methods used by the library.
+ *
+ * <p>Instrumentation is disabled by default. With no listener registered
+ * {@link #start} returns {@code null} without reading the clock and the
+ * report methods return immediately, so the instrumented code paths carry
+ * no measurable cost.
+ *
+ * <p>A processing stage is reported to the listener registered when the
+ * stage started. Listeners that need to act at the start of a stage
+ * implement {@link JOSEStageListener}.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * JOSEInstrumentation.setListener(new JOSEEventListener() {
+ *     public void onEvent(JOSEEvent event) {
+ *         metrics.record(event.getType(), event.getAlgorithm(), event.getDurationNanos());
+ *     }
+ * });
+ * </pre>
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+@ThreadSafe
+public final class JOSEInstrumentation {
+
+
+	/**
+	 * The listener, {@code null} if none.
+	 */
+	private static volatile JOSEEventListener listener = null;
+
+
+	/**
+	 * Sets the global JOSE event listener.
+	 *
+	 * @param listener The listener, {@code null} to disable
+	 *                 instrumentation.
+	 */
+	public static void setListener(final JOSEEventListener listener) {
+
+		JOSEInstrumentation.listener = listener;
+	}
+
+
+	/**
+	 * Gets the global JOSE event listener.
+	 *
+	 * @return The listener, {@code null} if none.
+	 */
+	public static JOSEEventListener getListener() {
+
+		return listener;
+	}
+
+
+	/**
+	 * Returns {@code true} if instrumentation is enabled.
+	 *
+	 * @return {@code true} if a listener is registered, else
+	 *         {@code false}.
+	 */
+	public static boolean isEnabled() {
+
+		return listener != null;
+	}
+
+
+	/**
+	 * A started processing stage, returned by {@link #start} and passed
+	 * to the report methods when the stage completes.
+	 */
+	public static final class Stage {
+
+
+		/**
+		 * The event type.
+		 */
+		private final JOSEEvent.Type type;
+
+
+		/**
+		 * The listener registered when the stage started.
+		 */
+		private final JOSEEventListener listener;
+
+
+		/**
+		 * The context returned by a {@link JOSEStageListener},
+		 * {@code null} if none.
+		 */
+		private final Object context;
+
+
+		/**
+		 * The start time, as returned by {@link System#nanoTime}.
+		 */
+		private final long startTime;
+
+
+		/**
+		 * Creates a new started processing stage.
+		 *
+		 * @param type      The event type.
+		 * @param listener  The listener.
+		 * @param context   The listener context, {@code null} if
+		 *                  none.
+		 * @param startTime The start time.
+		 */
+		private Stage(final JOSEEvent.Type type,
+			      final JOSEEventListener listener,
+			      final Object context,
+			      final long startTime) {
+
+			this.type = type;
+			this.listener = listener;
+			this.context = context;
+			this.startTime = startTime;
+		}
+
+
+		/**
+		 * Returns the event type of the stage.
+		 *
+		 * @return The event type.
+		 */
+		public JOSEEvent.Type getType() {
+
+			return type;
+		}
+	}
+
+
+	/**
+	 * Starts a processing stage. If the listener is a
+	 * {@link JOSEStageListener} it is notified.
+	 *
+	 * @param type The event type. Must not be {@code null}.
+	 *
+	 * @return The started stage, {@code null} if instrumentation is
+	 *         disabled.
+	 */
+	public static Stage start(final JOSEEvent.Type type) {
+
+		final JOSEEventListener l = listener;
+
+		if (l == null) {
+			return null;
+		}
+
+		Object context = null;
+
+		if (l instanceof JOSEStageListener) {
+			try {
+				context = ((JOSEStageListener)l).onStart(type);
+
+			} catch (RuntimeException e) {
+				// Ignore, a faulty listener must not affect the processing
+			}
+		}
+
+		return new Stage(type, l, context, System.nanoTime());
+	}
+
+
+	/**
+	 * Reports a completed processing stage.
+	 *
+	 * @param stage     The stage, as returned by {@link #start},
+	 *                  {@code null} if instrumentation was disabled.
+	 * @param type      The event type, differs from the stage type if
+	 *                  determined by the outcome, for example a JWK set
+	 *                  cache miss. Must not be {@code null}.
+	 * @param algorithm The JWS / JWE algorithm, {@code null} if not
+	 *                  applicable.
+	 * @param keyID     The key ID, {@code null} if not specified.
+	 * @param reason    The failure reason, {@code null} on success.
+	 */
+	public static void report(final Stage stage,
+				  final JOSEEvent.Type type,
+				  final Algorithm algorithm,
+				  final String keyID,
+				  final JOSEEvent.Reason reason) {
+
+		report(stage, type, algorithm, null, keyID, -1L, reason, null);
+	}
+
+
+	/**
+	 * Reports a completed processing stage to the listener registered
+	 * when it started. Exceptions thrown by the listener are caught and
+	 * ignored, so they cannot interfere with the processing.
+	 *
+	 * @param stage            The stage, as returned by {@link #start},
+	 *                         {@code null} if instrumentation was
+	 *                         disabled.
+	 * @param type             The event type. Must not be {@code null}.
+	 * @param algorithm        The JWS / JWE algorithm, {@code null} if
+	 *                         not applicable.
+	 * @param encryptionMethod The JWE encryption method, {@code null} if
+	 *                         not applicable.
+	 * @param keyID            The key ID, {@code null} if not specified.
+	 * @param payloadSize      The payload size in bytes, -1 if not
+	 *                         applicable.
+	 * @param reason           The failure reason, {@code null} on
+	 *                         success.
+	 * @param message          The failure message, {@code null} to use
+	 *                         the default message of the reason.
+	 */
+	private static void report(final Stage stage,
+				   final JOSEEvent.Type type,
+				   final Algorithm algorithm,
+				   final EncryptionMethod encryptionMethod,
+				   final String keyID,
+				   final long payloadSize,
+				   final JOSEEvent.Reason reason,
+				   final String message) {
+
+		if (stage == null) {
+			return;
+		}
+
+		JOSEEvent event = new JOSEEvent(type, algorithm, encryptionMethod, keyID, payloadSize, System.nanoTime() - stage.startTime, reason, message);
+
+		try {
+			if (stage.listener instanceof JOSEStageListener) {
+				((JOSEStageListener)stage.listener).onEnd(event, stage.context);
+			} else {
+				stage.listener.onEvent(event);
+			}
+
+		} catch (RuntimeException e) {
+			// Ignore, a faulty listener must not affect the processing
+		}
+	}
+
+
+	/**
+	 * Reports a completed processing stage for the JOSE object with the
+	 * specified header.
+	 *
+	 * @param stage  The stage, as returned by {@link #start},
+	 *               {@code null} if instrumentation was disabled.
+	 * @param header The JOSE header, {@code null} if not available.
+	 * @param reason The failure reason, {@code null} on success.
+	 */
+	public static void report(final Stage stage,
+				  final Header header,
+				  final JOSEEvent.Reason reason) {
+
+		report(stage, header, -1L, reason, null);
+	}
+
+
+	/**
+	 * Reports a completed processing stage for the JOSE object with the
+	 * specified header.
+	 *
+	 * @param stage       The stage, as returned by {@link #start},
+	 *                    {@code null} if instrumentation was disabled.
+	 * @param header      The JOSE header, {@code null} if not available.
+	 * @param payloadSize The size in bytes of the signed, encrypted or
+	 *                    retrieved content, -1 if not applicable.
+	 * @param reason      The failure reason, {@code null} on success.
+	 */
+	public static void report(final Stage stage,
+				  final Header header,
+				  final long payloadSize,
+				  final JOSEEvent.Reason reason) {
+
+		report(stage, header, payloadSize, reason, null);
+	}
+
+
+	/**
+	 * Reports a completed processing stage for the JOSE object with the
+	 * specified header.
+	 *
+	 * @param stage       The stage, as returned by {@link #start},
+	 *                    {@code null} if instrumentation was disabled.
+	 * @param header      The JOSE header, {@code null} if not available.
+	 * @param payloadSize The size in bytes of the signed, encrypted or
+	 *                    retrieved content, -1 if not applicable.
+	 * @param reason      The failure reason, {@code null} on success.
+	 * @param message     The failure message, {@code null} to use the
+	 *                    default message of the reason.
+	 */
+	private static void report(final Stage stage,
+				   final Header header,
+				   final long payloadSize,
+				   final JOSEEvent.Reason reason,
+				   final String message) {
+
+		if (stage == null) {
+			return;
+		}
+
+		Algorithm alg = header != null ? header.getAlgorithm() : null;
+		EncryptionMethod enc = null;
+		String kid = null;
+
+		if (header instanceof JWSHeader) {
+			kid = ((JWSHeader)header).getKeyID();
+		} else if (header instanceof JWEHeader) {
+			enc = ((JWEHeader)header).getEncryptionMethod();
+			kid = ((JWEHeader)header).getKeyID();
+		}
+
+		report(stage, stage.type, alg, enc, kid, payloadSize, reason, message);
+	}
+
+
+	/**
+	 * Reports a processing stage that failed with the specified
+	 * exception.
+	 *
+	 * @param stage     The stage, as returned by {@link #start},
+	 *                  {@code null} if instrumentation was disabled.
+	 * @param header    The JOSE header, {@code null} if not available.
+	 * @param exception The exception. Must not be {@code null}.
+	 */
+	public static void reportFailure(final Stage stage,
+					 final Header header,
+					 final Exception exception) {
+
+		reportFailure(stage, header, -1L, exception);
+	}
+
+
+	/**
+	 * Reports a processing stage that failed with the specified
+	 * exception. The failure reason is determined from the exception
+	 * class, the failure message is the exception message.
+	 *
+	 * @param stage       The stage, as returned by {@link #start},
+	 *                    {@code null} if instrumentation was disabled.
+	 * @param header      The JOSE header, {@code null} if not available.
+	 * @param payloadSize The size in bytes of the signed, encrypted or
+	 *                    retrieved content, -1 if not applicable.
+	 * @param exception   The exception. Must not be {@code null}.
+	 */
+	public static void reportFailure(final Stage stage,
+					 final Header header,
+					 final long payloadSize,
+					 final Exception exception) {
+
+		if (stage == null) {
+			return;
+		}
+
+		String message = exception.getMessage() != null ? exception.getMessage() : exception.getClass().getName();
+
+		report(stage, header, payloadSize, getReason(exception), message);
+	}
+
+
+	/**
+	 * Determines the failure reason for the specified exception.
+	 *
+	 * @param exception The exception. Must not be {@code null}.
+	 *
+	 * @return The failure reason.
+	 */
+	static JOSEEvent.Reason getReason(final Exception exception) {
+
+		if (exception instanceof BadJWTException) {
+			return JOSEEvent.Reason.CLAIMS_REJECTED;
+		} else if (exception instanceof BadJOSEException) {
+			return JOSEEvent.Reason.REJECTED;
+		} else if (exception instanceof KeySourceException) {
+			return JOSEEvent.Reason.KEY_SOURCE_ERROR;
+		} else if (exception instanceof JOSEException) {
+			return JOSEEvent.Reason.JOSE_ERROR;
+		} else if (exception instanceof ParseException) {
+			return JOSEEvent.Reason.PARSE_ERROR;
+		} else if (exception instanceof IOException) {
+			return JOSEEvent.Reason.RETRIEVAL_ERROR;
+		} else {
+			return JOSEEvent.Reason.OTHER;
+		}
+	}
+
+
+	/**
+	 * Prevents public instantiation.
+	 */
+	private JOSEInstrumentation() { }
+}
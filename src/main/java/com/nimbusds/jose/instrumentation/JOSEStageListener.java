@@ -0,0 +1,61 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.nimbusds.jose.instrumentation;
+
+
+/**
+ * JOSE event listener that is also notified when a processing stage
+ * starts, for instance to begin a tracing span or a Java Flight Recorder
+ * event at the actual start of the operation. Register with
+ * {@link JOSEInstrumentation#setListener}.
+ *
+ * <p>The context object returned by {@link #onStart} is passed back to
+ * {@link #onEnd} together with the event when the stage completes. The
+ * {@link #onEvent} method is not called for stages started while the
+ * listener was registered.
+ *
+ * <p>The type of the completed event is normally the start type. JWK set
+ * cache lookups start as a {@link JOSEEvent.Type#JWK_SET_CACHE_HIT hit}
+ * and complete as a {@link JOSEEvent.Type#JWK_SET_CACHE_MISS miss} if the
+ * JWK set had to be retrieved.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+public interface JOSEStageListener extends JOSEEventListener {
+
+
+	/**
+	 * Called when a processing stage starts.
+	 *
+	 * @param type The event type. Not {@code null}.
+	 *
+	 * @return The context to pass to {@link #onEnd}, {@code null} if
+	 *         none.
+	 */
+	Object onStart(final JOSEEvent.Type type);
+
+
+	/**
+	 * Called when a processing stage has completed.
+	 *
+	 * @param event   The event. Not {@code null}.
+	 * @param context The context returned by {@link #onStart},
+	 *                {@code null} if none.
+	 */
+	void onEnd(final JOSEEvent event, final Object context);
+}
@@ -0,0 +1,23 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+/**
+ * Instrumentation of JOSE and JWT processing. Register a
+ * {@link com.nimbusds.jose.instrumentation.JOSEEventListener listener} with
+ * {@link com.nimbusds.jose.instrumentation.JOSEInstrumentation} to receive
+ * timing and outcome events for the individual processing stages.
+ */
+package com.nimbusds.jose.instrumentation;
@@ -28,7 +28,7 @@ import java.security.SecureRandom;
  * {@link java.security.SecureRandom secure random generator}.
  *
  * @author Vladimir Dzhuvinov
- * @version 2015-06-08
+ * @version 2026-10-18
  */
 public class JCAContext {
 
@@ -113,6 +113,10 @@ public class JCAContext {
 	 * Sets a specific secure random generator for the initialisation
 	 * vector and other purposes requiring a random number.
 	 *
+	 * <p>For JWE encryption from many threads in parallel consider a
+	 * {@link StripedSecureRandom}, which is not a point of contention like
+	 * a single shared {@link SecureRandom}.
+	 *
 	 * @param randomGen The secure random generator, {@code null} to use
 	 *                  the default system one.
 	 */
@@ -0,0 +1,718 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.jca;
+
+
+import java.security.Provider;
+import java.security.Security;
+import java.text.ParseException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.util.JSONObjectUtils;
+import net.jcip.annotations.Immutable;
+import net.minidev.json.JSONObject;
+
+
+/**
+ * Java Cryptography Architecture (JCA) provider profile. Specifies the JCA
+ * provider to use for signing and for verification with each JWS
+ * algorithm, and for encryption and for decryption with each combination
+ * of JWE algorithm and encryption method, typically the fastest one as
+ * determined by a {@link com.nimbusds.jose.crypto.JCAProviderCalibration
+ * calibration}. The fastest provider for an operation need not be the
+ * fastest for its inverse, for example for RSA signing and verification.
+ *
+ * <p>The profile can be applied to a signer, verifier, encrypter or
+ * decrypter with the {@code configure} methods, and is applied
+ * automatically to the verifiers and decrypters created by the
+ * {@link com.nimbusds.jose.crypto.factories.DefaultJWSVerifierFactory} and
+ * {@link com.nimbusds.jose.crypto.factories.DefaultJWEDecrypterFactory}
+ * when set there.
+ *
+ * <p>Profiles can be persisted in JSON format, for example:
+ *
+ * <pre>
+ * {
+ *   "sign"    : { "RS256" : "BC", "ES256" : "SunEC" },
+ *   "verify"  : { "RS256" : "SunRsaSign", "ES256" : "SunEC" },
+ *   "encrypt" : { "RSA-OAEP-256" : { "A128GCM" : "SunJCE" } },
+ *   "decrypt" : { "RSA-OAEP-256" : { "A128GCM" : "BC" } }
+ * }
+ * </pre>
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+@Immutable
+public final class JCAProviderProfile {
+
+
+	/**
+	 * Builder for constructing JCA provider profiles.
+	 */
+	public static class Builder {
+
+
+		/**
+		 * The JWS signing providers.
+		 */
+		private final Map<JWSAlgorithm,Provider> signingProviders = new LinkedHashMap<>();
+
+
+		/**
+		 * The JWS verification providers.
+		 */
+		private final Map<JWSAlgorithm,Provider> verificationProviders = new LinkedHashMap<>();
+
+
+		/**
+		 * The JWE encryption providers.
+		 */
+		private final Map<JWEAlgorithm,Map<EncryptionMethod,Provider>> encryptionProviders = new LinkedHashMap<>();
+
+
+		/**
+		 * The JWE decryption providers.
+		 */
+		private final Map<JWEAlgorithm,Map<EncryptionMethod,Provider>> decryptionProviders = new LinkedHashMap<>();
+
+
+		/**
+		 * Sets the JCA provider for signing with the specified JWS
+		 * algorithm.
+		 *
+		 * @param alg      The JWS algorithm. Must not be {@code null}.
+		 * @param provider The JCA provider. Must not be {@code null}.
+		 *
+		 * @return This builder.
+		 */
+		public Builder signingProvider(final JWSAlgorithm alg, final Provider provider) {
+
+			put(signingProviders, alg, provider);
+			return this;
+		}
+
+
+		/**
+		 * Sets the JCA provider for verification with the specified
+		 * JWS algorithm.
+		 *
+		 * @param alg      The JWS algorithm. Must not be {@code null}.
+		 * @param provider The JCA provider. Must not be {@code null}.
+		 *
+		 * @return This builder.
+		 */
+		public Builder verificationProvider(final JWSAlgorithm alg, final Provider provider) {
+
+			put(verificationProviders, alg, provider);
+			return this;
+		}
+
+
+		/**
+		 * Sets the JCA provider for both signing and verification with
+		 * the specified JWS algorithm.
+		 *
+		 * @param alg      The JWS algorithm. Must not be {@code null}.
+		 * @param provider The JCA provider. Must not be {@code null}.
+		 *
+		 * @return This builder.
+		 */
+		public Builder provider(final JWSAlgorithm alg, final Provider provider) {
+
+			return signingProvider(alg, provider).verificationProvider(alg, provider);
+		}
+
+
+		/**
+		 * Sets the JCA provider for encryption with the specified JWE
+		 * algorithm and encryption method.
+		 *
+		 * @param alg      The JWE algorithm. Must not be {@code null}.
+		 * @param enc      The encryption method. Must not be
+		 *                 {@code null}.
+		 * @param provider The JCA provider. Must not be {@code null}.
+		 *
+		 * @return This builder.
+		 */
+		public Builder encryptionProvider(final JWEAlgorithm alg, final EncryptionMethod enc, final Provider provider) {
+
+			put(encryptionProviders, alg, enc, provider);
+			return this;
+		}
+
+
+		/**
+		 * Sets the JCA provider for decryption with the specified JWE
+		 * algorithm and encryption method.
+		 *
+		 * @param alg      The JWE algorithm. Must not be {@code null}.
+		 * @param enc      The encryption method. Must not be
+		 *                 {@code null}.
+		 * @param provider The JCA provider. Must not be {@code null}.
+		 *
+		 * @return This builder.
+		 */
+		public Builder decryptionProvider(final JWEAlgorithm alg, final EncryptionMethod enc, final Provider provider) {
+
+			put(decryptionProviders, alg, enc, provider);
+			return this;
+		}
+
+
+		/**
+		 * Sets the JCA provider for both encryption and decryption
+		 * with the specified JWE algorithm and encryption method.
+		 *
+		 * @param alg      The JWE algorithm. Must not be {@code null}.
+		 * @param enc      The encryption method. Must not be
+		 *                 {@code null}.
+		 * @param provider The JCA provider. Must not be {@code null}.
+		 *
+		 * @return This builder.
+		 */
+		public Builder provider(final JWEAlgorithm alg, final EncryptionMethod enc, final Provider provider) {
+
+			return encryptionProvider(alg, enc, provider).decryptionProvider(alg, enc, provider);
+		}
+
+
+		/**
+		 * Builds a new JCA provider profile.
+		 *
+		 * @return The JCA provider profile.
+		 */
+		public JCAProviderProfile build() {
+
+			return new JCAProviderProfile(
+				Collections.unmodifiableMap(new LinkedHashMap<>(signingProviders)),
+				Collections.unmodifiableMap(new LinkedHashMap<>(verificationProviders)),
+				copy(encryptionProviders),
+				copy(decryptionProviders));
+		}
+
+
+		/**
+		 * Puts a JWS provider into the specified map.
+		 *
+		 * @param providers The providers map.
+		 * @param alg       The JWS algorithm.
+		 * @param provider  The JCA provider.
+		 */
+		private static void put(final Map<JWSAlgorithm,Provider> providers,
+					final JWSAlgorithm alg,
+					final Provider provider) {
+
+			if (alg == null || provider == null) {
+				throw new IllegalArgumentException("The JWS algorithm and provider must not be null");
+			}
+
+			providers.put(alg, provider);
+		}
+
+
+		/**
+		 * Puts a JWE provider into the specified map.
+		 *
+		 * @param providers The providers map.
+		 * @param alg       The JWE algorithm.
+		 * @param enc       The encryption method.
+		 * @param provider  The JCA provider.
+		 */
+		private static void put(final Map<JWEAlgorithm,Map<EncryptionMethod,Provider>> providers,
+					final JWEAlgorithm alg,
+					final EncryptionMethod enc,
+					final Provider provider) {
+
+			if (alg == null || enc == null || provider == null) {
+				throw new IllegalArgumentException("The JWE algorithm, encryption method and provider must not be null");
+			}
+
+			Map<EncryptionMethod,Provider> encProviders = providers.get(alg);
+
+			if (encProviders == null) {
+				encProviders = new LinkedHashMap<>();
+				providers.put(alg, encProviders);
+			}
+
+			encProviders.put(enc, provider);
+		}
+
+
+		/**
+		 * Returns an unmodifiable copy of the specified JWE providers
+		 * map.
+		 *
+		 * @param providers The providers map.
+		 *
+		 * @return The copy.
+		 */
+		private static Map<JWEAlgorithm,Map<EncryptionMethod,Provider>> copy(final Map<JWEAlgorithm,Map<EncryptionMethod,Provider>> providers) {
+
+			Map<JWEAlgorithm,Map<EncryptionMethod,Provider>> copy = new LinkedHashMap<>();
+
+			for (Map.Entry<JWEAlgorithm,Map<EncryptionMethod,Provider>> en: providers.entrySet()) {
+				copy.put(en.getKey(), Collections.unmodifiableMap(new LinkedHashMap<>(en.getValue())));
+			}
+
+			return Collections.unmodifiableMap(copy);
+		}
+	}
+
+
+	/**
+	 * The JWS signing providers.
+	 */
+	private final Map<JWSAlgorithm,Provider> signingProviders;
+
+
+	/**
+	 * The JWS verification providers.
+	 */
+	private final Map<JWSAlgorithm,Provider> verificationProviders;
+
+
+	/**
+	 * The JWE encryption providers.
+	 */
+	private final Map<JWEAlgorithm,Map<EncryptionMethod,Provider>> encryptionProviders;
+
+
+	/**
+	 * The JWE decryption providers.
+	 */
+	private final Map<JWEAlgorithm,Map<EncryptionMethod,Provider>> decryptionProviders;
+
+
+	/**
+	 * Creates a new JCA provider profile.
+	 *
+	 * @param signingProviders      The JWS signing providers. Must not
+	 *                              be {@code null}.
+	 * @param verificationProviders The JWS verification providers. Must
+	 *                              not be {@code null}.
+	 * @param encryptionProviders   The JWE encryption providers. Must not
+	 *                              be {@code null}.
+	 * @param decryptionProviders   The JWE decryption providers. Must not
+	 *                              be {@code null}.
+	 */
+	private JCAProviderProfile(final Map<JWSAlgorithm,Provider> signingProviders,
+				   final Map<JWSAlgorithm,Provider> verificationProviders,
+				   final Map<JWEAlgorithm,Map<EncryptionMethod,Provider>> encryptionProviders,
+				   final Map<JWEAlgorithm,Map<EncryptionMethod,Provider>> decryptionProviders) {
+
+		this.signingProviders = signingProviders;
+		this.verificationProviders = verificationProviders;
+		this.encryptionProviders = encryptionProviders;
+		this.decryptionProviders = decryptionProviders;
+	}
+
+
+	/**
+	 * Returns the JCA provider for signing with the specified JWS
+	 * algorithm.
+	 *
+	 * @param alg The JWS algorithm. Must not be {@code null}.
+	 *
+	 * @return The JCA provider, {@code null} if not specified.
+	 */
+	public Provider getSigningProvider(final JWSAlgorithm alg) {
+
+		return signingProviders.get(alg);
+	}
+
+
+	/**
+	 * Returns the JCA provider for verification with the specified JWS
+	 * algorithm.
+	 *
+	 * @param alg The JWS algorithm. Must not be {@code null}.
+	 *
+	 * @return The JCA provider, {@code null} if not specified.
+	 */
+	public Provider getVerificationProvider(final JWSAlgorithm alg) {
+
+		return verificationProviders.get(alg);
+	}
+
+
+	/**
+	 * Returns the JCA provider for encryption with the specified JWE
+	 * algorithm and encryption method.
+	 *
+	 * @param alg The JWE algorithm. Must not be {@code null}.
+	 * @param enc The encryption method. Must not be {@code null}.
+	 *
+	 * @return The JCA provider, {@code null} if not specified.
+	 */
+	public Provider getEncryptionProvider(final JWEAlgorithm alg, final EncryptionMethod enc) {
+
+		return get(encryptionProviders, alg, enc);
+	}
+
+
+	/**
+	 * Returns the JCA provider for decryption with the specified JWE
+	 * algorithm and encryption method.
+	 *
+	 * @param alg The JWE algorithm. Must not be {@code null}.
+	 * @param enc The encryption method. Must not be {@code null}.
+	 *
+	 * @return The JCA provider, {@code null} if not specified.
+	 */
+	public Provider getDecryptionProvider(final JWEAlgorithm alg, final EncryptionMethod enc) {
+
+		return get(decryptionProviders, alg, enc);
+	}
+
+
+	/**
+	 * Returns {@code true} if the profile doesn't specify any providers.
+	 *
+	 * @return {@code true} if the profile is empty, else {@code false}.
+	 */
+	public boolean isEmpty() {
+
+		return signingProviders.isEmpty() &&
+			verificationProviders.isEmpty() &&
+			encryptionProviders.isEmpty() &&
+			decryptionProviders.isEmpty();
+	}
+
+
+	/**
+	 * Sets the signing JCA provider for the specified JWS algorithm, if
+	 * any, in the JCA context of the specified JWS signer.
+	 *
+	 * @param signer The JWS signer. Must not be {@code null}.
+	 * @param alg    The JWS algorithm. Must not be {@code null}.
+	 */
+	public void configure(final JWSSigner signer, final JWSAlgorithm alg) {
+
+		configure(signer.getJCAContext(), getSigningProvider(alg));
+	}
+
+
+	/**
+	 * Sets the verification JCA provider for the specified JWS algorithm,
+	 * if any, in the JCA context of the specified JWS verifier.
+	 *
+	 * @param verifier The JWS verifier. Must not be {@code null}.
+	 * @param alg      The JWS algorithm. Must not be {@code null}.
+	 */
+	public void configure(final JWSVerifier verifier, final JWSAlgorithm alg) {
+
+		configure(verifier.getJCAContext(), getVerificationProvider(alg));
+	}
+
+
+	/**
+	 * Sets the encryption JCA provider for the specified JWE algorithm
+	 * and encryption method, if any, in the JCA context of the specified
+	 * JWE encrypter. The provider is set for the key encryption, the
+	 * content encryption and the MAC computation.
+	 *
+	 * @param encrypter The JWE encrypter. Must not be {@code null}.
+	 * @param alg       The JWE algorithm. Must not be {@code null}.
+	 * @param enc       The encryption method. Must not be {@code null}.
+	 */
+	public void configure(final JWEEncrypter encrypter, final JWEAlgorithm alg, final EncryptionMethod enc) {
+
+		configure(encrypter.getJCAContext(), getEncryptionProvider(alg, enc));
+	}
+
+
+	/**
+	 * Sets the decryption JCA provider for the specified JWE algorithm
+	 * and encryption method, if any, in the JCA context of the specified
+	 * JWE decrypter. The provider is set for the key decryption, the
+	 * content decryption and the MAC computation.
+	 *
+	 * @param decrypter The JWE decrypter. Must not be {@code null}.
+	 * @param alg       The JWE algorithm. Must not be {@code null}.
+	 * @param enc       The encryption method. Must not be {@code null}.
+	 */
+	public void configure(final JWEDecrypter decrypter, final JWEAlgorithm alg, final EncryptionMethod enc) {
+
+		configure(decrypter.getJCAContext(), getDecryptionProvider(alg, enc));
+	}
+
+
+	/**
+	 * Returns a JSON object representation of this profile, with the
+	 * providers referenced by name.
+	 *
+	 * @return The JSON object.
+	 */
+	public JSONObject toJSONObject() {
+
+		JSONObject o = new JSONObject();
+		o.put("sign", toJSONObject(signingProviders));
+		o.put("verify", toJSONObject(verificationProviders));
+		o.put("encrypt", toJWEJSONObject(encryptionProviders));
+		o.put("decrypt", toJWEJSONObject(decryptionProviders));
+		return o;
+	}
+
+
+	@Override
+	public String toString() {
+
+		return toJSONObject().toJSONString();
+	}
+
+
+	/**
+	 * Returns the JWE provider for the specified JWE algorithm and
+	 * encryption method.
+	 *
+	 * @param providers The providers map.
+	 * @param alg       The JWE algorithm.
+	 * @param enc       The encryption method.
+	 *
+	 * @return The JCA provider, {@code null} if not specified.
+	 */
+	private static Provider get(final Map<JWEAlgorithm,Map<EncryptionMethod,Provider>> providers,
+				    final JWEAlgorithm alg,
+				    final EncryptionMethod enc) {
+
+		Map<EncryptionMethod,Provider> encProviders = providers.get(alg);
+		return encProviders != null ? encProviders.get(enc) : null;
+	}
+
+
+	/**
+	 * Sets the specified provider, if any, in the specified JCA context.
+	 *
+	 * @param jcaContext The JCA context.
+	 * @param provider   The JCA provider, {@code null} if none.
+	 */
+	private static void configure(final JCAContext jcaContext, final Provider provider) {
+
+		if (provider != null) {
+			jcaContext.setProvider(provider);
+		}
+	}
+
+
+	/**
+	 * Sets the specified provider, if any, in the specified JWE JCA
+	 * context, for the key encryption, the content encryption and the MAC
+	 * computation.
+	 *
+	 * @param jcaContext The JWE JCA context.
+	 * @param provider   The JCA provider, {@code null} if none.
+	 */
+	private static void configure(final JWEJCAContext jcaContext, final Provider provider) {
+
+		if (provider != null) {
+			jcaContext.setKeyEncryptionProvider(provider);
+			jcaContext.setContentEncryptionProvider(provider);
+			jcaContext.setMACProvider(provider);
+		}
+	}
+
+
+	/**
+	 * Returns a JSON object representation of the specified JWS
+	 * providers.
+	 *
+	 * @param providers The providers map.
+	 *
+	 * @return The JSON object.
+	 */
+	private static JSONObject toJSONObject(final Map<JWSAlgorithm,Provider> providers) {
+
+		JSONObject o = new JSONObject();
+
+		for (Map.Entry<JWSAlgorithm,Provider> en: providers.entrySet()) {
+			o.put(en.getKey().getName(), en.getValue().getName());
+		}
+
+		return o;
+	}
+
+
+	/**
+	 * Returns a JSON object representation of the specified JWE
+	 * providers.
+	 *
+	 * @param providers The providers map.
+	 *
+	 * @return The JSON object.
+	 */
+	private static JSONObject toJWEJSONObject(final Map<JWEAlgorithm,Map<EncryptionMethod,Provider>> providers) {
+
+		JSONObject o = new JSONObject();
+
+		for (Map.Entry<JWEAlgorithm,Map<EncryptionMethod,Provider>> en: providers.entrySet()) {
+
+			JSONObject encs = new JSONObject();
+
+			for (Map.Entry<EncryptionMethod,Provider> encEntry: en.getValue().entrySet()) {
+				encs.put(encEntry.getKey().getName(), encEntry.getValue().getName());
+			}
+
+			o.put(en.getKey().getName(), encs);
+		}
+
+		return o;
+	}
+
+
+	/**
+	 * Resolves the JCA provider with the specified name.
+	 *
+	 * @param name      The provider name. Must not be {@code null}.
+	 * @param providers Additional providers that may not be installed.
+	 *
+	 * @return The provider, {@code null} if not found.
+	 */
+	private static Provider resolveProvider(final String name, final Provider ... providers) {
+
+		for (Provider p: providers) {
+			if (p != null && name.equals(p.getName())) {
+				return p;
+			}
+		}
+
+		return Security.getProvider(name);
+	}
+
+
+	/**
+	 * Parses the JWS providers under the specified member name, if
+	 * present.
+	 *
+	 * @param jsonObject The JSON object.
+	 * @param name       The member name.
+	 * @param result     The map to put the JWS providers into.
+	 * @param providers  Additional providers to resolve.
+	 *
+	 * @throws ParseException If parsing failed.
+	 */
+	private static void parseJWSProviders(final JSONObject jsonObject,
+					      final String name,
+					      final Map<JWSAlgorithm,Provider> result,
+					      final Provider ... providers)
+		throws ParseException {
+
+		if (! jsonObject.containsKey(name)) {
+			return;
+		}
+
+		JSONObject jws = JSONObjectUtils.getJSONObject(jsonObject, name);
+
+		for (String algName: jws.keySet()) {
+
+			Provider provider = resolveProvider(JSONObjectUtils.getString(jws, algName), providers);
+
+			if (provider != null) {
+				Builder.put(result, JWSAlgorithm.parse(algName), provider);
+			}
+		}
+	}
+
+
+	/**
+	 * Parses the JWE providers under the specified member name, if
+	 * present.
+	 *
+	 * @param jsonObject The JSON object.
+	 * @param name       The member name.
+	 * @param result     The map to put the JWE providers into.
+	 * @param providers  Additional providers to resolve.
+	 *
+	 * @throws ParseException If parsing failed.
+	 */
+	private static void parseJWEProviders(final JSONObject jsonObject,
+					      final String name,
+					      final Map<JWEAlgorithm,Map<EncryptionMethod,Provider>> result,
+					      final Provider ... providers)
+		throws ParseException {
+
+		if (! jsonObject.containsKey(name)) {
+			return;
+		}
+
+		JSONObject jwe = JSONObjectUtils.getJSONObject(jsonObject, name);
+
+		for (String algName: jwe.keySet()) {
+
+			JSONObject encs = JSONObjectUtils.getJSONObject(jwe, algName);
+
+			for (String encName: encs.keySet()) {
+
+				Provider provider = resolveProvider(JSONObjectUtils.getString(encs, encName), providers);
+
+				if (provider != null) {
+					Builder.put(result, JWEAlgorithm.parse(algName), EncryptionMethod.parse(encName), provider);
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Parses a JCA provider profile from the specified JSON object. The
+	 * providers are resolved by name, first from the specified additional
+	 * providers, then from the installed ones. Entries for providers that
+	 * cannot be resolved are omitted, so that a profile persisted on
+	 * another host remains usable.
+	 *
+	 * @param jsonObject The JSON object. Must not be {@code null}.
+	 * @param providers  Additional providers to resolve, which may not be
+	 *                   installed, for example the BouncyCastle provider.
+	 *
+	 * @return The JCA provider profile.
+	 *
+	 * @throws ParseException If parsing failed.
+	 */
+	public static JCAProviderProfile parse(final JSONObject jsonObject, final Provider ... providers)
+		throws ParseException {
+
+		Builder builder = new Builder();
+		parseJWSProviders(jsonObject, "sign", builder.signingProviders, providers);
+		parseJWSProviders(jsonObject, "verify", builder.verificationProviders, providers);
+		parseJWEProviders(jsonObject, "encrypt", builder.encryptionProviders, providers);
+		parseJWEProviders(jsonObject, "decrypt", builder.decryptionProviders, providers);
+		return builder.build();
+	}
+
+
+	/**
+	 * Parses a JCA provider profile from the specified JSON object
+	 * string.
+	 *
+	 * @param s         The JSON object string. Must not be {@code null}.
+	 * @param providers Additional providers to resolve, which may not be
+	 *                  installed, for example the BouncyCastle provider.
+	 *
+	 * @return The JCA provider profile.
+	 *
+	 * @throws ParseException If parsing failed.
+	 */
+	public static JCAProviderProfile parse(final String s, final Provider ... providers)
+		throws ParseException {
+
+		return parse(JSONObjectUtils.parse(s), providers);
+	}
+}
@@ -32,6 +32,10 @@ import com.nimbusds.jose.JWSAlgorithm;
 
 /**
  * Java Cryptography Architecture (JCA) support helper.
+ *
+ * <p>To select the fastest of the supporting providers for each algorithm
+ * see {@link com.nimbusds.jose.crypto.JCAProviderCalibration} and
+ * {@link JCAProviderProfile}.
  */
 public final class JCASupport {
 
@@ -27,12 +27,33 @@ import java.security.SecureRandom;
  * JSON Web Encryption (JWE) providers. Allows setting of more specific JCA
  * providers for key encryption, content encryption and MAC computation.
  *
+ * <p>Also holds the limits for decompression of JWE plain text compressed
+ * with {@link com.nimbusds.jose.CompressionAlgorithm#DEF DEFLATE}: a
+ * maximum decompressed length and a maximum compression ratio, by default
+ * {@link #DEFAULT_MAX_DECOMPRESSED_LENGTH 16 MiB} and
+ * {@link #DEFAULT_MAX_COMPRESSION_RATIO 200}. The limits are enforced while
+ * inflating, to guard against decompression bombs.
+ *
  * @author Vladimir Dzhuvinov
- * @version 2015-06-08
+ * @version 2026-10-18
  */
 public final class JWEJCAContext extends JCAContext {
 
 
+	/**
+	 * The default maximum decompressed plain text length (16 MiB).
+	 */
+	public static final int DEFAULT_MAX_DECOMPRESSED_LENGTH = 16 * 1024 * 1024;
+
+
+	/**
+	 * The default maximum compression ratio (200). DEFLATE compressed
+	 * JSON rarely exceeds a ratio of 20, while a DEFLATE bomb approaches
+	 * the format maximum of about 1032.
+	 */
+	public static final int DEFAULT_MAX_COMPRESSION_RATIO = 200;
+
+
 	/**
 	 * The key encryption provider.
 	 */
@@ -51,6 +72,18 @@ public final class JWEJCAContext extends JCAContext {
 	private Provider macProvider;
 
 
+	/**
+	 * The maximum decompressed plain text length, in bytes.
+	 */
+	private int maxDecompressedLength = DEFAULT_MAX_DECOMPRESSED_LENGTH;
+
+
+	/**
+	 * The maximum compression ratio, zero for no limit.
+	 */
+	private int maxCompressionRatio = DEFAULT_MAX_COMPRESSION_RATIO;
+
+
 	/**
 	 * Creates a new default JCA context for JWE.
 	 */
@@ -179,4 +212,60 @@ public final class JWEJCAContext extends JCAContext {
 
 		return macProvider != null ? macProvider : getProvider();
 	}
+
+
+	/**
+	 * Sets the maximum length of decompressed JWE plain text.
+	 *
+	 * @param maxDecompressedLength The maximum decompressed length, in
+	 *                              bytes. Must be positive.
+	 */
+	public void setMaxDecompressedLength(final int maxDecompressedLength) {
+
+		if (maxDecompressedLength < 1) {
+			throw new IllegalArgumentException("The maximum decompressed length must be positive");
+		}
+
+		this.maxDecompressedLength = maxDecompressedLength;
+	}
+
+
+	/**
+	 * Gets the maximum length of decompressed JWE plain text.
+	 *
+	 * @return The maximum decompressed length, in bytes.
+	 */
+	public int getMaxDecompressedLength() {
+
+		return maxDecompressedLength;
+	}
+
+
+	/**
+	 * Sets the maximum compression ratio of JWE plain text, i.e. the
+	 * maximum decompressed length as a multiple of the compressed length.
+	 *
+	 * @param maxCompressionRatio The maximum compression ratio, zero for
+	 *                            no limit. Must not be negative.
+	 */
+	public void setMaxCompressionRatio(final int maxCompressionRatio) {
+
+		if (maxCompressionRatio < 0) {
+			throw new IllegalArgumentException("The maximum compression ratio must not be negative");
+		}
+
+		this.maxCompressionRatio = maxCompressionRatio;
+	}
+
+
+	/**
+	 * Gets the maximum compression ratio of JWE plain text, i.e. the
+	 * maximum decompressed length as a multiple of the compressed length.
+	 *
+	 * @return The maximum compression ratio, zero for no limit.
+	 */
+	public int getMaxCompressionRatio() {
+
+		return maxCompressionRatio;
+	}
 }
@@ -0,0 +1,374 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.nimbusds.jose.jca;
+
+
+import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
+import java.security.SecureRandom;
+import java.security.SecureRandomSpi;
+
+import net.jcip.annotations.ThreadSafe;
+
+
+/**
+ * Striped secure random generator, for use with
+ * {@link JCAContext#setSecureRandom} when many threads encrypt in parallel.
+ *
+ * <p>A single {@link SecureRandom} serialises its callers, and on Linux
+ * the default {@code NativePRNG} additionally locks a source shared by all
+ * instances. This generator instead spreads the calls over a fixed number of
+ * independent deterministic random bit generators (DRBG), selected by the
+ * current thread. Each stripe is seeded from the platform source when
+ * created. Threads that map to different stripes don't contend.
+ *
+ * <p>The stripes use the {@code DRBG} algorithm (Java 9+) if available, else
+ * {@code SHA1PRNG}, unless an algorithm is specified.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * StripedSecureRandom randomGen = new StripedSecureRandom();
+ * encrypter.getJCAContext().setSecureRandom(randomGen);
+ * </pre>
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+@ThreadSafe
+public class StripedSecureRandom extends SecureRandom {
+
+
+	private static final long serialVersionUID = 1L;
+
+
+	/**
+	 * The default stripe algorithms, in order of preference.
+	 */
+	private static final String[] DEFAULT_ALGORITHMS = { "DRBG", "SHA1PRNG" };
+
+
+	/**
+	 * The seed length in bytes for the stripes.
+	 */
+	private static final int SEED_LENGTH = 32;
+
+
+	/**
+	 * Service provider that dispatches to the stripe of the current
+	 * thread.
+	 */
+	private static final class StripedSpi extends SecureRandomSpi {
+
+
+		private static final long serialVersionUID = 1L;
+
+
+		/**
+		 * The stripes, the array length is a power of two.
+		 */
+		private final SecureRandom[] stripes;
+
+
+		/**
+		 * Creates a new striped service provider.
+		 *
+		 * @param stripes The stripes. The array length must be a
+		 *                power of two.
+		 */
+		private StripedSpi(final SecureRandom[] stripes) {
+			this.stripes = stripes;
+		}
+
+
+		/**
+		 * Returns the stripe for the current thread.
+		 *
+		 * @return The stripe.
+		 */
+		private SecureRandom stripe() {
+			return stripes[(int)Thread.currentThread().getId() & (stripes.length - 1)];
+		}
+
+
+		@Override
+		protected void engineSetSeed(final byte[] seed) {
+			for (SecureRandom stripe: stripes) {
+				stripe.setSeed(seed);
+			}
+		}
+
+
+		@Override
+		protected void engineNextBytes(final byte[] bytes) {
+			stripe().nextBytes(bytes);
+		}
+
+
+		@Override
+		protected byte[] engineGenerateSeed(final int numBytes) {
+			return stripe().generateSeed(numBytes);
+		}
+	}
+
+
+	/**
+	 * The striped service provider.
+	 */
+	private final StripedSpi spi;
+
+
+	/**
+	 * The stripe algorithm.
+	 */
+	private final String algorithm;
+
+
+	/**
+	 * Creates a new striped secure random generator with the default
+	 * stripe algorithm and twice as many stripes as there are available
+	 * processors, rounded up to a power of two.
+	 */
+	public StripedSecureRandom() {
+
+		this(createStripes(defaultStripeCount(), null, null));
+	}
+
+
+	/**
+	 * Creates a new striped secure random generator.
+	 *
+	 * @param stripeCount The number of stripes, rounded up to a power of
+	 *                    two. Must be positive.
+	 * @param algorithm   The {@link SecureRandom} algorithm for the
+	 *                    stripes, {@code null} for the default.
+	 * @param provider    The JCA provider for the stripes, {@code null}
+	 *                    to use the default one.
+	 *
+	 * @throws NoSuchAlgorithmException If the algorithm is not supported.
+	 */
+	public StripedSecureRandom(final int stripeCount, final String algorithm, final Provider provider)
+		throws NoSuchAlgorithmException {
+
+		this(createStripesChecked(stripeCount, algorithm, provider));
+	}
+
+
+	/**
+	 * Creates a new striped secure random generator.
+	 *
+	 * @param stripes The stripes. The array length must be a power of
+	 *                two.
+	 */
+	private StripedSecureRandom(final SecureRandom[] stripes) {
+
+		this(new StripedSpi(stripes));
+	}
+
+
+	/**
+	 * Creates a new striped secure random generator.
+	 *
+	 * @param spi The striped service provider.
+	 */
+	private StripedSecureRandom(final StripedSpi spi) {
+
+		super(spi, spi.stripes[0].getProvider());
+		this.spi = spi;
+		this.algorithm = spi.stripes[0].getAlgorithm();
+	}
+
+
+	/**
+	 * Returns the default number of stripes.
+	 *
+	 * @return The default number of stripes.
+	 */
+	private static int defaultStripeCount() {
+
+		return 2 * Runtime.getRuntime().availableProcessors();
+	}
+
+
+	/**
+	 * Creates the stripes, falling back to the default platform
+	 * generator if none of the default algorithms is supported.
+	 *
+	 * @param stripeCount The number of stripes. Must be positive.
+	 * @param algorithm   The algorithm, {@code null} for the default.
+	 * @param provider    The JCA provider, {@code null} for the default.
+	 *
+	 * @return The stripes.
+	 */
+	private static SecureRandom[] createStripes(final int stripeCount, final String algorithm, final Provider provider) {
+
+		try {
+			return createStripesChecked(stripeCount, algorithm, provider);
+		} catch (NoSuchAlgorithmException e) {
+			SecureRandom[] stripes = new SecureRandom[roundUpToPowerOfTwo(stripeCount)];
+			for (int i=0; i < stripes.length; i++) {
+				stripes[i] = new SecureRandom();
+			}
+			return stripes;
+		}
+	}
+
+
+	/**
+	 * Creates the stripes, each seeded from the platform source.
+	 *
+	 * @param stripeCount The number of stripes. Must be positive.
+	 * @param algorithm   The algorithm, {@code null} for the default.
+	 * @param provider    The JCA provider, {@code null} for the default.
+	 *
+	 * @return The stripes.
+	 *
+	 * @throws NoSuchAlgorithmException If the algorithm is not supported.
+	 */
+	private static SecureRandom[] createStripesChecked(final int stripeCount, final String algorithm, final Provider provider)
+		throws NoSuchAlgorithmException {
+
+		if (stripeCount < 1) {
+			throw new IllegalArgumentException("The stripe count must be positive");
+		}
+
+		final String alg = algorithm != null ? algorithm : resolveDefaultAlgorithm(provider);
+
+		final SecureRandom seedSource = new SecureRandom();
+
+		SecureRandom[] stripes = new SecureRandom[roundUpToPowerOfTwo(stripeCount)];
+
+		for (int i=0; i < stripes.length; i++) {
+
+			SecureRandom stripe = provider != null ? SecureRandom.getInstance(alg, provider) : SecureRandom.getInstance(alg);
+
+			// Seed from the platform source before first use: SHA1PRNG
+			// then skips self-seeding, DRBG adds it to its own entropy
+			byte[] seed = new byte[SEED_LENGTH];
+			seedSource.nextBytes(seed);
+			stripe.setSeed(seed);
+
+			stripes[i] = stripe;
+		}
+
+		return stripes;
+	}
+
+
+	/**
+	 * Resolves the first supported default algorithm.
+	 *
+	 * @param provider The JCA provider, {@code null} for the default.
+	 *
+	 * @return The algorithm.
+	 *
+	 * @throws NoSuchAlgorithmException If no default algorithm is
+	 *                                  supported.
+	 */
+	private static String resolveDefaultAlgorithm(final Provider provider)
+		throws NoSuchAlgorithmException {
+
+		for (String alg: DEFAULT_ALGORITHMS) {
+			try {
+				if (provider != null) {
+					SecureRandom.getInstance(alg, provider);
+				} else {
+					SecureRandom.getInstance(alg);
+				}
+				return alg;
+			} catch (NoSuchAlgorithmException e) {
+				// try next
+			}
+		}
+
+		throw new NoSuchAlgorithmException("None of the default secure random algorithms is supported: DRBG, SHA1PRNG");
+	}
+
+
+	/**
+	 * Rounds the specified positive integer up to a power of two, capped
+	 * at 2^30.
+	 *
+	 * @param n The integer. Must be positive.
+	 *
+	 * @return The power of two.
+	 */
+	private static int roundUpToPowerOfTwo(final int n) {
+
+		int p = 1;
+		while (p < n && p < (1 << 30)) {
+			p <<= 1;
+		}
+		return p;
+	}
+
+
+	/**
+	 * Returns the number of stripes.
+	 *
+	 * @return The number of stripes, a power of two.
+	 */
+	public int getStripeCount() {
+
+		return spi.stripes.length;
+	}
+
+
+	/**
+	 * Returns the algorithm of the stripes.
+	 *
+	 * @return The stripe algorithm.
+	 */
+	@Override
+	public String getAlgorithm() {
+
+		return algorithm;
+	}
+
+
+	/**
+	 * Generates random bytes from the stripe of the current thread. Not
+	 * synchronised, unlike {@link SecureRandom#nextBytes} in Java 7 and
+	 * 8.
+	 *
+	 * @param bytes The array to fill with random bytes.
+	 */
+	@Override
+	public void nextBytes(final byte[] bytes) {
+
+		spi.engineNextBytes(bytes);
+	}
+
+
+	@Override
+	public byte[] generateSeed(final int numBytes) {
+
+		return spi.engineGenerateSeed(numBytes);
+	}
+
+
+	/**
+	 * Supplements the seed of every stripe.
+	 *
+	 * @param seed The seed.
+	 */
+	@Override
+	public void setSeed(final byte[] seed) {
+
+		spi.engineSetSeed(seed);
+	}
+}
@@ -70,7 +70,7 @@ import net.minidev.json.JSONObject;
  *
  * @author Vladimir Dzhuvinov
  * @author Justin Richer
- * @version 2017-06-20
+ * @version 2026-10-18
  */
 public abstract class JWK implements JSONAware, Serializable {
 
@@ -472,7 +472,7 @@ public abstract class JWK implements JSONAware, Serializable {
 	@Override
 	public String toJSONString() {
 
-		return toJSONObject().toString();
+		return JSONObjectUtils.toJSONString(toJSONObject());
 	}
 
 
@@ -482,7 +482,7 @@ public abstract class JWK implements JSONAware, Serializable {
 	@Override
 	public String toString() {
 
-		return toJSONObject().toString();
+		return JSONObjectUtils.toJSONString(toJSONObject());
 	}
 
 
@@ -66,7 +66,7 @@ import net.minidev.json.JSONObject;
  * </pre>
  *
  * @author Vladimir Dzhuvinov
- * @version 2016-12-06
+ * @version 2026-10-18
  */
 public class JWKSet {
 
@@ -284,7 +284,7 @@ public class JWKSet {
 	@Override
 	public String toString() {
 
-		return toJSONObject().toString();
+		return JSONObjectUtils.toJSONString(toJSONObject());
 	}
 
 
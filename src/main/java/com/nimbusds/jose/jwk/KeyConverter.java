@@ -35,10 +35,10 @@ public class KeyConverter {
 
 	/**
 	 * Converts the specified list of JSON Web Keys (JWK) their standard
-	 * Java class representation. Asymmetric {@link RSAKey RSA} and
-	 * {@link ECKey EC key} pairs are converted to
-	 * {@link java.security.PublicKey} and {@link java.security.PrivateKey}
-	 * (if specified) objects. {@link OctetSequenceKey secret JWKs} are
+	 * Java class representation. Asymmetric {@link RSAKey RSA},
+	 * {@link ECKey EC key} and X25519 {@link OctetKeyPair OKP} pairs are
+	 * converted to {@link java.security.PublicKey} and
+	 * {@link java.security.PrivateKey} (if specified) objects. {@link OctetSequenceKey secret JWKs} are
 	 * converted to {@link javax.crypto.SecretKey} objects. Key conversion
 	 * exceptions are silently ignored.
 	 *
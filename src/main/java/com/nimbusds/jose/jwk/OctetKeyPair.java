@@ -19,10 +19,10 @@ package com.nimbusds.jose.jwk;
 
 
 import java.net.URI;
-import java.security.KeyPair;
-import java.security.KeyStore;
-import java.security.PrivateKey;
-import java.security.PublicKey;
+import java.security.*;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
 import java.text.ParseException;
 import java.util.*;
 
@@ -83,8 +83,13 @@ import net.minidev.json.JSONObject;
  * 	.build();
  * </pre>
  *
+ * <p>{@link Curve#X25519 X25519} keys can be exported to and imported from
+ * their standard {@code java.security} representation, provided the
+ * underlying Java Cryptography Architecture (JCA) provider supports the
+ * X25519 function (Java 11+ or BouncyCastle 1.60+).
+ *
  * @author Vladimir Dzhuvinov
- * @version 2017-08-25
+ * @version 2026-10-18
  */
 @Immutable
 public class OctetKeyPair extends JWK implements AssymetricJWK, CurveBasedJWK {
@@ -101,6 +106,30 @@ public class OctetKeyPair extends JWK implements AssymetricJWK, CurveBasedJWK {
 	);
 	
 	
+	/**
+	 * The DER prefix of an X.509 encoded X25519 public key (RFC 8410),
+	 * to be followed by the 32 byte public key.
+	 */
+	private static final byte[] X25519_X509_PREFIX = {
+		0x30, 0x2a, 0x30, 0x05, 0x06, 0x03, 0x2b, 0x65, 0x6e, 0x03, 0x21, 0x00
+	};
+	
+	
+	/**
+	 * The DER prefix of a PKCS#8 encoded X25519 private key (RFC 8410),
+	 * to be followed by the 32 byte private key.
+	 */
+	private static final byte[] X25519_PKCS8_PREFIX = {
+		0x30, 0x2e, 0x02, 0x01, 0x00, 0x30, 0x05, 0x06, 0x03, 0x2b, 0x65, 0x6e, 0x04, 0x22, 0x04, 0x20
+	};
+	
+	
+	/**
+	 * The byte length of X25519 public and private keys.
+	 */
+	private static final int X25519_KEY_BYTE_LENGTH = 32;
+	
+	
 	/**
 	 * Builder for constructing Octet Key Pair JWKs.
 	 *
@@ -214,6 +243,24 @@ public class OctetKeyPair extends JWK implements AssymetricJWK, CurveBasedJWK {
 		}
 		
 		
+		/**
+		 * Creates a new Octet Key Pair JWK builder.
+		 *
+		 * @param crv The cryptographic curve. Must be
+		 *            {@link Curve#X25519} and not {@code null}.
+		 * @param pub The public key to represent, in X.509 encoding.
+		 *            Must not be {@code null}.
+		 *
+		 * @throws IllegalArgumentException If the curve is not supported
+		 *                                  or the public key encoding
+		 *                                  couldn't be parsed.
+		 */
+		public Builder(final Curve crv, final PublicKey pub) {
+			
+			this(crv, encodeX25519PublicKey(crv, pub));
+		}
+		
+		
 		/**
 		 * Creates a new Octet Key Pair JWK builder.
 		 *
@@ -467,6 +514,64 @@ public class OctetKeyPair extends JWK implements AssymetricJWK, CurveBasedJWK {
 	}
 	
 	
+	/**
+	 * Extracts the raw public key from the specified X.509 encoded
+	 * X25519 public key.
+	 *
+	 * @param crv The cryptographic curve. Must be {@link Curve#X25519}.
+	 * @param pub The public key. Must not be {@code null}.
+	 *
+	 * @return The Base64URL-encoded raw public key.
+	 *
+	 * @throws IllegalArgumentException If the curve is not supported or
+	 *                                  the public key encoding couldn't be
+	 *                                  parsed.
+	 */
+	private static Base64URL encodeX25519PublicKey(final Curve crv, final PublicKey pub) {
+		
+		if (! Curve.X25519.equals(crv)) {
+			throw new IllegalArgumentException("Import from java.security.PublicKey not supported for curve " + crv);
+		}
+		
+		byte[] encoded = pub.getEncoded();
+		
+		if (! "X.509".equals(pub.getFormat()) ||
+		    encoded == null ||
+		    encoded.length != X25519_X509_PREFIX.length + X25519_KEY_BYTE_LENGTH ||
+		    ! startsWith(encoded, X25519_X509_PREFIX)) {
+			throw new IllegalArgumentException("Unexpected X25519 public key encoding");
+		}
+		
+		return Base64URL.encode(ByteUtils.subArray(encoded, X25519_X509_PREFIX.length, X25519_KEY_BYTE_LENGTH));
+	}
+	
+	
+	/**
+	 * Checks if the specified byte array starts with the specified
+	 * prefix.
+	 *
+	 * @param bytes  The byte array. Must not be {@code null}.
+	 * @param prefix The prefix. Must not be {@code null}.
+	 *
+	 * @return {@code true} if the byte array starts with the prefix, else
+	 *         {@code false}.
+	 */
+	private static boolean startsWith(final byte[] bytes, final byte[] prefix) {
+		
+		if (bytes.length < prefix.length) {
+			return false;
+		}
+		
+		for (int i=0; i < prefix.length; i++) {
+			if (bytes[i] != prefix[i]) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	
 	/**
 	 * The curve name.
 	 */
@@ -620,27 +725,187 @@ public class OctetKeyPair extends JWK implements AssymetricJWK, CurveBasedJWK {
 	}
 	
 	
+	/**
+	 * Returns a standard {@code java.security.PublicKey} representation
+	 * of this Octet Key Pair JWK. Supported for {@link Curve#X25519}
+	 * only. Uses the default JCA provider.
+	 *
+	 * @return The public key.
+	 *
+	 * @throws JOSEException If the curve or X25519 is not supported by
+	 *                       the underlying Java Cryptography (JCA)
+	 *                       provider.
+	 */
 	@Override
 	public PublicKey toPublicKey()
 		throws JOSEException {
 		
-		throw new JOSEException("Export to java.security.PublicKey not supported");
+		return toPublicKey(null);
+	}
+	
+	
+	/**
+	 * Returns a standard {@code java.security.PublicKey} representation
+	 * of this Octet Key Pair JWK. Supported for {@link Curve#X25519}
+	 * only.
+	 *
+	 * @param provider The specific JCA provider to use, {@code null}
+	 *                 implies the default one.
+	 *
+	 * @return The public key.
+	 *
+	 * @throws JOSEException If the curve or X25519 is not supported by
+	 *                       the underlying Java Cryptography (JCA)
+	 *                       provider.
+	 */
+	public PublicKey toPublicKey(final Provider provider)
+		throws JOSEException {
+		
+		if (! Curve.X25519.equals(crv)) {
+			throw new JOSEException("Export to java.security.PublicKey not supported for curve " + crv);
+		}
+		
+		byte[] rawKey = x.decode();
+		
+		if (rawKey.length != X25519_KEY_BYTE_LENGTH) {
+			throw new JOSEException("The X25519 'x' parameter must be " + X25519_KEY_BYTE_LENGTH + " bytes long");
+		}
+		
+		X509EncodedKeySpec publicKeySpec = new X509EncodedKeySpec(ByteUtils.concat(X25519_X509_PREFIX, rawKey));
+		
+		try {
+			return getX25519KeyFactory(provider).generatePublic(publicKeySpec);
+		} catch (InvalidKeySpecException e) {
+			throw new JOSEException(e.getMessage(), e);
+		}
 	}
 	
 	
+	/**
+	 * Returns a standard {@code java.security.PrivateKey} representation
+	 * of this Octet Key Pair JWK. Supported for {@link Curve#X25519}
+	 * only. Uses the default JCA provider.
+	 *
+	 * @return The private key, {@code null} if not specified.
+	 *
+	 * @throws JOSEException If the curve or X25519 is not supported by
+	 *                       the underlying Java Cryptography (JCA)
+	 *                       provider.
+	 */
 	@Override
 	public PrivateKey toPrivateKey()
 		throws JOSEException {
 		
-		throw new JOSEException("Export to java.security.PrivateKey not supported");
+		return toPrivateKey(null);
+	}
+	
+	
+	/**
+	 * Returns a standard {@code java.security.PrivateKey} representation
+	 * of this Octet Key Pair JWK. Supported for {@link Curve#X25519}
+	 * only.
+	 *
+	 * @param provider The specific JCA provider to use, {@code null}
+	 *                 implies the default one.
+	 *
+	 * @return The private key, {@code null} if not specified.
+	 *
+	 * @throws JOSEException If the curve or X25519 is not supported by
+	 *                       the underlying Java Cryptography (JCA)
+	 *                       provider.
+	 */
+	public PrivateKey toPrivateKey(final Provider provider)
+		throws JOSEException {
+		
+		if (! Curve.X25519.equals(crv)) {
+			throw new JOSEException("Export to java.security.PrivateKey not supported for curve " + crv);
+		}
+		
+		if (d == null) {
+			// No private key
+			return null;
+		}
+		
+		byte[] rawKey = d.decode();
+		
+		if (rawKey.length != X25519_KEY_BYTE_LENGTH) {
+			throw new JOSEException("The X25519 'd' parameter must be " + X25519_KEY_BYTE_LENGTH + " bytes long");
+		}
+		
+		PKCS8EncodedKeySpec privateKeySpec = new PKCS8EncodedKeySpec(ByteUtils.concat(X25519_PKCS8_PREFIX, rawKey));
+		
+		try {
+			return getX25519KeyFactory(provider).generatePrivate(privateKeySpec);
+		} catch (InvalidKeySpecException e) {
+			throw new JOSEException(e.getMessage(), e);
+		}
 	}
 	
 	
+	/**
+	 * Returns a standard {@code java.security.KeyPair} representation of
+	 * this Octet Key Pair JWK. Supported for {@link Curve#X25519} only.
+	 * Uses the default JCA provider.
+	 *
+	 * @return The key pair. The private key will be {@code null} if not
+	 *         specified.
+	 *
+	 * @throws JOSEException If the curve or X25519 is not supported by
+	 *                       the underlying Java Cryptography (JCA)
+	 *                       provider.
+	 */
 	@Override
 	public KeyPair toKeyPair()
 		throws JOSEException {
 		
-		throw new JOSEException("Export to java.security.KeyPair not supported");
+		return toKeyPair(null);
+	}
+	
+	
+	/**
+	 * Returns a standard {@code java.security.KeyPair} representation of
+	 * this Octet Key Pair JWK. Supported for {@link Curve#X25519} only.
+	 *
+	 * @param provider The specific JCA provider to use, {@code null}
+	 *                 implies the default one.
+	 *
+	 * @return The key pair. The private key will be {@code null} if not
+	 *         specified.
+	 *
+	 * @throws JOSEException If the curve or X25519 is not supported by
+	 *                       the underlying Java Cryptography (JCA)
+	 *                       provider.
+	 */
+	public KeyPair toKeyPair(final Provider provider)
+		throws JOSEException {
+		
+		return new KeyPair(toPublicKey(provider), toPrivateKey(provider));
+	}
+	
+	
+	/**
+	 * Returns an X25519 key factory.
+	 *
+	 * @param provider The specific JCA provider to use, {@code null}
+	 *                 implies the default one.
+	 *
+	 * @return The key factory.
+	 *
+	 * @throws JOSEException If X25519 is not supported by the underlying
+	 *                       Java Cryptography (JCA) provider.
+	 */
+	private static KeyFactory getX25519KeyFactory(final Provider provider)
+		throws JOSEException {
+		
+		try {
+			if (provider == null) {
+				return KeyFactory.getInstance("X25519");
+			} else {
+				return KeyFactory.getInstance("X25519", provider);
+			}
+		} catch (NoSuchAlgorithmException e) {
+			throw new JOSEException("X25519 is not supported by the JCA provider: " + e.getMessage(), e);
+		}
 	}
 	
 	
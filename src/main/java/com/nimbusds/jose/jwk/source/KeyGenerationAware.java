@@ -0,0 +1,38 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.nimbusds.jose.jwk.source;
+
+
+/**
+ * Interface for JSON Web Key (JWK) sources that can tell when their keys
+ * change. Lets caches of results that depend on the keys, such as verified
+ * JWTs, detect key rotation and revocation.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+public interface KeyGenerationAware {
+
+
+	/**
+	 * Returns the current key generation. The generation is incremented
+	 * each time the keys of the source change.
+	 *
+	 * @return The key generation.
+	 */
+	long getKeyGeneration();
+}
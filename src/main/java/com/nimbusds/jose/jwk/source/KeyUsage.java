@@ -0,0 +1,140 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.nimbusds.jose.jwk.source;
+
+
+import java.util.Date;
+
+import net.jcip.annotations.Immutable;
+
+
+/**
+ * Snapshot of the usage statistics of a JSON Web Key (JWK), as recorded by
+ * a {@link KeyUsageTrackingJWKSource}.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+@Immutable
+public final class KeyUsage {
+
+
+	/**
+	 * The key ID.
+	 */
+	private final String keyID;
+
+
+	/**
+	 * The number of lookups.
+	 */
+	private final long lookupCount;
+
+
+	/**
+	 * The number of successful verifications.
+	 */
+	private final long verificationCount;
+
+
+	/**
+	 * The last use time, in milliseconds since the epoch, zero if never.
+	 */
+	private final long lastUsed;
+
+
+	/**
+	 * Creates a new key usage snapshot.
+	 *
+	 * @param keyID             The key ID. Must not be {@code null}.
+	 * @param lookupCount       The number of times the key was requested
+	 *                          by its key ID and returned by the JWK
+	 *                          source.
+	 * @param verificationCount The number of successful verifications
+	 *                          with the key.
+	 * @param lastUsed          The time the key was last verified with,
+	 *                          in milliseconds since the epoch, zero if
+	 *                          never.
+	 */
+	public KeyUsage(final String keyID,
+			final long lookupCount,
+			final long verificationCount,
+			final long lastUsed) {
+
+		if (keyID == null) {
+			throw new IllegalArgumentException("The key ID must not be null");
+		}
+		this.keyID = keyID;
+		this.lookupCount = lookupCount;
+		this.verificationCount = verificationCount;
+		this.lastUsed = lastUsed;
+	}
+
+
+	/**
+	 * Returns the key ID.
+	 *
+	 * @return The key ID.
+	 */
+	public String getKeyID() {
+
+		return keyID;
+	}
+
+
+	/**
+	 * Returns the number of times the key was returned by the JWK source.
+	 *
+	 * @return The lookup count.
+	 */
+	public long getLookupCount() {
+
+		return lookupCount;
+	}
+
+
+	/**
+	 * Returns the number of successful verifications with the key.
+	 *
+	 * @return The verification count.
+	 */
+	public long getVerificationCount() {
+
+		return verificationCount;
+	}
+
+
+	/**
+	 * Returns the time the key was last verified with.
+	 *
+	 * @return The last use time, {@code null} if never.
+	 */
+	public Date getLastUsed() {
+
+		return lastUsed > 0 ? new Date(lastUsed) : null;
+	}
+
+
+	@Override
+	public String toString() {
+
+		return "kid=" + keyID +
+			" lookups=" + lookupCount +
+			" verifications=" + verificationCount +
+			" lastUsed=" + getLastUsed();
+	}
+}
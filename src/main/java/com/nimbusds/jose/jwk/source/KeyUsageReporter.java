@@ -0,0 +1,41 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.nimbusds.jose.jwk.source;
+
+
+import java.util.Map;
+
+
+/**
+ * Receives periodic key usage reports from a
+ * {@link KeyUsageTrackingJWKSource}.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+public interface KeyUsageReporter {
+
+
+	/**
+	 * Reports a snapshot of the key usage statistics. Implementations
+	 * should return quickly and must not throw exceptions.
+	 *
+	 * @param keyUsage The key usage statistics, keyed by key ID. Not
+	 *                 {@code null}.
+	 */
+	void report(final Map<String,KeyUsage> keyUsage);
+}
@@ -0,0 +1,413 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.nimbusds.jose.jwk.source;
+
+
+import java.security.Key;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.KeyConverter;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.proc.VerifiedKeyAware;
+import net.jcip.annotations.ThreadSafe;
+
+
+/**
+ * JSON Web Key (JWK) source decorator that records per key ID usage
+ * statistics, to find out which keys are in use and when a key that is
+ * about to be rotated out was last used. Can wrap any JWK source, such as
+ * {@link RemoteJWKSet} or {@link ImmutableJWKSet}.
+ *
+ * <p>The following statistics are recorded for each key ID:
+ *
+ * <ul>
+ *     <li>The number of lookups, i.e. the number of times the key was
+ *         requested by its key ID and returned by the wrapped source.
+ *     <li>The number of successful JWS verifications with the key. These
+ *         are reported by a {@link com.nimbusds.jose.proc.JWSVerificationKeySelector}
+ *         through the {@link VerifiedKeyAware} interface and are attributed
+ *         to the key ID of the JWS header. For JWS objects without a key ID
+ *         the verification is attributed to the key ID of the matching JWK
+ *         returned by the most recent lookup without a key ID.
+ *     <li>The time of the last verification.
+ * </ul>
+ *
+ * <p>Keys without a key ID are not tracked. The counters are striped to
+ * remain uncontended under high verification rates.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * KeyUsageTrackingJWKSource&lt;SecurityContext&gt; keySource =
+ *         new KeyUsageTrackingJWKSource&lt;&gt;(new RemoteJWKSet&lt;&gt;(jwkSetURL));
+ *
+ * jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector&lt;&gt;(JWSAlgorithm.RS256, keySource));
+ *
+ * keySource.scheduleReporting(scheduler, 1, TimeUnit.MINUTES, reporter);
+ * </pre>
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+@ThreadSafe
+public class KeyUsageTrackingJWKSource<C extends SecurityContext> implements JWKSource<C>, VerifiedKeyAware<C> {
+
+
+	/**
+	 * The usage counters for a key.
+	 */
+	private static final class Counters {
+
+
+		/**
+		 * The lookup counter.
+		 */
+		private final StripedCounter lookups = new StripedCounter();
+
+
+		/**
+		 * The verification counter.
+		 */
+		private final StripedCounter verifications = new StripedCounter();
+
+
+		/**
+		 * The last verification time, in milliseconds since the
+		 * epoch, zero if never.
+		 */
+		private volatile long lastUsed;
+
+
+		/**
+		 * Records the current time as the last verification time. The
+		 * field is written at most once per millisecond.
+		 */
+		private void touch() {
+
+			final long now = System.currentTimeMillis();
+
+			if (now > lastUsed) {
+				lastUsed = now;
+			}
+		}
+	}
+
+
+	/**
+	 * The JWKs returned for the most recent lookup without a key ID.
+	 */
+	private static final class UnnamedLookup {
+
+
+		/**
+		 * The returned JWKs.
+		 */
+		private final List<JWK> jwks;
+
+
+		/**
+		 * The key IDs of the returned JWKs, keyed by Java key,
+		 * {@code null} until the first verification.
+		 */
+		private volatile Map<Key,String> keyIDs;
+
+
+		/**
+		 * Creates a new lookup record.
+		 *
+		 * @param jwks The returned JWKs.
+		 */
+		private UnnamedLookup(final List<JWK> jwks) {
+
+			this.jwks = jwks;
+		}
+
+
+		/**
+		 * Returns {@code true} if the specified JWKs are the same
+		 * instances as the recorded ones.
+		 *
+		 * @param other The JWKs.
+		 *
+		 * @return {@code true} if the same, else {@code false}.
+		 */
+		private boolean isSame(final List<JWK> other) {
+
+			if (jwks.size() != other.size()) {
+				return false;
+			}
+
+			for (int i=0; i < jwks.size(); i++) {
+				if (jwks.get(i) != other.get(i)) {
+					return false;
+				}
+			}
+
+			return true;
+		}
+
+
+		/**
+		 * Returns the key ID of the JWK the specified Java key was
+		 * converted from. The JWKs are converted on the first call
+		 * only.
+		 *
+		 * @param key The Java key.
+		 *
+		 * @return The key ID, {@code null} if not found.
+		 */
+		private String getKeyID(final Key key) {
+
+			Map<Key,String> map = keyIDs;
+
+			if (map == null) {
+				map = new HashMap<>();
+				for (JWK jwk: jwks) {
+					if (jwk.getKeyID() == null) {
+						continue;
+					}
+					for (Key k: KeyConverter.toJavaKeys(Collections.singletonList(jwk))) {
+						map.put(k, jwk.getKeyID());
+					}
+				}
+				keyIDs = map;
+			}
+
+			return map.get(key);
+		}
+	}
+
+
+	/**
+	 * The wrapped JWK source.
+	 */
+	private final JWKSource<C> jwkSource;
+
+
+	/**
+	 * The usage counters, keyed by key ID.
+	 */
+	private final ConcurrentMap<String,Counters> counters = new ConcurrentHashMap<>();
+
+
+	/**
+	 * The most recent lookup without a key ID, to attribute the
+	 * verifications of JWS objects without a key ID, {@code null} if
+	 * none.
+	 */
+	private volatile UnnamedLookup lastUnnamedLookup;
+
+
+	/**
+	 * Creates a new key usage tracking JWK source.
+	 *
+	 * @param jwkSource The JWK source to wrap. Must not be {@code null}.
+	 */
+	public KeyUsageTrackingJWKSource(final JWKSource<C> jwkSource) {
+
+		if (jwkSource == null) {
+			throw new IllegalArgumentException("The JWK source must not be null");
+		}
+		this.jwkSource = jwkSource;
+	}
+
+
+	/**
+	 * Returns the wrapped JWK source.
+	 *
+	 * @return The wrapped JWK source.
+	 */
+	public JWKSource<C> getJWKSource() {
+
+		return jwkSource;
+	}
+
+
+	/**
+	 * Returns the usage counters for the specified key ID, creating them
+	 * if necessary.
+	 *
+	 * @param keyID The key ID. Must not be {@code null}.
+	 *
+	 * @return The usage counters.
+	 */
+	private Counters getCounters(final String keyID) {
+
+		Counters c = counters.get(keyID);
+
+		if (c != null) {
+			return c;
+		}
+
+		c = new Counters();
+		Counters existing = counters.putIfAbsent(keyID, c);
+		return existing != null ? existing : c;
+	}
+
+
+	@Override
+	public List<JWK> get(final JWKSelector jwkSelector, final C context)
+		throws KeySourceException {
+
+		List<JWK> matches = jwkSource.get(jwkSelector, context);
+
+		Set<String> requestedKeyIDs = jwkSelector.getMatcher().getKeyIDs();
+
+		if (requestedKeyIDs == null) {
+			// Lookup without key ID, remember the returned JWKs,
+			// the key ID is resolved on verification
+			UnnamedLookup last = lastUnnamedLookup;
+			if (last == null || ! last.isSame(matches)) {
+				lastUnnamedLookup = new UnnamedLookup(matches);
+			}
+			return matches;
+		}
+
+		for (JWK jwk: matches) {
+
+			if (jwk.getKeyID() != null && requestedKeyIDs.contains(jwk.getKeyID())) {
+				getCounters(jwk.getKeyID()).lookups.increment();
+			}
+		}
+
+		return matches;
+	}
+
+
+	/**
+	 * {@inheritDoc} Counts the verification for the key ID of the JWS
+	 * header, if none for the key ID of the matching JWK returned by the
+	 * most recent lookup without a key ID.
+	 */
+	@Override
+	public void keyVerified(final JWSHeader jwsHeader, final Key key, final C context) {
+
+		String keyID = jwsHeader.getKeyID();
+
+		if (keyID == null && key != null) {
+			UnnamedLookup last = lastUnnamedLookup;
+			keyID = last != null ? last.getKeyID(key) : null;
+		}
+
+		if (keyID == null) {
+			return;
+		}
+
+		Counters c = getCounters(keyID);
+		c.verifications.increment();
+		c.touch();
+	}
+
+
+	/**
+	 * Returns a snapshot of the usage statistics for the specified key
+	 * ID.
+	 *
+	 * @param keyID The key ID. Must not be {@code null}.
+	 *
+	 * @return The key usage, {@code null} if the key wasn't used.
+	 */
+	public KeyUsage getKeyUsage(final String keyID) {
+
+		Counters c = counters.get(keyID);
+
+		if (c == null) {
+			return null;
+		}
+
+		return new KeyUsage(keyID, c.lookups.sum(), c.verifications.sum(), c.lastUsed);
+	}
+
+
+	/**
+	 * Returns a snapshot of the usage statistics of all used keys.
+	 *
+	 * @return The key usage statistics, keyed by key ID, empty map if
+	 *         none.
+	 */
+	public Map<String,KeyUsage> getKeyUsage() {
+
+		Map<String,KeyUsage> snapshot = new HashMap<>();
+
+		for (Map.Entry<String,Counters> en: counters.entrySet()) {
+
+			Counters c = en.getValue();
+			snapshot.put(en.getKey(), new KeyUsage(en.getKey(), c.lookups.sum(), c.verifications.sum(), c.lastUsed));
+		}
+
+		return Collections.unmodifiableMap(snapshot);
+	}
+
+
+	/**
+	 * Removes the usage statistics for the specified key ID, for
+	 * instance after the key was retired.
+	 *
+	 * @param keyID The key ID. Must not be {@code null}.
+	 */
+	public void removeKeyUsage(final String keyID) {
+
+		counters.remove(keyID);
+	}
+
+
+	/**
+	 * Schedules periodic reporting of the key usage statistics.
+	 *
+	 * @param scheduler The scheduled executor service to use. Must not be
+	 *                  {@code null}.
+	 * @param period    The reporting period. Must be positive.
+	 * @param timeUnit  The time unit of the period. Must not be
+	 *                  {@code null}.
+	 * @param reporter  The key usage reporter. Must not be {@code null}.
+	 *
+	 * @return The scheduled future, to cancel the reporting.
+	 */
+	public ScheduledFuture<?> scheduleReporting(final ScheduledExecutorService scheduler,
+						    final long period,
+						    final TimeUnit timeUnit,
+						    final KeyUsageReporter reporter) {
+
+		if (reporter == null) {
+			throw new IllegalArgumentException("The key usage reporter must not be null");
+		}
+
+		return scheduler.scheduleAtFixedRate(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					reporter.report(getKeyUsage());
+				} catch (RuntimeException e) {
+					// Ignore, else subsequent reports are suppressed
+				}
+			}
+		}, period, period, timeUnit);
+	}
+}
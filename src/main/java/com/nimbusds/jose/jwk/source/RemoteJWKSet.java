@@ -23,9 +23,12 @@ import java.net.URL;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 import com.nimbusds.jose.RemoteKeySourceException;
+import com.nimbusds.jose.instrumentation.JOSEEvent;
+import com.nimbusds.jose.instrumentation.JOSEInstrumentation;
 import com.nimbusds.jose.jwk.JWK;
 import com.nimbusds.jose.jwk.JWKMatcher;
 import com.nimbusds.jose.jwk.JWKSelector;
@@ -42,11 +45,17 @@ import net.jcip.annotations.ThreadSafe;
  * JWK set is cached to minimise network calls. The cache is updated whenever
  * the key selector tries to get a key with an unknown ID.
  *
+ * <p>JWK set cache hits and misses and the JWK set retrievals are reported
+ * to the {@link JOSEInstrumentation JOSE instrumentation}, if enabled.
+ *
+ * <p>The {@link #getKeyGeneration key generation} is incremented each time
+ * a retrieved JWK set differs from the cached one.
+ *
  * @author Vladimir Dzhuvinov
- * @version 2016-05-28
+ * @version 2026-10-18
  */
 @ThreadSafe
-public class RemoteJWKSet<C extends SecurityContext> implements JWKSource<C> {
+public class RemoteJWKSet<C extends SecurityContext> implements JWKSource<C>, KeyGenerationAware {
 
 
 	/**
@@ -82,6 +91,12 @@ public class RemoteJWKSet<C extends SecurityContext> implements JWKSource<C> {
 	private final AtomicReference<JWKSet> cachedJWKSet = new AtomicReference<>();
 
 
+	/**
+	 * The key generation.
+	 */
+	private final AtomicLong keyGeneration = new AtomicLong();
+
+
 	/**
 	 * The JWK set retriever.
 	 */
@@ -134,19 +149,28 @@ public class RemoteJWKSet<C extends SecurityContext> implements JWKSource<C> {
 	 */
 	private JWKSet updateJWKSetFromURL()
 		throws RemoteKeySourceException {
+		final JOSEInstrumentation.Stage stage = JOSEInstrumentation.start(JOSEEvent.Type.JWK_SET_RETRIEVAL);
 		Resource res;
 		try {
 			res = jwkSetRetriever.retrieveResource(jwkSetURL);
 		} catch (IOException e) {
-			throw new RemoteKeySourceException("Couldn't retrieve remote JWK set: " + e.getMessage(), e);
+			RemoteKeySourceException exception = new RemoteKeySourceException("Couldn't retrieve remote JWK set: " + e.getMessage(), e);
+			JOSEInstrumentation.reportFailure(stage, null, exception);
+			throw exception;
 		}
 		JWKSet jwkSet;
 		try {
 			jwkSet = JWKSet.parse(res.getContent());
 		} catch (java.text.ParseException e) {
-			throw new RemoteKeySourceException("Couldn't parse remote JWK set: " + e.getMessage(), e);
+			RemoteKeySourceException exception = new RemoteKeySourceException("Couldn't parse remote JWK set: " + e.getMessage(), e);
+			JOSEInstrumentation.reportFailure(stage, null, exception);
+			throw exception;
+		}
+		JOSEInstrumentation.report(stage, JOSEEvent.Type.JWK_SET_RETRIEVAL, null, null, null);
+		JWKSet previousJWKSet = cachedJWKSet.getAndSet(jwkSet);
+		if (previousJWKSet == null || ! previousJWKSet.toJSONObject(false).equals(jwkSet.toJSONObject(false))) {
+			keyGeneration.incrementAndGet();
 		}
-		cachedJWKSet.set(jwkSet);
 		return jwkSet;
 	}
 
@@ -182,6 +206,18 @@ public class RemoteJWKSet<C extends SecurityContext> implements JWKSource<C> {
 	}
 
 
+	/**
+	 * Returns the key generation. Starts at zero and is incremented each
+	 * time a retrieved JWK set differs from the cached one.
+	 *
+	 * @return The key generation.
+	 */
+	@Override
+	public long getKeyGeneration() {
+		return keyGeneration.get();
+	}
+
+
 	/**
 	 * Returns the first specified key ID (kid) for a JWK matcher.
 	 *
@@ -208,48 +244,67 @@ public class RemoteJWKSet<C extends SecurityContext> implements JWKSource<C> {
 
 	/**
 	 * {@inheritDoc} The security context is ignored.
+	 *
+	 * <p>Reports exactly one {@link JOSEEvent.Type#JWK_SET_CACHE_HIT} or
+	 * {@link JOSEEvent.Type#JWK_SET_CACHE_MISS} event per call, a miss if
+	 * the JWK set had to be retrieved.
 	 */
 	@Override
 	public List<JWK> get(final JWKSelector jwkSelector, final C context)
 		throws RemoteKeySourceException {
 
-		// Get the JWK set, may necessitate a cache update
-		JWKSet jwkSet = cachedJWKSet.get();
-		if (jwkSet == null) {
-			jwkSet = updateJWKSetFromURL();
-		}
+		// Completes as a miss if the JWK set must be retrieved
+		final JOSEInstrumentation.Stage stage = JOSEInstrumentation.start(JOSEEvent.Type.JWK_SET_CACHE_HIT);
 
-		// Run the selector on the JWK set
-		List<JWK> matches = jwkSelector.select(jwkSet);
+		// Looking for JWK with specific ID?
+		final String soughtKeyID = getFirstSpecifiedKeyID(jwkSelector.getMatcher());
 
-		if (! matches.isEmpty()) {
-			// Success
-			return matches;
-		}
+		boolean cacheMiss = false;
 
-		// Refresh the JWK set if the sought key ID is not in the cached JWK set
+		try {
+			// Get the JWK set, may necessitate a cache update
+			JWKSet jwkSet = cachedJWKSet.get();
+			if (jwkSet == null) {
+				cacheMiss = true;
+				jwkSet = updateJWKSetFromURL();
+			}
 
-		// Looking for JWK with specific ID?
-		String soughtKeyID = getFirstSpecifiedKeyID(jwkSelector.getMatcher());
-		if (soughtKeyID == null) {
-			// No key ID specified, return no matches
-			return Collections.emptyList();
-		}
+			// Run the selector on the JWK set
+			List<JWK> matches = jwkSelector.select(jwkSet);
 
-		if (jwkSet.getKeyByKeyId(soughtKeyID) != null) {
-			// The key ID exists in the cached JWK set, matching
-			// failed for some other reason, return no matches
-			return Collections.emptyList();
-		}
+			if (! matches.isEmpty()) {
+				// Success
+				return matches;
+			}
 
-		// Make new HTTP GET to the JWK set URL
-		jwkSet = updateJWKSetFromURL();
-		if (jwkSet == null) {
-			// Retrieval has failed
-			return Collections.emptyList();
-		}
+			// Refresh the JWK set if the sought key ID is not in the cached JWK set
 
-		// Repeat select, return final result (success or no matches)
-		return jwkSelector.select(jwkSet);
+			if (soughtKeyID == null) {
+				// No key ID specified, return no matches
+				return Collections.emptyList();
+			}
+
+			if (jwkSet.getKeyByKeyId(soughtKeyID) != null) {
+				// The key ID exists in the cached JWK set, matching
+				// failed for some other reason, return no matches
+				return Collections.emptyList();
+			}
+
+			// Make new HTTP GET to the JWK set URL
+			cacheMiss = true;
+			jwkSet = updateJWKSetFromURL();
+			if (jwkSet == null) {
+				// Retrieval has failed
+				return Collections.emptyList();
+			}
+
+			// Repeat select, return final result (success or no matches)
+			return jwkSelector.select(jwkSet);
+
+		} finally {
+			JOSEInstrumentation.report(stage,
+				cacheMiss ? JOSEEvent.Type.JWK_SET_CACHE_MISS : JOSEEvent.Type.JWK_SET_CACHE_HIT,
+				null, soughtKeyID, null);
+		}
 	}
 }
@@ -0,0 +1,102 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.nimbusds.jose.jwk.source;
+
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import net.jcip.annotations.ThreadSafe;
+
+
+/**
+ * Striped counter for frequently updated statistics. Increments from
+ * different threads are spread over padded cells to avoid contention on a
+ * single atomic variable, the sum is computed on read.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+@ThreadSafe
+class StripedCounter {
+
+
+	/**
+	 * The spacing between the cells, in longs, to keep each cell on a
+	 * separate cache line.
+	 */
+	private static final int PADDING = 8;
+
+
+	/**
+	 * The number of stripes, a power of two.
+	 */
+	private static final int STRIPES;
+
+
+	static {
+		int n = 1;
+		int cpus = Runtime.getRuntime().availableProcessors();
+		while (n < cpus && n < 64) {
+			n <<= 1;
+		}
+		STRIPES = n;
+	}
+
+
+	/**
+	 * The padded cells.
+	 */
+	private final AtomicLongArray cells = new AtomicLongArray(STRIPES * PADDING);
+
+
+	/**
+	 * Returns the cell index for the current thread.
+	 *
+	 * @return The cell index.
+	 */
+	private static int cellIndex() {
+
+		long id = Thread.currentThread().getId();
+		int hash = (int)(id ^ (id >>> 32)) * 0x9E3779B9;
+		return ((hash >>> 16) & (STRIPES - 1)) * PADDING;
+	}
+
+
+	/**
+	 * Increments the counter.
+	 */
+	void increment() {
+
+		cells.incrementAndGet(cellIndex());
+	}
+
+
+	/**
+	 * Returns the sum of the counter cells. Concurrent increments may or
+	 * may not be reflected.
+	 *
+	 * @return The counter sum.
+	 */
+	long sum() {
+
+		long sum = 0;
+		for (int i=0; i < STRIPES; i++) {
+			sum += cells.get(i * PADDING);
+		}
+		return sum;
+	}
+}
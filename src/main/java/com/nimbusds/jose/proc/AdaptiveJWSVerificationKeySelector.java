@@ -0,0 +1,283 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.nimbusds.jose.proc;
+
+
+import java.security.Key;
+import java.security.PublicKey;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.crypto.SecretKey;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.KeyConverter;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.util.Base64URL;
+import net.jcip.annotations.ThreadSafe;
+
+
+/**
+ * Key selector for verifying JWS objects which orders the key candidates so
+ * that the correct key is likely to be tried first. Intended for JWS
+ * objects that don't specify a key ID (kid), where all keys matching the
+ * algorithm are candidates.
+ *
+ * <p>The key candidates are ordered as follows:
+ *
+ * <ol>
+ *     <li>Keys whose X.509 certificate SHA-256 thumbprint (x5t#S256) or
+ *         SHA-1 thumbprint (x5t) matches the one in the JWS header. With
+ *         thumbprint pinning enabled only these keys are returned when
+ *         there is a match.
+ *     <li>The key which last verified a JWS object of the same shape. The
+ *         shape is determined by {@link #computeShape}, by default from
+ *         the algorithm (alg), type (typ), JWK set URL (jku) and X.509
+ *         certificate URL (x5u) header parameters.
+ *     <li>The remaining keys, in JWK source order.
+ * </ol>
+ *
+ * <p>The last verified key per shape is recorded through the
+ * {@link VerifiedKeyAware} interface, which {@link DefaultJOSEProcessor} and
+ * {@link com.nimbusds.jwt.proc.DefaultJWTProcessor} call after a successful
+ * signature verification. Since only verified JWS objects are recorded the
+ * number of shapes is bounded by the legitimate senders; an upper limit
+ * applies nonetheless.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+@ThreadSafe
+public class AdaptiveJWSVerificationKeySelector<C extends SecurityContext>
+	extends JWSVerificationKeySelector<C>
+	implements VerifiedKeyAware<C> {
+
+
+	/**
+	 * The default maximum number of recorded JWS shapes.
+	 */
+	public static final int DEFAULT_MAX_SHAPES = 100;
+
+
+	/**
+	 * The maximum number of recorded JWS shapes.
+	 */
+	private final int maxShapes;
+
+
+	/**
+	 * {@code true} if X.509 certificate thumbprint pinning is enabled.
+	 */
+	private final boolean thumbprintPinning;
+
+
+	/**
+	 * The last verified key for each JWS shape.
+	 */
+	private final ConcurrentHashMap<String,Key> lastVerifiedKeys = new ConcurrentHashMap<>();
+
+
+	/**
+	 * Creates a new adaptive JWS verification key selector, with
+	 * thumbprint pinning disabled.
+	 *
+	 * @param jwsAlg    The expected JWS algorithm for the objects to be
+	 *                  verified. Must not be {@code null}.
+	 * @param jwkSource The JWK source. Must not be {@code null}.
+	 */
+	public AdaptiveJWSVerificationKeySelector(final JWSAlgorithm jwsAlg, final JWKSource<C> jwkSource) {
+
+		this(jwsAlg, jwkSource, false, DEFAULT_MAX_SHAPES);
+	}
+
+
+	/**
+	 * Creates a new adaptive JWS verification key selector.
+	 *
+	 * @param jwsAlg            The expected JWS algorithm for the
+	 *                          objects to be verified. Must not be
+	 *                          {@code null}.
+	 * @param jwkSource         The JWK source. Must not be
+	 *                          {@code null}.
+	 * @param thumbprintPinning If {@code true} and the X.509 certificate
+	 *                          thumbprint in the JWS header matches one
+	 *                          or more keys only those are returned.
+	 * @param maxShapes         The maximum number of JWS shapes to record
+	 *                          the last verified key for. Must be
+	 *                          positive.
+	 */
+	public AdaptiveJWSVerificationKeySelector(final JWSAlgorithm jwsAlg,
+						  final JWKSource<C> jwkSource,
+						  final boolean thumbprintPinning,
+						  final int maxShapes) {
+		super(jwsAlg, jwkSource);
+		if (maxShapes < 1) {
+			throw new IllegalArgumentException("The maximum number of JWS shapes must be positive");
+		}
+		this.thumbprintPinning = thumbprintPinning;
+		this.maxShapes = maxShapes;
+	}
+
+
+	/**
+	 * Returns {@code true} if X.509 certificate thumbprint pinning is
+	 * enabled.
+	 *
+	 * @return {@code true} if thumbprint pinning is enabled, else
+	 *         {@code false}.
+	 */
+	public boolean isThumbprintPinning() {
+
+		return thumbprintPinning;
+	}
+
+
+	/**
+	 * Returns the maximum number of JWS shapes to record the last
+	 * verified key for.
+	 *
+	 * @return The maximum number of JWS shapes.
+	 */
+	public int getMaxShapes() {
+
+		return maxShapes;
+	}
+
+
+	/**
+	 * Computes the shape of the specified JWS header, used to look up the
+	 * key which last verified a JWS object of the same shape. May be
+	 * overridden to include information from the context, for instance
+	 * the expected issuer.
+	 *
+	 * @param jwsHeader The JWS header. Must not be {@code null}.
+	 * @param context   Optional context, {@code null} if not required.
+	 *
+	 * @return The JWS shape.
+	 */
+	protected String computeShape(final JWSHeader jwsHeader, final C context) {
+
+		return jwsHeader.getAlgorithm() + "|" +
+			jwsHeader.getType() + "|" +
+			jwsHeader.getJWKURL() + "|" +
+			jwsHeader.getX509CertURL();
+	}
+
+
+	/**
+	 * Returns {@code true} if the X.509 certificate thumbprint of the
+	 * specified JWK matches the one in the JWS header.
+	 *
+	 * @param jwk       The JWK. Must not be {@code null}.
+	 * @param jwsHeader The JWS header. Must not be {@code null}.
+	 *
+	 * @return {@code true} if the thumbprints match, else {@code false}.
+	 */
+	// The deprecated SHA-1 x5t is matched on purpose, for JWKs and
+	// headers without a SHA-256 thumbprint
+	@SuppressWarnings("deprecation")
+	private static boolean thumbprintMatches(final JWK jwk, final JWSHeader jwsHeader) {
+
+		Base64URL x5t256 = jwsHeader.getX509CertSHA256Thumbprint();
+
+		if (x5t256 != null && x5t256.equals(jwk.getX509CertSHA256Thumbprint())) {
+			return true;
+		}
+
+		Base64URL x5t = jwsHeader.getX509CertThumbprint();
+
+		return x5t != null && x5t.equals(jwk.getX509CertThumbprint());
+	}
+
+
+	/**
+	 * Adds the public and secret keys of the specified JWK to the
+	 * specified list. Asymmetric private keys are skipped.
+	 *
+	 * @param jwk     The JWK. Must not be {@code null}.
+	 * @param keyList The key list. Must not be {@code null}.
+	 */
+	private static void addVerificationKeys(final JWK jwk, final List<Key> keyList) {
+
+		for (Key key: KeyConverter.toJavaKeys(Collections.singletonList(jwk))) {
+			if (key instanceof PublicKey || key instanceof SecretKey) {
+				keyList.add(key);
+			} // skip asymmetric private keys
+		}
+	}
+
+
+	@Override
+	public List<Key> selectJWSKeys(final JWSHeader jwsHeader, final C context)
+		throws KeySourceException {
+
+		if (! getExpectedJWSAlgorithm().equals(jwsHeader.getAlgorithm())) {
+			// Unexpected JWS alg
+			return Collections.emptyList();
+		}
+
+		JWKMatcher jwkMatcher = createJWKMatcher(jwsHeader);
+		if (jwkMatcher == null) {
+			return Collections.emptyList();
+		}
+
+		List<JWK> jwkMatches = getJWKSource().get(new JWKSelector(jwkMatcher), context);
+
+		List<Key> pinnedKeys = new LinkedList<>();
+		List<Key> otherKeys = new LinkedList<>();
+
+		for (JWK jwk: jwkMatches) {
+			addVerificationKeys(jwk, thumbprintMatches(jwk, jwsHeader) ? pinnedKeys : otherKeys);
+		}
+
+		if (thumbprintPinning && ! pinnedKeys.isEmpty()) {
+			return pinnedKeys;
+		}
+
+		Key lastVerifiedKey = lastVerifiedKeys.get(computeShape(jwsHeader, context));
+
+		if (lastVerifiedKey != null && otherKeys.remove(lastVerifiedKey)) {
+			// Promote
+			otherKeys.add(0, lastVerifiedKey);
+		}
+
+		pinnedKeys.addAll(otherKeys);
+		return pinnedKeys;
+	}
+
+
+	@Override
+	public void keyVerified(final JWSHeader jwsHeader, final Key key, final C context) {
+
+		super.keyVerified(jwsHeader, key, context);
+
+		final String shape = computeShape(jwsHeader, context);
+
+		if (lastVerifiedKeys.size() >= maxShapes && ! lastVerifiedKeys.containsKey(shape)) {
+			// Limit reached, keep the recorded shapes
+			return;
+		}
+
+		lastVerifiedKeys.put(shape, key);
+	}
+}
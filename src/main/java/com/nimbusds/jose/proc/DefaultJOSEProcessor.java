@@ -26,6 +26,8 @@ import java.util.ListIterator;
 import com.nimbusds.jose.*;
 import com.nimbusds.jose.crypto.factories.DefaultJWEDecrypterFactory;
 import com.nimbusds.jose.crypto.factories.DefaultJWSVerifierFactory;
+import com.nimbusds.jose.instrumentation.JOSEEvent;
+import com.nimbusds.jose.instrumentation.JOSEInstrumentation;
 import net.jcip.annotations.ThreadSafe;
 
 
@@ -67,11 +69,14 @@ import net.jcip.annotations.ThreadSafe;
  * SecurityContext)} method if you need to handle unsecured JOSE objects as
  * well.
  *
+ * <p>The processing stages are reported to the
+ * {@link JOSEInstrumentation JOSE instrumentation}, if enabled.
+ *
  * <p>To process JSON Web Tokens (JWTs) use the
  * {@link com.nimbusds.jwt.proc.DefaultJWTProcessor} class.
  *
  * @author Vladimir Dzhuvinov
- * @version 2016-06-15
+ * @version 2026-10-18
  */
 @ThreadSafe
 public class DefaultJOSEProcessor<C extends SecurityContext> implements ConfigurableJOSEProcessor<C>{
@@ -179,11 +184,42 @@ public class DefaultJOSEProcessor<C extends SecurityContext> implements Configur
 	}
 
 
+	/**
+	 * Notifies the JWS key selector, if {@link VerifiedKeyAware}, of the
+	 * key candidate that verified a JWS object.
+	 *
+	 * @param jwsHeader The JWS header. Must not be {@code null}.
+	 * @param key       The key candidate. Must not be {@code null}.
+	 * @param context   Optional context, {@code null} if not required.
+	 */
+	@SuppressWarnings("unchecked")
+	private void notifyKeyVerified(final JWSHeader jwsHeader, final Key key, final C context) {
+
+		if (getJWSKeySelector() instanceof VerifiedKeyAware) {
+			((VerifiedKeyAware<C>)getJWSKeySelector()).keyVerified(jwsHeader, key, context);
+		}
+	}
+
+
 	@Override
 	public Payload process(final String compactJOSE, final C context)
 		throws ParseException, BadJOSEException, JOSEException {
 
-		return process(JOSEObject.parse(compactJOSE), context);
+		final JOSEInstrumentation.Stage stage = JOSEInstrumentation.start(JOSEEvent.Type.PARSE);
+
+		final JOSEObject joseObject;
+
+		try {
+			joseObject = JOSEObject.parse(compactJOSE);
+
+		} catch (ParseException e) {
+			JOSEInstrumentation.reportFailure(stage, null, e);
+			throw e;
+		}
+
+		JOSEInstrumentation.report(stage, joseObject.getHeader(), null);
+
+		return process(joseObject, context);
 	}
 
 
@@ -216,10 +252,80 @@ public class DefaultJOSEProcessor<C extends SecurityContext> implements Configur
 	}
 
 
+	/**
+	 * Selects the key candidates for the specified JOSE header.
+	 *
+	 * @param header  The JWS or JWE header. Must not be {@code null}.
+	 * @param context Optional context, {@code null} if not required.
+	 *
+	 * @return The key candidates, empty list or {@code null} if none.
+	 *
+	 * @throws KeySourceException If a key sourcing exception is
+	 *                            encountered.
+	 */
+	private List<? extends Key> selectKeys(final Header header, final C context)
+		throws KeySourceException {
+
+		final JOSEInstrumentation.Stage stage = JOSEInstrumentation.start(JOSEEvent.Type.KEY_SELECTION);
+
+		List<? extends Key> keyCandidates;
+
+		try {
+			if (header instanceof JWSHeader) {
+				keyCandidates = getJWSKeySelector().selectJWSKeys((JWSHeader)header, context);
+			} else {
+				keyCandidates = getJWEKeySelector().selectJWEKeys((JWEHeader)header, context);
+			}
+
+		} catch (KeySourceException e) {
+			JOSEInstrumentation.reportFailure(stage, header, e);
+			throw e;
+		}
+
+		JOSEInstrumentation.report(stage, header,
+			keyCandidates == null || keyCandidates.isEmpty() ? JOSEEvent.Reason.NO_KEY_CANDIDATES : null);
+
+		return keyCandidates;
+	}
+
+
 	@Override
 	public Payload process(final JWSObject jwsObject, C context)
 		throws BadJOSEException, JOSEException {
 
+		final JOSEInstrumentation.Stage stage = JOSEInstrumentation.start(JOSEEvent.Type.PROCESSING);
+
+		final Payload payload;
+
+		try {
+			payload = processJWSObject(jwsObject, context);
+
+		} catch (BadJOSEException | JOSEException e) {
+			JOSEInstrumentation.reportFailure(stage, jwsObject.getHeader(), e);
+			throw e;
+		}
+
+		JOSEInstrumentation.report(stage, jwsObject.getHeader(), null);
+
+		return payload;
+	}
+
+
+	/**
+	 * Processes the specified JWS object by verifying its signature.
+	 *
+	 * @param jwsObject The JWS object. Must not be {@code null}.
+	 * @param context   Optional context, {@code null} if not required.
+	 *
+	 * @return The payload.
+	 *
+	 * @throws BadJOSEException If the JWS object is rejected.
+	 * @throws JOSEException    If an internal processing exception is
+	 *                          encountered.
+	 */
+	private Payload processJWSObject(final JWSObject jwsObject, final C context)
+		throws BadJOSEException, JOSEException {
+
 		if (getJWSKeySelector() == null) {
 			// JWS key selector may have been deliberately omitted
 			throw NO_JWS_KEY_SELECTOR_EXCEPTION;
@@ -229,7 +335,7 @@ public class DefaultJOSEProcessor<C extends SecurityContext> implements Configur
 			throw NO_JWS_VERIFIER_FACTORY_EXCEPTION;
 		}
 
-		List<? extends Key> keyCandidates = getJWSKeySelector().selectJWSKeys(jwsObject.getHeader(), context);
+		List<? extends Key> keyCandidates = selectKeys(jwsObject.getHeader(), context);
 
 		if (keyCandidates == null || keyCandidates.isEmpty()) {
 			throw NO_JWS_KEY_CANDIDATES_EXCEPTION;
@@ -239,7 +345,14 @@ public class DefaultJOSEProcessor<C extends SecurityContext> implements Configur
 
 		while (it.hasNext()) {
 
-			JWSVerifier verifier = getJWSVerifierFactory().createJWSVerifier(jwsObject.getHeader(), it.next());
+			final Key key = it.next();
+
+			final JOSEInstrumentation.Stage verifierStage = JOSEInstrumentation.start(JOSEEvent.Type.VERIFIER_CREATION);
+
+			JWSVerifier verifier = getJWSVerifierFactory().createJWSVerifier(jwsObject.getHeader(), key);
+
+			JOSEInstrumentation.report(verifierStage, jwsObject.getHeader(),
+				verifier == null ? JOSEEvent.Reason.NO_MATCHING_VERIFIER : null);
 
 			if (verifier == null) {
 				continue;
@@ -248,6 +361,7 @@ public class DefaultJOSEProcessor<C extends SecurityContext> implements Configur
 			final boolean validSignature = jwsObject.verify(verifier);
 
 			if (validSignature) {
+				notifyKeyVerified(jwsObject.getHeader(), key, context);
 				return jwsObject.getPayload();
 			}
 
@@ -265,6 +379,39 @@ public class DefaultJOSEProcessor<C extends SecurityContext> implements Configur
 	public Payload process(final JWEObject jweObject, C context)
 		throws BadJOSEException, JOSEException {
 
+		final JOSEInstrumentation.Stage stage = JOSEInstrumentation.start(JOSEEvent.Type.PROCESSING);
+
+		final Payload payload;
+
+		try {
+			payload = processJWEObject(jweObject, context);
+
+		} catch (BadJOSEException | JOSEException e) {
+			JOSEInstrumentation.reportFailure(stage, jweObject.getHeader(), e);
+			throw e;
+		}
+
+		JOSEInstrumentation.report(stage, jweObject.getHeader(), null);
+
+		return payload;
+	}
+
+
+	/**
+	 * Processes the specified JWE object by decrypting it.
+	 *
+	 * @param jweObject The JWE object. Must not be {@code null}.
+	 * @param context   Optional context, {@code null} if not required.
+	 *
+	 * @return The payload.
+	 *
+	 * @throws BadJOSEException If the JWE object is rejected.
+	 * @throws JOSEException    If an internal processing exception is
+	 *                          encountered.
+	 */
+	private Payload processJWEObject(final JWEObject jweObject, final C context)
+		throws BadJOSEException, JOSEException {
+
 		if (getJWEKeySelector() == null) {
 			// JWE key selector may have been deliberately omitted
 			throw NO_JWE_KEY_SELECTOR_EXCEPTION;
@@ -274,7 +421,7 @@ public class DefaultJOSEProcessor<C extends SecurityContext> implements Configur
 			throw NO_JWE_DECRYPTER_FACTORY_EXCEPTION;
 		}
 
-		List<? extends Key> keyCandidates = getJWEKeySelector().selectJWEKeys(jweObject.getHeader(), context);
+		List<? extends Key> keyCandidates = selectKeys(jweObject.getHeader(), context);
 
 		if (keyCandidates == null || keyCandidates.isEmpty()) {
 			throw NO_JWE_KEY_CANDIDATES_EXCEPTION;
@@ -284,8 +431,13 @@ public class DefaultJOSEProcessor<C extends SecurityContext> implements Configur
 
 		while (it.hasNext()) {
 
+			final JOSEInstrumentation.Stage decrypterStage = JOSEInstrumentation.start(JOSEEvent.Type.DECRYPTER_CREATION);
+
 			JWEDecrypter decrypter = getJWEDecrypterFactory().createJWEDecrypter(jweObject.getHeader(), it.next());
 
+			JOSEInstrumentation.report(decrypterStage, jweObject.getHeader(),
+				decrypter == null ? JOSEEvent.Reason.NO_MATCHING_DECRYPTER : null);
+
 			if (decrypter == null) {
 				continue;
 			}
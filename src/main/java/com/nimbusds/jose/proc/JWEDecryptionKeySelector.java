@@ -20,9 +20,7 @@ package com.nimbusds.jose.proc;
 
 import java.security.Key;
 import java.security.PrivateKey;
-import java.util.Collections;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.*;
 import javax.crypto.SecretKey;
 
 import com.nimbusds.jose.EncryptionMethod;
@@ -39,7 +37,7 @@ import net.jcip.annotations.ThreadSafe;
  * retrieved from a {@link JWKSource JSON Web Key (JWK) source}.
  *
  * @author Vladimir Dzhuvinov
- * @version 2016-06-21
+ * @version 2026-10-18
  */
 @ThreadSafe
 public class JWEDecryptionKeySelector<C extends SecurityContext> extends AbstractJWKSelectorWithSource<C> implements JWEKeySelector<C> {
@@ -120,8 +118,16 @@ public class JWEDecryptionKeySelector<C extends SecurityContext> extends Abstrac
 			return null;
 		}
 
+		final Set<KeyType> keyTypes = new HashSet<>();
+		keyTypes.add(KeyType.forAlgorithm(getExpectedJWEAlgorithm()));
+
+		if (JWEAlgorithm.Family.ECDH_ES.contains(getExpectedJWEAlgorithm())) {
+			// ECDH-ES may also be performed with X25519 OKP keys
+			keyTypes.add(KeyType.OKP);
+		}
+
 		return new JWKMatcher.Builder()
-			.keyType(KeyType.forAlgorithm(getExpectedJWEAlgorithm()))
+			.keyTypes(keyTypes)
 			.keyID(jweHeader.getKeyID())
 			.keyUses(KeyUse.ENCRYPTION, null)
 			.algorithms(getExpectedJWEAlgorithm(), null)
@@ -37,11 +37,15 @@ import net.jcip.annotations.ThreadSafe;
  * Key selector for verifying JWS objects, where the key candidates are
  * retrieved from a {@link JWKSource JSON Web Key (JWK) source}.
  *
+ * <p>Successful verifications are passed on to JWK sources that implement
+ * the {@link VerifiedKeyAware} interface, such as a
+ * {@link com.nimbusds.jose.jwk.source.KeyUsageTrackingJWKSource}.
+ *
  * @author Vladimir Dzhuvinov
- * @version 2016-06-21
+ * @version 2026-10-18
  */
 @ThreadSafe
-public class JWSVerificationKeySelector<C extends SecurityContext> extends AbstractJWKSelectorWithSource<C> implements JWSKeySelector<C> {
+public class JWSVerificationKeySelector<C extends SecurityContext> extends AbstractJWKSelectorWithSource<C> implements JWSKeySelector<C>, VerifiedKeyAware<C> {
 
 
 	/**
@@ -138,4 +142,18 @@ public class JWSVerificationKeySelector<C extends SecurityContext> extends Abstr
 
 		return sanitizedKeyList;
 	}
+
+
+	/**
+	 * {@inheritDoc} Notifies the JWK source if it implements the
+	 * {@link VerifiedKeyAware} interface.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void keyVerified(final JWSHeader jwsHeader, final Key key, final C context) {
+
+		if (getJWKSource() instanceof VerifiedKeyAware) {
+			((VerifiedKeyAware<C>)getJWKSource()).keyVerified(jwsHeader, key, context);
+		}
+	}
 }
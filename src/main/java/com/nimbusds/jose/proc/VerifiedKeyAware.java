@@ -0,0 +1,46 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.nimbusds.jose.proc;
+
+
+import java.security.Key;
+
+import com.nimbusds.jose.JWSHeader;
+
+
+/**
+ * Interface for a {@link JWSKeySelector JWS key selector} that wants to be
+ * notified which of its key candidates verified a JWS object, for instance
+ * to try that key first next time.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+public interface VerifiedKeyAware <C extends SecurityContext> {
+
+
+	/**
+	 * Notifies that the JWS object with the specified header was
+	 * successfully verified with the specified key candidate.
+	 *
+	 * @param jwsHeader The JWS header. Not {@code null}.
+	 * @param key       The key candidate that verified the JWS object.
+	 *                  Not {@code null}.
+	 * @param context   Optional context, {@code null} if not required.
+	 */
+	void keyVerified(final JWSHeader jwsHeader, final Key key, final C context);
+}
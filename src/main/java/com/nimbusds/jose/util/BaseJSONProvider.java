@@ -0,0 +1,56 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.util;
+
+
+import java.text.ParseException;
+import java.util.Set;
+
+import net.minidev.json.JSONObject;
+
+
+/**
+ * The base abstract class for JSON providers. Implements the selective
+ * parsing of {@link #parse(byte[], Set)} by parsing the entire JSON object
+ * and then retaining the selected members. Providers that can skip the
+ * values of the other members should override it.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+public abstract class BaseJSONProvider implements JSONProvider {
+
+
+	@Override
+	public JSONObject parse(final byte[] bytes, final Set<String> memberNames)
+		throws ParseException {
+
+		JSONObject all = parse(bytes);
+
+		JSONObject o = new JSONObject();
+
+		for (String name: memberNames) {
+
+			if (all.containsKey(name)) {
+				o.put(name, all.get(name));
+			}
+		}
+
+		return o;
+	}
+}
@@ -24,6 +24,8 @@ import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.charset.Charset;
 
+import com.nimbusds.jose.instrumentation.JOSEEvent;
+import com.nimbusds.jose.instrumentation.JOSEInstrumentation;
 import net.jcip.annotations.ThreadSafe;
 
 
@@ -33,7 +35,7 @@ import net.jcip.annotations.ThreadSafe;
  * entity. Caching header directives are not honoured.
  *
  * @author Vladimir Dzhuvinov
- * @version 2016-11-28
+ * @version 2026-10-18
  */
 @ThreadSafe
 public class DefaultResourceRetriever extends AbstractRestrictedResourceRetriever implements RestrictedResourceRetriever {
@@ -83,6 +85,38 @@ public class DefaultResourceRetriever extends AbstractRestrictedResourceRetrieve
 	@Override
 	public Resource retrieveResource(final URL url)
 		throws IOException {
+
+		final JOSEInstrumentation.Stage stage = JOSEInstrumentation.start(JOSEEvent.Type.RESOURCE_RETRIEVAL);
+
+		final Resource resource;
+
+		try {
+			resource = retrieve(url);
+
+		} catch (IOException e) {
+			JOSEInstrumentation.reportFailure(stage, null, e);
+			throw e;
+		}
+
+		JOSEInstrumentation.report(stage, null, resource.getContent().length(), null);
+
+		return resource;
+	}
+
+
+	/**
+	 * Retrieves the resource from the specified HTTP(S) URL.
+	 *
+	 * @param url The URL of the resource. Its scheme must be HTTP or
+	 *            HTTPS. Must not be {@code null}.
+	 *
+	 * @return The retrieved resource.
+	 *
+	 * @throws IOException If the HTTP connection to the specified URL
+	 *                     failed or the resource couldn't be retrieved.
+	 */
+	private Resource retrieve(final URL url)
+		throws IOException {
 		
 		HttpURLConnection con;
 		try {
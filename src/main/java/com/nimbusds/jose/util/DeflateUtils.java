@@ -18,20 +18,28 @@
 package com.nimbusds.jose.util;
 
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.DataFormatException;
 import java.util.zip.Deflater;
-import java.util.zip.DeflaterOutputStream;
-import java.util.zip.InflaterInputStream;
 import java.util.zip.Inflater;
+import java.util.zip.ZipException;
 
 
 /**
  * Deflate (RFC 1951) utilities.
  *
+ * <p>The {@link Deflater} and {@link Inflater} instances are pooled: they
+ * are reset and reused after each operation, and their native zlib memory
+ * is released with {@code end()} as soon as they are discarded, instead of
+ * at finalisation. The output is deflated and inflated directly into a
+ * byte array sized by an estimate, without an intermediate copy buffer.
+ *
  * @author Vladimir Dzhuvinov
- * @version 2013-04-16
+ * @version 2026-10-18
  */
 public class DeflateUtils {
 
@@ -44,6 +52,30 @@ public class DeflateUtils {
 	private static final boolean NOWRAP = true;
 
 
+	/**
+	 * The maximum number of pooled deflaters and inflaters, each.
+	 */
+	private static final int MAX_POOL_SIZE = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+
+
+	/**
+	 * The minimum initial output buffer size.
+	 */
+	private static final int MIN_BUFFER_SIZE = 64;
+
+
+	/**
+	 * The pooled deflaters.
+	 */
+	private static final BlockingQueue<Deflater> DEFLATER_POOL = new ArrayBlockingQueue<>(MAX_POOL_SIZE);
+
+
+	/**
+	 * The pooled inflaters.
+	 */
+	private static final BlockingQueue<Inflater> INFLATER_POOL = new ArrayBlockingQueue<>(MAX_POOL_SIZE);
+
+
 	/**
 	 * Compresses the specified byte array according to the DEFLATE 
 	 * specification (RFC 1951).
@@ -57,13 +89,37 @@ public class DeflateUtils {
 	public static byte[] compress(final byte[] bytes)
 		throws IOException {
 
-		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		Deflater deflater = DEFLATER_POOL.poll();
+
+		if (deflater == null) {
+			deflater = new Deflater(Deflater.DEFLATED, NOWRAP);
+		}
+
+		try {
+			deflater.setInput(bytes);
+			deflater.finish();
 
-		DeflaterOutputStream def = new DeflaterOutputStream(out, new Deflater(Deflater.DEFLATED, NOWRAP));
-		def.write(bytes);
-		def.close();
+			byte[] out = new byte[Math.max(MIN_BUFFER_SIZE, bytes.length / 2)];
+			int len = 0;
 
-		return out.toByteArray();
+			while (! deflater.finished()) {
+
+				if (len == out.length) {
+					out = Arrays.copyOf(out, out.length * 2);
+				}
+
+				len += deflater.deflate(out, len, out.length - len);
+			}
+
+			return len == out.length ? out : Arrays.copyOf(out, len);
+
+		} finally {
+			deflater.reset();
+
+			if (! DEFLATER_POOL.offer(deflater)) {
+				deflater.end();
+			}
+		}
 	}
 
 
@@ -80,23 +136,91 @@ public class DeflateUtils {
 	public static byte[] decompress(final byte[] bytes)
 		throws IOException {
 
-		InflaterInputStream inf = new InflaterInputStream(new ByteArrayInputStream(bytes), new Inflater(NOWRAP));
-		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		return decompress(bytes, Integer.MAX_VALUE - 8);
+	}
 
-		// Transfer bytes from the compressed array to the output
-		byte[] buf = new byte[1024];
 
-		int len;
+	/**
+	 * Decompresses the specified byte array according to the DEFLATE
+	 * specification (RFC 1951), up to the specified maximum length. The
+	 * limit is enforced while inflating, so that no more than the
+	 * maximum length is ever allocated.
+	 *
+	 * @param bytes     The byte array to decompress. Must not be
+	 *                  {@code null}.
+	 * @param maxLength The maximum allowed decompressed length, in bytes.
+	 *                  Must not be negative.
+	 *
+	 * @return The decompressed bytes.
+	 *
+	 * @throws IOException If decompression failed or the decompressed
+	 *                     length exceeds the maximum.
+	 */
+	public static byte[] decompress(final byte[] bytes, final int maxLength)
+		throws IOException {
+
+		if (maxLength < 0) {
+			throw new IllegalArgumentException("The maximum decompressed length must not be negative");
+		}
+
+		// One byte above the maximum to detect excess output
+		final long bufferLimit = (long)maxLength + 1;
 
-		while ((len = inf.read(buf)) > 0) {
+		Inflater inflater = INFLATER_POOL.poll();
 
-			out.write(buf, 0, len);
+		if (inflater == null) {
+			inflater = new Inflater(NOWRAP);
 		}
 
-		inf.close();
-		out.close();
+		try {
+			inflater.setInput(bytes);
+
+			// Estimate for typical JSON compression ratios
+			byte[] out = new byte[(int)Math.min(bufferLimit, Math.max(MIN_BUFFER_SIZE, (long)bytes.length * 4))];
+			int len = 0;
 
-		return out.toByteArray();
+			while (! inflater.finished()) {
+
+				if (len == out.length) {
+					out = Arrays.copyOf(out, (int)Math.min(bufferLimit, (long)out.length * 2));
+				}
+
+				final int n;
+
+				try {
+					n = inflater.inflate(out, len, out.length - len);
+				} catch (DataFormatException e) {
+					String msg = e.getMessage();
+					throw new ZipException(msg != null ? msg : "Invalid ZLIB data format");
+				}
+
+				if (n == 0) {
+
+					if (inflater.finished()) {
+						break;
+					}
+
+					if (inflater.needsDictionary() || inflater.needsInput()) {
+						throw new EOFException("Unexpected end of ZLIB input stream");
+					}
+				}
+
+				len += n;
+
+				if (len > maxLength) {
+					throw new ZipException("Decompressed size exceeds the maximum of " + maxLength + " bytes");
+				}
+			}
+
+			return len == out.length ? out : Arrays.copyOf(out, len);
+
+		} finally {
+			inflater.reset();
+
+			if (! INFLATER_POOL.offer(inflater)) {
+				inflater.end();
+			}
+		}
 	}
 
 
@@ -23,21 +23,60 @@ import java.net.URISyntaxException;
 import java.text.ParseException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import net.minidev.json.JSONArray;
 import net.minidev.json.JSONObject;
-import net.minidev.json.parser.JSONParser;
 
 
 /**
  * JSON object helper methods for parsing and typed retrieval of member values.
  *
+ * <p>Parsing and serialisation are delegated to the global
+ * {@link JSONProvider}, by default a {@link StreamingJSONProvider}.
+ *
  * @author Vladimir Dzhuvinov
- * @version 2015-04-15
+ * @version 2026-10-18
  */
 public class JSONObjectUtils {
 
 
+	/**
+	 * The default JSON provider.
+	 */
+	private static final JSONProvider DEFAULT_PROVIDER = new StreamingJSONProvider();
+
+
+	/**
+	 * The JSON provider.
+	 */
+	private static volatile JSONProvider provider = DEFAULT_PROVIDER;
+
+
+	/**
+	 * Sets the global JSON provider.
+	 *
+	 * @param provider The JSON provider, {@code null} to restore the
+	 *                 default {@link StreamingJSONProvider}.
+	 */
+	public static void setJSONProvider(final JSONProvider provider) {
+
+		JSONObjectUtils.provider = provider != null ? provider : DEFAULT_PROVIDER;
+	}
+
+
+	/**
+	 * Gets the global JSON provider.
+	 *
+	 * @return The JSON provider.
+	 */
+	public static JSONProvider getJSONProvider() {
+
+		return provider;
+	}
+
+
 	/**
 	 * Parses a JSON object.
 	 *
@@ -65,21 +104,78 @@ public class JSONObjectUtils {
 	public static JSONObject parse(final String s)
 		throws ParseException {
 
-		Object o;
+		return provider.parse(s);
+	}
 
-		try {
-			o = new JSONParser(JSONParser.USE_HI_PRECISION_FLOAT | JSONParser.ACCEPT_TAILLING_SPACE).parse(s);
 
-		} catch (net.minidev.json.parser.ParseException e) {
+	/**
+	 * Parses a UTF-8 encoded JSON object. The JSON to Java entity mapping
+	 * is that of {@link #parse(String)}.
+	 *
+	 * @param bytes The UTF-8 encoded JSON object to parse. Must not be
+	 *              {@code null}.
+	 *
+	 * @return The JSON object.
+	 *
+	 * @throws ParseException If the bytes cannot be parsed to a valid
+	 *                        JSON object.
+	 */
+	public static JSONObject parse(final byte[] bytes)
+		throws ParseException {
+
+		return provider.parse(bytes);
+	}
 
-			throw new ParseException("Invalid JSON: " + e.getMessage(), 0);
-		}
 
-		if (o instanceof JSONObject) {
-			return (JSONObject)o;
-		} else {
-			throw new ParseException("JSON entity is not an object", 0);
-		}
+	/**
+	 * Parses selected top-level members of a UTF-8 encoded JSON object.
+	 * The default {@link StreamingJSONProvider} reads the input in a
+	 * single pass, the values of other members are skipped without being
+	 * materialised. The entire input is still checked for validity, and
+	 * for repeated member names the last occurrence is returned, as with
+	 * {@link #parse(byte[])}.
+	 *
+	 * @param bytes       The UTF-8 encoded JSON object to parse. Must not
+	 *                    be {@code null}.
+	 * @param memberNames The names of the members to parse. Must not be
+	 *                    {@code null}.
+	 *
+	 * @return The JSON object with the selected members found in the
+	 *         input.
+	 *
+	 * @throws ParseException If the bytes cannot be parsed to a valid
+	 *                        JSON object.
+	 */
+	public static JSONObject parse(final byte[] bytes, final Set<String> memberNames)
+		throws ParseException {
+
+		return provider.parse(bytes, memberNames);
+	}
+
+
+	/**
+	 * Serialises a JSON object to a string.
+	 *
+	 * @param o The JSON object. Must not be {@code null}.
+	 *
+	 * @return The JSON object string.
+	 */
+	public static String toJSONString(final Map<String,?> o) {
+
+		return provider.toJSONString(o);
+	}
+
+
+	/**
+	 * Serialises a JSON object to UTF-8 encoded bytes.
+	 *
+	 * @param o The JSON object. Must not be {@code null}.
+	 *
+	 * @return The UTF-8 encoded JSON object.
+	 */
+	public static byte[] toJSONBytes(final Map<String,?> o) {
+
+		return provider.toJSONBytes(o);
 	}
 
 
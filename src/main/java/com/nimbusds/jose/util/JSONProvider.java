@@ -0,0 +1,112 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.util;
+
+
+import java.text.ParseException;
+import java.util.Map;
+import java.util.Set;
+
+import net.minidev.json.JSONObject;
+
+
+/**
+ * JSON provider, parses and serialises the JSON objects of JOSE headers,
+ * JWT claims sets, JWKs and JSON payloads. Set with
+ * {@link JSONObjectUtils#setJSONProvider}.
+ *
+ * <p>Implementations must be thread-safe and must follow the JSON to Java
+ * entity mapping documented in {@link JSONObjectUtils#parse(String)}.
+ * Providers that don't implement selective parsing can extend
+ * {@link BaseJSONProvider}.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+public interface JSONProvider {
+
+
+	/**
+	 * Parses a JSON object.
+	 *
+	 * @param s The JSON object string to parse. Must not be {@code null}.
+	 *
+	 * @return The JSON object.
+	 *
+	 * @throws ParseException If the string cannot be parsed to a valid
+	 *                        JSON object.
+	 */
+	JSONObject parse(final String s)
+		throws ParseException;
+
+
+	/**
+	 * Parses a UTF-8 encoded JSON object.
+	 *
+	 * @param bytes The UTF-8 encoded JSON object to parse. Must not be
+	 *              {@code null}.
+	 *
+	 * @return The JSON object.
+	 *
+	 * @throws ParseException If the bytes cannot be parsed to a valid
+	 *                        JSON object.
+	 */
+	JSONObject parse(final byte[] bytes)
+		throws ParseException;
+
+
+	/**
+	 * Parses selected top-level members of a UTF-8 encoded JSON object.
+	 * The entire input must still be checked for validity, and for
+	 * repeated member names the last occurrence must be returned, as with
+	 * {@link #parse(byte[])}.
+	 *
+	 * @param bytes       The UTF-8 encoded JSON object to parse. Must not
+	 *                    be {@code null}.
+	 * @param memberNames The names of the members to parse. Must not be
+	 *                    {@code null}.
+	 *
+	 * @return The JSON object with the selected members found in the
+	 *         input.
+	 *
+	 * @throws ParseException If the bytes cannot be parsed to a valid
+	 *                        JSON object.
+	 */
+	JSONObject parse(final byte[] bytes, final Set<String> memberNames)
+		throws ParseException;
+
+
+	/**
+	 * Serialises a JSON object to a string.
+	 *
+	 * @param o The JSON object. Must not be {@code null}.
+	 *
+	 * @return The JSON object string.
+	 */
+	String toJSONString(final Map<String,?> o);
+
+
+	/**
+	 * Serialises a JSON object to UTF-8 encoded bytes.
+	 *
+	 * @param o The JSON object. Must not be {@code null}.
+	 *
+	 * @return The UTF-8 encoded JSON object.
+	 */
+	byte[] toJSONBytes(final Map<String,?> o);
+}
@@ -0,0 +1,810 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.util;
+
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.text.ParseException;
+
+import net.minidev.json.JSONArray;
+import net.minidev.json.JSONObject;
+
+
+/**
+ * Streaming pull reader of UTF-8 encoded JSON. Reads directly from the
+ * byte array, without first decoding it to a string, and allows unwanted
+ * values to be skipped without materialising them.
+ *
+ * <p>The JSON to Java entity mapping of {@link #readValue} is that of
+ * {@link JSONObjectUtils#parse(String)}.
+ *
+ * <p>Example reading only the top-level "iss" member of an object:
+ *
+ * <pre>
+ * JSONReader reader = new JSONReader(bytes);
+ * reader.beginObject();
+ * String name;
+ * while ((name = reader.nextName()) != null) {
+ *     if ("iss".equals(name)) {
+ *         iss = (String)reader.readValue();
+ *     } else {
+ *         reader.skipValue();
+ *     }
+ * }
+ * reader.endDocument();
+ * </pre>
+ *
+ * <p>Objects and arrays may be nested up to {@link #MAX_NESTING_DEPTH}
+ * levels, deeper JSON is rejected with a {@link ParseException}.
+ *
+ * <p>This class is not thread-safe.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+public final class JSONReader {
+
+
+	/**
+	 * The maximum nesting depth of JSON objects and arrays.
+	 */
+	public static final int MAX_NESTING_DEPTH = 256;
+
+
+	/**
+	 * The JSON bytes.
+	 */
+	private final byte[] buf;
+
+
+	/**
+	 * The end position (exclusive).
+	 */
+	private final int end;
+
+
+	/**
+	 * The current position.
+	 */
+	private int pos;
+
+
+	/**
+	 * {@code true} if the next member is the first of the object begun
+	 * with {@link #beginObject}.
+	 */
+	private boolean firstMember;
+
+
+	/**
+	 * The current nesting depth.
+	 */
+	private int depth;
+
+
+	/**
+	 * Creates a new JSON reader.
+	 *
+	 * @param json The UTF-8 encoded JSON. Must not be {@code null}.
+	 */
+	public JSONReader(final byte[] json) {
+
+		this(json, 0, json.length);
+	}
+
+
+	/**
+	 * Creates a new JSON reader.
+	 *
+	 * @param json   The UTF-8 encoded JSON. Must not be {@code null}.
+	 * @param offset The offset of the JSON in the array.
+	 * @param length The length of the JSON.
+	 */
+	public JSONReader(final byte[] json, final int offset, final int length) {
+
+		if (offset < 0 || length < 0 || offset + length > json.length) {
+			throw new IllegalArgumentException("Invalid offset or length");
+		}
+
+		buf = json;
+		pos = offset;
+		end = offset + length;
+	}
+
+
+	/**
+	 * Returns the current position in the byte array.
+	 *
+	 * @return The current position.
+	 */
+	public int getPosition() {
+
+		return pos;
+	}
+
+
+	/**
+	 * Consumes the opening brace of a JSON object. The members are then
+	 * iterated with {@link #nextName} and {@link #readValue} or
+	 * {@link #skipValue}.
+	 *
+	 * @throws ParseException If the next value is not a JSON object.
+	 */
+	public void beginObject()
+		throws ParseException {
+
+		expect('{');
+		enter();
+		firstMember = true;
+	}
+
+
+	/**
+	 * Reads the name of the next member of the current JSON object. Must
+	 * be followed by a {@link #readValue} or {@link #skipValue} call.
+	 *
+	 * @return The member name, {@code null} if the object has no more
+	 *         members, in which case its closing brace is consumed.
+	 *
+	 * @throws ParseException If the JSON is invalid.
+	 */
+	public String nextName()
+		throws ParseException {
+
+		int c = peek();
+
+		if (c == '}') {
+			pos++;
+			depth--;
+			firstMember = false;
+			return null;
+		}
+
+		if (firstMember) {
+			firstMember = false;
+		} else if (c == ',') {
+			pos++;
+			c = peek();
+		} else {
+			throw unexpected(c);
+		}
+
+		if (c != '"') {
+			throw unexpected(c);
+		}
+
+		pos++;
+		String name = readString();
+		expect(':');
+		return name;
+	}
+
+
+	/**
+	 * Reads the next JSON value.
+	 *
+	 * @return The value: {@link JSONObject}, {@link JSONArray},
+	 *         {@link String}, {@link Long}, {@link BigInteger},
+	 *         {@link Double}, {@link BigDecimal}, {@link Boolean} or
+	 *         {@code null}.
+	 *
+	 * @throws ParseException If the JSON is invalid.
+	 */
+	public Object readValue()
+		throws ParseException {
+
+		final int c = peek();
+
+		switch (c) {
+			case '{':
+				pos++;
+				enter();
+				JSONObject o = readObjectMembers();
+				depth--;
+				return o;
+			case '[':
+				pos++;
+				enter();
+				JSONArray a = readArrayElements();
+				depth--;
+				return a;
+			case '"':
+				pos++;
+				return readString();
+			case 't':
+				readLiteral("true");
+				return Boolean.TRUE;
+			case 'f':
+				readLiteral("false");
+				return Boolean.FALSE;
+			case 'n':
+				readLiteral("null");
+				return null;
+			default:
+				return readNumber();
+		}
+	}
+
+
+	/**
+	 * Skips the next JSON value, including any nested values, without
+	 * materialising it. The skipped JSON is still checked for validity.
+	 *
+	 * @throws ParseException If the JSON is invalid.
+	 */
+	public void skipValue()
+		throws ParseException {
+
+		final int c = peek();
+
+		switch (c) {
+			case '{':
+				pos++;
+				enter();
+				if (peek() == '}') {
+					pos++;
+				} else {
+					do {
+						expect('"');
+						skipString();
+						expect(':');
+						skipValue();
+					} while (nextElement('}'));
+				}
+				depth--;
+				return;
+			case '[':
+				pos++;
+				enter();
+				if (peek() == ']') {
+					pos++;
+				} else {
+					do {
+						skipValue();
+					} while (nextElement(']'));
+				}
+				depth--;
+				return;
+			case '"':
+				pos++;
+				skipString();
+				return;
+			case 't':
+				readLiteral("true");
+				return;
+			case 'f':
+				readLiteral("false");
+				return;
+			case 'n':
+				readLiteral("null");
+				return;
+			default:
+				scanNumber();
+		}
+	}
+
+
+	/**
+	 * Ensures only white space remains in the input.
+	 *
+	 * @throws ParseException If other content remains.
+	 */
+	public void endDocument()
+		throws ParseException {
+
+		skipWhiteSpace();
+
+		if (pos < end) {
+			throw unexpected(buf[pos] & 0xff);
+		}
+	}
+
+
+	/**
+	 * Increments the nesting depth after an opening brace or bracket.
+	 *
+	 * @throws ParseException If the maximum nesting depth is exceeded.
+	 */
+	private void enter()
+		throws ParseException {
+
+		if (++depth > MAX_NESTING_DEPTH) {
+			throw new ParseException("Invalid JSON: Maximum nesting depth of " + MAX_NESTING_DEPTH + " exceeded at position " + (pos - 1), pos - 1);
+		}
+	}
+
+
+	/**
+	 * Reads the members of a JSON object, the opening brace is already
+	 * consumed.
+	 *
+	 * @return The JSON object.
+	 */
+	private JSONObject readObjectMembers()
+		throws ParseException {
+
+		JSONObject o = new JSONObject();
+
+		if (peek() == '}') {
+			pos++;
+			return o;
+		}
+
+		do {
+			expect('"');
+			String name = readString();
+			expect(':');
+			o.put(name, readValue());
+		} while (nextElement('}'));
+
+		return o;
+	}
+
+
+	/**
+	 * Reads the elements of a JSON array, the opening bracket is already
+	 * consumed.
+	 *
+	 * @return The JSON array.
+	 */
+	private JSONArray readArrayElements()
+		throws ParseException {
+
+		JSONArray a = new JSONArray();
+
+		if (peek() == ']') {
+			pos++;
+			return a;
+		}
+
+		do {
+			a.add(readValue());
+		} while (nextElement(']'));
+
+		return a;
+	}
+
+
+	/**
+	 * Consumes the separator after an object member or array element.
+	 *
+	 * @param close The closing character of the object or array.
+	 *
+	 * @return {@code true} if another member or element follows,
+	 *         {@code false} if the closing character was consumed.
+	 */
+	private boolean nextElement(final char close)
+		throws ParseException {
+
+		final int c = peek();
+
+		if (c == ',') {
+			pos++;
+			return true;
+		}
+
+		if (c == close) {
+			pos++;
+			return false;
+		}
+
+		throw unexpected(c);
+	}
+
+
+	/**
+	 * Reads a JSON string, the opening quote is already consumed.
+	 *
+	 * @return The string.
+	 */
+	private String readString()
+		throws ParseException {
+
+		final int start = pos;
+
+		// Fast path, no escapes
+		while (pos < end) {
+			final int b = buf[pos] & 0xff;
+			if (b == '"') {
+				String s = decode(start, pos);
+				pos++;
+				return s;
+			}
+			if (b == '\\') {
+				break;
+			}
+			if (b < 0x20) {
+				throw unexpected(b);
+			}
+			pos++;
+		}
+
+		StringBuilder sb = new StringBuilder(pos - start + 16);
+		sb.append(decode(start, pos));
+
+		int segment = pos;
+
+		while (pos < end) {
+			final int b = buf[pos] & 0xff;
+			if (b == '"') {
+				sb.append(decode(segment, pos));
+				pos++;
+				return sb.toString();
+			}
+			if (b == '\\') {
+				sb.append(decode(segment, pos));
+				pos++;
+				sb.append(readEscape());
+				segment = pos;
+				continue;
+			}
+			if (b < 0x20) {
+				throw unexpected(b);
+			}
+			pos++;
+		}
+
+		throw endOfInput();
+	}
+
+
+	/**
+	 * Decodes the specified UTF-8 bytes.
+	 *
+	 * @param from The start position (inclusive).
+	 * @param to   The end position (exclusive).
+	 *
+	 * @return The decoded string.
+	 */
+	@SuppressWarnings("deprecation")
+	private String decode(final int from, final int to) {
+
+		for (int i = from; i < to; i++) {
+			if (buf[i] < 0) {
+				return new String(buf, from, to - from, StandardCharset.UTF_8);
+			}
+		}
+
+		// ASCII only, copy as is
+		return new String(buf, 0, from, to - from);
+	}
+
+
+	/**
+	 * Skips a JSON string, the opening quote is already consumed.
+	 */
+	private void skipString()
+		throws ParseException {
+
+		while (pos < end) {
+			final int b = buf[pos] & 0xff;
+			if (b == '"') {
+				pos++;
+				return;
+			}
+			if (b == '\\') {
+				pos++;
+				readEscape();
+				continue;
+			}
+			if (b < 0x20) {
+				throw unexpected(b);
+			}
+			pos++;
+		}
+
+		throw endOfInput();
+	}
+
+
+	/**
+	 * Reads an escape sequence, the backslash is already consumed.
+	 *
+	 * @return The escaped character.
+	 */
+	private char readEscape()
+		throws ParseException {
+
+		if (pos >= end) {
+			throw endOfInput();
+		}
+
+		final int c = buf[pos++] & 0xff;
+
+		switch (c) {
+			case '"': return '"';
+			case '\\': return '\\';
+			case '/': return '/';
+			case 'b': return '\b';
+			case 'f': return '\f';
+			case 'n': return '\n';
+			case 'r': return '\r';
+			case 't': return '\t';
+			case 'u':
+				if (pos + 4 > end) {
+					throw endOfInput();
+				}
+				int value = 0;
+				for (int i = 0; i < 4; i++) {
+					final int d = Character.digit(buf[pos] & 0xff, 16);
+					if (d < 0) {
+						throw unexpected(buf[pos] & 0xff);
+					}
+					value = (value << 4) | d;
+					pos++;
+				}
+				return (char)value;
+			default:
+				pos--;
+				throw unexpected(c);
+		}
+	}
+
+
+	/**
+	 * Reads a JSON literal.
+	 *
+	 * @param literal The expected literal.
+	 */
+	private void readLiteral(final String literal)
+		throws ParseException {
+
+		final int start = pos;
+
+		for (int i = 0; i < literal.length(); i++) {
+			if (pos >= end || buf[pos] != literal.charAt(i)) {
+				throw unexpectedToken(start);
+			}
+			pos++;
+		}
+
+		if (pos < end && ! isDelimiter(buf[pos])) {
+			throw unexpectedToken(start);
+		}
+	}
+
+
+	/**
+	 * Reads a JSON number. Integers map to {@link Long}, or to
+	 * {@link BigInteger} if out of range. Fractions map to {@link Double},
+	 * or to {@link BigDecimal} if longer than 18 characters.
+	 *
+	 * @return The number.
+	 */
+	private Number readNumber()
+		throws ParseException {
+
+		final int start = pos;
+		final boolean integer = scanNumber();
+
+		if (integer && pos - start <= 18) {
+			// Fast path, can't overflow
+			int i = start;
+			final boolean negative = buf[i] == '-';
+			if (negative) {
+				i++;
+			}
+			long value = 0;
+			for (; i < pos; i++) {
+				value = value * 10 + (buf[i] - '0');
+			}
+			return negative ? -value : value;
+		}
+
+		final String s = new String(buf, start, pos - start, StandardCharset.UTF_8);
+
+		if (integer) {
+			try {
+				return Long.parseLong(s);
+			} catch (NumberFormatException e) {
+				return new BigInteger(s);
+			}
+		}
+
+		if (s.length() > 18) {
+			try {
+				return new BigDecimal(s);
+			} catch (NumberFormatException e) {
+				throw new ParseException("Invalid JSON: Number out of range at position " + start, start);
+			}
+		}
+
+		return Double.parseDouble(s);
+	}
+
+
+	/**
+	 * Scans a JSON number.
+	 *
+	 * @return {@code true} if the number is an integer, {@code false} if
+	 *         it has a fraction or an exponent.
+	 */
+	private boolean scanNumber()
+		throws ParseException {
+
+		final int start = pos;
+
+		if (pos < end && buf[pos] == '-') {
+			pos++;
+		}
+
+		if (pos >= end) {
+			throw endOfInput();
+		}
+
+		if (buf[pos] == '0') {
+			pos++;
+			if (pos < end && isDigit(buf[pos])) {
+				throw new ParseException("Invalid JSON: Unexpected leading 0 in number at position " + start, start);
+			}
+		} else if (isDigit(buf[pos])) {
+			skipDigits();
+		} else if (pos == start) {
+			throw unexpected(buf[pos] & 0xff);
+		} else {
+			throw unexpectedToken(start);
+		}
+
+		boolean integer = true;
+
+		if (pos < end && buf[pos] == '.') {
+			pos++;
+			integer = false;
+			if (pos >= end || ! isDigit(buf[pos])) {
+				throw unexpectedToken(start);
+			}
+			skipDigits();
+		}
+
+		if (pos < end && (buf[pos] == 'e' || buf[pos] == 'E')) {
+			pos++;
+			integer = false;
+			if (pos < end && (buf[pos] == '+' || buf[pos] == '-')) {
+				pos++;
+			}
+			if (pos >= end || ! isDigit(buf[pos])) {
+				throw unexpectedToken(start);
+			}
+			skipDigits();
+		}
+
+		if (pos < end && ! isDelimiter(buf[pos])) {
+			throw unexpectedToken(start);
+		}
+
+		return integer;
+	}
+
+
+	/**
+	 * Skips a run of decimal digits.
+	 */
+	private void skipDigits() {
+
+		while (pos < end && isDigit(buf[pos])) {
+			pos++;
+		}
+	}
+
+
+	/**
+	 * Skips white space and returns the next character without
+	 * consuming it.
+	 *
+	 * @return The next character.
+	 *
+	 * @throws ParseException If the end of the input is reached.
+	 */
+	private int peek()
+		throws ParseException {
+
+		skipWhiteSpace();
+
+		if (pos >= end) {
+			throw endOfInput();
+		}
+
+		return buf[pos] & 0xff;
+	}
+
+
+	/**
+	 * Skips white space and consumes the expected character.
+	 *
+	 * @param expected The expected character.
+	 *
+	 * @throws ParseException If a different character is found.
+	 */
+	private void expect(final char expected)
+		throws ParseException {
+
+		final int c = peek();
+
+		if (c != expected) {
+			throw unexpected(c);
+		}
+
+		pos++;
+	}
+
+
+	/**
+	 * Skips JSON white space.
+	 */
+	private void skipWhiteSpace() {
+
+		while (pos < end) {
+			final byte b = buf[pos];
+			if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+				return;
+			}
+			pos++;
+		}
+	}
+
+
+	/**
+	 * Returns {@code true} if the byte is a decimal digit.
+	 */
+	private static boolean isDigit(final byte b) {
+
+		return b >= '0' && b <= '9';
+	}
+
+
+	/**
+	 * Returns {@code true} if the byte may follow a number or literal.
+	 */
+	private static boolean isDelimiter(final byte b) {
+
+		return b == ',' || b == '}' || b == ']' || b == ' ' || b == '\n' || b == '\r' || b == '\t';
+	}
+
+
+	/**
+	 * Creates an unexpected character exception.
+	 */
+	private ParseException unexpected(final int c) {
+
+		return new ParseException("Invalid JSON: Unexpected character (" + (char)c + ") at position " + pos, pos);
+	}
+
+
+	/**
+	 * Creates an unexpected token exception.
+	 */
+	private ParseException unexpectedToken(final int start) {
+
+		int tokenEnd = start;
+		while (tokenEnd < end && ! isDelimiter(buf[tokenEnd]) && tokenEnd - start < 32) {
+			tokenEnd++;
+		}
+		String token = new String(buf, start, tokenEnd - start, StandardCharset.UTF_8);
+		return new ParseException("Invalid JSON: Unexpected token " + token + " at position " + start, start);
+	}
+
+
+	/**
+	 * Creates an unexpected end of input exception.
+	 */
+	private ParseException endOfInput() {
+
+		return new ParseException("Invalid JSON: Unexpected end of input at position " + pos, pos);
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.util;
+
+
+import java.text.ParseException;
+import java.util.Map;
+
+import net.jcip.annotations.ThreadSafe;
+import net.minidev.json.JSONObject;
+import net.minidev.json.parser.JSONParser;
+
+
+/**
+ * JSON Smart based JSON provider, as used by the library before the
+ * introduction of {@link JSONProvider}. Selective parsing parses the
+ * entire JSON object.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+@ThreadSafe
+public class JSONSmartProvider extends BaseJSONProvider {
+
+
+	@Override
+	public JSONObject parse(final String s)
+		throws ParseException {
+
+		Object o;
+
+		try {
+			o = new JSONParser(JSONParser.USE_HI_PRECISION_FLOAT | JSONParser.ACCEPT_TAILLING_SPACE).parse(s);
+
+		} catch (net.minidev.json.parser.ParseException e) {
+
+			throw new ParseException("Invalid JSON: " + e.getMessage(), 0);
+		}
+
+		if (o instanceof JSONObject) {
+			return (JSONObject)o;
+		} else {
+			throw new ParseException("JSON entity is not an object", 0);
+		}
+	}
+
+
+	@Override
+	public JSONObject parse(final byte[] bytes)
+		throws ParseException {
+
+		return parse(new String(bytes, StandardCharset.UTF_8));
+	}
+
+
+	@Override
+	public String toJSONString(final Map<String,?> o) {
+
+		return JSONObject.toJSONString(o);
+	}
+
+
+	@Override
+	public byte[] toJSONBytes(final Map<String,?> o) {
+
+		return toJSONString(o).getBytes(StandardCharset.UTF_8);
+	}
+}
@@ -0,0 +1,331 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.util;
+
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import net.minidev.json.JSONArray;
+import net.minidev.json.JSONAware;
+import net.minidev.json.JSONObject;
+import net.minidev.json.JSONStreamAware;
+import net.minidev.json.JSONValue;
+
+
+/**
+ * Streaming JSON writer, encodes directly into a UTF-8 byte buffer. The
+ * output is identical to that of {@link JSONObject#toJSONString()} with the
+ * default JSON Smart style, except for unpaired surrogates in strings,
+ * which cannot be encoded in UTF-8 and are written as Unicode escape
+ * sequences. Values of types other than strings, booleans, integers, maps
+ * and lists are delegated to JSON Smart.
+ *
+ * <p>This class is not thread-safe.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+final class JSONWriter {
+
+
+	/**
+	 * The hex digits.
+	 */
+	private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharset.UTF_8);
+
+
+	/**
+	 * The output buffer.
+	 */
+	private byte[] buf;
+
+
+	/**
+	 * The number of bytes written.
+	 */
+	private int len;
+
+
+	/**
+	 * Creates a new JSON writer.
+	 */
+	JSONWriter() {
+
+		buf = new byte[256];
+	}
+
+
+	/**
+	 * Writes the specified JSON object.
+	 *
+	 * @param o The JSON object. Must not be {@code null}.
+	 */
+	void writeObject(final Map<?,?> o) {
+
+		write('{');
+
+		boolean first = true;
+
+		for (Map.Entry<?,?> member: o.entrySet()) {
+
+			if (first) {
+				first = false;
+			} else {
+				write(',');
+			}
+
+			final Object name = member.getKey();
+
+			if (name == null) {
+				writeASCII("null");
+			} else {
+				writeString(name.toString());
+			}
+
+			write(':');
+			writeValue(member.getValue());
+		}
+
+		write('}');
+	}
+
+
+	/**
+	 * Writes the specified JSON array.
+	 *
+	 * @param a The JSON array. Must not be {@code null}.
+	 */
+	void writeArray(final List<?> a) {
+
+		write('[');
+
+		boolean first = true;
+
+		for (Object element: a) {
+
+			if (first) {
+				first = false;
+			} else {
+				write(',');
+			}
+
+			writeValue(element);
+		}
+
+		write(']');
+	}
+
+
+	/**
+	 * Writes the specified JSON value.
+	 *
+	 * @param value The value, {@code null} if none.
+	 */
+	void writeValue(final Object value) {
+
+		if (value == null) {
+			writeASCII("null");
+		} else if (value instanceof String) {
+			writeString((String)value);
+		} else if (value instanceof JSONObject) {
+			writeObject((JSONObject)value);
+		} else if (value instanceof JSONArray) {
+			writeArray((JSONArray)value);
+		} else if (value instanceof JSONAware || value instanceof JSONStreamAware) {
+			writeRaw(JSONValue.toJSONString(value));
+		} else if (value instanceof Boolean ||
+			value instanceof Long ||
+			value instanceof Integer ||
+			value instanceof Short ||
+			value instanceof Byte ||
+			value instanceof BigInteger) {
+			writeASCII(value.toString());
+		} else if (value instanceof Map) {
+			writeObject((Map<?,?>)value);
+		} else if (value instanceof List) {
+			writeArray((List<?>)value);
+		} else {
+			// Floating point numbers, arrays, dates, etc.
+			writeRaw(JSONValue.toJSONString(value));
+		}
+	}
+
+
+	/**
+	 * Writes the specified string as a quoted and escaped JSON string.
+	 * Unpaired surrogates are escaped.
+	 *
+	 * @param s The string. Must not be {@code null}.
+	 */
+	void writeString(final String s) {
+
+		final int length = s.length();
+
+		ensureCapacity(length + 2);
+
+		buf[len++] = '"';
+
+		for (int i = 0; i < length; i++) {
+
+			final char c = s.charAt(i);
+
+			if (c < 0x80) {
+				if (c >= 0x20 && c != '"' && c != '\\' && c != '/' && c != 0x7f) {
+					ensureCapacity(1);
+					buf[len++] = (byte)c;
+					continue;
+				}
+				switch (c) {
+					case '"': writeASCII("\\\""); break;
+					case '\\': writeASCII("\\\\"); break;
+					case '/': writeASCII("\\/"); break;
+					case '\b': writeASCII("\\b"); break;
+					case '\f': writeASCII("\\f"); break;
+					case '\n': writeASCII("\\n"); break;
+					case '\r': writeASCII("\\r"); break;
+					case '\t': writeASCII("\\t"); break;
+					default: writeUnicodeEscape(c);
+				}
+			} else if (c <= 0x9f || (c >= 0x2000 && c <= 0x20ff)) {
+				writeUnicodeEscape(c);
+			} else if (c < 0x800) {
+				ensureCapacity(2);
+				buf[len++] = (byte)(0xc0 | (c >> 6));
+				buf[len++] = (byte)(0x80 | (c & 0x3f));
+			} else if (Character.isSurrogate(c)) {
+				if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+					final int cp = Character.toCodePoint(c, s.charAt(++i));
+					ensureCapacity(4);
+					buf[len++] = (byte)(0xf0 | (cp >> 18));
+					buf[len++] = (byte)(0x80 | ((cp >> 12) & 0x3f));
+					buf[len++] = (byte)(0x80 | ((cp >> 6) & 0x3f));
+					buf[len++] = (byte)(0x80 | (cp & 0x3f));
+				} else {
+					// Unpaired surrogate, not encodable in UTF-8,
+					// escape to preserve it
+					writeUnicodeEscape(c);
+				}
+			} else {
+				ensureCapacity(3);
+				buf[len++] = (byte)(0xe0 | (c >> 12));
+				buf[len++] = (byte)(0x80 | ((c >> 6) & 0x3f));
+				buf[len++] = (byte)(0x80 | (c & 0x3f));
+			}
+		}
+
+		write('"');
+	}
+
+
+	/**
+	 * Writes the specified character as a Unicode escape sequence.
+	 *
+	 * @param c The character.
+	 */
+	private void writeUnicodeEscape(final char c) {
+
+		ensureCapacity(6);
+		buf[len++] = '\\';
+		buf[len++] = 'u';
+		buf[len++] = HEX[(c >> 12) & 0xf];
+		buf[len++] = HEX[(c >> 8) & 0xf];
+		buf[len++] = HEX[(c >> 4) & 0xf];
+		buf[len++] = HEX[c & 0xf];
+	}
+
+
+	/**
+	 * Writes the specified pre-serialised JSON.
+	 *
+	 * @param json The JSON. Must not be {@code null}.
+	 */
+	private void writeRaw(final String json) {
+
+		final byte[] bytes = json.getBytes(StandardCharset.UTF_8);
+		ensureCapacity(bytes.length);
+		System.arraycopy(bytes, 0, buf, len, bytes.length);
+		len += bytes.length;
+	}
+
+
+	/**
+	 * Writes the specified ASCII string without escaping.
+	 *
+	 * @param s The ASCII string. Must not be {@code null}.
+	 */
+	private void writeASCII(final String s) {
+
+		final int length = s.length();
+		ensureCapacity(length);
+
+		for (int i = 0; i < length; i++) {
+			buf[len++] = (byte)s.charAt(i);
+		}
+	}
+
+
+	/**
+	 * Writes the specified ASCII character.
+	 *
+	 * @param c The ASCII character.
+	 */
+	private void write(final char c) {
+
+		ensureCapacity(1);
+		buf[len++] = (byte)c;
+	}
+
+
+	/**
+	 * Grows the buffer if required.
+	 *
+	 * @param additional The number of bytes to be written.
+	 */
+	private void ensureCapacity(final int additional) {
+
+		if (len + additional > buf.length) {
+			buf = Arrays.copyOf(buf, Math.max(buf.length << 1, len + additional));
+		}
+	}
+
+
+	/**
+	 * Returns the written UTF-8 encoded JSON.
+	 *
+	 * @return The JSON bytes.
+	 */
+	byte[] toByteArray() {
+
+		return Arrays.copyOf(buf, len);
+	}
+
+
+	/**
+	 * Returns the written JSON as a string.
+	 *
+	 * @return The JSON string.
+	 */
+	@Override
+	public String toString() {
+
+		return new String(buf, 0, len, StandardCharset.UTF_8);
+	}
+}
@@ -0,0 +1,113 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.util;
+
+
+import java.text.ParseException;
+import java.util.Map;
+import java.util.Set;
+
+import net.jcip.annotations.ThreadSafe;
+import net.minidev.json.JSONObject;
+
+
+/**
+ * Streaming JSON provider. Parses with a {@link JSONReader} directly from
+ * the UTF-8 bytes and serialises directly into a UTF-8 byte buffer, with no
+ * dependencies beyond the JSON Smart object and array types exposed by the
+ * API. Produces the same Java entities and the same JSON output as
+ * {@link JSONSmartProvider}, except that unpaired surrogates in strings,
+ * which cannot be encoded in UTF-8, are serialised as Unicode escape
+ * sequences. These parse back to the same string. Selective parsing skips
+ * the values of the other members without materialising them. This is the
+ * default provider.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+@ThreadSafe
+public class StreamingJSONProvider implements JSONProvider {
+
+
+	@Override
+	public JSONObject parse(final String s)
+		throws ParseException {
+
+		return parse(s.getBytes(StandardCharset.UTF_8));
+	}
+
+
+	@Override
+	public JSONObject parse(final byte[] bytes)
+		throws ParseException {
+
+		JSONReader reader = new JSONReader(bytes);
+		Object o = reader.readValue();
+		reader.endDocument();
+
+		if (o instanceof JSONObject) {
+			return (JSONObject)o;
+		} else {
+			throw new ParseException("JSON entity is not an object", 0);
+		}
+	}
+
+
+	@Override
+	public JSONObject parse(final byte[] bytes, final Set<String> memberNames)
+		throws ParseException {
+
+		JSONObject o = new JSONObject();
+
+		JSONReader reader = new JSONReader(bytes);
+		reader.beginObject();
+
+		String name;
+
+		while ((name = reader.nextName()) != null) {
+
+			if (memberNames.contains(name)) {
+				o.put(name, reader.readValue());
+			} else {
+				reader.skipValue();
+			}
+		}
+
+		reader.endDocument();
+
+		return o;
+	}
+
+
+	@Override
+	public String toJSONString(final Map<String,?> o) {
+
+		JSONWriter writer = new JSONWriter();
+		writer.writeObject(o);
+		return writer.toString();
+	}
+
+
+	@Override
+	public byte[] toJSONBytes(final Map<String,?> o) {
+
+		JSONWriter writer = new JSONWriter();
+		writer.writeObject(o);
+		return writer.toByteArray();
+	}
+}
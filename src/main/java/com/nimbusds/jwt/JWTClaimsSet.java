@@ -72,7 +72,7 @@ import net.minidev.json.JSONObject;
  *
  * @author Vladimir Dzhuvinov
  * @author Justin Richer
- * @version 2018-08-23
+ * @version 2026-10-18
  */
 @Immutable
 public final class JWTClaimsSet implements Serializable {
@@ -835,7 +835,7 @@ public final class JWTClaimsSet implements Serializable {
 	@Override
 	public String toString() {
 
-		return toJSONObject().toJSONString();
+		return JSONObjectUtils.toJSONString(toJSONObject());
 	}
 
 
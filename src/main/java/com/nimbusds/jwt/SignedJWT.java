@@ -19,6 +19,7 @@ package com.nimbusds.jwt;
 
 
 import java.text.ParseException;
+import java.util.Set;
 
 import net.jcip.annotations.ThreadSafe;
 
@@ -35,7 +36,7 @@ import com.nimbusds.jose.util.Base64URL;
  * Signed JSON Web Token (JWT).
  *
  * @author Vladimir Dzhuvinov
- * @version 2015-08-19
+ * @version 2026-10-18
  */
 @ThreadSafe
 public class SignedJWT extends JWSObject implements JWT {
@@ -93,6 +94,39 @@ public class SignedJWT extends JWSObject implements JWT {
 	}
 
 
+	/**
+	 * Retrieves selected claims of the JWT claims set, for example only
+	 * the issuer and the expiration time for routing or a pre-check. With
+	 * the default JSON provider the payload is scanned in a single pass
+	 * and the values of other claims, such as large custom claim trees,
+	 * are not materialised. The selected registered claims are available
+	 * through the typed getters of the returned claims set.
+	 *
+	 * <p>The returned claims set is not verified, check the signature
+	 * before relying on it.
+	 *
+	 * @param claimNames The names of the claims to retrieve. Must not be
+	 *                   {@code null}.
+	 *
+	 * @return The JWT claims set with the selected claims found in the
+	 *         payload.
+	 *
+	 * @throws ParseException If the payload of the JWT doesn't represent
+	 *                        a valid JSON object and a JWT claims set.
+	 */
+	public JWTClaimsSet getJWTClaimsSet(final Set<String> claimNames)
+		throws ParseException {
+
+		JSONObject json = getPayload().toJSONObject(claimNames);
+
+		if (json == null) {
+			throw new ParseException("Payload of JWS object is not a valid JSON object", 0);
+		}
+
+		return JWTClaimsSet.parse(json);
+	}
+
+
 	/**
 	 * Parses a signed JSON Web Token (JWT) from the specified string in 
 	 * compact format. 
@@ -0,0 +1,490 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.nimbusds.jwt.proc;
+
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.source.KeyGenerationAware;
+import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jose.util.StandardCharset;
+import com.nimbusds.jwt.*;
+import net.jcip.annotations.ThreadSafe;
+
+
+/**
+ * JWT processor that caches the claims of successfully processed JWTs, to
+ * skip the signature verification / decryption when the same token is
+ * presented again. Intended for resource servers that receive the same
+ * access token many times within its lifetime.
+ *
+ * <p>The cache is keyed by the SHA-256 digest of the compact JWT string.
+ * Only JWTs with an expiration time (exp) are cached. The cache is bounded to
+ * the specified maximum number of entries, when full the least recently used
+ * entry is evicted. An entry is also discarded:
+ *
+ * <ul>
+ *     <li>At the expiration time minus the maximum clock skew of the claims
+ *         verifier, if it is {@link ClockSkewAware}.
+ *     <li>When the key generation of the optional
+ *         {@link KeyGenerationAware key source}, such as a
+ *         {@link com.nimbusds.jose.jwk.source.RemoteJWKSet}, changes.
+ * </ul>
+ *
+ * <p>On a cache hit the claims set verifier is run again, so checks that
+ * depend on the current time (or on the context) are still applied. Rejected
+ * JWTs are never cached.
+ *
+ * <p>Note that the key selection is not repeated on a cache hit. Don't use
+ * this processor if the key candidates depend on the security context, for
+ * instance when they are selected per tenant.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * RemoteJWKSet&lt;SecurityContext&gt; jwkSource = new RemoteJWKSet&lt;&gt;(jwkSetURL);
+ * DefaultJWTProcessor&lt;SecurityContext&gt; processor = new DefaultJWTProcessor&lt;&gt;();
+ * processor.setJWSKeySelector(new JWSVerificationKeySelector&lt;&gt;(JWSAlgorithm.RS256, jwkSource));
+ *
+ * JWTProcessor&lt;SecurityContext&gt; cachingProcessor = new CachingJWTProcessor&lt;&gt;(processor, 10000, jwkSource);
+ * </pre>
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+@ThreadSafe
+public class CachingJWTProcessor<C extends SecurityContext> implements JWTProcessor<C> {
+
+
+	/**
+	 * Cached verified JWT claims set.
+	 */
+	private static final class Entry {
+
+
+		/**
+		 * The verified claims set.
+		 */
+		private final JWTClaimsSet claimsSet;
+
+
+		/**
+		 * The entry expiration time, in milliseconds since the Unix
+		 * epoch.
+		 */
+		private final long expiresAt;
+
+
+		/**
+		 * The key generation when the JWT was verified.
+		 */
+		private final long keyGeneration;
+
+
+		/**
+		 * Creates a new cache entry.
+		 *
+		 * @param claimsSet     The verified claims set.
+		 * @param expiresAt     The entry expiration time, in
+		 *                      milliseconds since the Unix epoch.
+		 * @param keyGeneration The key generation.
+		 */
+		private Entry(final JWTClaimsSet claimsSet, final long expiresAt, final long keyGeneration) {
+			this.claimsSet = claimsSet;
+			this.expiresAt = expiresAt;
+			this.keyGeneration = keyGeneration;
+		}
+	}
+
+
+	/**
+	 * The underlying JWT processor.
+	 */
+	private final JWTProcessor<C> processor;
+
+
+	/**
+	 * The claims set verifier to run on cache hits, {@code null} to use
+	 * the one configured for the underlying processor.
+	 */
+	private final JWTClaimsSetVerifier<C> claimsVerifier;
+
+
+	/**
+	 * The key source for detecting key changes, {@code null} if none.
+	 */
+	private final KeyGenerationAware keyGenerationSource;
+
+
+	/**
+	 * The maximum number of cached entries.
+	 */
+	private final int maxEntries;
+
+
+	/**
+	 * The cached entries, keyed by JWT digest, in access order. Guarded
+	 * by its own lock.
+	 */
+	private final LinkedHashMap<String,Entry> entries;
+
+
+	/**
+	 * Creates a new caching JWT processor. On cache hits the claims set
+	 * verifier of the underlying processor is run, if it is a
+	 * {@link JWTProcessorConfiguration}.
+	 *
+	 * @param processor           The underlying JWT processor. Must not
+	 *                            be {@code null}.
+	 * @param maxEntries          The maximum number of cached JWTs. Must
+	 *                            be positive.
+	 * @param keyGenerationSource The key source for detecting key
+	 *                            changes, {@code null} if none.
+	 */
+	public CachingJWTProcessor(final JWTProcessor<C> processor,
+				   final int maxEntries,
+				   final KeyGenerationAware keyGenerationSource) {
+
+		this(processor, maxEntries, keyGenerationSource, null);
+	}
+
+
+	/**
+	 * Creates a new caching JWT processor.
+	 *
+	 * @param processor           The underlying JWT processor. Must not
+	 *                            be {@code null}.
+	 * @param maxEntries          The maximum number of cached JWTs. Must
+	 *                            be positive.
+	 * @param keyGenerationSource The key source for detecting key
+	 *                            changes, {@code null} if none.
+	 * @param claimsVerifier      The claims set verifier to run on cache
+	 *                            hits, {@code null} to use the one of the
+	 *                            underlying processor, if it is a
+	 *                            {@link JWTProcessorConfiguration}.
+	 */
+	public CachingJWTProcessor(final JWTProcessor<C> processor,
+				   final int maxEntries,
+				   final KeyGenerationAware keyGenerationSource,
+				   final JWTClaimsSetVerifier<C> claimsVerifier) {
+
+		if (processor == null) {
+			throw new IllegalArgumentException("The JWT processor must not be null");
+		}
+
+		if (maxEntries < 1) {
+			throw new IllegalArgumentException("The maximum number of cached JWTs must be positive");
+		}
+
+		this.processor = processor;
+		this.maxEntries = maxEntries;
+
+		entries = new LinkedHashMap<String,Entry>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<String,Entry> eldest) {
+
+				return size() > CachingJWTProcessor.this.maxEntries;
+			}
+		};
+		this.keyGenerationSource = keyGenerationSource;
+		this.claimsVerifier = claimsVerifier;
+	}
+
+
+	/**
+	 * Returns the underlying JWT processor.
+	 *
+	 * @return The underlying JWT processor.
+	 */
+	public JWTProcessor<C> getJWTProcessor() {
+
+		return processor;
+	}
+
+
+	/**
+	 * Returns the maximum number of cached JWTs. When the cache is full
+	 * the least recently used JWT is evicted.
+	 *
+	 * @return The maximum number of cached JWTs.
+	 */
+	public int getMaxEntries() {
+
+		return maxEntries;
+	}
+
+
+	/**
+	 * Returns the number of currently cached JWTs, including any expired
+	 * ones not yet evicted.
+	 *
+	 * @return The number of cached JWTs.
+	 */
+	public int size() {
+
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+
+	/**
+	 * Removes all cached JWTs.
+	 */
+	public void clear() {
+
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+
+
+	/**
+	 * Returns the current key generation.
+	 *
+	 * @return The key generation, zero if no key source is set.
+	 */
+	private long currentKeyGeneration() {
+
+		return keyGenerationSource != null ? keyGenerationSource.getKeyGeneration() : 0L;
+	}
+
+
+	/**
+	 * Computes the cache key for the specified compact JWT string.
+	 *
+	 * @param jwtString The compact JWT string. Must not be {@code null}.
+	 *
+	 * @return The cache key.
+	 *
+	 * @throws JOSEException If SHA-256 is not supported.
+	 */
+	private static String computeCacheKey(final String jwtString)
+		throws JOSEException {
+
+		try {
+			MessageDigest md = MessageDigest.getInstance("SHA-256");
+			return Base64URL.encode(md.digest(jwtString.getBytes(StandardCharset.UTF_8))).toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new JOSEException("Couldn't compute JWT digest: " + e.getMessage(), e);
+		}
+	}
+
+
+	/**
+	 * Runs the claims set verifier for a cache hit.
+	 *
+	 * @param claimsSet The cached claims set. Must not be {@code null}.
+	 * @param context   Optional context, {@code null} if not required.
+	 *
+	 * @throws BadJWTException If the claims set is rejected.
+	 */
+	@SuppressWarnings("deprecation")
+	private void verifyClaims(final JWTClaimsSet claimsSet, final C context)
+		throws BadJWTException {
+
+		if (claimsVerifier != null) {
+			claimsVerifier.verify(claimsSet, context);
+			return;
+		}
+
+		if (processor instanceof JWTProcessorConfiguration) {
+
+			@SuppressWarnings("unchecked")
+			JWTProcessorConfiguration<C> config = (JWTProcessorConfiguration<C>)processor;
+
+			if (config.getJWTClaimsSetVerifier() != null) {
+				config.getJWTClaimsSetVerifier().verify(claimsSet, context);
+			} else if (config.getJWTClaimsVerifier() != null) {
+				config.getJWTClaimsVerifier().verify(claimsSet);
+			}
+		}
+	}
+
+
+	/**
+	 * Returns the maximum clock skew of the claims set verifier.
+	 *
+	 * @return The maximum clock skew, in seconds, zero if not known.
+	 */
+	private int getMaxClockSkew() {
+
+		Object verifier = claimsVerifier;
+
+		if (verifier == null && processor instanceof JWTProcessorConfiguration) {
+			verifier = ((JWTProcessorConfiguration<?>)processor).getJWTClaimsSetVerifier();
+		}
+
+		if (verifier instanceof ClockSkewAware) {
+			return Math.max(0, ((ClockSkewAware)verifier).getMaxClockSkew());
+		}
+
+		return 0;
+	}
+
+
+	/**
+	 * Looks up the cached claims set for the specified cache key and
+	 * verifies it.
+	 *
+	 * @param cacheKey The cache key. Must not be {@code null}.
+	 * @param context  Optional context, {@code null} if not required.
+	 *
+	 * @return The verified claims set, {@code null} if not cached.
+	 *
+	 * @throws BadJWTException If the cached claims set is rejected.
+	 */
+	private JWTClaimsSet lookUp(final String cacheKey, final C context)
+		throws BadJWTException {
+
+		final Entry entry;
+
+		synchronized (entries) {
+
+			entry = entries.get(cacheKey);
+
+			if (entry == null) {
+				return null;
+			}
+
+			if (entry.expiresAt <= System.currentTimeMillis() || entry.keyGeneration != currentKeyGeneration()) {
+				entries.remove(cacheKey);
+				return null;
+			}
+		}
+
+		verifyClaims(entry.claimsSet, context);
+
+		return entry.claimsSet;
+	}
+
+
+	/**
+	 * Caches the specified verified claims set, if it has an expiration
+	 * time.
+	 *
+	 * @param cacheKey      The cache key. Must not be {@code null}.
+	 * @param claimsSet     The verified claims set. Must not be
+	 *                      {@code null}.
+	 * @param keyGeneration The key generation before the JWT was
+	 *                      processed.
+	 */
+	private void cache(final String cacheKey, final JWTClaimsSet claimsSet, final long keyGeneration) {
+
+		final Date exp = claimsSet.getExpirationTime();
+
+		if (exp == null) {
+			return;
+		}
+
+		final long now = System.currentTimeMillis();
+		final long expiresAt = exp.getTime() - getMaxClockSkew() * 1000L;
+
+		if (expiresAt <= now) {
+			return;
+		}
+
+		synchronized (entries) {
+			// Evicts the least recently used entry if full
+			entries.put(cacheKey, new Entry(claimsSet, expiresAt, keyGeneration));
+		}
+	}
+
+
+	@Override
+	public JWTClaimsSet process(final String jwtString, final C context)
+		throws ParseException, BadJOSEException, JOSEException {
+
+		final String cacheKey = computeCacheKey(jwtString);
+
+		JWTClaimsSet claimsSet = lookUp(cacheKey, context);
+
+		if (claimsSet != null) {
+			return claimsSet;
+		}
+
+		final long keyGeneration = currentKeyGeneration();
+
+		claimsSet = processor.process(jwtString, context);
+
+		cache(cacheKey, claimsSet, keyGeneration);
+
+		return claimsSet;
+	}
+
+
+	@Override
+	public JWTClaimsSet process(final JWT jwt, final C context)
+		throws BadJOSEException, JOSEException {
+
+		if (jwt.getParsedString() == null) {
+			return processor.process(jwt, context);
+		}
+
+		final String cacheKey = computeCacheKey(jwt.getParsedString());
+
+		JWTClaimsSet claimsSet = lookUp(cacheKey, context);
+
+		if (claimsSet != null) {
+			return claimsSet;
+		}
+
+		final long keyGeneration = currentKeyGeneration();
+
+		claimsSet = processor.process(jwt, context);
+
+		cache(cacheKey, claimsSet, keyGeneration);
+
+		return claimsSet;
+	}
+
+
+	@Override
+	public JWTClaimsSet process(final PlainJWT plainJWT, final C context)
+		throws BadJOSEException, JOSEException {
+
+		// Nothing to save, unsecured JWTs are not cached
+		return processor.process(plainJWT, context);
+	}
+
+
+	@Override
+	public JWTClaimsSet process(final SignedJWT signedJWT, final C context)
+		throws BadJOSEException, JOSEException {
+
+		return process((JWT)signedJWT, context);
+	}
+
+
+	@Override
+	public JWTClaimsSet process(final EncryptedJWT encryptedJWT, final C context)
+		throws BadJOSEException, JOSEException {
+
+		return process((JWT)encryptedJWT, context);
+	}
+}
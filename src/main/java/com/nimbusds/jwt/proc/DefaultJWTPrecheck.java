@@ -0,0 +1,273 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.nimbusds.jwt.proc;
+
+
+import java.text.ParseException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWT;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.util.DateUtils;
+import net.jcip.annotations.ThreadSafe;
+
+
+/**
+ * Default JWT pre-check. This class is thread-safe.
+ *
+ * <p>Performs the following checks on the unverified JWT:
+ *
+ * <ol>
+ *     <li>If a maximum header length is set, makes sure the Base64URL
+ *         encoded header doesn't exceed it.
+ *     <li>If accepted types are set, makes sure the type (typ) header
+ *         parameter is one of them.
+ *     <li>If the claims are readable (signed and plain JWTs, decrypted
+ *         JWTs):
+ *         <ul>
+ *             <li>If an expiration time (exp) claim is present, makes sure
+ *                 it is ahead of the current time.
+ *             <li>If accepted issuers are set, makes sure the issuer
+ *                 (iss) claim is one of them.
+ *             <li>If accepted audience values are set, makes sure the
+ *                 audience (aud) claim contains at least one of them.
+ *         </ul>
+ * </ol>
+ *
+ * <p>The claims of a still encrypted JWT are not readable, for those only
+ * the header checks apply.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+@ThreadSafe
+public class DefaultJWTPrecheck <C extends SecurityContext> implements JWTPrecheck<C>, ClockSkewAware {
+
+
+	// Cache exceptions
+
+
+	/**
+	 * Header too large.
+	 */
+	private static final BadJWTException HEADER_TOO_LARGE_EXCEPTION = new BadJWTException("JWT header too large");
+
+
+	/**
+	 * Unexpected type.
+	 */
+	private static final BadJWTException UNEXPECTED_TYPE_EXCEPTION = new BadJWTException("Unexpected JWT type");
+
+
+	/**
+	 * Expired JWT.
+	 */
+	private static final BadJWTException EXPIRED_JWT_EXCEPTION = new BadJWTException("Expired JWT");
+
+
+	/**
+	 * Unexpected issuer.
+	 */
+	private static final BadJWTException UNEXPECTED_ISSUER_EXCEPTION = new BadJWTException("Unexpected JWT issuer");
+
+
+	/**
+	 * Unexpected audience.
+	 */
+	private static final BadJWTException UNEXPECTED_AUDIENCE_EXCEPTION = new BadJWTException("Unexpected JWT audience");
+
+
+	/**
+	 * The maximum Base64URL encoded header length, zero if not limited.
+	 */
+	private final int maxHeaderLength;
+
+
+	/**
+	 * The accepted types, {@code null} if not checked.
+	 */
+	private final Set<JOSEObjectType> acceptedTypes;
+
+
+	/**
+	 * The accepted issuers, {@code null} if not checked.
+	 */
+	private final Set<String> acceptedIssuers;
+
+
+	/**
+	 * The accepted audience values, {@code null} if not checked.
+	 */
+	private final Set<String> acceptedAudience;
+
+
+	/**
+	 * The maximum acceptable clock skew, in seconds.
+	 */
+	private int maxClockSkew = DefaultJWTClaimsVerifier.DEFAULT_MAX_CLOCK_SKEW_SECONDS;
+
+
+	/**
+	 * Creates a new default JWT pre-check which only checks the
+	 * expiration time.
+	 */
+	public DefaultJWTPrecheck() {
+
+		this(0, null, null, null);
+	}
+
+
+	/**
+	 * Creates a new default JWT pre-check.
+	 *
+	 * @param maxHeaderLength  The maximum Base64URL encoded header
+	 *                         length, zero if not limited. Must not be
+	 *                         negative.
+	 * @param acceptedTypes    The accepted types (typ), {@code null} if
+	 *                         not checked. To accept JWTs without a type
+	 *                         include a {@code null} element.
+	 * @param acceptedIssuers  The accepted issuers (iss), {@code null} if
+	 *                         not checked.
+	 * @param acceptedAudience The accepted audience values (aud),
+	 *                         {@code null} if not checked.
+	 */
+	public DefaultJWTPrecheck(final int maxHeaderLength,
+				  final Set<JOSEObjectType> acceptedTypes,
+				  final Set<String> acceptedIssuers,
+				  final Set<String> acceptedAudience) {
+
+		if (maxHeaderLength < 0) {
+			throw new IllegalArgumentException("The maximum header length must not be negative");
+		}
+
+		this.maxHeaderLength = maxHeaderLength;
+		this.acceptedTypes = acceptedTypes != null ? Collections.unmodifiableSet(new HashSet<>(acceptedTypes)) : null;
+		this.acceptedIssuers = acceptedIssuers != null ? Collections.unmodifiableSet(new HashSet<>(acceptedIssuers)) : null;
+		this.acceptedAudience = acceptedAudience != null ? Collections.unmodifiableSet(new HashSet<>(acceptedAudience)) : null;
+	}
+
+
+	/**
+	 * Returns the maximum Base64URL encoded header length.
+	 *
+	 * @return The maximum header length, zero if not limited.
+	 */
+	public int getMaxHeaderLength() {
+
+		return maxHeaderLength;
+	}
+
+
+	/**
+	 * Returns the accepted types (typ).
+	 *
+	 * @return The accepted types, {@code null} if not checked.
+	 */
+	public Set<JOSEObjectType> getAcceptedTypes() {
+
+		return acceptedTypes;
+	}
+
+
+	/**
+	 * Returns the accepted issuers (iss).
+	 *
+	 * @return The accepted issuers, {@code null} if not checked.
+	 */
+	public Set<String> getAcceptedIssuers() {
+
+		return acceptedIssuers;
+	}
+
+
+	/**
+	 * Returns the accepted audience values (aud).
+	 *
+	 * @return The accepted audience values, {@code null} if not
+	 *         checked.
+	 */
+	public Set<String> getAcceptedAudience() {
+
+		return acceptedAudience;
+	}
+
+
+	@Override
+	public int getMaxClockSkew() {
+		return maxClockSkew;
+	}
+
+
+	@Override
+	public void setMaxClockSkew(int maxClockSkewSeconds) {
+		maxClockSkew = maxClockSkewSeconds;
+	}
+
+
+	@Override
+	public void precheck(final JWT jwt, final C context)
+		throws BadJWTException {
+
+		if (maxHeaderLength > 0 && jwt.getHeader().toBase64URL().toString().length() > maxHeaderLength) {
+			throw HEADER_TOO_LARGE_EXCEPTION;
+		}
+
+		if (acceptedTypes != null && ! acceptedTypes.contains(jwt.getHeader().getType())) {
+			throw UNEXPECTED_TYPE_EXCEPTION;
+		}
+
+		final JWTClaimsSet claimsSet;
+
+		try {
+			claimsSet = jwt.getJWTClaimsSet();
+
+		} catch (ParseException e) {
+			// Payload not a JSON object
+			throw new BadJWTException(e.getMessage(), e);
+		}
+
+		if (claimsSet == null) {
+			// Encrypted, claims not readable yet
+			return;
+		}
+
+		final Date exp = claimsSet.getExpirationTime();
+
+		if (exp != null && ! DateUtils.isAfter(exp, new Date(), maxClockSkew)) {
+			throw EXPIRED_JWT_EXCEPTION;
+		}
+
+		if (acceptedIssuers != null && ! acceptedIssuers.contains(claimsSet.getIssuer())) {
+			throw UNEXPECTED_ISSUER_EXCEPTION;
+		}
+
+		if (acceptedAudience != null) {
+
+			List<String> aud = claimsSet.getAudience();
+
+			if (aud == null || Collections.disjoint(aud, acceptedAudience)) {
+				throw UNEXPECTED_AUDIENCE_EXCEPTION;
+			}
+		}
+	}
+}
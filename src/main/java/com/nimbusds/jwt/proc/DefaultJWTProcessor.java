@@ -20,14 +20,22 @@ package com.nimbusds.jwt.proc;
 
 import java.security.Key;
 import java.text.ParseException;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.concurrent.*;
 
+import com.nimbusds.jose.Header;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWEDecrypter;
+import com.nimbusds.jose.JWEHeader;
+import com.nimbusds.jose.JWSHeader;
 import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.KeySourceException;
 import com.nimbusds.jose.crypto.factories.DefaultJWEDecrypterFactory;
 import com.nimbusds.jose.crypto.factories.DefaultJWSVerifierFactory;
+import com.nimbusds.jose.instrumentation.JOSEEvent;
+import com.nimbusds.jose.instrumentation.JOSEInstrumentation;
 import com.nimbusds.jose.proc.*;
 import com.nimbusds.jwt.*;
 
@@ -76,11 +84,26 @@ import com.nimbusds.jwt.*;
  * verifier may be extended to perform additional checks, such as issuer and
  * subject acceptance.
  *
+ * <p>An optional {@link JWTPrecheck JWT pre-check} can be set to reject
+ * obviously unacceptable JWTs, for instance expired ones or ones from an
+ * unexpected issuer, before any key selection, signature verification or
+ * decryption takes place. The pre-check inspects unverified values and can
+ * therefore only reject; see {@link DefaultJWTPrecheck}.
+ *
+ * <p>When the JWS key selector returns several key candidates, for instance
+ * for a signed JWT without a key ID, they are tried one after another. An
+ * optional {@link #setJWSVerificationExecutor executor} can be set to try
+ * them concurrently instead, returning on the first successful
+ * verification.
+ *
+ * <p>The processing stages are reported to the
+ * {@link JOSEInstrumentation JOSE instrumentation}, if enabled.
+ *
  * <p>To process generic JOSE objects (with arbitrary payloads) use the
  * {@link com.nimbusds.jose.proc.DefaultJOSEProcessor} class.
  *
  * @author Vladimir Dzhuvinov
- * @version 2017-05-05
+ * @version 2026-10-18
  */
 public class DefaultJWTProcessor<C extends SecurityContext>
 	implements ConfigurableJWTProcessor<C> {
@@ -133,6 +156,19 @@ public class DefaultJWTProcessor<C extends SecurityContext>
 	private JWEDecrypterFactory jweDecrypterFactory = new DefaultJWEDecrypterFactory();
 
 
+	/**
+	 * The executor for concurrent JWS verification with multiple key
+	 * candidates, {@code null} if none.
+	 */
+	private Executor jwsVerificationExecutor = null;
+
+
+	/**
+	 * The JWT pre-check, {@code null} if none.
+	 */
+	private JWTPrecheck<C> jwtPrecheck = null;
+
+
 	/**
 	 * The claims verifier.
 	 */
@@ -233,6 +269,60 @@ public class DefaultJWTProcessor<C extends SecurityContext>
 	}
 
 
+	/**
+	 * Gets the optional JWT pre-check, applied to JWTs before key
+	 * selection, signature verification and decryption.
+	 *
+	 * @return The JWT pre-check, {@code null} if not specified.
+	 */
+	public JWTPrecheck<C> getJWTPrecheck() {
+
+		return jwtPrecheck;
+	}
+
+
+	/**
+	 * Sets the optional JWT pre-check, applied to JWTs before key
+	 * selection, signature verification and decryption.
+	 *
+	 * @param jwtPrecheck The JWT pre-check, {@code null} if not
+	 *                    specified.
+	 */
+	public void setJWTPrecheck(final JWTPrecheck<C> jwtPrecheck) {
+
+		this.jwtPrecheck = jwtPrecheck;
+	}
+
+
+	/**
+	 * Gets the optional executor for concurrent JWS verification with
+	 * multiple key candidates.
+	 *
+	 * @return The executor, {@code null} if not specified.
+	 */
+	public Executor getJWSVerificationExecutor() {
+
+		return jwsVerificationExecutor;
+	}
+
+
+	/**
+	 * Sets the optional executor for concurrent JWS verification with
+	 * multiple key candidates. Each candidate is tried with its own
+	 * verifier on the executor and processing continues on the first
+	 * successful verification; the remaining attempts are cancelled.
+	 * As with sequential verification the signed JWT is put into
+	 * {@link com.nimbusds.jose.JWSObject.State#VERIFIED verified} state.
+	 *
+	 * @param executor The executor, {@code null} to try the key
+	 *                 candidates sequentially.
+	 */
+	public void setJWSVerificationExecutor(final Executor executor) {
+
+		jwsVerificationExecutor = executor;
+	}
+
+
 	/**
 	 * Verifies the claims of the specified JWT.
 	 *
@@ -247,32 +337,134 @@ public class DefaultJWTProcessor<C extends SecurityContext>
 	private JWTClaimsSet verifyAndReturnClaims(final JWT jwt, final C context)
 		throws BadJWTException {
 
+		final JOSEInstrumentation.Stage stage = JOSEInstrumentation.start(JOSEEvent.Type.CLAIMS_VERIFICATION);
+
 		JWTClaimsSet claimsSet;
 
 		try {
-			claimsSet = jwt.getJWTClaimsSet();
+			try {
+				claimsSet = jwt.getJWTClaimsSet();
 
-		} catch (ParseException e) {
-			// Payload not a JSON object
-			throw new BadJWTException(e.getMessage(), e);
-		}
+			} catch (ParseException e) {
+				// Payload not a JSON object
+				throw new BadJWTException(e.getMessage(), e);
+			}
+
+			if (getJWTClaimsSetVerifier() != null) {
+				getJWTClaimsSetVerifier().verify(claimsSet, context);
+			} else if (getJWTClaimsVerifier() != null) {
+				// Fall back to deprecated claims verifier
+				getJWTClaimsVerifier().verify(claimsSet);
+			}
 
-		if (getJWTClaimsSetVerifier() != null) {
-			getJWTClaimsSetVerifier().verify(claimsSet, context);
-		} else if (getJWTClaimsVerifier() != null) {
-			// Fall back to deprecated claims verifier
-			getJWTClaimsVerifier().verify(claimsSet);
+		} catch (BadJWTException e) {
+			JOSEInstrumentation.reportFailure(stage, jwt.getHeader(), e);
+			throw e;
 		}
 
+		JOSEInstrumentation.report(stage, jwt.getHeader(), null);
+
 		return claimsSet;
 	}
 
 
+	/**
+	 * Notifies the JWS key selector, if {@link VerifiedKeyAware}, of the
+	 * key candidate that verified a JWS object.
+	 *
+	 * @param jwsHeader The JWS header. Must not be {@code null}.
+	 * @param key       The key candidate. Must not be {@code null}.
+	 * @param context   Optional context, {@code null} if not required.
+	 */
+	@SuppressWarnings("unchecked")
+	private void notifyKeyVerified(final JWSHeader jwsHeader, final Key key, final C context) {
+
+		if (getJWSKeySelector() instanceof VerifiedKeyAware) {
+			((VerifiedKeyAware<C>)getJWSKeySelector()).keyVerified(jwsHeader, key, context);
+		}
+	}
+
+
+	/**
+	 * Selects the key candidates for the specified JOSE header.
+	 *
+	 * @param header  The JWS or JWE header. Must not be {@code null}.
+	 * @param context Optional context, {@code null} if not required.
+	 *
+	 * @return The key candidates, empty list or {@code null} if none.
+	 *
+	 * @throws KeySourceException If a key sourcing exception is
+	 *                            encountered.
+	 */
+	private List<? extends Key> selectKeys(final Header header, final C context)
+		throws KeySourceException {
+
+		final JOSEInstrumentation.Stage stage = JOSEInstrumentation.start(JOSEEvent.Type.KEY_SELECTION);
+
+		List<? extends Key> keyCandidates;
+
+		try {
+			if (header instanceof JWSHeader) {
+				keyCandidates = getJWSKeySelector().selectJWSKeys((JWSHeader)header, context);
+			} else {
+				keyCandidates = getJWEKeySelector().selectJWEKeys((JWEHeader)header, context);
+			}
+
+		} catch (KeySourceException e) {
+			JOSEInstrumentation.reportFailure(stage, header, e);
+			throw e;
+		}
+
+		JOSEInstrumentation.report(stage, header,
+			keyCandidates == null || keyCandidates.isEmpty() ? JOSEEvent.Reason.NO_KEY_CANDIDATES : null);
+
+		return keyCandidates;
+	}
+
+
+	/**
+	 * Creates a JWS verifier for the specified JWS header and key.
+	 *
+	 * @param header The JWS header. Must not be {@code null}.
+	 * @param key    The key. Must not be {@code null}.
+	 *
+	 * @return The JWS verifier, {@code null} if none could be created.
+	 *
+	 * @throws JOSEException If the key is invalid.
+	 */
+	private JWSVerifier createJWSVerifier(final JWSHeader header, final Key key)
+		throws JOSEException {
+
+		final JOSEInstrumentation.Stage stage = JOSEInstrumentation.start(JOSEEvent.Type.VERIFIER_CREATION);
+
+		JWSVerifier verifier = getJWSVerifierFactory().createJWSVerifier(header, key);
+
+		JOSEInstrumentation.report(stage, header,
+			verifier == null ? JOSEEvent.Reason.NO_MATCHING_VERIFIER : null);
+
+		return verifier;
+	}
+
+
 	@Override
 	public JWTClaimsSet process(final String jwtString, final C context)
 		throws ParseException, BadJOSEException, JOSEException {
 
-		return process(JWTParser.parse(jwtString), context);
+		final JOSEInstrumentation.Stage stage = JOSEInstrumentation.start(JOSEEvent.Type.PARSE);
+
+		final JWT jwt;
+
+		try {
+			jwt = JWTParser.parse(jwtString);
+
+		} catch (ParseException e) {
+			JOSEInstrumentation.reportFailure(stage, null, e);
+			throw e;
+		}
+
+		JOSEInstrumentation.report(stage, jwt.getHeader(), null);
+
+		return process(jwt, context);
 	}
 
 
@@ -311,6 +503,39 @@ public class DefaultJWTProcessor<C extends SecurityContext>
 	public JWTClaimsSet process(final SignedJWT signedJWT, final C context)
 		throws BadJOSEException, JOSEException {
 
+		final JOSEInstrumentation.Stage stage = JOSEInstrumentation.start(JOSEEvent.Type.PROCESSING);
+
+		final JWTClaimsSet claimsSet;
+
+		try {
+			claimsSet = processSignedJWT(signedJWT, context);
+
+		} catch (BadJOSEException | JOSEException e) {
+			JOSEInstrumentation.reportFailure(stage, signedJWT.getHeader(), e);
+			throw e;
+		}
+
+		JOSEInstrumentation.report(stage, signedJWT.getHeader(), null);
+
+		return claimsSet;
+	}
+
+
+	/**
+	 * Processes the specified signed JWT by verifying its signature.
+	 *
+	 * @param signedJWT The signed JWT. Must not be {@code null}.
+	 * @param context   Optional context, {@code null} if not required.
+	 *
+	 * @return The JWT claims set.
+	 *
+	 * @throws BadJOSEException If the signed JWT is rejected.
+	 * @throws JOSEException    If an internal processing exception is
+	 *                          encountered.
+	 */
+	private JWTClaimsSet processSignedJWT(final SignedJWT signedJWT, final C context)
+		throws BadJOSEException, JOSEException {
+
 		if (getJWSKeySelector() == null) {
 			// JWS key selector may have been deliberately omitted
 			throw NO_JWS_KEY_SELECTOR_EXCEPTION;
@@ -320,17 +545,28 @@ public class DefaultJWTProcessor<C extends SecurityContext>
 			throw NO_JWS_VERIFIER_FACTORY_EXCEPTION;
 		}
 
-		List<? extends Key> keyCandidates = getJWSKeySelector().selectJWSKeys(signedJWT.getHeader(), context);
+		if (getJWTPrecheck() != null) {
+			// Reject before any crypto, unverified values
+			getJWTPrecheck().precheck(signedJWT, context);
+		}
+
+		List<? extends Key> keyCandidates = selectKeys(signedJWT.getHeader(), context);
 
 		if (keyCandidates == null || keyCandidates.isEmpty()) {
 			throw NO_JWS_KEY_CANDIDATES_EXCEPTION;
 		}
 
+		if (getJWSVerificationExecutor() != null && keyCandidates.size() > 1) {
+			return verifyConcurrently(signedJWT, keyCandidates, context);
+		}
+
 		ListIterator<? extends Key> it = keyCandidates.listIterator();
 
 		while (it.hasNext()) {
 
-			JWSVerifier verifier = getJWSVerifierFactory().createJWSVerifier(signedJWT.getHeader(), it.next());
+			final Key key = it.next();
+
+			JWSVerifier verifier = createJWSVerifier(signedJWT.getHeader(), key);
 
 			if (verifier == null) {
 				continue;
@@ -339,6 +575,7 @@ public class DefaultJWTProcessor<C extends SecurityContext>
 			final boolean validSignature = signedJWT.verify(verifier);
 
 			if (validSignature) {
+				notifyKeyVerified(signedJWT.getHeader(), key, context);
 				return verifyAndReturnClaims(signedJWT, context);
 			}
 
@@ -352,10 +589,138 @@ public class DefaultJWTProcessor<C extends SecurityContext>
 	}
 
 
+	/**
+	 * Verifies the specified signed JWT by trying the key candidates
+	 * concurrently on the {@link #getJWSVerificationExecutor executor}.
+	 *
+	 * @param signedJWT     The signed JWT. Must not be {@code null}.
+	 * @param keyCandidates The key candidates. Must not be empty.
+	 * @param context       Optional context, {@code null} if not
+	 *                      required.
+	 *
+	 * @return The JWT claims set.
+	 *
+	 * @throws BadJOSEException If the signature is invalid or the claims
+	 *                          are rejected.
+	 * @throws JOSEException    If an internal processing exception is
+	 *                          encountered.
+	 */
+	private JWTClaimsSet verifyConcurrently(final SignedJWT signedJWT,
+						final List<? extends Key> keyCandidates,
+						final C context)
+		throws BadJOSEException, JOSEException {
+
+		final JWSHeader header = signedJWT.getHeader();
+
+		CompletionService<Key> completionService = new ExecutorCompletionService<>(getJWSVerificationExecutor());
+		List<Future<Key>> futures = new LinkedList<>();
+
+		try {
+			for (final Key key: keyCandidates) {
+
+				// Separate verifier for each attempt
+				final JWSVerifier verifier = createJWSVerifier(header, key);
+
+				if (verifier == null) {
+					continue;
+				}
+
+				futures.add(completionService.submit(new Callable<Key>() {
+					@Override
+					public Key call() throws JOSEException {
+						// JWSObject.verify is safe for concurrent calls
+						return signedJWT.verify(verifier) ? key : null;
+					}
+				}));
+			}
+
+			if (futures.isEmpty()) {
+				throw NO_MATCHING_VERIFIERS_EXCEPTION;
+			}
+
+			JOSEException verificationException = null;
+
+			for (int i=0; i < futures.size(); i++) {
+
+				final Key verifiedKey;
+
+				try {
+					verifiedKey = completionService.take().get();
+
+				} catch (ExecutionException e) {
+
+					if (verificationException == null) {
+						// Prevent throwing unchecked exceptions at this point
+						verificationException = e.getCause() instanceof JOSEException ?
+							(JOSEException)e.getCause() :
+							new JOSEException(e.getCause().getMessage(), e.getCause());
+					}
+					continue;
+				}
+
+				if (verifiedKey != null) {
+					notifyKeyVerified(header, verifiedKey, context);
+					return verifyAndReturnClaims(signedJWT, context);
+				}
+			}
+
+			if (verificationException != null) {
+				throw verificationException;
+			}
+
+			throw INVALID_SIGNATURE;
+
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new JOSEException("Interrupted while verifying the JWS signature", e);
+
+		} finally {
+			// Short-circuit the remaining attempts
+			for (Future<Key> future: futures) {
+				future.cancel(true);
+			}
+		}
+	}
+
+
 	@Override
 	public JWTClaimsSet process(final EncryptedJWT encryptedJWT, final C context)
 		throws BadJOSEException, JOSEException {
 
+		final JOSEInstrumentation.Stage stage = JOSEInstrumentation.start(JOSEEvent.Type.PROCESSING);
+
+		final JWTClaimsSet claimsSet;
+
+		try {
+			claimsSet = processEncryptedJWT(encryptedJWT, context);
+
+		} catch (BadJOSEException | JOSEException e) {
+			JOSEInstrumentation.reportFailure(stage, encryptedJWT.getHeader(), e);
+			throw e;
+		}
+
+		JOSEInstrumentation.report(stage, encryptedJWT.getHeader(), null);
+
+		return claimsSet;
+	}
+
+
+	/**
+	 * Processes the specified encrypted JWT by decrypting it.
+	 *
+	 * @param encryptedJWT The encrypted JWT. Must not be {@code null}.
+	 * @param context      Optional context, {@code null} if not
+	 *                     required.
+	 *
+	 * @return The JWT claims set.
+	 *
+	 * @throws BadJOSEException If the encrypted JWT is rejected.
+	 * @throws JOSEException    If an internal processing exception is
+	 *                          encountered.
+	 */
+	private JWTClaimsSet processEncryptedJWT(final EncryptedJWT encryptedJWT, final C context)
+		throws BadJOSEException, JOSEException {
+
 		if (getJWEKeySelector() == null) {
 			// JWE key selector may have been deliberately omitted
 			throw NO_JWE_KEY_SELECTOR_EXCEPTION;
@@ -365,7 +730,12 @@ public class DefaultJWTProcessor<C extends SecurityContext>
 			throw NO_JWE_DECRYPTER_FACTORY_EXCEPTION;
 		}
 
-		List<? extends Key> keyCandidates = getJWEKeySelector().selectJWEKeys(encryptedJWT.getHeader(), context);
+		if (getJWTPrecheck() != null) {
+			// Reject before any crypto, unverified header only
+			getJWTPrecheck().precheck(encryptedJWT, context);
+		}
+
+		List<? extends Key> keyCandidates = selectKeys(encryptedJWT.getHeader(), context);
 
 		if (keyCandidates == null || keyCandidates.isEmpty()) {
 			throw NO_JWE_KEY_CANDIDATES_EXCEPTION;
@@ -375,8 +745,13 @@ public class DefaultJWTProcessor<C extends SecurityContext>
 
 		while (it.hasNext()) {
 
+			final JOSEInstrumentation.Stage decrypterStage = JOSEInstrumentation.start(JOSEEvent.Type.DECRYPTER_CREATION);
+
 			JWEDecrypter decrypter = getJWEDecrypterFactory().createJWEDecrypter(encryptedJWT.getHeader(), it.next());
 
+			JOSEInstrumentation.report(decrypterStage, encryptedJWT.getHeader(),
+				decrypter == null ? JOSEEvent.Reason.NO_MATCHING_DECRYPTER : null);
+
 			if (decrypter == null) {
 				continue;
 			}
@@ -0,0 +1,51 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.nimbusds.jwt.proc;
+
+
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWT;
+
+
+/**
+ * JWT pre-check. Inspects the unverified header and, where readable, the
+ * unverified claims of a JWT before any key selection, signature check or
+ * decryption takes place, to reject obviously unacceptable tokens cheaply.
+ *
+ * <p>Because the inspected values are not yet authenticated a pre-check
+ * may only reject a JWT. Passing the pre-check has no bearing on whether
+ * the JWT is eventually accepted; the signature / decryption and the
+ * {@link JWTClaimsSetVerifier claims verifier} still apply in full.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+public interface JWTPrecheck <C extends SecurityContext> {
+
+
+	/**
+	 * Pre-checks the specified unverified JWT.
+	 *
+	 * @param jwt     The JWT, with the signature not yet verified or
+	 *                the payload not yet decrypted. Not {@code null}.
+	 * @param context Optional context, {@code null} if not required.
+	 *
+	 * @throws BadJWTException If the JWT is rejected.
+	 */
+	void precheck(final JWT jwt, final C context)
+		throws BadJWTException;
+}
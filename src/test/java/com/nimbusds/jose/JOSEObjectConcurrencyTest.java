@@ -0,0 +1,341 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.nimbusds.jose;
+
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.nimbusds.jose.crypto.DirectDecrypter;
+import com.nimbusds.jose.crypto.DirectEncrypter;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jose.jca.JCAContext;
+import com.nimbusds.jose.util.Base64URL;
+import junit.framework.TestCase;
+
+
+/**
+ * Stress tests of the lock-free JWS and JWE object state transitions.
+ */
+public class JOSEObjectConcurrencyTest extends TestCase {
+
+
+	private static final byte[] SECRET = new byte[32];
+
+
+	/**
+	 * The size of the virtual thread carrier pool, set in the surefire
+	 * configuration.
+	 */
+	private static final int CARRIER_POOL_SIZE = 2;
+
+
+	/**
+	 * Returns {@code true} if virtual threads are available (Java 21+).
+	 */
+	private static boolean virtualThreadsAvailable() {
+
+		try {
+			Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return true;
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+
+
+	/**
+	 * Creates a virtual thread per task executor if available (Java
+	 * 21+), else a small fixed thread pool.
+	 */
+	private static ExecutorService createExecutor() {
+
+		try {
+			Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService)method.invoke(null);
+		} catch (Exception e) {
+			return Executors.newFixedThreadPool(4);
+		}
+	}
+
+
+	/**
+	 * Verifier that blocks and records the number of concurrent
+	 * verifications.
+	 */
+	private static class BlockingVerifier implements JWSVerifier {
+
+
+		private final JWSVerifier verifier;
+
+
+		private final AtomicInteger active = new AtomicInteger();
+
+
+		private final AtomicInteger maxActive = new AtomicInteger();
+
+
+		BlockingVerifier(final JWSVerifier verifier) {
+			this.verifier = verifier;
+		}
+
+
+		@Override
+		public boolean verify(final JWSHeader header, final byte[] signingInput, final Base64URL signature)
+			throws JOSEException {
+
+			int n = active.incrementAndGet();
+
+			int max;
+			do {
+				max = maxActive.get();
+			} while (n > max && ! maxActive.compareAndSet(max, n));
+
+			try {
+				Thread.sleep(1);
+				return verifier.verify(header, signingInput, signature);
+			} catch (InterruptedException e) {
+				throw new JOSEException(e.getMessage(), e);
+			} finally {
+				active.decrementAndGet();
+			}
+		}
+
+
+		@Override
+		public Set<JWSAlgorithm> supportedJWSAlgorithms() {
+			return verifier.supportedJWSAlgorithms();
+		}
+
+
+		@Override
+		public JCAContext getJCAContext() {
+			return verifier.getJCAContext();
+		}
+	}
+
+
+	private static <T> List<Future<T>> runConcurrently(final ExecutorService executor, final int count, final Callable<T> task)
+		throws InterruptedException {
+
+		final CountDownLatch startLatch = new CountDownLatch(1);
+
+		List<Future<T>> futures = new ArrayList<>(count);
+
+		for (int i=0; i < count; i++) {
+			futures.add(executor.submit(new Callable<T>() {
+				@Override
+				public T call() throws Exception {
+					startLatch.await();
+					return task.call();
+				}
+			}));
+		}
+
+		startLatch.countDown();
+		return futures;
+	}
+
+
+	public void testNoIntrinsicLocks()
+		throws Exception {
+
+		Method[] methods = {
+			JWSObject.class.getMethod("sign", JWSSigner.class),
+			JWSObject.class.getMethod("verify", JWSVerifier.class),
+			JWEObject.class.getMethod("encrypt", JWEEncrypter.class),
+			JWEObject.class.getMethod("decrypt", JWEDecrypter.class)
+		};
+
+		for (Method m: methods) {
+			assertFalse(m.getName(), Modifier.isSynchronized(m.getModifiers()));
+		}
+	}
+
+
+	public void testConcurrentVerifications()
+		throws Exception {
+
+		final JWSObject jwsObject = new JWSObject(new JWSHeader(JWSAlgorithm.HS256), new Payload("Hello, world!"));
+		jwsObject.sign(new MACSigner(SECRET));
+
+		final BlockingVerifier verifier = new BlockingVerifier(new MACVerifier(SECRET));
+
+		ExecutorService executor = createExecutor();
+
+		try {
+			List<Future<Boolean>> futures = runConcurrently(executor, 2000, new Callable<Boolean>() {
+				@Override
+				public Boolean call() throws Exception {
+					return jwsObject.verify(verifier);
+				}
+			});
+
+			for (Future<Boolean> f: futures) {
+				assertTrue(f.get(60, TimeUnit.SECONDS));
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(JWSObject.State.VERIFIED, jwsObject.getState());
+
+		// No monitor held during verification
+		assertTrue(verifier.maxActive.get() > 1);
+
+		if (virtualThreadsAvailable() && CARRIER_POOL_SIZE == Integer.getInteger("jdk.virtualThreadScheduler.parallelism", -1)) {
+			// The blocked verifications released their carriers
+			assertTrue(verifier.maxActive.get() > CARRIER_POOL_SIZE);
+		}
+	}
+
+
+	public void testConcurrentSign()
+		throws Exception {
+
+		final JWSObject jwsObject = new JWSObject(new JWSHeader(JWSAlgorithm.HS256), new Payload("Hello, world!"));
+		final MACSigner signer = new MACSigner(SECRET);
+
+		ExecutorService executor = createExecutor();
+
+		int signed = 0;
+		int rejected = 0;
+
+		try {
+			List<Future<Void>> futures = runConcurrently(executor, 100, new Callable<Void>() {
+				@Override
+				public Void call() throws Exception {
+					jwsObject.sign(signer);
+					return null;
+				}
+			});
+
+			for (Future<Void> f: futures) {
+				try {
+					f.get(60, TimeUnit.SECONDS);
+					signed++;
+				} catch (ExecutionException e) {
+					assertTrue(e.getCause() instanceof IllegalStateException);
+					assertEquals("The JWS object must be in an unsigned state", e.getCause().getMessage());
+					rejected++;
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(1, signed);
+		assertEquals(99, rejected);
+		assertEquals(JWSObject.State.SIGNED, jwsObject.getState());
+		assertTrue(JWSObject.parse(jwsObject.serialize()).verify(new MACVerifier(SECRET)));
+	}
+
+
+	public void testSignRetryAfterFailure()
+		throws Exception {
+
+		JWSObject jwsObject = new JWSObject(new JWSHeader(JWSAlgorithm.HS256), new Payload("Hello, world!"));
+
+		try {
+			jwsObject.sign(new MACSigner(new byte[32]) {
+				@Override
+				public Base64URL sign(final JWSHeader header, final byte[] signingInput)
+					throws JOSEException {
+					throw new JOSEException("Signing failed");
+				}
+			});
+			fail();
+		} catch (JOSEException e) {
+			assertEquals("Signing failed", e.getMessage());
+		}
+
+		assertEquals(JWSObject.State.UNSIGNED, jwsObject.getState());
+
+		jwsObject.sign(new MACSigner(SECRET));
+		assertEquals(JWSObject.State.SIGNED, jwsObject.getState());
+	}
+
+
+	public void testConcurrentEncryptAndDecrypt()
+		throws Exception {
+
+		final JWEObject jweObject = new JWEObject(new JWEHeader(JWEAlgorithm.DIR, EncryptionMethod.A128GCM), new Payload("Hello, world!"));
+		final DirectEncrypter encrypter = new DirectEncrypter(new byte[16]);
+
+		ExecutorService executor = createExecutor();
+
+		try {
+			List<Future<Void>> futures = runConcurrently(executor, 100, new Callable<Void>() {
+				@Override
+				public Void call() throws Exception {
+					jweObject.encrypt(encrypter);
+					return null;
+				}
+			});
+
+			int encrypted = 0;
+
+			for (Future<Void> f: futures) {
+				try {
+					f.get(60, TimeUnit.SECONDS);
+					encrypted++;
+				} catch (ExecutionException e) {
+					assertEquals("The JWE object must be in an unencrypted state", e.getCause().getMessage());
+				}
+			}
+
+			assertEquals(1, encrypted);
+			assertEquals(JWEObject.State.ENCRYPTED, jweObject.getState());
+
+			final JWEObject parsed = JWEObject.parse(jweObject.serialize());
+			final DirectDecrypter decrypter = new DirectDecrypter(new byte[16]);
+
+			futures = runConcurrently(executor, 100, new Callable<Void>() {
+				@Override
+				public Void call() throws Exception {
+					parsed.decrypt(decrypter);
+					return null;
+				}
+			});
+
+			int decrypted = 0;
+
+			for (Future<Void> f: futures) {
+				try {
+					f.get(60, TimeUnit.SECONDS);
+					decrypted++;
+				} catch (ExecutionException e) {
+					assertEquals("The JWE object must be in an encrypted state", e.getCause().getMessage());
+				}
+			}
+
+			assertEquals(1, decrypted);
+			assertEquals(JWEObject.State.DECRYPTED, parsed.getState());
+			assertEquals("Hello, world!", parsed.getPayload().toString());
+
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -36,7 +36,7 @@ import net.minidev.json.JSONObject;
  * Tests JWS header parsing and serialisation.
  *
  * @author Vladimir Dzhuvinov
- * @version 2017-01-10
+ * @version 2026-10-18
  */
 public class JWSHeaderTest extends TestCase {
 
@@ -442,5 +442,57 @@ public class JWSHeaderTest extends TestCase {
 		assertEquals(1, jsonObject.size());
 		assertEquals(2, headerJSONObject.size());
 	}
-}
 
+
+	public void testBase64URLEncodePayloadDefault()
+		throws ParseException {
+
+		JWSHeader header = new JWSHeader(JWSAlgorithm.HS256);
+
+		assertTrue(header.isBase64URLEncodePayload());
+		assertNull(header.getCustomParam("b64"));
+		assertFalse(header.toJSONObject().containsKey("b64"));
+
+		header = JWSHeader.parse(header.toBase64URL());
+		assertTrue(header.isBase64URLEncodePayload());
+	}
+
+
+	public void testUnencodedPayload()
+		throws ParseException {
+
+		JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.HS256)
+			.base64URLEncodePayload(false)
+			.criticalParams(Collections.singleton("b64"))
+			.build();
+
+		assertFalse(header.isBase64URLEncodePayload());
+		assertTrue(header.getIncludedParams().contains("b64"));
+		assertEquals(false, header.toJSONObject().get("b64"));
+
+		header = JWSHeader.parse(header.toBase64URL());
+		assertFalse(header.isBase64URLEncodePayload());
+		assertEquals(Collections.singleton("b64"), header.getCriticalParams());
+
+		// Copy
+		header = new JWSHeader.Builder(header).build();
+		assertFalse(header.isBase64URLEncodePayload());
+
+		// Reset
+		header = new JWSHeader.Builder(header).base64URLEncodePayload(true).build();
+		assertTrue(header.isBase64URLEncodePayload());
+		assertFalse(header.toJSONObject().containsKey("b64"));
+	}
+
+
+	public void testParseUnencodedPayloadExample()
+		throws ParseException {
+
+		// From RFC 7797, section 4.2
+		JWSHeader header = JWSHeader.parse(new Base64URL("eyJhbGciOiJIUzI1NiIsImI2NCI6ZmFsc2UsImNyaXQiOlsiYjY0Il19"));
+
+		assertEquals(JWSAlgorithm.HS256, header.getAlgorithm());
+		assertFalse(header.isBase64URLEncodePayload());
+		assertEquals(Collections.singleton("b64"), header.getCriticalParams());
+	}
+}
@@ -18,7 +18,14 @@
 package com.nimbusds.jose;
 
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
 import junit.framework.TestCase;
+import net.minidev.json.JSONObject;
+
+import com.nimbusds.jose.util.Base64URL;
 
 import com.nimbusds.jwt.SignedJWT;
 import com.nimbusds.jwt.JWTClaimsSet;
@@ -160,4 +167,33 @@ public class PayloadTest extends TestCase {
 
 		assertEquals(new Integer(10), out);
 	}
+
+
+	public void testToJSONObjectSelectedMembers() {
+
+		String json = "{\"iss\":\"https://c2id.com\",\"big\":{\"a\":[1,2,{\"b\":null}]},\"exp\":1500000000,\"tenant\":\"t1\"}";
+
+		Set<String> names = new HashSet<>(Arrays.asList("iss", "tenant", "missing"));
+
+		for (Payload payload: Arrays.asList(
+			new Payload(json),
+			new Payload(json.getBytes()),
+			new Payload(Base64URL.encode(json)),
+			new Payload(new Payload(json).toJSONObject()))) {
+
+			JSONObject o = payload.toJSONObject(names);
+			assertEquals("https://c2id.com", o.get("iss"));
+			assertEquals("t1", o.get("tenant"));
+			assertEquals(2, o.size());
+		}
+	}
+
+
+	public void testToJSONObjectSelectedMembersNotJSON() {
+
+		Set<String> names = new HashSet<>(Arrays.asList("iss"));
+
+		assertNull(new Payload("abc").toJSONObject(names));
+		assertNull(new Payload("{\"iss\":\"a\",\"x\":[1,]}").toJSONObject(names));
+	}
 }
@@ -35,7 +35,7 @@ import com.nimbusds.jose.jwk.OctetSequenceKey;
  * Tests A256GCMKW JWE encryption and decryption.
  *
  * @author Melisa Halsband
- * @version 2015-09-18
+ * @version 2026-10-18
  */
 public class A256GCMKWTest extends TestCase {
 
@@ -573,5 +573,22 @@ public class A256GCMKWTest extends TestCase {
 
 		assertEquals(message, jweObject.getPayload().toString());
 	}
-}
 
+
+	public void testRepeatedMessagesWithSameKey()
+		throws Exception {
+
+		AESEncrypter encrypter = new AESEncrypter(key256);
+		AESDecrypter decrypter = new AESDecrypter(key256);
+
+		for (int i=0; i < 10; i++) {
+
+			JWEObject jweObject = new JWEObject(new JWEHeader(JWEAlgorithm.A256GCMKW, EncryptionMethod.A128GCM), new Payload("Message " + i));
+			jweObject.encrypt(encrypter);
+
+			jweObject = JWEObject.parse(jweObject.serialize());
+			jweObject.decrypt(decrypter);
+			assertEquals("Message " + i, jweObject.getPayload().toString());
+		}
+	}
+}
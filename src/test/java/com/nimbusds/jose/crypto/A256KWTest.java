@@ -34,7 +34,7 @@ import com.nimbusds.jose.crypto.bc.BouncyCastleProviderSingleton;
  * Tests A256KW JWE encryption and decryption.
  *
  * @author Melisa Halsband
- * @version 2015-09-19
+ * @version 2026-10-18
  */
 public class A256KWTest extends TestCase {
 
@@ -504,4 +504,22 @@ public class A256KWTest extends TestCase {
 
 		assertEquals("Hello world!", payload.toString());
 	}
-}
\ No newline at end of file
+
+
+	public void testRepeatedMessagesWithSameKey()
+		throws Exception {
+
+		AESEncrypter encrypter = new AESEncrypter(key256);
+		AESDecrypter decrypter = new AESDecrypter(key256);
+
+		for (int i=0; i < 10; i++) {
+
+			JWEObject jweObject = new JWEObject(new JWEHeader(JWEAlgorithm.A256KW, EncryptionMethod.A128GCM), new Payload("Message " + i));
+			jweObject.encrypt(encrypter);
+
+			jweObject = JWEObject.parse(jweObject.serialize());
+			jweObject.decrypt(decrypter);
+			assertEquals("Message " + i, jweObject.getPayload().toString());
+		}
+	}
+}
@@ -36,7 +36,7 @@ import org.junit.Assert;
  * vectors from draft-ietf-jose-json-web-algorithms-10, appendix C.
  *
  * @author Vladimir Dzhuvinov
- * @version 2017-06-01
+ * @version 2026-10-18
  */
 public class AESCBCTest extends TestCase {
 
@@ -303,4 +303,46 @@ public class AESCBCTest extends TestCase {
 		}
 	}
 	
-}
\ No newline at end of file
+
+
+	public void testAuthenticatedEncryptionWithCipherContext()
+		throws Exception {
+
+		SecretKey inputKey = new SecretKeySpec(INPUT_KEY_256, "AES");
+
+		KeyBoundCipherContext context = new KeyBoundCipherContext();
+
+		for (int i=0; i < 3; i++) {
+
+			AuthenticatedCipherText act = AESCBC.encryptAuthenticated(inputKey, IV, PLAIN_TEXT, AAD, null, null, context);
+
+			Assert.assertArrayEquals("Cipher text", CIPHER_TEXT_256, act.getCipherText());
+			Assert.assertArrayEquals("Auth tag", AUTH_TAG_256, act.getAuthenticationTag());
+
+			Assert.assertArrayEquals(PLAIN_TEXT, AESCBC.decryptAuthenticated(inputKey, IV, act.getCipherText(), AAD, act.getAuthenticationTag(), null, null, context));
+		}
+
+		assertSame(context.getCompositeKey(inputKey), context.getCompositeKey(inputKey));
+	}
+
+
+	public void testDecryptAuthenticatedRejectsTruncatedAuthTag()
+		throws Exception {
+
+		SecretKey inputKey = new SecretKeySpec(INPUT_KEY_256, "AES");
+
+		KeyBoundCipherContext context = new KeyBoundCipherContext();
+
+		byte[] shortAuthTag = Arrays.copyOf(AUTH_TAG_256, AUTH_TAG_256.length - 1);
+
+		try {
+			AESCBC.decryptAuthenticated(inputKey, IV, CIPHER_TEXT_256, AAD, shortAuthTag, null, null, context);
+			fail();
+		} catch (JOSEException e) {
+			assertEquals("MAC check failed", e.getMessage());
+		}
+
+		// The MAC must not carry state from the failed check
+		Assert.assertArrayEquals(PLAIN_TEXT, AESCBC.decryptAuthenticated(inputKey, IV, CIPHER_TEXT_256, AAD, AUTH_TAG_256, null, null, context));
+	}
+}
@@ -26,6 +26,7 @@ import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 
 import com.nimbusds.jose.util.ByteUtils;
+import com.nimbusds.jose.util.Base64URL;
 import junit.framework.TestCase;
 
 import com.nimbusds.jose.*;
@@ -37,7 +38,7 @@ import com.nimbusds.jose.jwk.OctetSequenceKey;
  * Tests direct JWE encryption and decryption.
  *
  * @author Vladimir Dzhuvinov
- * @version 2015-09-18
+ * @version 2026-10-18
  */
 public class DirectCryptoTest extends TestCase {
 
@@ -613,4 +614,38 @@ public class DirectCryptoTest extends TestCase {
 			assertEquals("The \"A128CBC-HS256\" encryption method or key size is not supported by the JWE encrypter: Supported methods: [A128GCM]", e.getMessage());
 		}
 	}
+
+
+	public void testRepeatedMessagesWithSameKey()
+		throws Exception {
+
+		DirectEncrypter encrypter = new DirectEncrypter(key256);
+		DirectDecrypter decrypter = new DirectDecrypter(key256);
+
+		for (EncryptionMethod enc: new EncryptionMethod[]{EncryptionMethod.A128CBC_HS256, EncryptionMethod.A256GCM}) {
+
+			for (int i=0; i < 10; i++) {
+
+				JWEObject jweObject = new JWEObject(new JWEHeader(JWEAlgorithm.DIR, enc), new Payload("Message " + i));
+				jweObject.encrypt(encrypter);
+
+				String[] parts = jweObject.serialize().split("\\.");
+
+				// Tamper with the auth tag, the failed decryption must
+				// not affect the next message
+				JWEObject tampered = JWEObject.parse(parts[0] + "." + parts[1] + "." + parts[2] + "." + parts[3] + "." + Base64URL.encode(new byte[16]));
+
+				try {
+					tampered.decrypt(decrypter);
+					fail();
+				} catch (JOSEException e) {
+					// ok
+				}
+
+				jweObject = JWEObject.parse(jweObject.serialize());
+				jweObject.decrypt(decrypter);
+				assertEquals("Message " + i, jweObject.getPayload().toString());
+			}
+		}
+	}
 }
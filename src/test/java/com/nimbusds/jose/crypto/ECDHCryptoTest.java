@@ -24,6 +24,7 @@ import java.security.KeyPairGenerator;
 import java.security.interfaces.ECPrivateKey;
 import java.security.interfaces.ECPublicKey;
 import java.security.spec.ECParameterSpec;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import javax.crypto.SecretKey;
@@ -760,4 +761,97 @@ public class ECDHCryptoTest extends TestCase {
 			assertEquals("Unsupported critical header parameter(s)", e.getMessage());
 		}
 	}
+
+
+	public void testDerivedKeyCache()
+		throws Exception {
+
+		ECKey ecJWK = generateECJWK(Curve.P_256);
+
+		ECDHDecrypter decrypter = new ECDHDecrypter(ecJWK.toECPrivateKey(), null, 2);
+		assertEquals(2, decrypter.getDerivedKeyCacheSize());
+		assertEquals(0, new ECDHDecrypter(ecJWK.toECPrivateKey()).getDerivedKeyCacheSize());
+
+		for (JWEAlgorithm alg: new JWEAlgorithm[]{JWEAlgorithm.ECDH_ES, JWEAlgorithm.ECDH_ES_A128KW}) {
+
+			JWEObject jweObject = new JWEObject(
+				new JWEHeader.Builder(alg, EncryptionMethod.A128GCM).agreementPartyVInfo(Base64URL.encode("Bob")).build(),
+				new Payload("Hello world!"));
+			jweObject.encrypt(new ECDHEncrypter(ecJWK.toECPublicKey()));
+			String jwe = jweObject.serialize();
+
+			// Miss, then hits for the same epk
+			for (int i=0; i < 3; i++) {
+				jweObject = JWEObject.parse(jwe);
+				jweObject.decrypt(decrypter);
+				assertEquals("Hello world!", jweObject.getPayload().toString());
+			}
+		}
+
+		assertEquals(2, decrypter.getDerivedKeyCache().size());
+
+		decrypter.clearDerivedKeyCache();
+		assertEquals(0, decrypter.getDerivedKeyCache().size());
+	}
+
+
+	public void testDerivedKeyCacheKeyIncludesPartyInfo()
+		throws Exception {
+
+		ECKey ecJWK = generateECJWK(Curve.P_256);
+
+		ECDHDecrypter decrypter = new ECDHDecrypter(ecJWK.toECPrivateKey(), null, 10);
+
+		JWEObject jweObject = new JWEObject(
+			new JWEHeader.Builder(JWEAlgorithm.ECDH_ES, EncryptionMethod.A128GCM).agreementPartyVInfo(Base64URL.encode("Bob")).build(),
+			new Payload("Hello world!"));
+		jweObject.encrypt(new ECDHEncrypter(ecJWK.toECPublicKey()));
+
+		jweObject.decrypt(decrypter);
+		assertEquals(1, decrypter.getDerivedKeyCache().size());
+
+		// Same epk, different apv must not hit the cached key
+		JWEHeader tamperedHeader = new JWEHeader.Builder(jweObject.getHeader()).agreementPartyVInfo(Base64URL.encode("Eve")).build();
+
+		try {
+			decrypter.decrypt(tamperedHeader, jweObject.getEncryptedKey(), jweObject.getIV(), jweObject.getCipherText(), jweObject.getAuthTag());
+			fail();
+		} catch (JOSEException e) {
+			// ok, derived key differs
+		}
+
+		assertEquals(2, decrypter.getDerivedKeyCache().size());
+	}
+
+
+	public void testDerivedKeyCacheEviction() {
+
+		DerivedKeyCache cache = new DerivedKeyCache(2);
+
+		byte[] keyBytes = new byte[16];
+		Arrays.fill(keyBytes, (byte)1);
+
+		cache.put("a", new SecretKeySpec(keyBytes, "AES"));
+		cache.put("b", new SecretKeySpec(keyBytes, "AES"));
+		assertNotNull(cache.get("a")); // a now most recently used
+		cache.put("c", new SecretKeySpec(keyBytes, "AES"));
+
+		assertEquals(2, cache.size());
+		assertNotNull(cache.get("a"));
+		assertNull(cache.get("b"));
+		assertNotNull(cache.get("c"));
+		assertTrue(Arrays.equals(keyBytes, cache.get("c").getEncoded()));
+	}
+
+
+	public void testRejectNegativeDerivedKeyCacheSize()
+		throws Exception {
+
+		try {
+			new ECDHDecrypter(generateECJWK(Curve.P_256).toECPrivateKey(), null, -1);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The derived key cache size must not be negative", e.getMessage());
+		}
+	}
 }
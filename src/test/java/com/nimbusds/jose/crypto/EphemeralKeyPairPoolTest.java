@@ -0,0 +1,203 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.crypto;
+
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.util.Base64URL;
+import junit.framework.TestCase;
+
+
+/**
+ * Tests the ephemeral key pair pool.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+public class EphemeralKeyPairPoolTest extends TestCase {
+
+
+	/**
+	 * Executor that runs tasks on the calling thread.
+	 */
+	private static final Executor SAME_THREAD_EXECUTOR = new Executor() {
+		@Override
+		public void execute(final Runnable command) {
+			command.run();
+		}
+	};
+
+
+	/**
+	 * Executor that never runs tasks.
+	 */
+	private static final Executor NO_OP_EXECUTOR = new Executor() {
+		@Override
+		public void execute(final Runnable command) {
+			// drop
+		}
+	};
+
+
+	private static ECKey generateECJWK(final Curve curve)
+		throws Exception {
+
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+		generator.initialize(curve.toECParameterSpec());
+		KeyPair keyPair = generator.generateKeyPair();
+
+		return new ECKey.Builder(curve, (ECPublicKey)keyPair.getPublic()).
+			privateKey((ECPrivateKey) keyPair.getPrivate()).
+			build();
+	}
+
+
+	public void testFillAndHandOutOnce()
+		throws Exception {
+
+		EphemeralKeyPairPool pool = new EphemeralKeyPairPool(Curve.P_256, 5, null, NO_OP_EXECUTOR);
+
+		assertEquals(Curve.P_256, pool.getCurve());
+		assertEquals(5, pool.getDepth());
+		assertEquals(0, pool.size());
+		assertNull(pool.poll());
+
+		pool = new EphemeralKeyPairPool(Curve.P_256, 5, null, SAME_THREAD_EXECUTOR);
+		assertEquals(5, pool.size());
+
+		Set<KeyPair> handedOut = new HashSet<>();
+
+		for (int i=0; i < 20; i++) {
+			KeyPair keyPair = pool.poll();
+			assertNotNull(keyPair);
+			assertTrue(handedOut.add(keyPair));
+			assertEquals(Curve.P_256, Curve.forECParameterSpec(((ECPublicKey)keyPair.getPublic()).getParams()));
+		}
+	}
+
+
+	public void testBackgroundFill()
+		throws Exception {
+
+		EphemeralKeyPairPool pool = new EphemeralKeyPairPool(Curve.P_384, 3);
+
+		long deadline = System.currentTimeMillis() + 10000L;
+
+		while (pool.size() < 3 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+
+		assertEquals(3, pool.size());
+		assertNotNull(pool.pollOrGenerate());
+
+		pool.shutdown();
+		assertEquals(0, pool.size());
+		assertNull(pool.poll());
+		assertNotNull(pool.pollOrGenerate());
+	}
+
+
+	public void testX25519()
+		throws Exception {
+
+		EphemeralKeyPairPool pool = new EphemeralKeyPairPool(Curve.X25519, 2, null, SAME_THREAD_EXECUTOR);
+		assertEquals(2, pool.size());
+		assertNotNull(pool.poll());
+	}
+
+
+	public void testRejectUnsupportedCurve() {
+
+		try {
+			new EphemeralKeyPairPool(Curve.Ed25519, 2);
+			fail();
+		} catch (JOSEException e) {
+			assertEquals("Unsupported elliptic curve Ed25519, must be P-256, P-384, P-521 or X25519", e.getMessage());
+		}
+	}
+
+
+	public void testRejectZeroDepth()
+		throws Exception {
+
+		try {
+			new EphemeralKeyPairPool(Curve.P_256, 0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The pool depth must be positive", e.getMessage());
+		}
+	}
+
+
+	public void testEncrypterWithPool()
+		throws Exception {
+
+		ECKey ecJWK = generateECJWK(Curve.P_256);
+
+		EphemeralKeyPairPool pool = new EphemeralKeyPairPool(Curve.P_256, 4, null, NO_OP_EXECUTOR);
+		ECDHEncrypter encrypter = new ECDHEncrypter(ecJWK.toECPublicKey(), pool);
+		assertSame(pool, encrypter.getKeyPairPool());
+
+		// Empty pool, falls back to inline generation
+		JWEObject jweObject = new JWEObject(new JWEHeader(JWEAlgorithm.ECDH_ES, EncryptionMethod.A128GCM), new Payload("Hello world!"));
+		jweObject.encrypt(encrypter);
+		jweObject = JWEObject.parse(jweObject.serialize());
+		jweObject.decrypt(new ECDHDecrypter(ecJWK));
+		assertEquals("Hello world!", jweObject.getPayload().toString());
+
+		pool = new EphemeralKeyPairPool(Curve.P_256, 4, null, SAME_THREAD_EXECUTOR);
+		encrypter = new ECDHEncrypter(ecJWK, pool);
+
+		Set<Base64URL> epkXs = new HashSet<>();
+
+		for (int i=0; i < 10; i++) {
+			jweObject = new JWEObject(new JWEHeader(JWEAlgorithm.ECDH_ES_A128KW, EncryptionMethod.A128GCM), new Payload("Hello world!"));
+			jweObject.encrypt(encrypter);
+			assertTrue(epkXs.add(jweObject.getHeader().getEphemeralPublicKey().getX()));
+			jweObject = JWEObject.parse(jweObject.serialize());
+			jweObject.decrypt(new ECDHDecrypter(ecJWK));
+			assertEquals("Hello world!", jweObject.getPayload().toString());
+		}
+	}
+
+
+	public void testEncrypterRejectsPoolCurveMismatch()
+		throws Exception {
+
+		ECKey ecJWK = generateECJWK(Curve.P_256);
+
+		EphemeralKeyPairPool pool = new EphemeralKeyPairPool(Curve.P_384, 1, null, NO_OP_EXECUTOR);
+
+		try {
+			new ECDHEncrypter(ecJWK, pool);
+			fail();
+		} catch (JOSEException e) {
+			assertEquals("The ephemeral key pair pool curve P-384 doesn't match the key curve P-256", e.getMessage());
+		}
+	}
+}
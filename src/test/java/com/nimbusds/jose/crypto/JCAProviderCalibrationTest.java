@@ -0,0 +1,141 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.nimbusds.jose.crypto;
+
+
+import java.security.Provider;
+import java.security.Security;
+import java.util.Arrays;
+import java.util.Collections;
+
+import com.nimbusds.jose.EncryptionMethod;
+import com.nimbusds.jose.JWEAlgorithm;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.crypto.bc.BouncyCastleProviderSingleton;
+import com.nimbusds.jose.jca.JCAProviderProfile;
+import junit.framework.TestCase;
+
+
+public class JCAProviderCalibrationTest extends TestCase {
+
+
+	public void testDefaultMeasurementTime() {
+
+		assertEquals(200L, JCAProviderCalibration.DEFAULT_MEASUREMENT_TIME);
+	}
+
+
+	public void testSelectSupportingProvider() {
+
+		Provider sun = Security.getProvider("SUN"); // no HMAC or AES
+		Provider sunJCE = Security.getProvider("SunJCE");
+
+		JCAProviderProfile profile = JCAProviderCalibration.calibrate(
+			Collections.singleton(JWSAlgorithm.HS256),
+			Collections.singleton(JWEAlgorithm.A128KW),
+			Collections.singleton(EncryptionMethod.A128GCM),
+			Arrays.asList(sun, sunJCE),
+			20L);
+
+		assertEquals(sunJCE, profile.getSigningProvider(JWSAlgorithm.HS256));
+		assertEquals(sunJCE, profile.getVerificationProvider(JWSAlgorithm.HS256));
+		assertEquals(sunJCE, profile.getEncryptionProvider(JWEAlgorithm.A128KW, EncryptionMethod.A128GCM));
+		assertEquals(sunJCE, profile.getDecryptionProvider(JWEAlgorithm.A128KW, EncryptionMethod.A128GCM));
+	}
+
+
+	public void testSelectFastestProvider() {
+
+		Provider sunEC = Security.getProvider("SunEC");
+		Provider bc = BouncyCastleProviderSingleton.getInstance();
+
+		JCAProviderProfile profile = JCAProviderCalibration.calibrate(
+			Collections.singleton(JWSAlgorithm.ES256),
+			null,
+			null,
+			Arrays.asList(sunEC, bc),
+			20L);
+
+		Provider selected = profile.getSigningProvider(JWSAlgorithm.ES256);
+		assertTrue(sunEC.equals(selected) || bc.equals(selected));
+
+		selected = profile.getVerificationProvider(JWSAlgorithm.ES256);
+		assertTrue(sunEC.equals(selected) || bc.equals(selected));
+	}
+
+
+	public void testCalibrateEachOperation() {
+
+		Provider bc = BouncyCastleProviderSingleton.getInstance();
+
+		JCAProviderProfile profile = JCAProviderCalibration.calibrate(
+			Collections.singleton(JWSAlgorithm.RS256),
+			Collections.singleton(JWEAlgorithm.ECDH_ES),
+			Collections.singleton(EncryptionMethod.A128GCM),
+			Arrays.asList(Security.getProvider("SunRsaSign"), Security.getProvider("SunEC"), Security.getProvider("SunJCE"), bc),
+			20L);
+
+		assertNotNull(profile.getSigningProvider(JWSAlgorithm.RS256));
+		assertNotNull(profile.getVerificationProvider(JWSAlgorithm.RS256));
+		assertNotNull(profile.getEncryptionProvider(JWEAlgorithm.ECDH_ES, EncryptionMethod.A128GCM));
+		assertNotNull(profile.getDecryptionProvider(JWEAlgorithm.ECDH_ES, EncryptionMethod.A128GCM));
+	}
+
+
+	public void testNoSupportingProvider() {
+
+		JCAProviderProfile profile = JCAProviderCalibration.calibrate(
+			Collections.singleton(JWSAlgorithm.HS256),
+			null,
+			null,
+			Collections.singletonList(Security.getProvider("SUN")),
+			20L);
+
+		assertTrue(profile.isEmpty());
+	}
+
+
+	public void testUnsupportedAlgorithm() {
+
+		JCAProviderProfile profile = JCAProviderCalibration.calibrate(
+			Collections.singleton(JWSAlgorithm.EdDSA),
+			null,
+			null,
+			Arrays.asList(Security.getProviders()),
+			20L);
+
+		assertTrue(profile.isEmpty());
+	}
+
+
+	public void testInvalidArguments() {
+
+		try {
+			JCAProviderCalibration.calibrate(null, null, null, null, 20L);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The candidate providers must not be null", e.getMessage());
+		}
+
+		try {
+			JCAProviderCalibration.calibrate(null, null, null, Collections.<Provider>emptyList(), 0L);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The measurement time must be positive", e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.nimbusds.jose.crypto;
+
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import com.nimbusds.jose.EncryptionMethod;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWEAlgorithm;
+import com.nimbusds.jose.JWSAlgorithm;
+import junit.framework.TestCase;
+
+
+public class JOSEWarmupTest extends TestCase {
+
+
+	public void testDefaults() {
+
+		assertEquals(1000, JOSEWarmup.DEFAULT_ITERATIONS);
+		assertEquals(10000L, JOSEWarmup.DEFAULT_MAX_DURATION);
+	}
+
+
+	public void testAllAlgorithms()
+		throws JOSEException {
+
+		int count = JOSEWarmup.run(
+			new HashSet<>(Arrays.asList(
+				JWSAlgorithm.HS256, JWSAlgorithm.HS384, JWSAlgorithm.HS512,
+				JWSAlgorithm.RS256, JWSAlgorithm.RS512,
+				JWSAlgorithm.ES256, JWSAlgorithm.ES384, JWSAlgorithm.ES512)),
+			new HashSet<>(Arrays.asList(
+				JWEAlgorithm.RSA_OAEP_256, JWEAlgorithm.ECDH_ES, JWEAlgorithm.ECDH_ES_A128KW,
+				JWEAlgorithm.DIR, JWEAlgorithm.A128KW, JWEAlgorithm.A256GCMKW,
+				JWEAlgorithm.PBES2_HS256_A128KW)),
+			new HashSet<>(Arrays.asList(EncryptionMethod.A128GCM, EncryptionMethod.A128CBC_HS256)),
+			2,
+			60000L);
+
+		assertEquals(2 * (8 + 7 * 2), count);
+		assertTrue(JOSEWarmup.isComplete());
+	}
+
+
+	public void testMaxDuration()
+		throws JOSEException {
+
+		int count = JOSEWarmup.run(
+			Collections.singleton(JWSAlgorithm.HS256),
+			null,
+			null,
+			Integer.MAX_VALUE,
+			100L);
+
+		assertTrue(count > 0);
+		assertTrue(count < Integer.MAX_VALUE);
+	}
+
+
+	public void testNothingToWarmUp()
+		throws JOSEException {
+
+		assertEquals(0, JOSEWarmup.run(null, Collections.singleton(JWEAlgorithm.A128KW), null));
+	}
+
+
+	public void testUnsupportedAlgorithm() {
+
+		try {
+			JOSEWarmup.run(Collections.singleton(JWSAlgorithm.EdDSA), null, null);
+			fail();
+		} catch (JOSEException e) {
+			assertEquals("Unsupported JWS algorithm: EdDSA", e.getMessage());
+		}
+	}
+
+
+	public void testInvalidArguments()
+		throws JOSEException {
+
+		try {
+			JOSEWarmup.run(null, null, null, 0, 1000L);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The number of iterations must be positive", e.getMessage());
+		}
+
+		try {
+			JOSEWarmup.run(null, null, null, 1, 0L);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The maximum duration must be positive", e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,144 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.nimbusds.jose.crypto;
+
+
+import java.security.Provider;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+
+import junit.framework.TestCase;
+
+
+/**
+ * Tests the key-bound cipher context.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+public class KeyBoundCipherContextTest extends TestCase {
+
+
+	public void testReleasedCipherIsReused()
+		throws Exception {
+
+		KeyBoundCipherContext context = new KeyBoundCipherContext();
+
+		Cipher cipher = context.getCipher("AES/GCM/NoPadding", null);
+		assertNotNull(cipher);
+		context.releaseCipher("AES/GCM/NoPadding", null, cipher);
+		assertSame(cipher, context.getCipher("AES/GCM/NoPadding", null));
+	}
+
+
+	public void testCipherNotSharedUntilReleased()
+		throws Exception {
+
+		KeyBoundCipherContext context = new KeyBoundCipherContext();
+
+		Cipher first = context.getCipher("AES/GCM/NoPadding", null);
+		Cipher second = context.getCipher("AES/GCM/NoPadding", null);
+		assertNotSame(first, second);
+	}
+
+
+	public void testCipherPerTransformation()
+		throws Exception {
+
+		KeyBoundCipherContext context = new KeyBoundCipherContext();
+
+		Cipher gcm = context.getCipher("AES/GCM/NoPadding", null);
+		context.releaseCipher("AES/GCM/NoPadding", null, gcm);
+		Cipher kw = context.getCipher("AESWrap", null);
+
+		assertNotSame(gcm, kw);
+		assertEquals("AES/GCM/NoPadding", gcm.getAlgorithm());
+		assertEquals("AESWrap", kw.getAlgorithm());
+	}
+
+
+	public void testCipherPerProvider()
+		throws Exception {
+
+		KeyBoundCipherContext context = new KeyBoundCipherContext();
+
+		Cipher defaultCipher = context.getCipher("AESWrap", null);
+		context.releaseCipher("AESWrap", null, defaultCipher);
+
+		Provider provider = defaultCipher.getProvider();
+
+		Cipher providerCipher = context.getCipher("AESWrap", provider);
+		assertNotSame(defaultCipher, providerCipher);
+		assertSame(provider, providerCipher.getProvider());
+		context.releaseCipher("AESWrap", provider, providerCipher);
+		assertSame(providerCipher, context.getCipher("AESWrap", provider));
+
+		assertSame(defaultCipher, context.getCipher("AESWrap", null));
+	}
+
+
+	public void testPoolBound()
+		throws Exception {
+
+		KeyBoundCipherContext context = new KeyBoundCipherContext();
+
+		List<Cipher> ciphers = new ArrayList<>();
+
+		for (int i=0; i < KeyBoundCipherContext.MAX_POOLED_INSTANCES + 1; i++) {
+			ciphers.add(context.getCipher("AESWrap", null));
+		}
+
+		for (Cipher cipher: ciphers) {
+			context.releaseCipher("AESWrap", null, cipher);
+		}
+
+		// The excess cipher is discarded
+		for (int i=0; i < KeyBoundCipherContext.MAX_POOLED_INSTANCES; i++) {
+			assertSame(ciphers.get(i), context.getCipher("AESWrap", null));
+		}
+
+		assertFalse(ciphers.contains(context.getCipher("AESWrap", null)));
+	}
+
+
+	public void testReleasedMacIsReused()
+		throws Exception {
+
+		KeyGenerator keyGen = KeyGenerator.getInstance("HmacSHA256");
+		SecretKey key = keyGen.generateKey();
+
+		KeyBoundCipherContext context = new KeyBoundCipherContext();
+
+		Mac mac = context.getMac(key, null);
+		byte[] expected = mac.doFinal(new byte[]{1, 2, 3});
+		context.releaseMac(key, null, mac);
+
+		assertSame(mac, context.getMac(key, null));
+		assertTrue(Arrays.equals(expected, mac.doFinal(new byte[]{1, 2, 3})));
+		context.releaseMac(key, null, mac);
+
+		// Re-initialised for another key
+		SecretKey otherKey = keyGen.generateKey();
+		assertSame(mac, context.getMac(otherKey, null));
+		assertFalse(Arrays.equals(expected, mac.doFinal(new byte[]{1, 2, 3})));
+	}
+}
@@ -237,4 +237,119 @@ public class PBES2Test extends TestCase {
 
 		assertEquals(expectedPlainText, jweObject.getPayload().toString());
 	}
+
+
+	public void testDecrypterDerivedKeyCache()
+		throws Exception {
+
+		final byte[] password = "secret".getBytes(Charset.forName("UTF-8"));
+
+		PasswordBasedDecrypter decrypter = new PasswordBasedDecrypter(password, 10);
+		assertEquals(10, decrypter.getDerivedKeyCacheSize());
+		assertEquals(0, decrypter.getDerivedKeyCache().size());
+
+		PasswordBasedEncrypter encrypter = new PasswordBasedEncrypter(password, 8, 1000);
+
+		JWEObject jweObject = new JWEObject(new JWEHeader(JWEAlgorithm.PBES2_HS256_A128KW, EncryptionMethod.A128GCM), new Payload("Hello world!"));
+		jweObject.encrypt(encrypter);
+		String jwe = jweObject.serialize();
+
+		for (int i = 0; i < 3; i++) {
+			jweObject = JWEObject.parse(jwe);
+			jweObject.decrypt(decrypter);
+			assertEquals("Hello world!", jweObject.getPayload().toString());
+			assertEquals(1, decrypter.getDerivedKeyCache().size());
+		}
+
+		// Other salt
+		jweObject = new JWEObject(new JWEHeader(JWEAlgorithm.PBES2_HS256_A128KW, EncryptionMethod.A128GCM), new Payload("Hello world!"));
+		jweObject.encrypt(encrypter);
+		jweObject = JWEObject.parse(jweObject.serialize());
+		jweObject.decrypt(decrypter);
+		assertEquals("Hello world!", jweObject.getPayload().toString());
+		assertEquals(2, decrypter.getDerivedKeyCache().size());
+
+		decrypter.clearDerivedKeyCache();
+		assertEquals(0, decrypter.getDerivedKeyCache().size());
+
+		// Wrong password with cached salt must not decrypt
+		jweObject = JWEObject.parse(jwe);
+		try {
+			jweObject.decrypt(new PasswordBasedDecrypter("other".getBytes(Charset.forName("UTF-8")), 10));
+			fail();
+		} catch (JOSEException e) {
+			// ok
+		}
+	}
+
+
+	public void testDecrypterDerivedKeyCacheDisabledByDefault() {
+
+		PasswordBasedDecrypter decrypter = new PasswordBasedDecrypter("secret");
+		assertEquals(0, decrypter.getDerivedKeyCacheSize());
+		assertNull(decrypter.getDerivedKeyCache());
+		decrypter.clearDerivedKeyCache();
+
+		try {
+			new PasswordBasedDecrypter("secret".getBytes(Charset.forName("UTF-8")), -1);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The derived key cache size must not be negative", e.getMessage());
+		}
+	}
+
+
+	public void testEncrypterSaltReuse()
+		throws Exception {
+
+		final byte[] password = "secret".getBytes(Charset.forName("UTF-8"));
+
+		PasswordBasedEncrypter encrypter = new PasswordBasedEncrypter(password, 8, 1000, 3);
+		assertEquals(3, encrypter.getSaltReuseCount());
+
+		PasswordBasedDecrypter decrypter = new PasswordBasedDecrypter(password);
+
+		String[] salts = new String[7];
+
+		for (int i = 0; i < salts.length; i++) {
+
+			JWEObject jweObject = new JWEObject(new JWEHeader(JWEAlgorithm.PBES2_HS512_A256KW, EncryptionMethod.A256GCM), new Payload("Message " + i));
+			jweObject.encrypt(encrypter);
+			salts[i] = jweObject.getHeader().getPBES2Salt().toString();
+
+			jweObject = JWEObject.parse(jweObject.serialize());
+			jweObject.decrypt(decrypter);
+			assertEquals("Message " + i, jweObject.getPayload().toString());
+		}
+
+		assertEquals(salts[0], salts[1]);
+		assertEquals(salts[0], salts[2]);
+		assertFalse(salts[2].equals(salts[3]));
+		assertEquals(salts[3], salts[4]);
+		assertEquals(salts[3], salts[5]);
+		assertFalse(salts[5].equals(salts[6]));
+	}
+
+
+	public void testEncrypterNoSaltReuseByDefault()
+		throws Exception {
+
+		PasswordBasedEncrypter encrypter = new PasswordBasedEncrypter("secret", 8, 1000);
+		assertEquals(1, encrypter.getSaltReuseCount());
+
+		JWEObject first = new JWEObject(new JWEHeader(JWEAlgorithm.PBES2_HS256_A128KW, EncryptionMethod.A128GCM), new Payload("Hello world!"));
+		first.encrypt(encrypter);
+
+		JWEObject second = new JWEObject(new JWEHeader(JWEAlgorithm.PBES2_HS256_A128KW, EncryptionMethod.A128GCM), new Payload("Hello world!"));
+		second.encrypt(encrypter);
+
+		assertFalse(first.getHeader().getPBES2Salt().equals(second.getHeader().getPBES2Salt()));
+
+		try {
+			new PasswordBasedEncrypter("secret".getBytes(Charset.forName("UTF-8")), 8, 1000, 0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The salt reuse count must be positive", e.getMessage());
+		}
+	}
 }
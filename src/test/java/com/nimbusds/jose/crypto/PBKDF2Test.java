@@ -23,12 +23,15 @@ import java.security.SecureRandom;
 import java.util.Arrays;
 
 import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
 
 import junit.framework.TestCase;
 
 import com.nimbusds.jose.JWEAlgorithm;
 import com.nimbusds.jose.util.Base64URL;
 import com.nimbusds.jose.util.ByteUtils;
+import com.nimbusds.jose.util.StandardCharset;
 
 
 /**
@@ -114,4 +117,44 @@ public class PBKDF2Test extends TestCase {
 
 		assertTrue(Arrays.equals(expectedKey, secretKey.getEncoded()));
 	}
+
+
+	// From https://tools.ietf.org/html/rfc6070, two HMAC-SHA1 blocks
+	public void testDeriveKeyMultiBlockRFC6070Vector()
+		throws Exception {
+
+		final byte[] password = "passwordPASSWORDpassword".getBytes(StandardCharset.UTF_8);
+		final byte[] salt = "saltSALTsaltSALTsaltSALTsaltSALTsalt".getBytes(StandardCharset.UTF_8);
+
+		SecretKey secretKey = PBKDF2.deriveKey(password, salt, 4096, new PRFParams("HmacSHA1", null, 25));
+
+		final byte[] expectedKey = {
+			(byte)0x3d, (byte)0x2e, (byte)0xec, (byte)0x4f, (byte)0xe4, (byte)0x1c, (byte)0x84, (byte)0x9b,
+			(byte)0x80, (byte)0xc8, (byte)0xd8, (byte)0x36, (byte)0x62, (byte)0xc0, (byte)0xe4, (byte)0x4a,
+			(byte)0x8b, (byte)0x29, (byte)0x1a, (byte)0x96, (byte)0x4c, (byte)0xf2, (byte)0xf0, (byte)0x70,
+			(byte)0x38 };
+
+		assertTrue(Arrays.equals(expectedKey, secretKey.getEncoded()));
+	}
+
+
+	public void testDeriveKeyMatchesJCA()
+		throws Exception {
+
+		final String password = "Thus from my lips, by yours, my sin is purged.";
+		final byte[] salt = new byte[16];
+		new SecureRandom().nextBytes(salt);
+
+		// One block, one full and one partial block, several blocks
+		for (int dkLen: new int[]{16, 32, 50, 32 * 5}) {
+
+			SecretKey secretKey = PBKDF2.deriveKey(password.getBytes(StandardCharset.UTF_8), salt, 1000, new PRFParams("HmacSHA256", null, dkLen));
+
+			byte[] expectedKey = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256")
+				.generateSecret(new PBEKeySpec(password.toCharArray(), salt, 1000, dkLen * 8))
+				.getEncoded();
+
+			assertTrue(Arrays.equals(expectedKey, secretKey.getEncoded()));
+		}
+	}
 }
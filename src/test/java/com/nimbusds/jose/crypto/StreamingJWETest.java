@@ -0,0 +1,506 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.crypto;
+
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.SecureRandom;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.text.ParseException;
+import java.util.Arrays;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jose.util.StandardCharset;
+import junit.framework.TestCase;
+
+
+/**
+ * Tests streaming JWE encryption and decryption.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+public class StreamingJWETest extends TestCase {
+
+
+	private static final SecureRandom RANDOM = new SecureRandom();
+
+
+	private static byte[] randomBytes(final int length) {
+
+		byte[] bytes = new byte[length];
+		RANDOM.nextBytes(bytes);
+		return bytes;
+	}
+
+
+	private static SecretKey generateCEK(final EncryptionMethod enc) {
+
+		return new SecretKeySpec(randomBytes(enc.cekBitLength() / 8), "AES");
+	}
+
+
+	private static byte[] streamEncrypt(final JWEEncrypter encrypter, final JWEHeader header, final byte[] clearText)
+		throws Exception {
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new StreamingJWEEncrypter(encrypter).encrypt(header, new ByteArrayInputStream(clearText), out);
+		return out.toByteArray();
+	}
+
+
+	private static byte[] streamDecrypt(final JWEDecrypter decrypter, final byte[] jwe)
+		throws Exception {
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new StreamingJWEDecrypter(decrypter).decrypt(new ByteArrayInputStream(jwe), out);
+		return out.toByteArray();
+	}
+
+
+	private static void testCycle(final JWEEncrypter encrypter,
+				      final JWEDecrypter decrypter,
+				      final JWEHeader header,
+				      final int clearTextLength)
+		throws Exception {
+
+		byte[] clearText = randomBytes(clearTextLength);
+
+		// Streaming -> streaming
+		byte[] jwe = streamEncrypt(encrypter, header, clearText);
+		assertTrue(Arrays.equals(clearText, streamDecrypt(decrypter, jwe)));
+
+		// Streaming -> JWEObject
+		JWEObject jweObject = JWEObject.parse(new String(jwe, StandardCharset.UTF_8));
+		assertEquals(header.getAlgorithm(), jweObject.getHeader().getAlgorithm());
+		assertEquals(header.getEncryptionMethod(), jweObject.getHeader().getEncryptionMethod());
+		jweObject.decrypt(decrypter);
+		assertTrue(Arrays.equals(clearText, jweObject.getPayload().toBytes()));
+
+		// JWEObject -> streaming
+		jweObject = new JWEObject(header, new Payload(clearText));
+		jweObject.encrypt(encrypter);
+		byte[] serialized = jweObject.serialize().getBytes(StandardCharset.UTF_8);
+		assertTrue(Arrays.equals(clearText, streamDecrypt(decrypter, serialized)));
+	}
+
+
+	public void testSupportedEncryptionMethods() {
+
+		assertEquals(6, StreamingContentCryptoProvider.SUPPORTED_ENCRYPTION_METHODS.size());
+		assertTrue(StreamingContentCryptoProvider.SUPPORTED_ENCRYPTION_METHODS.containsAll(EncryptionMethod.Family.AES_GCM));
+		assertTrue(StreamingContentCryptoProvider.SUPPORTED_ENCRYPTION_METHODS.containsAll(EncryptionMethod.Family.AES_CBC_HMAC_SHA));
+	}
+
+
+	public void testDirectCycle_allMethods_variousLengths()
+		throws Exception {
+
+		int[] lengths = {
+			0, 1, 2, 3, 4, 15, 16, 17,
+			StreamingContentCryptoProvider.CHUNK_SIZE - 1,
+			StreamingContentCryptoProvider.CHUNK_SIZE,
+			StreamingContentCryptoProvider.CHUNK_SIZE + 1,
+			3 * StreamingContentCryptoProvider.CHUNK_SIZE + 7
+		};
+
+		for (EncryptionMethod enc: StreamingContentCryptoProvider.SUPPORTED_ENCRYPTION_METHODS) {
+
+			SecretKey key = generateCEK(enc);
+
+			for (int length: lengths) {
+				testCycle(new DirectEncrypter(key), new DirectDecrypter(key), new JWEHeader(JWEAlgorithm.DIR, enc), length);
+			}
+		}
+	}
+
+
+	public void testDirectCycle_largePayload()
+		throws Exception {
+
+		SecretKey key = generateCEK(EncryptionMethod.A256GCM);
+		JWEHeader header = new JWEHeader(JWEAlgorithm.DIR, EncryptionMethod.A256GCM);
+
+		testCycle(new DirectEncrypter(key), new DirectDecrypter(key), header, 2 * 1024 * 1024 + 5);
+	}
+
+
+	public void testDirectCycle_compressed()
+		throws Exception {
+
+		SecretKey key = generateCEK(EncryptionMethod.A128CBC_HS256);
+
+		JWEHeader header = new JWEHeader.Builder(JWEAlgorithm.DIR, EncryptionMethod.A128CBC_HS256).
+			compressionAlgorithm(CompressionAlgorithm.DEF).
+			build();
+
+		// Compressible clear text
+		byte[] clearText = new byte[100 * 1024];
+		Arrays.fill(clearText, (byte)'a');
+
+		byte[] jwe = streamEncrypt(new DirectEncrypter(key), header, clearText);
+		assertTrue(jwe.length < clearText.length / 10);
+
+		// Uniform clear text exceeds the default maximum compression ratio
+		DirectDecrypter decrypter = new DirectDecrypter(key);
+		try {
+			streamDecrypt(decrypter, jwe);
+			fail();
+		} catch (JOSEException e) {
+			assertTrue(e.getMessage().startsWith("Couldn't decompress plain text: Decompressed size exceeds the maximum of"));
+		}
+
+		decrypter.getJCAContext().setMaxCompressionRatio(0);
+		assertTrue(Arrays.equals(clearText, streamDecrypt(decrypter, jwe)));
+
+		JWEObject jweObject = JWEObject.parse(new String(jwe, StandardCharset.UTF_8));
+		jweObject.decrypt(decrypter);
+		assertTrue(Arrays.equals(clearText, jweObject.getPayload().toBytes()));
+
+		testCycle(new DirectEncrypter(key), new DirectDecrypter(key), header, 50000);
+	}
+
+
+	public void testRSACycle()
+		throws Exception {
+
+		KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
+		keyGen.initialize(2048);
+		KeyPair keyPair = keyGen.generateKeyPair();
+
+		RSAEncrypter encrypter = new RSAEncrypter((RSAPublicKey)keyPair.getPublic());
+		RSADecrypter decrypter = new RSADecrypter((RSAPrivateKey)keyPair.getPrivate());
+
+		testCycle(encrypter, decrypter, new JWEHeader(JWEAlgorithm.RSA_OAEP_256, EncryptionMethod.A256GCM), 100000);
+		testCycle(encrypter, decrypter, new JWEHeader(JWEAlgorithm.RSA1_5, EncryptionMethod.A128CBC_HS256), 100000);
+	}
+
+
+	public void testAESCycle()
+		throws Exception {
+
+		SecretKey kek = new SecretKeySpec(randomBytes(16), "AES");
+
+		testCycle(new AESEncrypter(kek), new AESDecrypter(kek), new JWEHeader(JWEAlgorithm.A128KW, EncryptionMethod.A192GCM), 100000);
+		testCycle(new AESEncrypter(kek), new AESDecrypter(kek), new JWEHeader(JWEAlgorithm.A128GCMKW, EncryptionMethod.A192CBC_HS384), 100000);
+	}
+
+
+	public void testECDHCycle()
+		throws Exception {
+
+		KeyPairGenerator keyGen = KeyPairGenerator.getInstance("EC");
+		keyGen.initialize(Curve.P_256.toECParameterSpec());
+		KeyPair keyPair = keyGen.generateKeyPair();
+
+		ECDHEncrypter encrypter = new ECDHEncrypter((ECPublicKey)keyPair.getPublic());
+		ECDHDecrypter decrypter = new ECDHDecrypter((ECPrivateKey)keyPair.getPrivate());
+
+		testCycle(encrypter, decrypter, new JWEHeader(JWEAlgorithm.ECDH_ES, EncryptionMethod.A128GCM), 100000);
+		testCycle(encrypter, decrypter, new JWEHeader(JWEAlgorithm.ECDH_ES_A256KW, EncryptionMethod.A256CBC_HS512), 100000);
+	}
+
+
+	public void testX25519Cycle()
+		throws Exception {
+
+		KeyPair keyPair = KeyPairGenerator.getInstance("X25519").generateKeyPair();
+
+		OctetKeyPair publicJWK = new OctetKeyPair.Builder(Curve.X25519, keyPair.getPublic()).build();
+
+		X25519Encrypter encrypter = new X25519Encrypter(publicJWK);
+		X25519Decrypter decrypter = new X25519Decrypter(keyPair.getPrivate(), null);
+
+		testCycle(encrypter, decrypter, new JWEHeader(JWEAlgorithm.ECDH_ES, EncryptionMethod.A256GCM), 100000);
+	}
+
+
+	public void testPasswordBasedCycle()
+		throws Exception {
+
+		PasswordBasedEncrypter encrypter = new PasswordBasedEncrypter("secret", 8, 1000);
+		PasswordBasedDecrypter decrypter = new PasswordBasedDecrypter("secret");
+
+		testCycle(encrypter, decrypter, new JWEHeader(JWEAlgorithm.PBES2_HS256_A128KW, EncryptionMethod.A128GCM), 100000);
+	}
+
+
+	public void testDecrypt_modifiedAuthTag()
+		throws Exception {
+
+		for (EncryptionMethod enc: StreamingContentCryptoProvider.SUPPORTED_ENCRYPTION_METHODS) {
+
+			SecretKey key = generateCEK(enc);
+
+			String jwe = new String(streamEncrypt(new DirectEncrypter(key), new JWEHeader(JWEAlgorithm.DIR, enc), randomBytes(1000)), StandardCharset.UTF_8);
+
+			String[] parts = jwe.split("\\.");
+			byte[] authTag = new Base64URL(parts[4]).decode();
+			authTag[0] ^= 1;
+			String modified = parts[0] + "." + parts[1] + "." + parts[2] + "." + parts[3] + "." + Base64URL.encode(authTag);
+
+			try {
+				streamDecrypt(new DirectDecrypter(key), modified.getBytes(StandardCharset.UTF_8));
+				fail();
+			} catch (JOSEException e) {
+				if (EncryptionMethod.Family.AES_CBC_HMAC_SHA.contains(enc)) {
+					assertEquals("MAC check failed", e.getMessage());
+				} else {
+					assertTrue(e.getMessage().startsWith("AES/GCM/NoPadding decryption failed"));
+				}
+			}
+		}
+	}
+
+
+	public void testDecrypt_wrongKey()
+		throws Exception {
+
+		SecretKey key = generateCEK(EncryptionMethod.A256GCM);
+
+		byte[] jwe = streamEncrypt(new DirectEncrypter(key), new JWEHeader(JWEAlgorithm.DIR, EncryptionMethod.A256GCM), randomBytes(1000));
+
+		try {
+			streamDecrypt(new DirectDecrypter(generateCEK(EncryptionMethod.A256GCM)), jwe);
+			fail();
+		} catch (JOSEException e) {
+			assertTrue(e.getMessage().startsWith("AES/GCM/NoPadding decryption failed"));
+		}
+	}
+
+
+	public void testDecrypt_missingParts()
+		throws Exception {
+
+		SecretKey key = generateCEK(EncryptionMethod.A128GCM);
+
+		String jwe = new String(streamEncrypt(new DirectEncrypter(key), new JWEHeader(JWEAlgorithm.DIR, EncryptionMethod.A128GCM), randomBytes(100)), StandardCharset.UTF_8);
+
+		String truncated = jwe.substring(0, jwe.lastIndexOf('.'));
+
+		try {
+			streamDecrypt(new DirectDecrypter(key), truncated.getBytes(StandardCharset.UTF_8));
+			fail();
+		} catch (ParseException e) {
+			assertEquals("Unexpected number of Base64URL parts, must be five", e.getMessage());
+		}
+
+		try {
+			streamDecrypt(new DirectDecrypter(key), (jwe + ".abc").getBytes(StandardCharset.UTF_8));
+			fail();
+		} catch (ParseException e) {
+			assertEquals("Unexpected number of Base64URL parts, must be five", e.getMessage());
+		}
+
+		try {
+			streamDecrypt(new DirectDecrypter(key), "abc".getBytes(StandardCharset.UTF_8));
+			fail();
+		} catch (ParseException e) {
+			assertEquals("Unexpected number of Base64URL parts, must be five", e.getMessage());
+		}
+	}
+
+
+	public void testEncrypt_unsupportedEncryptionMethod()
+		throws Exception {
+
+		SecretKey key = generateCEK(EncryptionMethod.A128CBC_HS256_DEPRECATED);
+
+		try {
+			streamEncrypt(new DirectEncrypter(key), new JWEHeader(JWEAlgorithm.DIR, EncryptionMethod.A128CBC_HS256_DEPRECATED), randomBytes(10));
+			fail();
+		} catch (JOSEException e) {
+			assertEquals(AlgorithmSupportMessage.unsupportedEncryptionMethod(
+				EncryptionMethod.A128CBC_HS256_DEPRECATED,
+				StreamingContentCryptoProvider.SUPPORTED_ENCRYPTION_METHODS), e.getMessage());
+		}
+	}
+
+
+	public void testEncrypt_unsupportedAlgorithm()
+		throws Exception {
+
+		SecretKey key = generateCEK(EncryptionMethod.A128GCM);
+
+		try {
+			streamEncrypt(new DirectEncrypter(key), new JWEHeader(JWEAlgorithm.A128KW, EncryptionMethod.A128GCM), randomBytes(10));
+			fail();
+		} catch (JOSEException e) {
+			assertTrue(e.getMessage().startsWith("The \"A128KW\" algorithm is not supported by the JWE encrypter"));
+		}
+	}
+
+
+	public void testEncrypt_readsInChunks()
+		throws Exception {
+
+		SecretKey key = generateCEK(EncryptionMethod.A128GCM);
+
+		final int[] maxRead = {0};
+
+		InputStream in = new ByteArrayInputStream(randomBytes(100000)) {
+			@Override
+			public synchronized int read(final byte[] b, final int off, final int len) {
+				maxRead[0] = Math.max(maxRead[0], len);
+				return super.read(b, off, len);
+			}
+		};
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new StreamingJWEEncrypter(new DirectEncrypter(key)).encrypt(new JWEHeader(JWEAlgorithm.DIR, EncryptionMethod.A128GCM), in, out);
+
+		assertEquals(StreamingContentCryptoProvider.CHUNK_SIZE, maxRead[0]);
+	}
+
+
+	public void testRejectForeignEncrypterAndDecrypter() {
+
+		JWEEncrypter encrypter = new JWEEncrypter() {
+			@Override
+			public JWECryptoParts encrypt(JWEHeader header, byte[] clearText) {
+				return null;
+			}
+
+			@Override
+			public java.util.Set<JWEAlgorithm> supportedJWEAlgorithms() {
+				return null;
+			}
+
+			@Override
+			public java.util.Set<EncryptionMethod> supportedEncryptionMethods() {
+				return null;
+			}
+
+			@Override
+			public com.nimbusds.jose.jca.JWEJCAContext getJCAContext() {
+				return null;
+			}
+		};
+
+		try {
+			new StreamingJWEEncrypter(encrypter);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The JWE encrypter must be one of the com.nimbusds.jose.crypto encrypters", e.getMessage());
+		}
+
+		try {
+			new StreamingJWEDecrypter(null);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The JWE decrypter must be one of the com.nimbusds.jose.crypto decrypters", e.getMessage());
+		}
+	}
+
+
+	public void testDecrypt_ioExceptionPropagated()
+		throws Exception {
+
+		SecretKey key = generateCEK(EncryptionMethod.A128GCM);
+
+		InputStream in = new InputStream() {
+			@Override
+			public int read() throws IOException {
+				throw new IOException("test");
+			}
+		};
+
+		try {
+			new StreamingJWEDecrypter(new DirectDecrypter(key)).decrypt(in, new ByteArrayOutputStream());
+			fail();
+		} catch (IOException e) {
+			assertEquals("test", e.getMessage());
+		}
+	}
+
+
+	public void testDecrypt_decompressionLimits()
+		throws Exception {
+
+		SecretKey key = generateCEK(EncryptionMethod.A128GCM);
+
+		JWEHeader header = new JWEHeader.Builder(JWEAlgorithm.DIR, EncryptionMethod.A128GCM).
+			compressionAlgorithm(CompressionAlgorithm.DEF).
+			build();
+
+		// Highly compressible clear text, ratio above 500
+		byte[] clearText = new byte[1024 * 1024];
+		Arrays.fill(clearText, (byte)0);
+
+		byte[] jwe = streamEncrypt(new DirectEncrypter(key), header, clearText);
+
+		// Maximum length
+		DirectDecrypter decrypter = new DirectDecrypter(key);
+		decrypter.getJCAContext().setMaxDecompressedLength(100 * 1024);
+
+		try {
+			streamDecrypt(decrypter, jwe);
+			fail();
+		} catch (JOSEException e) {
+			assertTrue(e.getMessage().startsWith("Couldn't decompress plain text: Decompressed size exceeds the maximum of"));
+		}
+
+		try {
+			JWEObject.parse(new String(jwe, StandardCharset.UTF_8)).decrypt(decrypter);
+			fail();
+		} catch (JOSEException e) {
+			assertEquals("Couldn't decompress plain text: Decompressed size exceeds the maximum of 102400 bytes", e.getMessage());
+		}
+
+		// Maximum ratio
+		decrypter = new DirectDecrypter(key);
+		decrypter.getJCAContext().setMaxCompressionRatio(100);
+
+		try {
+			streamDecrypt(decrypter, jwe);
+			fail();
+		} catch (JOSEException e) {
+			assertTrue(e.getMessage().startsWith("Couldn't decompress plain text: Decompressed size exceeds the maximum of"));
+		}
+
+		try {
+			JWEObject.parse(new String(jwe, StandardCharset.UTF_8)).decrypt(decrypter);
+			fail();
+		} catch (JOSEException e) {
+			assertTrue(e.getMessage().startsWith("Couldn't decompress plain text: Decompressed size exceeds the maximum of"));
+		}
+
+		// Within the limits
+		decrypter = new DirectDecrypter(key);
+		decrypter.getJCAContext().setMaxDecompressedLength(clearText.length);
+		decrypter.getJCAContext().setMaxCompressionRatio(2000);
+		assertTrue(Arrays.equals(clearText, streamDecrypt(decrypter, jwe)));
+
+		JWEObject jweObject = JWEObject.parse(new String(jwe, StandardCharset.UTF_8));
+		jweObject.decrypt(decrypter);
+		assertTrue(Arrays.equals(clearText, jweObject.getPayload().toBytes()));
+	}
+}
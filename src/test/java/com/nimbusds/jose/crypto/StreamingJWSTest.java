@@ -0,0 +1,337 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.crypto;
+
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.SecureRandom;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jose.util.StandardCharset;
+import junit.framework.TestCase;
+
+
+/**
+ * Tests streaming JWS signing and verification.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+public class StreamingJWSTest extends TestCase {
+
+
+	private static final SecureRandom RANDOM = new SecureRandom();
+
+
+	// From RFC 7515, appendix A.1
+	private static final Base64URL HMAC_KEY = new Base64URL(
+		"AyM1SysPpbyDfgZld3umj1qzKObwVMkoqQ-EstJQLr_T-1qS0gZH75aKtMN3Yj0iPS4hcgUuTwjAzZr1Z9CAow");
+
+
+	private static byte[] randomBytes(final int length) {
+
+		byte[] bytes = new byte[length];
+		RANDOM.nextBytes(bytes);
+		return bytes;
+	}
+
+
+	private static JWSHeader unencodedPayloadHeader(final JWSAlgorithm alg) {
+
+		return new JWSHeader.Builder(alg)
+			.base64URLEncodePayload(false)
+			.criticalParams(Collections.singleton("b64"))
+			.build();
+	}
+
+
+	private static void assertCompactRoundTrip(final JWSSigner signer, final JWSVerifier verifier, final JWSAlgorithm alg)
+		throws Exception {
+
+		// Several chunks, plus a trailing partial BASE64URL quantum
+		byte[] payload = randomBytes(3 * StreamingContentCryptoProvider.CHUNK_SIZE + 1);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new StreamingJWSSigner(signer).sign(new JWSHeader(alg), new ByteArrayInputStream(payload), out);
+
+		String jws = new String(out.toByteArray(), StandardCharset.UTF_8);
+
+		// Interop with JWS object
+		JWSObject jwsObject = JWSObject.parse(jws);
+		assertEquals(alg, jwsObject.getHeader().getAlgorithm());
+		assertTrue(Arrays.equals(payload, jwsObject.getPayload().toBytes()));
+		assertTrue(jwsObject.verify(verifier));
+
+		ByteArrayOutputStream payloadOut = new ByteArrayOutputStream();
+		assertTrue(new StreamingJWSVerifier(verifier).verify(new ByteArrayInputStream(out.toByteArray()), payloadOut));
+		assertTrue(Arrays.equals(payload, payloadOut.toByteArray()));
+
+		// Signed by JWS object
+		jwsObject = new JWSObject(new JWSHeader(alg), new Payload(payload));
+		jwsObject.sign(signer);
+
+		payloadOut = new ByteArrayOutputStream();
+		assertTrue(new StreamingJWSVerifier(verifier).verify(new ByteArrayInputStream(jwsObject.serialize().getBytes(StandardCharset.UTF_8)), payloadOut));
+		assertTrue(Arrays.equals(payload, payloadOut.toByteArray()));
+	}
+
+
+	public void testCompactRoundTrip_HS256()
+		throws Exception {
+
+		byte[] secret = randomBytes(32);
+		assertCompactRoundTrip(new MACSigner(secret), new MACVerifier(secret), JWSAlgorithm.HS256);
+	}
+
+
+	public void testCompactRoundTrip_RS256()
+		throws Exception {
+
+		KeyPairGenerator gen = KeyPairGenerator.getInstance("RSA");
+		gen.initialize(2048);
+		KeyPair keyPair = gen.generateKeyPair();
+
+		assertCompactRoundTrip(
+			new RSASSASigner(keyPair.getPrivate()),
+			new RSASSAVerifier((RSAPublicKey)keyPair.getPublic()),
+			JWSAlgorithm.RS256);
+	}
+
+
+	public void testCompactRoundTrip_ES256()
+		throws Exception {
+
+		KeyPairGenerator gen = KeyPairGenerator.getInstance("EC");
+		gen.initialize(Curve.P_256.toECParameterSpec());
+		KeyPair keyPair = gen.generateKeyPair();
+
+		assertCompactRoundTrip(
+			new ECDSASigner((ECPrivateKey)keyPair.getPrivate()),
+			new ECDSAVerifier((ECPublicKey)keyPair.getPublic()),
+			JWSAlgorithm.ES256);
+	}
+
+
+	public void testDetachedSignature()
+		throws Exception {
+
+		KeyPairGenerator gen = KeyPairGenerator.getInstance("RSA");
+		gen.initialize(2048);
+		KeyPair keyPair = gen.generateKeyPair();
+
+		byte[] payload = randomBytes(100000);
+		JWSHeader header = new JWSHeader(JWSAlgorithm.RS384);
+
+		Base64URL signature = new StreamingJWSSigner(new RSASSASigner(keyPair.getPrivate())).sign(header, new ByteArrayInputStream(payload));
+
+		StreamingJWSVerifier verifier = new StreamingJWSVerifier(new RSASSAVerifier((RSAPublicKey)keyPair.getPublic()));
+		assertTrue(verifier.verify(header, new ByteArrayInputStream(payload), signature));
+
+		// Equivalent JWS object
+		JWSObject jwsObject = new JWSObject(header.toBase64URL(), Base64URL.encode(payload), signature);
+		assertTrue(jwsObject.verify(new RSASSAVerifier((RSAPublicKey)keyPair.getPublic())));
+
+		// Modified payload
+		payload[0] ^= 1;
+		assertFalse(verifier.verify(header, new ByteArrayInputStream(payload), signature));
+	}
+
+
+	public void testUnencodedPayloadExample()
+		throws Exception {
+
+		// From RFC 7797, section 4.2
+		JWSHeader header = JWSHeader.parse(new Base64URL("eyJhbGciOiJIUzI1NiIsImI2NCI6ZmFsc2UsImNyaXQiOlsiYjY0Il19"));
+		byte[] payload = "$.02".getBytes(StandardCharset.UTF_8);
+
+		Base64URL signature = new StreamingJWSSigner(new MACSigner(HMAC_KEY.decode())).sign(header, new ByteArrayInputStream(payload));
+		assertEquals("A5dxf2s96_n5FLueVuW1Z_vh161FwXZC4YLPff6dmDY", signature.toString());
+
+		StreamingJWSVerifier verifier = new StreamingJWSVerifier(new MACVerifier(HMAC_KEY.decode()));
+		assertTrue(verifier.verify(header, new ByteArrayInputStream(payload), signature));
+		assertFalse(verifier.verify(header, new ByteArrayInputStream("$.03".getBytes(StandardCharset.UTF_8)), signature));
+	}
+
+
+	public void testUnencodedPayloadCompact()
+		throws Exception {
+
+		KeyPairGenerator gen = KeyPairGenerator.getInstance("EC");
+		gen.initialize(Curve.P_384.toECParameterSpec());
+		KeyPair keyPair = gen.generateKeyPair();
+
+		byte[] payload = "The quick brown fox jumps over the lazy dog\n".getBytes(StandardCharset.UTF_8);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new StreamingJWSSigner(new ECDSASigner((ECPrivateKey)keyPair.getPrivate()))
+			.sign(unencodedPayloadHeader(JWSAlgorithm.ES384), new ByteArrayInputStream(payload), out);
+
+		String jws = new String(out.toByteArray(), StandardCharset.UTF_8);
+		assertTrue(jws.contains(".The quick brown fox jumps over the lazy dog\n."));
+
+		ByteArrayOutputStream payloadOut = new ByteArrayOutputStream();
+		assertTrue(new StreamingJWSVerifier(new ECDSAVerifier((ECPublicKey)keyPair.getPublic()))
+			.verify(new ByteArrayInputStream(out.toByteArray()), payloadOut));
+		assertTrue(Arrays.equals(payload, payloadOut.toByteArray()));
+	}
+
+
+	public void testUnencodedPayloadWithPeriodNotAttached()
+		throws Exception {
+
+		try {
+			new StreamingJWSSigner(new MACSigner(HMAC_KEY.decode())).sign(
+				unencodedPayloadHeader(JWSAlgorithm.HS256),
+				new ByteArrayInputStream("$.02".getBytes(StandardCharset.UTF_8)),
+				new ByteArrayOutputStream());
+			fail();
+		} catch (JOSEException e) {
+			assertEquals("The unencoded payload must not contain a period ('.') character", e.getMessage());
+		}
+	}
+
+
+	public void testUnencodedPayloadMustBeCritical()
+		throws Exception {
+
+		JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.HS256)
+			.base64URLEncodePayload(false)
+			.build();
+
+		byte[] payload = randomBytes(100);
+
+		try {
+			new StreamingJWSSigner(new MACSigner(HMAC_KEY.decode())).sign(header, new ByteArrayInputStream(payload));
+			fail();
+		} catch (JOSEException e) {
+			assertEquals("The b64 header parameter must be marked critical", e.getMessage());
+		}
+
+		// Signature computed for the critical variant
+		Base64URL signature = new StreamingJWSSigner(new MACSigner(HMAC_KEY.decode()))
+			.sign(unencodedPayloadHeader(JWSAlgorithm.HS256), new ByteArrayInputStream(payload));
+
+		assertFalse(new StreamingJWSVerifier(new MACVerifier(HMAC_KEY.decode()))
+			.verify(header, new ByteArrayInputStream(payload), signature));
+	}
+
+
+	public void testUnsupportedCriticalParam()
+		throws Exception {
+
+		JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.HS256)
+			.criticalParams(Collections.singleton("exp"))
+			.customParam("exp", 123)
+			.build();
+
+		byte[] payload = randomBytes(100);
+
+		Base64URL signature = new StreamingJWSSigner(new MACSigner(HMAC_KEY.decode())).sign(header, new ByteArrayInputStream(payload));
+
+		assertFalse(new StreamingJWSVerifier(new MACVerifier(HMAC_KEY.decode()))
+			.verify(header, new ByteArrayInputStream(payload), signature));
+
+		MACVerifier macVerifier = new MACVerifier(HMAC_KEY.decode(), Collections.singleton("exp"));
+		assertTrue(new StreamingJWSVerifier(macVerifier)
+			.verify(header, new ByteArrayInputStream(payload), signature));
+	}
+
+
+	public void testTamperedSignature()
+		throws Exception {
+
+		KeyPairGenerator gen = KeyPairGenerator.getInstance("EC");
+		gen.initialize(Curve.P_256.toECParameterSpec());
+		KeyPair keyPair = gen.generateKeyPair();
+
+		byte[] payload = randomBytes(1000);
+		JWSHeader header = new JWSHeader(JWSAlgorithm.ES256);
+
+		Base64URL signature = new StreamingJWSSigner(new ECDSASigner((ECPrivateKey)keyPair.getPrivate()))
+			.sign(header, new ByteArrayInputStream(payload));
+
+		byte[] sigBytes = signature.decode();
+		sigBytes[10] ^= 1;
+
+		StreamingJWSVerifier verifier = new StreamingJWSVerifier(new ECDSAVerifier((ECPublicKey)keyPair.getPublic()));
+		assertFalse(verifier.verify(header, new ByteArrayInputStream(payload), Base64URL.encode(sigBytes)));
+
+		// Invalid signature length
+		assertFalse(verifier.verify(header, new ByteArrayInputStream(payload), Base64URL.encode(new byte[10])));
+	}
+
+
+	public void testParseException()
+		throws Exception {
+
+		StreamingJWSVerifier verifier = new StreamingJWSVerifier(new MACVerifier(HMAC_KEY.decode()));
+
+		String header = new JWSHeader(JWSAlgorithm.HS256).toBase64URL().toString();
+
+		try {
+			verifier.verify(new ByteArrayInputStream((header + ".def").getBytes(StandardCharset.UTF_8)), new ByteArrayOutputStream());
+			fail();
+		} catch (ParseException e) {
+			assertEquals("Unexpected number of Base64URL parts, must be three", e.getMessage());
+		}
+
+		try {
+			verifier.verify(new ByteArrayInputStream((header + ".def.ghi.jkl").getBytes(StandardCharset.UTF_8)), new ByteArrayOutputStream());
+			fail();
+		} catch (ParseException e) {
+			assertEquals("Unexpected number of Base64URL parts, must be three", e.getMessage());
+		}
+
+		try {
+			verifier.verify(new ByteArrayInputStream("abc.def.ghi".getBytes(StandardCharset.UTF_8)), new ByteArrayOutputStream());
+			fail();
+		} catch (ParseException e) {
+			assertTrue(e.getMessage().startsWith("Invalid JWS header: "));
+		}
+	}
+
+
+	public void testRejectForeignSignerAndVerifier() {
+
+		try {
+			new StreamingJWSSigner(null);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The JWS signer must be one of the com.nimbusds.jose.crypto signers", e.getMessage());
+		}
+
+		try {
+			new StreamingJWSVerifier(null);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The JWS verifier must be one of the com.nimbusds.jose.crypto verifiers", e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,326 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.crypto;
+
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.interfaces.ECPrivateKey;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import javax.crypto.SecretKey;
+
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.crypto.factories.DefaultJWEDecrypterFactory;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.util.Base64URL;
+import junit.framework.TestCase;
+
+
+/**
+ * Tests X25519 ECDH encryption and decryption.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+public class X25519CryptoTest extends TestCase {
+
+
+	private static OctetKeyPair generateX25519JWK()
+		throws Exception {
+
+		KeyPair keyPair = KeyPairGenerator.getInstance("X25519").generateKeyPair();
+
+		OctetKeyPair publicJWK = new OctetKeyPair.Builder(Curve.X25519, keyPair.getPublic()).build();
+
+		byte[] pkcs8 = keyPair.getPrivate().getEncoded();
+		Base64URL d = Base64URL.encode(Arrays.copyOfRange(pkcs8, pkcs8.length - 32, pkcs8.length));
+
+		return new OctetKeyPair.Builder(publicJWK).d(d).build();
+	}
+
+
+	private static void testCycle(final JWEAlgorithm alg, final EncryptionMethod enc)
+		throws Exception {
+
+		OctetKeyPair okpJWK = generateX25519JWK();
+
+		JWEHeader header = new JWEHeader.Builder(alg, enc).
+			agreementPartyUInfo(Base64URL.encode("Alice")).
+			agreementPartyVInfo(Base64URL.encode("Bob")).
+			build();
+
+		JWEObject jweObject = new JWEObject(header, new Payload("Hello world!"));
+
+		X25519Encrypter encrypter = new X25519Encrypter(okpJWK.toPublicJWK());
+		jweObject.encrypt(encrypter);
+
+		OctetKeyPair epk = (OctetKeyPair) jweObject.getHeader().getEphemeralPublicJWK();
+		assertEquals(Curve.X25519, epk.getCurve());
+		assertEquals(32, epk.getX().decode().length);
+		assertNull(epk.getD());
+
+		if (ECDH.resolveAlgorithmMode(alg) == ECDH.AlgorithmMode.DIRECT) {
+			assertNull(jweObject.getEncryptedKey());
+		} else {
+			assertNotNull(jweObject.getEncryptedKey());
+		}
+
+		String jwe = jweObject.serialize();
+
+		jweObject = JWEObject.parse(jwe);
+
+		assertTrue(jweObject.getHeader().getEphemeralPublicJWK() instanceof OctetKeyPair);
+
+		X25519Decrypter decrypter = new X25519Decrypter(okpJWK);
+		jweObject.decrypt(decrypter);
+
+		assertEquals("Hello world!", jweObject.getPayload().toString());
+	}
+
+
+	public void testCycle_ECDH_ES()
+		throws Exception {
+
+		testCycle(JWEAlgorithm.ECDH_ES, EncryptionMethod.A128GCM);
+		testCycle(JWEAlgorithm.ECDH_ES, EncryptionMethod.A256CBC_HS512);
+	}
+
+
+	public void testCycle_ECDH_ES_A128KW()
+		throws Exception {
+
+		testCycle(JWEAlgorithm.ECDH_ES_A128KW, EncryptionMethod.A128GCM);
+	}
+
+
+	public void testCycle_ECDH_ES_A192KW()
+		throws Exception {
+
+		testCycle(JWEAlgorithm.ECDH_ES_A192KW, EncryptionMethod.A192GCM);
+	}
+
+
+	public void testCycle_ECDH_ES_A256KW()
+		throws Exception {
+
+		testCycle(JWEAlgorithm.ECDH_ES_A256KW, EncryptionMethod.A128CBC_HS256);
+	}
+
+
+	public void testSharedSecretRFC7748Vector()
+		throws Exception {
+
+		// RFC 7748, section 6.1
+		OctetKeyPair alice = new OctetKeyPair.Builder(Curve.X25519, Base64URL.encode(hex("8520f0098930a754748b7ddcb43ef75a0dbf3a0d26381af4eba4a98eaa9b4e6a"))).
+			d(Base64URL.encode(hex("77076d0a7318a57d3c16c17251b26645df4c2f87ebc0992ab177fba51db92c2a"))).
+			build();
+
+		OctetKeyPair bob = new OctetKeyPair.Builder(Curve.X25519, Base64URL.encode(hex("de9edb7d7b7dc1b4d35b61c2ece435373f8343c85b78674dadfc7e146f882b4f"))).
+			build();
+
+		SecretKey Z = ECDH.deriveX25519SharedSecret(bob.toPublicKey(), alice.toPrivateKey(), null);
+
+		assertTrue(Arrays.equals(hex("4a5d9d5ba4ce2de1728e3bf480350f25e07e21c947d19e3376f09b3c1e161742"), Z.getEncoded()));
+	}
+
+
+	private static byte[] hex(final String s) {
+
+		byte[] out = new byte[s.length() / 2];
+		for (int i=0; i < out.length; i++) {
+			out[i] = (byte) Integer.parseInt(s.substring(i * 2, i * 2 + 2), 16);
+		}
+		return out;
+	}
+
+
+	public void testSupportedCurves()
+		throws Exception {
+
+		X25519Encrypter encrypter = new X25519Encrypter(generateX25519JWK().toPublicJWK());
+
+		assertEquals(Curve.X25519, encrypter.getCurve());
+		assertEquals(Collections.singleton(Curve.X25519), encrypter.supportedEllipticCurves());
+		assertEquals(JWEAlgorithm.Family.ECDH_ES, encrypter.supportedJWEAlgorithms());
+
+		X25519Decrypter decrypter = new X25519Decrypter(generateX25519JWK());
+		assertEquals(Collections.singleton(Curve.X25519), decrypter.supportedEllipticCurves());
+
+		// The NIST curve ECDH providers don't report X25519
+		assertFalse(ECDHCryptoProvider.SUPPORTED_ELLIPTIC_CURVES.contains(Curve.X25519));
+	}
+
+
+	public void testDeferredCriticalHeaderParams()
+		throws Exception {
+
+		Set<String> deferred = Collections.singleton("exp");
+
+		X25519Decrypter decrypter = new X25519Decrypter(generateX25519JWK(), deferred);
+
+		assertEquals(deferred, decrypter.getDeferredCriticalHeaderParams());
+		assertFalse(decrypter.getProcessedCriticalHeaderParams().contains("exp"));
+	}
+
+
+	public void testRejectNonX25519Key() {
+
+		OctetKeyPair ed25519 = new OctetKeyPair.Builder(Curve.Ed25519, new Base64URL("11qYAYKxCrfVS_7TyWQHOg7hcvPapiMlrwIaaPcHURo")).build();
+
+		try {
+			new X25519Encrypter(ed25519);
+			fail();
+		} catch (JOSEException e) {
+			assertEquals("Unsupported elliptic curve Ed25519, must be X25519", e.getMessage());
+		}
+	}
+
+
+	public void testRejectPrivateKeyForEncrypter()
+		throws Exception {
+
+		try {
+			new X25519Encrypter(generateX25519JWK());
+			fail();
+		} catch (JOSEException e) {
+			assertEquals("X25519Encrypter requires a public key, use OctetKeyPair.toPublicJWK()", e.getMessage());
+		}
+	}
+
+
+	public void testRejectPublicKeyForDecrypter()
+		throws Exception {
+
+		try {
+			new X25519Decrypter(generateX25519JWK().toPublicJWK());
+			fail();
+		} catch (JOSEException e) {
+			assertEquals("The OKP JWK doesn't contain a private part", e.getMessage());
+		}
+	}
+
+
+	public void testRejectECEphemeralKey()
+		throws Exception {
+
+		OctetKeyPair okpJWK = generateX25519JWK();
+
+		ECKey ecJWK = new ECKey.Builder(Curve.P_256,
+			new Base64URL("gI0GAILBdu7T53akrFmMyGcsF3n5dO7MmwNBHKW5SV0"),
+			new Base64URL("SLW_xSffzlPWrHEVI30DHM_4egVwt3NQqeUD7nMFpps")).
+			build();
+
+		JWEHeader header = new JWEHeader.Builder(JWEAlgorithm.ECDH_ES, EncryptionMethod.A128GCM).
+			ephemeralPublicKey(ecJWK).
+			build();
+
+		try {
+			new X25519Decrypter(okpJWK).decrypt(header, null, Base64URL.encode("iv"), Base64URL.encode("ct"), Base64URL.encode("tag"));
+			fail();
+		} catch (JOSEException e) {
+			assertEquals("The ephemeral public key \"epk\" JWE header parameter must be an X25519 OKP JWK", e.getMessage());
+		}
+	}
+
+
+	public void testRejectSmallOrderEphemeralKey()
+		throws Exception {
+
+		OctetKeyPair okpJWK = generateX25519JWK();
+
+		// u = 0 is a point of small order, yielding an all-zero secret
+		OctetKeyPair epk = new OctetKeyPair.Builder(Curve.X25519, Base64URL.encode(new byte[32])).build();
+
+		JWEHeader header = new JWEHeader.Builder(JWEAlgorithm.ECDH_ES, EncryptionMethod.A128GCM).
+			ephemeralPublicJWK(epk).
+			build();
+
+		try {
+			new X25519Decrypter(okpJWK).decrypt(header, null, Base64URL.encode("iv"), Base64URL.encode("ct"), Base64URL.encode("tag"));
+			fail();
+		} catch (JOSEException e) {
+			// ok
+		}
+	}
+
+
+	public void testECDHDecrypterRejectsOKPEphemeralKey()
+		throws Exception {
+
+		JWEHeader header = new JWEHeader.Builder(JWEAlgorithm.ECDH_ES, EncryptionMethod.A128GCM).
+			ephemeralPublicJWK(generateX25519JWK().toPublicJWK()).
+			build();
+
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+		generator.initialize(Curve.P_256.toECParameterSpec());
+		KeyPair ecKeyPair = generator.generateKeyPair();
+
+		try {
+			new ECDHDecrypter((ECPrivateKey) ecKeyPair.getPrivate())
+				.decrypt(header, null, Base64URL.encode("iv"), Base64URL.encode("ct"), Base64URL.encode("tag"));
+			fail();
+		} catch (JOSEException e) {
+			assertEquals("The ephemeral public key \"epk\" JWE header parameter must be an EC JWK", e.getMessage());
+		}
+	}
+
+
+	public void testDecrypterFactory()
+		throws Exception {
+
+		OctetKeyPair okpJWK = generateX25519JWK();
+
+		JWEObject jweObject = new JWEObject(
+			new JWEHeader(JWEAlgorithm.ECDH_ES_A256KW, EncryptionMethod.A256GCM),
+			new Payload("Hello world!"));
+		jweObject.encrypt(new X25519Encrypter(okpJWK.toPublicJWK()));
+
+		jweObject = JWEObject.parse(jweObject.serialize());
+
+		PrivateKey privateKey = okpJWK.toPrivateKey();
+
+		JWEDecrypter decrypter = new DefaultJWEDecrypterFactory().createJWEDecrypter(jweObject.getHeader(), privateKey);
+		assertTrue(decrypter instanceof X25519Decrypter);
+
+		jweObject.decrypt(decrypter);
+
+		assertEquals("Hello world!", jweObject.getPayload().toString());
+	}
+
+
+	public void testHeaderRoundTrip()
+		throws Exception {
+
+		JWK epk = generateX25519JWK().toPublicJWK();
+
+		JWEHeader header = new JWEHeader.Builder(JWEAlgorithm.ECDH_ES, EncryptionMethod.A128GCM).
+			ephemeralPublicJWK(epk).
+			build();
+
+		header = JWEHeader.parse(header.toBase64URL());
+
+		assertEquals(epk.toJSONObject(), header.getEphemeralPublicJWK().toJSONObject());
+		assertNull(header.getEphemeralPublicKey());
+	}
+}
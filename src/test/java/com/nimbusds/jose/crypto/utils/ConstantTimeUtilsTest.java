@@ -52,4 +52,29 @@ public class ConstantTimeUtilsTest extends TestCase {
 
 		assertFalse(ConstantTimeUtils.areEqual(a, b));
 	}
+
+
+	public void testRangeEquality() {
+
+		byte[] a = { 1, 2, 3, 4, 5, 6, 7, 8};
+		byte[] b = { 0, 3, 4, 5, 0};
+
+		assertTrue(ConstantTimeUtils.areEqual(a, 2, b, 1, 3));
+		assertTrue(ConstantTimeUtils.areEqual(a, 0, b, 0, 0));
+		assertFalse(ConstantTimeUtils.areEqual(a, 2, b, 1, 4));
+		assertFalse(ConstantTimeUtils.areEqual(a, 0, b, 0, 1));
+	}
+
+
+	public void testRangeOutOfBounds() {
+
+		byte[] a = { 1, 2, 3, 4, 5, 6, 7, 8};
+		byte[] b = { 1, 2, 3, 4, 5, 6, 7, 8};
+
+		assertFalse(ConstantTimeUtils.areEqual(a, 0, b, 0, 9));
+		assertFalse(ConstantTimeUtils.areEqual(a, 4, b, 0, 5));
+		assertFalse(ConstantTimeUtils.areEqual(a, -1, b, 0, 1));
+		assertFalse(ConstantTimeUtils.areEqual(a, 0, b, 0, -1));
+		assertFalse(ConstantTimeUtils.areEqual(a, Integer.MAX_VALUE, b, 0, 1));
+	}
 }
@@ -0,0 +1,374 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.nimbusds.jose.instrumentation;
+
+
+import java.net.URL;
+import java.security.Key;
+import java.util.*;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import junit.framework.TestCase;
+
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.crypto.DirectEncrypter;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.OctetSequenceKey;
+import com.nimbusds.jose.jwk.source.RemoteJWKSet;
+import com.nimbusds.jose.proc.*;
+import com.nimbusds.jose.util.Resource;
+import com.nimbusds.jose.util.ResourceRetriever;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+
+
+/**
+ * Tests the JOSE instrumentation.
+ */
+public class JOSEInstrumentationTest extends TestCase {
+
+
+	private static class RecordingListener implements JOSEEventListener {
+
+		final List<JOSEEvent> events = Collections.synchronizedList(new ArrayList<JOSEEvent>());
+
+		@Override
+		public void onEvent(final JOSEEvent event) {
+			events.add(event);
+		}
+
+		List<JOSEEvent.Type> types() {
+			List<JOSEEvent.Type> types = new ArrayList<>();
+			for (JOSEEvent event: events) {
+				types.add(event.getType());
+			}
+			return types;
+		}
+	}
+
+
+	@Override
+	public void tearDown() {
+
+		JOSEInstrumentation.setListener(null);
+	}
+
+
+	public void testDisabledByDefault() {
+
+		assertNull(JOSEInstrumentation.getListener());
+		assertFalse(JOSEInstrumentation.isEnabled());
+		assertNull(JOSEInstrumentation.start(JOSEEvent.Type.PARSE));
+
+		// No listener, nothing happens
+		JOSEInstrumentation.report(null, JOSEEvent.Type.PARSE, null, null, null);
+		JOSEInstrumentation.report(null, new JWSHeader(JWSAlgorithm.HS256), null);
+		JOSEInstrumentation.reportFailure(null, null, new JOSEException("Internal error"));
+	}
+
+
+	public void testStageListener()
+		throws Exception {
+
+		final List<String> calls = new ArrayList<>();
+
+		JOSEInstrumentation.setListener(new JOSEStageListener() {
+			@Override
+			public Object onStart(JOSEEvent.Type type) {
+				calls.add("start " + type);
+				return "context-" + type;
+			}
+
+			@Override
+			public void onEnd(JOSEEvent event, Object context) {
+				calls.add("end " + event.getType() + " " + context);
+			}
+
+			@Override
+			public void onEvent(JOSEEvent event) {
+				calls.add("event " + event.getType());
+			}
+		});
+
+		JOSEInstrumentation.Stage stage = JOSEInstrumentation.start(JOSEEvent.Type.SIGNING);
+		assertEquals(JOSEEvent.Type.SIGNING, stage.getType());
+		assertEquals(Collections.singletonList("start SIGNING"), calls);
+
+		// Reported to the listener registered at the start
+		JOSEInstrumentation.setListener(null);
+		JOSEInstrumentation.report(stage, new JWSHeader(JWSAlgorithm.HS256), null);
+		assertEquals(Arrays.asList("start SIGNING", "end SIGNING context-SIGNING"), calls);
+	}
+
+
+	public void testStageListenerExceptionIgnored()
+		throws Exception {
+
+		final List<Object> contexts = new ArrayList<>();
+
+		JOSEInstrumentation.setListener(new JOSEStageListener() {
+			@Override
+			public Object onStart(JOSEEvent.Type type) {
+				throw new IllegalStateException("Listener failure");
+			}
+
+			@Override
+			public void onEnd(JOSEEvent event, Object context) {
+				contexts.add(context);
+			}
+
+			@Override
+			public void onEvent(JOSEEvent event) {
+				fail();
+			}
+		});
+
+		JWSObject jwsObject = new JWSObject(new JWSHeader(JWSAlgorithm.HS256), new Payload("Hello"));
+		jwsObject.sign(new MACSigner(new byte[32]));
+
+		assertEquals(JWSObject.State.SIGNED, jwsObject.getState());
+		assertEquals(Collections.singletonList(null), contexts);
+	}
+
+
+	public void testListenerExceptionIgnored()
+		throws Exception {
+
+		final List<JOSEEvent> events = new ArrayList<>();
+
+		JOSEInstrumentation.setListener(new JOSEEventListener() {
+			@Override
+			public void onEvent(JOSEEvent event) {
+				events.add(event);
+				throw new IllegalStateException("Listener failure");
+			}
+		});
+
+		JWSObject jwsObject = new JWSObject(new JWSHeader(JWSAlgorithm.HS256), new Payload("Hello"));
+		jwsObject.sign(new MACSigner(new byte[32]));
+
+		assertEquals(JWSObject.State.SIGNED, jwsObject.getState());
+		assertEquals(1, events.size());
+		assertEquals(JOSEEvent.Type.SIGNING, events.get(0).getType());
+	}
+
+
+	public void testEvent() {
+
+		JOSEEvent event = new JOSEEvent(JOSEEvent.Type.SIGNATURE_VERIFICATION, JWSAlgorithm.RS256, "1", 100L, null);
+		assertEquals(JOSEEvent.Type.SIGNATURE_VERIFICATION, event.getType());
+		assertEquals(JWSAlgorithm.RS256, event.getAlgorithm());
+		assertEquals("1", event.getKeyID());
+		assertEquals(100L, event.getDurationNanos());
+		assertTrue(event.isSuccess());
+		assertNull(event.getReason());
+		assertNull(event.getFailureReason());
+		assertEquals("SIGNATURE_VERIFICATION alg=RS256 kid=1 duration=100ns", event.toString());
+
+		event = new JOSEEvent(JOSEEvent.Type.PROCESSING, null, null, 0L, "Invalid signature");
+		assertFalse(event.isSuccess());
+		assertEquals(JOSEEvent.Reason.OTHER, event.getReason());
+		assertEquals("Invalid signature", event.getFailureReason());
+
+		event = new JOSEEvent(JOSEEvent.Type.SIGNATURE_VERIFICATION, JWSAlgorithm.RS256, null, "1", 10L, 100L, JOSEEvent.Reason.INVALID_SIGNATURE, null);
+		assertFalse(event.isSuccess());
+		assertEquals(JOSEEvent.Reason.INVALID_SIGNATURE, event.getReason());
+		assertEquals("Invalid signature", event.getFailureReason());
+		assertEquals("SIGNATURE_VERIFICATION alg=RS256 kid=1 size=10 duration=100ns failure=INVALID_SIGNATURE (Invalid signature)", event.toString());
+
+		try {
+			new JOSEEvent(null, null, null, 0L, null);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The event type must not be null", e.getMessage());
+		}
+	}
+
+
+	public void testSignedJWTProcessing()
+		throws Exception {
+
+		final SecretKey key = new SecretKeySpec(new byte[32], "HMAC");
+
+		SignedJWT jwt = new SignedJWT(
+			new JWSHeader.Builder(JWSAlgorithm.HS256).keyID("1").build(),
+			new JWTClaimsSet.Builder().subject("alice").build());
+		jwt.sign(new MACSigner(key));
+
+		DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+		processor.setJWSKeySelector(new JWSKeySelector<SecurityContext>() {
+			@Override
+			public List<? extends Key> selectJWSKeys(JWSHeader header, SecurityContext context) {
+				return Collections.singletonList(key);
+			}
+		});
+
+		RecordingListener listener = new RecordingListener();
+		JOSEInstrumentation.setListener(listener);
+		assertEquals(listener, JOSEInstrumentation.getListener());
+		assertTrue(JOSEInstrumentation.isEnabled());
+
+		assertEquals("alice", processor.process(jwt.serialize(), null).getSubject());
+
+		assertEquals(Arrays.asList(
+			JOSEEvent.Type.PARSE,
+			JOSEEvent.Type.KEY_SELECTION,
+			JOSEEvent.Type.VERIFIER_CREATION,
+			JOSEEvent.Type.SIGNATURE_VERIFICATION,
+			JOSEEvent.Type.CLAIMS_VERIFICATION,
+			JOSEEvent.Type.PROCESSING), listener.types());
+
+		for (JOSEEvent event: listener.events) {
+			assertEquals(JWSAlgorithm.HS256, event.getAlgorithm());
+			assertEquals("1", event.getKeyID());
+			assertTrue(event.getDurationNanos() >= 0L);
+			assertTrue(event.isSuccess());
+		}
+
+		// Invalid signature
+		listener.events.clear();
+
+		SignedJWT otherJWT = new SignedJWT(
+			new JWSHeader.Builder(JWSAlgorithm.HS256).keyID("1").build(),
+			new JWTClaimsSet.Builder().subject("alice").build());
+		byte[] otherKey = new byte[32];
+		otherKey[0] = 1;
+		otherJWT.sign(new MACSigner(otherKey));
+
+		try {
+			processor.process(otherJWT.serialize(), null);
+			fail();
+		} catch (BadJWSException e) {
+			assertEquals("Signed JWT rejected: Invalid signature", e.getMessage());
+		}
+
+		JOSEEvent last = listener.events.get(listener.events.size() - 1);
+		assertEquals(JOSEEvent.Type.PROCESSING, last.getType());
+		assertFalse(last.isSuccess());
+		assertEquals(JOSEEvent.Reason.REJECTED, last.getReason());
+		assertEquals("Signed JWT rejected: Invalid signature", last.getFailureReason());
+
+		JOSEEvent verification = listener.events.get(listener.events.size() - 2);
+		assertEquals(JOSEEvent.Type.SIGNATURE_VERIFICATION, verification.getType());
+		assertEquals(JOSEEvent.Reason.INVALID_SIGNATURE, verification.getReason());
+		assertEquals("Invalid signature", verification.getFailureReason());
+	}
+
+
+	public void testParseFailure() {
+
+		RecordingListener listener = new RecordingListener();
+		JOSEInstrumentation.setListener(listener);
+
+		try {
+			new DefaultJOSEProcessor<>().process("invalid", null);
+			fail();
+		} catch (Exception e) {
+			// ok
+		}
+
+		assertEquals(1, listener.events.size());
+		assertEquals(JOSEEvent.Type.PARSE, listener.events.get(0).getType());
+		assertFalse(listener.events.get(0).isSuccess());
+		assertEquals(JOSEEvent.Reason.PARSE_ERROR, listener.events.get(0).getReason());
+	}
+
+
+	public void testReasonFromException() {
+
+		assertEquals(JOSEEvent.Reason.CLAIMS_REJECTED, JOSEInstrumentation.getReason(new com.nimbusds.jwt.proc.BadJWTException("Expired JWT")));
+		assertEquals(JOSEEvent.Reason.REJECTED, JOSEInstrumentation.getReason(new BadJWSException("Invalid signature")));
+		assertEquals(JOSEEvent.Reason.KEY_SOURCE_ERROR, JOSEInstrumentation.getReason(new KeySourceException("Couldn't retrieve JWK set")));
+		assertEquals(JOSEEvent.Reason.JOSE_ERROR, JOSEInstrumentation.getReason(new JOSEException("Internal error")));
+		assertEquals(JOSEEvent.Reason.PARSE_ERROR, JOSEInstrumentation.getReason(new java.text.ParseException("Invalid JSON", 0)));
+		assertEquals(JOSEEvent.Reason.RETRIEVAL_ERROR, JOSEInstrumentation.getReason(new java.io.IOException("Connection refused")));
+		assertEquals(JOSEEvent.Reason.OTHER, JOSEInstrumentation.getReason(new IllegalStateException()));
+	}
+
+
+	public void testJWEProcessing()
+		throws Exception {
+
+		final SecretKey key = new SecretKeySpec(new byte[16], "AES");
+
+		JWEObject jweObject = new JWEObject(new JWEHeader(JWEAlgorithm.DIR, EncryptionMethod.A128GCM), new Payload("Hello"));
+		jweObject.encrypt(new DirectEncrypter(key));
+
+		DefaultJOSEProcessor<SecurityContext> processor = new DefaultJOSEProcessor<>();
+		processor.setJWEKeySelector(new JWEKeySelector<SecurityContext>() {
+			@Override
+			public List<? extends Key> selectJWEKeys(JWEHeader header, SecurityContext context) {
+				return Collections.singletonList(key);
+			}
+		});
+
+		RecordingListener listener = new RecordingListener();
+		JOSEInstrumentation.setListener(listener);
+
+		assertEquals("Hello", processor.process(jweObject.serialize(), null).toString());
+
+		assertEquals(Arrays.asList(
+			JOSEEvent.Type.PARSE,
+			JOSEEvent.Type.KEY_SELECTION,
+			JOSEEvent.Type.DECRYPTER_CREATION,
+			JOSEEvent.Type.DECRYPTION,
+			JOSEEvent.Type.PROCESSING), listener.types());
+
+		assertEquals(JWEAlgorithm.DIR, listener.events.get(3).getAlgorithm());
+	}
+
+
+	public void testRemoteJWKSet()
+		throws Exception {
+
+		final JWKSet jwkSet = new JWKSet(new OctetSequenceKey.Builder(new byte[32]).keyID("1").build());
+
+		RemoteJWKSet<SecurityContext> jwkSource = new RemoteJWKSet<>(new URL("https://c2id.com/jwks.json"), new ResourceRetriever() {
+			@Override
+			public Resource retrieveResource(URL url) {
+				return new Resource(jwkSet.toJSONObject(false).toJSONString(), "application/json");
+			}
+		});
+
+		RecordingListener listener = new RecordingListener();
+		JOSEInstrumentation.setListener(listener);
+
+		JWKSelector selector = new JWKSelector(new JWKMatcher.Builder().keyID("1").build());
+
+		assertEquals(1, jwkSource.get(selector, null).size());
+		assertEquals(Arrays.asList(JOSEEvent.Type.JWK_SET_RETRIEVAL, JOSEEvent.Type.JWK_SET_CACHE_MISS), listener.types());
+		assertEquals("1", listener.events.get(1).getKeyID());
+
+		listener.events.clear();
+
+		assertEquals(1, jwkSource.get(selector, null).size());
+		assertEquals(Collections.singletonList(JOSEEvent.Type.JWK_SET_CACHE_HIT), listener.types());
+
+		listener.events.clear();
+
+		// Unknown key ID, cache lookup followed by refresh, one miss only
+		selector = new JWKSelector(new JWKMatcher.Builder().keyID("2").build());
+		assertTrue(jwkSource.get(selector, null).isEmpty());
+		assertEquals(Arrays.asList(JOSEEvent.Type.JWK_SET_RETRIEVAL, JOSEEvent.Type.JWK_SET_CACHE_MISS), listener.types());
+		assertEquals("2", listener.events.get(1).getKeyID());
+	}
+}
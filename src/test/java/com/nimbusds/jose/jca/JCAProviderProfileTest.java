@@ -0,0 +1,206 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.nimbusds.jose.jca;
+
+
+import java.security.Provider;
+import java.security.Security;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.crypto.AESDecrypter;
+import com.nimbusds.jose.crypto.AESEncrypter;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jose.crypto.bc.BouncyCastleProviderSingleton;
+import com.nimbusds.jose.crypto.factories.DefaultJWEDecrypterFactory;
+import com.nimbusds.jose.crypto.factories.DefaultJWSVerifierFactory;
+import junit.framework.TestCase;
+import net.minidev.json.JSONObject;
+
+
+public class JCAProviderProfileTest extends TestCase {
+
+
+	public void testEmpty()
+		throws Exception {
+
+
+		JCAProviderProfile profile = new JCAProviderProfile.Builder().build();
+		assertTrue(profile.isEmpty());
+		assertNull(profile.getSigningProvider(JWSAlgorithm.HS256));
+		assertNull(profile.getVerificationProvider(JWSAlgorithm.HS256));
+		assertNull(profile.getEncryptionProvider(JWEAlgorithm.RSA_OAEP_256, EncryptionMethod.A128GCM));
+		assertNull(profile.getDecryptionProvider(JWEAlgorithm.RSA_OAEP_256, EncryptionMethod.A128GCM));
+
+		MACVerifier verifier = new MACVerifier(new byte[32]);
+		profile.configure(verifier, JWSAlgorithm.HS256);
+		assertNull(verifier.getJCAContext().getProvider());
+	}
+
+
+	public void testBuildAndConfigure()
+		throws Exception {
+
+		Provider sunJCE = Security.getProvider("SunJCE");
+		Provider bc = BouncyCastleProviderSingleton.getInstance();
+
+		JCAProviderProfile profile = new JCAProviderProfile.Builder()
+			.provider(JWSAlgorithm.HS256, sunJCE)
+			.provider(JWEAlgorithm.A128KW, EncryptionMethod.A128GCM, bc)
+			.build();
+
+		assertFalse(profile.isEmpty());
+		assertEquals(sunJCE, profile.getSigningProvider(JWSAlgorithm.HS256));
+		assertEquals(sunJCE, profile.getVerificationProvider(JWSAlgorithm.HS256));
+		assertNull(profile.getSigningProvider(JWSAlgorithm.HS512));
+		assertEquals(bc, profile.getEncryptionProvider(JWEAlgorithm.A128KW, EncryptionMethod.A128GCM));
+		assertEquals(bc, profile.getDecryptionProvider(JWEAlgorithm.A128KW, EncryptionMethod.A128GCM));
+		assertNull(profile.getEncryptionProvider(JWEAlgorithm.A128KW, EncryptionMethod.A256GCM));
+
+		MACSigner signer = new MACSigner(new byte[32]);
+		profile.configure(signer, JWSAlgorithm.HS256);
+		assertEquals(sunJCE, signer.getJCAContext().getProvider());
+
+		AESEncrypter encrypter = new AESEncrypter(new byte[16]);
+		profile.configure(encrypter, JWEAlgorithm.A128KW, EncryptionMethod.A128GCM);
+		assertNull(encrypter.getJCAContext().getProvider());
+		assertEquals(bc, encrypter.getJCAContext().getKeyEncryptionProvider());
+		assertEquals(bc, encrypter.getJCAContext().getContentEncryptionProvider());
+		assertEquals(bc, encrypter.getJCAContext().getMACProvider());
+	}
+
+
+	public void testSeparateOperations()
+		throws Exception {
+
+		Provider sunJCE = Security.getProvider("SunJCE");
+		Provider bc = BouncyCastleProviderSingleton.getInstance();
+
+		JCAProviderProfile profile = new JCAProviderProfile.Builder()
+			.signingProvider(JWSAlgorithm.HS256, sunJCE)
+			.verificationProvider(JWSAlgorithm.HS256, bc)
+			.encryptionProvider(JWEAlgorithm.A128KW, EncryptionMethod.A128GCM, bc)
+			.decryptionProvider(JWEAlgorithm.A128KW, EncryptionMethod.A128GCM, sunJCE)
+			.build();
+
+		assertEquals(sunJCE, profile.getSigningProvider(JWSAlgorithm.HS256));
+		assertEquals(bc, profile.getVerificationProvider(JWSAlgorithm.HS256));
+		assertEquals(bc, profile.getEncryptionProvider(JWEAlgorithm.A128KW, EncryptionMethod.A128GCM));
+		assertEquals(sunJCE, profile.getDecryptionProvider(JWEAlgorithm.A128KW, EncryptionMethod.A128GCM));
+
+		MACSigner signer = new MACSigner(new byte[32]);
+		profile.configure(signer, JWSAlgorithm.HS256);
+		assertEquals(sunJCE, signer.getJCAContext().getProvider());
+
+		MACVerifier verifier = new MACVerifier(new byte[32]);
+		profile.configure(verifier, JWSAlgorithm.HS256);
+		assertEquals(bc, verifier.getJCAContext().getProvider());
+
+		AESEncrypter encrypter = new AESEncrypter(new byte[16]);
+		profile.configure(encrypter, JWEAlgorithm.A128KW, EncryptionMethod.A128GCM);
+		assertEquals(bc, encrypter.getJCAContext().getContentEncryptionProvider());
+
+		AESDecrypter decrypter = new AESDecrypter(new byte[16]);
+		profile.configure(decrypter, JWEAlgorithm.A128KW, EncryptionMethod.A128GCM);
+		assertEquals(sunJCE, decrypter.getJCAContext().getContentEncryptionProvider());
+
+		// Applied per operation in a round trip
+		JWSObject jwsObject = new JWSObject(new JWSHeader(JWSAlgorithm.HS256), new Payload("Hello, world!"));
+		jwsObject.sign(signer);
+		assertTrue(jwsObject.verify(verifier));
+
+		JWEObject jweObject = new JWEObject(new JWEHeader(JWEAlgorithm.A128KW, EncryptionMethod.A128GCM), new Payload("Hello, world!"));
+		jweObject.encrypt(encrypter);
+		jweObject.decrypt(decrypter);
+		assertEquals("Hello, world!", jweObject.getPayload().toString());
+	}
+
+
+	public void testJSONRoundTrip()
+		throws Exception {
+
+		Provider sunJCE = Security.getProvider("SunJCE");
+		Provider bc = BouncyCastleProviderSingleton.getInstance();
+
+		JCAProviderProfile profile = new JCAProviderProfile.Builder()
+			.signingProvider(JWSAlgorithm.HS256, sunJCE)
+			.verificationProvider(JWSAlgorithm.HS256, bc)
+			.encryptionProvider(JWEAlgorithm.A128KW, EncryptionMethod.A128GCM, bc)
+			.decryptionProvider(JWEAlgorithm.A128KW, EncryptionMethod.A128GCM, sunJCE)
+			.build();
+
+		JSONObject jsonObject = profile.toJSONObject();
+		assertEquals("SunJCE", ((JSONObject)jsonObject.get("sign")).get("HS256"));
+		assertEquals("BC", ((JSONObject)jsonObject.get("verify")).get("HS256"));
+		assertEquals("BC", ((JSONObject)((JSONObject)jsonObject.get("encrypt")).get("A128KW")).get("A128GCM"));
+		assertEquals("SunJCE", ((JSONObject)((JSONObject)jsonObject.get("decrypt")).get("A128KW")).get("A128GCM"));
+
+		// BC not installed, resolved from the additional providers
+		JCAProviderProfile parsed = JCAProviderProfile.parse(profile.toString(), bc);
+		assertEquals(sunJCE, parsed.getSigningProvider(JWSAlgorithm.HS256));
+		assertEquals(bc, parsed.getVerificationProvider(JWSAlgorithm.HS256));
+		assertEquals(bc, parsed.getEncryptionProvider(JWEAlgorithm.A128KW, EncryptionMethod.A128GCM));
+		assertEquals(sunJCE, parsed.getDecryptionProvider(JWEAlgorithm.A128KW, EncryptionMethod.A128GCM));
+
+		// Unresolved provider omitted
+		parsed = JCAProviderProfile.parse(profile.toJSONObject());
+		assertEquals(sunJCE, parsed.getSigningProvider(JWSAlgorithm.HS256));
+		assertNull(parsed.getVerificationProvider(JWSAlgorithm.HS256));
+		assertNull(parsed.getEncryptionProvider(JWEAlgorithm.A128KW, EncryptionMethod.A128GCM));
+		assertEquals(sunJCE, parsed.getDecryptionProvider(JWEAlgorithm.A128KW, EncryptionMethod.A128GCM));
+	}
+
+
+	public void testAppliedByFactories()
+		throws Exception {
+
+		Provider sunJCE = Security.getProvider("SunJCE");
+		Provider bc = BouncyCastleProviderSingleton.getInstance();
+
+		JCAProviderProfile profile = new JCAProviderProfile.Builder()
+			.signingProvider(JWSAlgorithm.HS256, bc)
+			.verificationProvider(JWSAlgorithm.HS256, sunJCE)
+			.encryptionProvider(JWEAlgorithm.DIR, EncryptionMethod.A128GCM, bc)
+			.decryptionProvider(JWEAlgorithm.DIR, EncryptionMethod.A128GCM, sunJCE)
+			.build();
+
+		DefaultJWSVerifierFactory verifierFactory = new DefaultJWSVerifierFactory();
+		assertNull(verifierFactory.getJCAProviderProfile());
+		verifierFactory.setJCAProviderProfile(profile);
+		assertEquals(profile, verifierFactory.getJCAProviderProfile());
+
+		JWSVerifier verifier = verifierFactory.createJWSVerifier(
+			new JWSHeader(JWSAlgorithm.HS256),
+			new SecretKeySpec(new byte[32], "HMACSHA256"));
+		assertEquals(sunJCE, verifier.getJCAContext().getProvider());
+
+		verifier = verifierFactory.createJWSVerifier(
+			new JWSHeader(JWSAlgorithm.HS512),
+			new SecretKeySpec(new byte[64], "HMACSHA512"));
+		assertNull(verifier.getJCAContext().getProvider());
+
+		DefaultJWEDecrypterFactory decrypterFactory = new DefaultJWEDecrypterFactory();
+		decrypterFactory.setJCAProviderProfile(profile);
+		assertEquals(profile, decrypterFactory.getJCAProviderProfile());
+
+		JWEDecrypter decrypter = decrypterFactory.createJWEDecrypter(
+			new JWEHeader(JWEAlgorithm.DIR, EncryptionMethod.A128GCM),
+			new SecretKeySpec(new byte[16], "AES"));
+		assertEquals(sunJCE, decrypter.getJCAContext().getContentEncryptionProvider());
+	}
+}
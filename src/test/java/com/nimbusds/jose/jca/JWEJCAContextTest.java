@@ -28,7 +28,7 @@ import junit.framework.TestCase;
  * Tests the JWE JCA context.
  *
  * @author Vladimir Dzhuvinov
- * @version 2015-06-08
+ * @version 2026-10-18
  */
 public class JWEJCAContextTest extends TestCase {
 
@@ -114,4 +114,36 @@ public class JWEJCAContextTest extends TestCase {
 		assertEquals(provider, ctx.getContentEncryptionProvider());
 		assertEquals(provider, ctx.getMACProvider());
 	}
+
+
+	public void testDecompressionLimits() {
+
+		JWEJCAContext ctx = new JWEJCAContext();
+
+		assertEquals(16 * 1024 * 1024, JWEJCAContext.DEFAULT_MAX_DECOMPRESSED_LENGTH);
+		assertEquals(200, JWEJCAContext.DEFAULT_MAX_COMPRESSION_RATIO);
+
+		assertEquals(JWEJCAContext.DEFAULT_MAX_DECOMPRESSED_LENGTH, ctx.getMaxDecompressedLength());
+		assertEquals(JWEJCAContext.DEFAULT_MAX_COMPRESSION_RATIO, ctx.getMaxCompressionRatio());
+
+		ctx.setMaxDecompressedLength(1000);
+		assertEquals(1000, ctx.getMaxDecompressedLength());
+
+		ctx.setMaxCompressionRatio(20);
+		assertEquals(20, ctx.getMaxCompressionRatio());
+
+		try {
+			ctx.setMaxDecompressedLength(0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The maximum decompressed length must be positive", e.getMessage());
+		}
+
+		try {
+			ctx.setMaxCompressionRatio(-1);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The maximum compression ratio must not be negative", e.getMessage());
+		}
+	}
 }
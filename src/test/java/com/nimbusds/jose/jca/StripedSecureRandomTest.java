@@ -0,0 +1,172 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.nimbusds.jose.jca;
+
+
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import junit.framework.TestCase;
+
+import com.nimbusds.jose.EncryptionMethod;
+import com.nimbusds.jose.JWEAlgorithm;
+import com.nimbusds.jose.JWEHeader;
+import com.nimbusds.jose.JWEObject;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.crypto.DirectDecrypter;
+import com.nimbusds.jose.crypto.DirectEncrypter;
+import com.nimbusds.jose.util.Base64URL;
+
+
+/**
+ * Tests the striped secure random generator.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+public class StripedSecureRandomTest extends TestCase {
+
+
+	public void testDefaultConstructor() {
+
+		StripedSecureRandom randomGen = new StripedSecureRandom();
+
+		int stripeCount = randomGen.getStripeCount();
+		assertTrue(stripeCount >= 2 * Runtime.getRuntime().availableProcessors());
+		assertEquals(0, stripeCount & (stripeCount - 1));
+
+		assertTrue(Arrays.asList("DRBG", "SHA1PRNG").contains(randomGen.getAlgorithm()));
+
+		byte[] a = new byte[32];
+		byte[] b = new byte[32];
+		randomGen.nextBytes(a);
+		randomGen.nextBytes(b);
+		assertFalse(Arrays.equals(a, b));
+		assertFalse(Arrays.equals(new byte[32], a));
+	}
+
+
+	public void testStripeCountRoundedUpToPowerOfTwo()
+		throws Exception {
+
+		assertEquals(1, new StripedSecureRandom(1, "SHA1PRNG", null).getStripeCount());
+		assertEquals(4, new StripedSecureRandom(3, "SHA1PRNG", null).getStripeCount());
+		assertEquals(8, new StripedSecureRandom(8, "SHA1PRNG", null).getStripeCount());
+	}
+
+
+	public void testInvalidStripeCount()
+		throws Exception {
+
+		try {
+			new StripedSecureRandom(0, null, null);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The stripe count must be positive", e.getMessage());
+		}
+	}
+
+
+	public void testUnsupportedAlgorithm() {
+
+		try {
+			new StripedSecureRandom(2, "no-such-alg", null);
+			fail();
+		} catch (NoSuchAlgorithmException e) {
+			// ok
+		}
+	}
+
+
+	public void testStripesAreIndependentlySeeded()
+		throws Exception {
+
+		StripedSecureRandom r1 = new StripedSecureRandom(1, "SHA1PRNG", null);
+		StripedSecureRandom r2 = new StripedSecureRandom(1, "SHA1PRNG", null);
+
+		byte[] a = new byte[32];
+		byte[] b = new byte[32];
+		r1.nextBytes(a);
+		r2.nextBytes(b);
+		assertFalse(Arrays.equals(a, b));
+	}
+
+
+	public void testConcurrentUse()
+		throws Exception {
+
+		final StripedSecureRandom randomGen = new StripedSecureRandom(4, null, null);
+
+		final Set<String> values = Collections.newSetFromMap(new ConcurrentHashMap<String,Boolean>());
+
+		final int threadCount = 8;
+		final int perThread = 500;
+
+		final CountDownLatch done = new CountDownLatch(threadCount);
+
+		for (int i=0; i < threadCount; i++) {
+			new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						for (int j=0; j < perThread; j++) {
+							byte[] bytes = new byte[16];
+							randomGen.nextBytes(bytes);
+							values.add(Base64URL.encode(bytes).toString());
+						}
+					} finally {
+						done.countDown();
+					}
+				}
+			}).start();
+		}
+
+		done.await();
+
+		assertEquals(threadCount * perThread, values.size());
+	}
+
+
+	public void testWithJCAContext()
+		throws Exception {
+
+		byte[] key = new byte[16];
+		new StripedSecureRandom().nextBytes(key);
+
+		DirectEncrypter encrypter = new DirectEncrypter(key);
+		encrypter.getJCAContext().setSecureRandom(new StripedSecureRandom());
+
+		Set<String> ivs = new HashSet<>();
+
+		for (int i=0; i < 10; i++) {
+			JWEObject jweObject = new JWEObject(new JWEHeader(JWEAlgorithm.DIR, EncryptionMethod.A128GCM), new Payload("Hello, world!"));
+			jweObject.encrypt(encrypter);
+			ivs.add(jweObject.getIV().toString());
+
+			jweObject = JWEObject.parse(jweObject.serialize());
+			jweObject.decrypt(new DirectDecrypter(key));
+			assertEquals("Hello, world!", jweObject.getPayload().toString());
+		}
+
+		assertEquals(10, ivs.size());
+	}
+}
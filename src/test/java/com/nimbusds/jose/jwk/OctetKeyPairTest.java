@@ -19,9 +19,12 @@ package com.nimbusds.jose.jwk;
 
 
 import java.net.URI;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
 import java.security.KeyStore;
 import java.util.*;
 
+import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.util.Base64;
 import com.nimbusds.jose.util.Base64URL;
@@ -439,4 +442,48 @@ public class OctetKeyPairTest extends TestCase {
 			}
 		}
 	}
+	
+	
+	public void testX25519ExportAndImport()
+		throws Exception {
+		
+		KeyPair keyPair = KeyPairGenerator.getInstance("X25519").generateKeyPair();
+		
+		OctetKeyPair publicJWK = new OctetKeyPair.Builder(Curve.X25519, keyPair.getPublic()).build();
+		assertEquals(Curve.X25519, publicJWK.getCurve());
+		assertEquals(32, publicJWK.getX().decode().length);
+		assertFalse(publicJWK.isPrivate());
+		
+		assertTrue(Arrays.equals(keyPair.getPublic().getEncoded(), publicJWK.toPublicKey().getEncoded()));
+		assertNull(publicJWK.toPrivateKey());
+		
+		byte[] pkcs8 = keyPair.getPrivate().getEncoded();
+		Base64URL d = Base64URL.encode(Arrays.copyOfRange(pkcs8, pkcs8.length - 32, pkcs8.length));
+		OctetKeyPair privateJWK = new OctetKeyPair.Builder(publicJWK).d(d).build();
+		
+		KeyPair exported = privateJWK.toKeyPair();
+		assertTrue(Arrays.equals(keyPair.getPublic().getEncoded(), exported.getPublic().getEncoded()));
+		assertTrue(Arrays.equals(keyPair.getPrivate().getEncoded(), exported.getPrivate().getEncoded()));
+	}
+	
+	
+	public void testExportNotSupportedForEd25519()
+		throws Exception {
+		
+		OctetKeyPair okp = new OctetKeyPair.Builder(Curve.Ed25519, EXAMPLE_OKP_ED25519.X).d(EXAMPLE_OKP_ED25519.D).build();
+		
+		try {
+			okp.toPublicKey();
+			fail();
+		} catch (JOSEException e) {
+			assertEquals("Export to java.security.PublicKey not supported for curve Ed25519", e.getMessage());
+		}
+		
+		try {
+			okp.toPrivateKey();
+			fail();
+		} catch (JOSEException e) {
+			assertEquals("Export to java.security.PrivateKey not supported for curve Ed25519", e.getMessage());
+		}
+	}
 }
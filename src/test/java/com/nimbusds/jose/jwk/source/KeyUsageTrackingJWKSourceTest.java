@@ -0,0 +1,302 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.nimbusds.jose.jwk.source;
+
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.proc.AdaptiveJWSVerificationKeySelector;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import junit.framework.TestCase;
+
+
+public class KeyUsageTrackingJWKSourceTest extends TestCase {
+
+
+	private static RSAKey RSA_JWK_1;
+
+
+	private static RSAKey RSA_JWK_2;
+
+
+	@Override
+	public void setUp()
+		throws Exception {
+
+		if (RSA_JWK_1 == null) {
+			RSA_JWK_1 = generateRSAJWK("1");
+			RSA_JWK_2 = generateRSAJWK("2");
+		}
+	}
+
+
+	private static RSAKey generateRSAJWK(final String keyID)
+		throws Exception {
+
+		KeyPairGenerator pairGen = KeyPairGenerator.getInstance("RSA");
+		pairGen.initialize(2048);
+		KeyPair keyPair = pairGen.generateKeyPair();
+
+		return new RSAKey.Builder((RSAPublicKey)keyPair.getPublic())
+			.privateKey((RSAPrivateKey)keyPair.getPrivate())
+			.keyID(keyID)
+			.build();
+	}
+
+
+	private static SignedJWT sign(final RSAKey rsaJWK)
+		throws Exception {
+
+		return sign(rsaJWK, rsaJWK.getKeyID());
+	}
+
+
+	private static SignedJWT sign(final RSAKey rsaJWK, final String keyID)
+		throws Exception {
+
+		SignedJWT jwt = new SignedJWT(
+			new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(keyID).build(),
+			new JWTClaimsSet.Builder().subject("alice").build());
+		jwt.sign(new RSASSASigner(rsaJWK));
+		return jwt;
+	}
+
+
+	public void testRejectNullSource() {
+
+		try {
+			new KeyUsageTrackingJWKSource<>(null);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The JWK source must not be null", e.getMessage());
+		}
+	}
+
+
+	public void testLookupAndVerificationCounts()
+		throws Exception {
+
+		ImmutableJWKSet<SecurityContext> immutableJWKSet = new ImmutableJWKSet<>(new JWKSet(Arrays.asList((JWK)RSA_JWK_1.toPublicJWK(), RSA_JWK_2.toPublicJWK())));
+		KeyUsageTrackingJWKSource<SecurityContext> keySource = new KeyUsageTrackingJWKSource<>(immutableJWKSet);
+		assertEquals(immutableJWKSet, keySource.getJWKSource());
+
+		assertTrue(keySource.getKeyUsage().isEmpty());
+		assertNull(keySource.getKeyUsage("1"));
+
+		DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+		jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, keySource));
+
+		final long start = System.currentTimeMillis();
+
+		for (int i=0; i < 3; i++) {
+			jwtProcessor.process(sign(RSA_JWK_1), null);
+		}
+
+		KeyUsage usage = keySource.getKeyUsage("1");
+		assertEquals("1", usage.getKeyID());
+		assertEquals(3L, usage.getLookupCount());
+		assertEquals(3L, usage.getVerificationCount());
+		assertTrue(usage.getLastUsed().getTime() >= start);
+		assertFalse(usage.getLastUsed().after(new Date()));
+
+		assertNull(keySource.getKeyUsage("2"));
+
+		// Lookup without verification
+		keySource.get(new JWKSelector(new JWKMatcher.Builder().keyID("2").build()), null);
+
+		Map<String,KeyUsage> snapshot = keySource.getKeyUsage();
+		assertEquals(2, snapshot.size());
+		assertEquals(3L, snapshot.get("1").getVerificationCount());
+		assertEquals(1L, snapshot.get("2").getLookupCount());
+		assertEquals(0L, snapshot.get("2").getVerificationCount());
+		assertNull(snapshot.get("2").getLastUsed());
+
+		keySource.removeKeyUsage("2");
+		assertNull(keySource.getKeyUsage("2"));
+		assertEquals(1, keySource.getKeyUsage().size());
+	}
+
+
+	public void testLookupWithoutKeyIDNotCounted()
+		throws Exception {
+
+		KeyUsageTrackingJWKSource<SecurityContext> keySource = new KeyUsageTrackingJWKSource<>(
+			new ImmutableJWKSet<SecurityContext>(new JWKSet(Arrays.asList((JWK)RSA_JWK_1.toPublicJWK(), RSA_JWK_2.toPublicJWK()))));
+
+		assertEquals(2, keySource.get(new JWKSelector(new JWKMatcher.Builder().build()), null).size());
+
+		assertTrue(keySource.getKeyUsage().isEmpty());
+	}
+
+
+	public void testVerificationWithoutKeyID()
+		throws Exception {
+
+		KeyUsageTrackingJWKSource<SecurityContext> keySource = new KeyUsageTrackingJWKSource<>(
+			new ImmutableJWKSet<SecurityContext>(new JWKSet(Arrays.asList((JWK)RSA_JWK_1.toPublicJWK(), RSA_JWK_2.toPublicJWK()))));
+
+		DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+		jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, keySource));
+
+		final long start = System.currentTimeMillis();
+
+		jwtProcessor.process(sign(RSA_JWK_2, null), null);
+		jwtProcessor.process(sign(RSA_JWK_2, null), null);
+
+		KeyUsage usage = keySource.getKeyUsage("2");
+		assertEquals(0L, usage.getLookupCount());
+		assertEquals(2L, usage.getVerificationCount());
+		assertTrue(usage.getLastUsed().getTime() >= start);
+
+		assertNull(keySource.getKeyUsage("1"));
+
+		// Counting starts over after removal
+		keySource.removeKeyUsage("2");
+		keySource.keyVerified(new JWSHeader(JWSAlgorithm.RS256), RSA_JWK_2.toPublicKey(), null);
+		assertEquals(1L, keySource.getKeyUsage("2").getVerificationCount());
+	}
+
+
+	public void testVerificationWithoutKeyIDAttributedToLastLookup()
+		throws Exception {
+
+		KeyUsageTrackingJWKSource<SecurityContext> keySource = new KeyUsageTrackingJWKSource<>(
+			new ImmutableJWKSet<SecurityContext>(new JWKSet(RSA_JWK_1.toPublicJWK())));
+
+		// No lookup yet
+		keySource.keyVerified(new JWSHeader(JWSAlgorithm.RS256), RSA_JWK_1.toPublicKey(), null);
+		assertTrue(keySource.getKeyUsage().isEmpty());
+
+		assertEquals(1, keySource.get(new JWKSelector(new JWKMatcher.Builder().build()), null).size());
+
+		// Key not returned by the last lookup
+		keySource.keyVerified(new JWSHeader(JWSAlgorithm.RS256), RSA_JWK_2.toPublicKey(), null);
+		assertTrue(keySource.getKeyUsage().isEmpty());
+
+		keySource.keyVerified(new JWSHeader(JWSAlgorithm.RS256), RSA_JWK_1.toPublicKey(), null);
+		assertEquals(1L, keySource.getKeyUsage("1").getVerificationCount());
+		assertNull(keySource.getKeyUsage("2"));
+	}
+
+
+	public void testVerificationCountsWithAdaptiveSelector()
+		throws Exception {
+
+		KeyUsageTrackingJWKSource<SecurityContext> keySource = new KeyUsageTrackingJWKSource<>(
+			new ImmutableJWKSet<SecurityContext>(new JWKSet(Arrays.asList((JWK)RSA_JWK_1.toPublicJWK(), RSA_JWK_2.toPublicJWK()))));
+
+		DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+		jwtProcessor.setJWSKeySelector(new AdaptiveJWSVerificationKeySelector<>(JWSAlgorithm.RS256, keySource));
+
+		jwtProcessor.process(sign(RSA_JWK_2), null);
+
+		assertEquals(1L, keySource.getKeyUsage("2").getVerificationCount());
+		assertNull(keySource.getKeyUsage("1"));
+	}
+
+
+	public void testConcurrentVerificationCounts()
+		throws Exception {
+
+		final KeyUsageTrackingJWKSource<SecurityContext> keySource = new KeyUsageTrackingJWKSource<>(
+			new ImmutableJWKSet<SecurityContext>(new JWKSet(RSA_JWK_1.toPublicJWK())));
+
+		final JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("1").build();
+		final int threads = 8;
+		final int iterations = 10000;
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		final CountDownLatch startLatch = new CountDownLatch(1);
+
+		try {
+			Future<?>[] futures = new Future<?>[threads];
+
+			for (int i=0; i < threads; i++) {
+				futures[i] = executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						startLatch.await();
+						for (int j=0; j < iterations; j++) {
+							keySource.keyVerified(header, null, null);
+						}
+						return null;
+					}
+				});
+			}
+
+			startLatch.countDown();
+
+			for (Future<?> f: futures) {
+				f.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals((long)threads * iterations, keySource.getKeyUsage("1").getVerificationCount());
+	}
+
+
+	public void testScheduledReporting()
+		throws Exception {
+
+		KeyUsageTrackingJWKSource<SecurityContext> keySource = new KeyUsageTrackingJWKSource<>(
+			new ImmutableJWKSet<SecurityContext>(new JWKSet(RSA_JWK_1.toPublicJWK())));
+
+		keySource.keyVerified(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("1").build(), null, null);
+
+		final BlockingQueue<Map<String,KeyUsage>> reports = new LinkedBlockingQueue<>();
+
+		ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+		try {
+			ScheduledFuture<?> future = keySource.scheduleReporting(scheduler, 10, TimeUnit.MILLISECONDS, new KeyUsageReporter() {
+				@Override
+				public void report(final Map<String, KeyUsage> keyUsage) {
+					reports.add(keyUsage);
+				}
+			});
+
+			Map<String,KeyUsage> report = reports.poll(5, TimeUnit.SECONDS);
+			assertNotNull(report);
+			assertEquals(1L, report.get("1").getVerificationCount());
+
+			future.cancel(false);
+		} finally {
+			scheduler.shutdownNow();
+		}
+	}
+}
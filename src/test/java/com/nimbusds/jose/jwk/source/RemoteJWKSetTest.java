@@ -29,13 +29,17 @@ import java.security.interfaces.RSAPublicKey;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static net.jadler.Jadler.*;
 import static org.junit.Assert.*;
 
 import com.nimbusds.jose.RemoteKeySourceException;
 import com.nimbusds.jose.jwk.*;
+import com.nimbusds.jose.proc.SecurityContext;
 import com.nimbusds.jose.util.DefaultResourceRetriever;
+import com.nimbusds.jose.util.Resource;
+import com.nimbusds.jose.util.ResourceRetriever;
 import net.jadler.Request;
 import net.jadler.stubbing.Responder;
 import net.jadler.stubbing.StubResponse;
@@ -344,4 +348,36 @@ public class RemoteJWKSetTest {
 			assertEquals("Read timed out", e.getCause().getMessage());
 		}
 	}
+
+
+	@Test
+	public void testKeyGeneration()
+		throws Exception {
+
+		final OctetSequenceKey key1 = new OctetSequenceKey.Builder(new byte[32]).keyID("1").build();
+		final OctetSequenceKey key2 = new OctetSequenceKey.Builder(new byte[32]).keyID("2").build();
+
+		final AtomicReference<JWKSet> served = new AtomicReference<>(new JWKSet(key1));
+
+		RemoteJWKSet<SecurityContext> jwkSetSource = new RemoteJWKSet<>(new URL("https://example.com/jwks.json"), new ResourceRetriever() {
+			@Override
+			public Resource retrieveResource(URL url) {
+				return new Resource(served.get().toJSONObject(false).toJSONString(), "application/json");
+			}
+		});
+
+		assertEquals(0L, jwkSetSource.getKeyGeneration());
+
+		assertEquals(1, jwkSetSource.get(new JWKSelector(new JWKMatcher.Builder().keyID("1").build()), null).size());
+		assertEquals(1L, jwkSetSource.getKeyGeneration());
+
+		// Same JWK set retrieved again on unknown key ID, no change
+		assertTrue(jwkSetSource.get(new JWKSelector(new JWKMatcher.Builder().keyID("2").build()), null).isEmpty());
+		assertEquals(1L, jwkSetSource.getKeyGeneration());
+
+		// Rotated JWK set
+		served.set(new JWKSet(key2));
+		assertEquals(1, jwkSetSource.get(new JWKSelector(new JWKMatcher.Builder().keyID("2").build()), null).size());
+		assertEquals(2L, jwkSetSource.getKeyGeneration());
+	}
 }
@@ -0,0 +1,221 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.nimbusds.jose.proc;
+
+
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import junit.framework.TestCase;
+
+
+public class AdaptiveJWSVerificationKeySelectorTest extends TestCase {
+
+
+	private static final Base64URL X5T256 = Base64URL.encode(new byte[32]);
+
+
+	private static RSAKey[] generateRSAKeys(final int count)
+		throws Exception {
+
+		KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+		keyPairGenerator.initialize(1024);
+
+		RSAKey[] rsaJWKs = new RSAKey[count];
+
+		for (int i=0; i < count; i++) {
+
+			KeyPair keyPair = keyPairGenerator.generateKeyPair();
+
+			RSAKey.Builder builder = new RSAKey.Builder((RSAPublicKey) keyPair.getPublic())
+				.privateKey((RSAPrivateKey) keyPair.getPrivate())
+				.keyUse(KeyUse.SIGNATURE);
+
+			if (i == 1) {
+				builder.x509CertSHA256Thumbprint(X5T256);
+			}
+
+			rsaJWKs[i] = builder.build();
+		}
+
+		return rsaJWKs;
+	}
+
+
+	private static AdaptiveJWSVerificationKeySelector<SecurityContext> createSelector(final RSAKey[] rsaJWKs,
+											  final boolean thumbprintPinning,
+											  final int maxShapes) {
+
+		List<JWK> publicJWKs = new ArrayList<>();
+
+		for (RSAKey rsaJWK: rsaJWKs) {
+			publicJWKs.add(rsaJWK.toPublicJWK());
+		}
+
+		return new AdaptiveJWSVerificationKeySelector<>(
+			JWSAlgorithm.RS256,
+			new ImmutableJWKSet<>(new JWKSet(publicJWKs)),
+			thumbprintPinning,
+			maxShapes);
+	}
+
+
+	public void testDefaultConstructor()
+		throws Exception {
+
+		AdaptiveJWSVerificationKeySelector<SecurityContext> keySelector = new AdaptiveJWSVerificationKeySelector<>(
+			JWSAlgorithm.RS256,
+			new ImmutableJWKSet<>(new JWKSet(generateRSAKeys(1)[0].toPublicJWK())));
+
+		assertEquals(JWSAlgorithm.RS256, keySelector.getExpectedJWSAlgorithm());
+		assertFalse(keySelector.isThumbprintPinning());
+		assertEquals(AdaptiveJWSVerificationKeySelector.DEFAULT_MAX_SHAPES, keySelector.getMaxShapes());
+	}
+
+
+	public void testRejectInvalidMaxShapes()
+		throws Exception {
+
+		try {
+			createSelector(generateRSAKeys(1), false, 0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The maximum number of JWS shapes must be positive", e.getMessage());
+		}
+	}
+
+
+	public void testPromoteLastVerifiedKey()
+		throws Exception {
+
+		RSAKey[] rsaJWKs = generateRSAKeys(3);
+
+		AdaptiveJWSVerificationKeySelector<SecurityContext> keySelector = createSelector(rsaJWKs, false, 10);
+
+		JWSHeader header = new JWSHeader(JWSAlgorithm.RS256);
+
+		List<Key> candidates = keySelector.selectJWSKeys(header, null);
+		assertEquals(Arrays.asList((Key)rsaJWKs[0].toPublicKey(), rsaJWKs[1].toPublicKey(), rsaJWKs[2].toPublicKey()), candidates);
+
+		keySelector.keyVerified(header, rsaJWKs[2].toPublicKey(), null);
+
+		candidates = keySelector.selectJWSKeys(header, null);
+		assertEquals(Arrays.asList((Key)rsaJWKs[2].toPublicKey(), rsaJWKs[0].toPublicKey(), rsaJWKs[1].toPublicKey()), candidates);
+
+		// Other shape not affected
+		JWSHeader typedHeader = new JWSHeader.Builder(JWSAlgorithm.RS256).type(JOSEObjectType.JWT).build();
+		candidates = keySelector.selectJWSKeys(typedHeader, null);
+		assertEquals(Arrays.asList((Key)rsaJWKs[0].toPublicKey(), rsaJWKs[1].toPublicKey(), rsaJWKs[2].toPublicKey()), candidates);
+
+		// Unexpected alg
+		assertTrue(keySelector.selectJWSKeys(new JWSHeader(JWSAlgorithm.RS384), null).isEmpty());
+	}
+
+
+	public void testMaxShapes()
+		throws Exception {
+
+		RSAKey[] rsaJWKs = generateRSAKeys(2);
+
+		AdaptiveJWSVerificationKeySelector<SecurityContext> keySelector = createSelector(rsaJWKs, false, 1);
+
+		JWSHeader header = new JWSHeader(JWSAlgorithm.RS256);
+		JWSHeader typedHeader = new JWSHeader.Builder(JWSAlgorithm.RS256).type(JOSEObjectType.JWT).build();
+
+		keySelector.keyVerified(header, rsaJWKs[1].toPublicKey(), null);
+		keySelector.keyVerified(typedHeader, rsaJWKs[1].toPublicKey(), null);
+
+		assertEquals(rsaJWKs[1].toPublicKey(), keySelector.selectJWSKeys(header, null).get(0));
+		assertEquals(rsaJWKs[0].toPublicKey(), keySelector.selectJWSKeys(typedHeader, null).get(0));
+	}
+
+
+	public void testThumbprintOrdering()
+		throws Exception {
+
+		RSAKey[] rsaJWKs = generateRSAKeys(3);
+
+		AdaptiveJWSVerificationKeySelector<SecurityContext> keySelector = createSelector(rsaJWKs, false, 10);
+
+		JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.RS256).x509CertSHA256Thumbprint(X5T256).build();
+
+		keySelector.keyVerified(header, rsaJWKs[2].toPublicKey(), null);
+
+		List<Key> candidates = keySelector.selectJWSKeys(header, null);
+		assertEquals(Arrays.asList((Key)rsaJWKs[1].toPublicKey(), rsaJWKs[2].toPublicKey(), rsaJWKs[0].toPublicKey()), candidates);
+	}
+
+
+	public void testThumbprintPinning()
+		throws Exception {
+
+		RSAKey[] rsaJWKs = generateRSAKeys(3);
+
+		AdaptiveJWSVerificationKeySelector<SecurityContext> keySelector = createSelector(rsaJWKs, true, 10);
+
+		assertTrue(keySelector.isThumbprintPinning());
+
+		JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.RS256).x509CertSHA256Thumbprint(X5T256).build();
+
+		List<Key> candidates = keySelector.selectJWSKeys(header, null);
+		assertEquals(Arrays.asList((Key)rsaJWKs[1].toPublicKey()), candidates);
+
+		// No match, all keys
+		header = new JWSHeader.Builder(JWSAlgorithm.RS256).x509CertSHA256Thumbprint(Base64URL.encode(new byte[]{1})).build();
+		assertEquals(3, keySelector.selectJWSKeys(header, null).size());
+	}
+
+
+	public void testWithJWTProcessor()
+		throws Exception {
+
+		RSAKey[] rsaJWKs = generateRSAKeys(3);
+
+		AdaptiveJWSVerificationKeySelector<SecurityContext> keySelector = createSelector(rsaJWKs, false, 10);
+
+		DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+		jwtProcessor.setJWSKeySelector(keySelector);
+
+		JWSHeader header = new JWSHeader(JWSAlgorithm.RS256);
+
+		SignedJWT jwt = new SignedJWT(header, new JWTClaimsSet.Builder().subject("alice").build());
+		jwt.sign(new RSASSASigner(rsaJWKs[2]));
+
+		assertEquals("alice", jwtProcessor.process(jwt.serialize(), null).getSubject());
+
+		assertEquals(rsaJWKs[2].toPublicKey(), keySelector.selectJWSKeys(header, null).get(0));
+	}
+}
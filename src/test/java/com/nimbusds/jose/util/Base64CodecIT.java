@@ -0,0 +1,112 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.util;
+
+
+import java.io.DataInputStream;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+
+/**
+ * Tests the Java 11 variant of the base 64 codec in the multi-release JAR.
+ * Run by failsafe against the packaged JAR.
+ */
+public class Base64CodecIT extends TestCase {
+
+
+	private static final Charset UTF_8 = Charset.forName("utf-8");
+
+
+	public void testJava11VariantLoaded()
+		throws Exception {
+
+		try (InputStream in = Base64Codec.class.getResourceAsStream("Base64Codec.class")) {
+
+			DataInputStream dataIn = new DataInputStream(in);
+			assertEquals(0xCAFEBABE, dataIn.readInt());
+			dataIn.readUnsignedShort(); // minor version
+			assertEquals(55, dataIn.readUnsignedShort()); // Java 11 class file
+		}
+	}
+
+
+	public void testDecodeWellFormed() {
+
+		assertEquals("foobar", new String(Base64Codec.decode("Zm9vYmFy"), UTF_8));
+		assertEquals("fooba", new String(Base64Codec.decode("Zm9vYmE="), UTF_8));
+		assertEquals("fooba", new String(Base64Codec.decode("Zm9vYmE"), UTF_8));
+		assertTrue(Arrays.equals(new byte[]{(byte)0xfb, (byte)0xff}, Base64Codec.decode("+/8=")));
+		assertTrue(Arrays.equals(new byte[]{(byte)0xfb, (byte)0xff}, Base64Codec.decode("-_8")));
+	}
+
+
+	public void testDecodeEmpty() {
+
+		assertEquals(0, Base64Codec.decode(null).length);
+		assertEquals(0, Base64Codec.decode("").length);
+	}
+
+
+	public void testDecodeWithLineBreaks() {
+
+		assertEquals("foobar", new String(Base64Codec.decode("Zm9v\r\nYmFy"), UTF_8));
+		assertEquals("foobar", new String(Base64Codec.decode("Zm9v\nYmFy\n"), UTF_8));
+		assertEquals("fooba", new String(Base64Codec.decode("Zm9v\r\nYmE"), UTF_8));
+	}
+
+
+	public void testDecodeWithIllegalChars() {
+
+		assertEquals("foobar", new String(Base64Codec.decode("Zm9v YmFy"), UTF_8));
+		assertEquals("foobar", new String(Base64Codec.decode("\tZm9v.YmFy*"), UTF_8));
+	}
+
+
+	public void testDecodeMixedAlphabets() {
+
+		assertTrue(Arrays.equals(new byte[]{(byte)0xfb, (byte)0xff}, Base64Codec.decode("-/8=")));
+		assertTrue(Arrays.equals(new byte[]{(byte)0xfb, (byte)0xff}, Base64Codec.decode("+_8")));
+	}
+
+
+	public void testDecodePaddingInURLSafe() {
+
+		assertTrue(Arrays.equals(new byte[]{(byte)0xfb, (byte)0xff}, Base64Codec.decode("-_8=")));
+	}
+
+
+	public void testEncodeDecodeCycle() {
+
+		SecureRandom random = new SecureRandom();
+
+		for (int len=0; len < 100; len++) {
+
+			byte[] bytes = new byte[len];
+			random.nextBytes(bytes);
+
+			assertTrue(Arrays.equals(bytes, Base64Codec.decode(Base64Codec.encodeToString(bytes, false))));
+			assertTrue(Arrays.equals(bytes, Base64Codec.decode(Base64Codec.encodeToString(bytes, true))));
+			assertTrue(Arrays.equals(bytes, Base64Codec.decode(new String(Base64Codec.encodeToChar(bytes, true)))));
+		}
+	}
+}
@@ -18,6 +18,16 @@
 package com.nimbusds.jose.util;
 
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
 import com.nimbusds.jose.util.DeflateUtils;
 import junit.framework.TestCase;
 
@@ -25,7 +35,7 @@ import junit.framework.TestCase;
 /**
  * Tests DEFLATE compression.
  *
- * @version 2013-03-26
+ * @version 2026-10-18
  */
 public class DeflateUtilsTest extends TestCase  {
 
@@ -47,4 +57,101 @@ public class DeflateUtilsTest extends TestCase  {
 
 		assertEquals("text comparison", text, textDecompressed);
 	}
+
+
+	private static byte[] referenceCompress(final byte[] bytes)
+		throws IOException {
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		DeflaterOutputStream def = new DeflaterOutputStream(out, new Deflater(Deflater.DEFLATED, true));
+		def.write(bytes);
+		def.close();
+		return out.toByteArray();
+	}
+
+
+	private static byte[] referenceDecompress(final byte[] bytes)
+		throws IOException {
+
+		InflaterInputStream inf = new InflaterInputStream(new ByteArrayInputStream(bytes), new Inflater(true));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buf = new byte[1024];
+		int len;
+		while ((len = inf.read(buf)) > 0) {
+			out.write(buf, 0, len);
+		}
+		inf.close();
+		return out.toByteArray();
+	}
+
+
+	public void testInteropWithStreams()
+		throws Exception {
+
+		byte[] random = new byte[10000];
+		new SecureRandom().nextBytes(random);
+
+		byte[] repetitive = new byte[1000000];
+		Arrays.fill(repetitive, (byte)'a');
+
+		for (byte[] bytes: Arrays.asList(new byte[0], "Hello world!".getBytes("UTF-8"), random, repetitive)) {
+
+			// Repeated, to exercise the pooled instances
+			for (int i = 0; i < 3; i++) {
+				assertTrue(Arrays.equals(bytes, referenceDecompress(DeflateUtils.compress(bytes))));
+				assertTrue(Arrays.equals(bytes, DeflateUtils.decompress(referenceCompress(bytes))));
+				assertTrue(Arrays.equals(bytes, DeflateUtils.decompress(DeflateUtils.compress(bytes))));
+			}
+		}
+	}
+
+
+	public void testDecompressTruncated()
+		throws Exception {
+
+		byte[] compressed = DeflateUtils.compress("Hello world! Hello world! Hello world!".getBytes("UTF-8"));
+
+		try {
+			DeflateUtils.decompress(Arrays.copyOf(compressed, compressed.length / 2));
+			fail();
+		} catch (IOException e) {
+			assertEquals("Unexpected end of ZLIB input stream", e.getMessage());
+		}
+
+		// Pooled inflater still usable
+		assertEquals("Hello world! Hello world! Hello world!", new String(DeflateUtils.decompress(compressed), "UTF-8"));
+	}
+
+
+	public void testDecompressInvalid()
+		throws Exception {
+
+		try {
+			DeflateUtils.decompress(new byte[]{(byte)0xff, (byte)0xff, (byte)0xff, (byte)0xff});
+			fail();
+		} catch (IOException e) {
+			assertNotNull(e.getMessage());
+		}
+
+		assertEquals("Hello world!", new String(DeflateUtils.decompress(DeflateUtils.compress("Hello world!".getBytes("UTF-8"))), "UTF-8"));
+	}
+
+
+	public void testDecompressMaxLength()
+		throws Exception {
+
+		byte[] bytes = new byte[10000];
+		Arrays.fill(bytes, (byte)'a');
+
+		byte[] compressed = DeflateUtils.compress(bytes);
+
+		assertTrue(Arrays.equals(bytes, DeflateUtils.decompress(compressed, 10000)));
+
+		try {
+			DeflateUtils.decompress(compressed, 9999);
+			fail();
+		} catch (IOException e) {
+			assertEquals("Decompressed size exceeds the maximum of 9999 bytes", e.getMessage());
+		}
+	}
 }
@@ -18,7 +18,13 @@
 package com.nimbusds.jose.util;
 
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
 import com.nimbusds.jose.util.JSONObjectUtils;
+import net.minidev.json.JSONObject;
 import junit.framework.TestCase;
 
 
@@ -26,7 +32,7 @@ import junit.framework.TestCase;
  * Tests the JSON object utilities.
  *
  * @author Vladimir Dzhuvinov
- * @version 2015-03-16
+ * @version 2026-10-18
  */
 public class JSONObjectUtilsTest extends TestCase {
 
@@ -38,4 +44,98 @@ public class JSONObjectUtilsTest extends TestCase {
 		assertEquals(0, JSONObjectUtils.parse("{}\n").size());
 		assertEquals(0, JSONObjectUtils.parse("{}\r\n").size());
 	}
+
+
+	public void testDefaultJSONProvider() {
+
+		assertTrue(JSONObjectUtils.getJSONProvider() instanceof StreamingJSONProvider);
+	}
+
+
+	public void testSetJSONProvider()
+		throws Exception {
+
+		JSONProvider jsonSmart = new JSONSmartProvider();
+
+		try {
+			JSONObjectUtils.setJSONProvider(jsonSmart);
+			assertSame(jsonSmart, JSONObjectUtils.getJSONProvider());
+			assertEquals(1L, JSONObjectUtils.parse("{\"a\":1}").get("a"));
+			assertEquals("{\"a\":1}", JSONObjectUtils.toJSONString(JSONObjectUtils.parse("{\"a\":1}")));
+		} finally {
+			JSONObjectUtils.setJSONProvider(null);
+		}
+
+		assertTrue(JSONObjectUtils.getJSONProvider() instanceof StreamingJSONProvider);
+	}
+
+
+	public void testParseBytes()
+		throws Exception {
+
+		assertEquals("\u00fc", JSONObjectUtils.parse("{\"a\":\"\u00fc\"}".getBytes(StandardCharset.UTF_8)).get("a"));
+	}
+
+
+	public void testParseSelectedMembers()
+		throws Exception {
+
+		byte[] json = "{\"a\":1,\"skip\":{\"x\":[true,\"}\"]},\"b\":\"c\",\"a\":2}".getBytes(StandardCharset.UTF_8);
+
+		Set<String> names = new HashSet<>(Arrays.asList("a", "b", "z"));
+
+		JSONObject o = JSONObjectUtils.parse(json, names);
+		assertEquals(2L, o.get("a"));
+		assertEquals("c", o.get("b"));
+		assertEquals(2, o.size());
+	}
+
+
+	public void testParseSelectedMembersWithJSONProvider()
+		throws Exception {
+
+		final Set<String> calls = new HashSet<>();
+
+		JSONObjectUtils.setJSONProvider(new JSONSmartProvider() {
+			@Override
+			public JSONObject parse(final byte[] bytes, final Set<String> memberNames)
+				throws java.text.ParseException {
+
+				calls.add("selective");
+				return super.parse(bytes, memberNames);
+			}
+		});
+
+		try {
+			byte[] json = "{\"a\":1,\"skip\":{\"x\":[true,\"}\"]},\"b\":\"c\",\"a\":2}".getBytes(StandardCharset.UTF_8);
+
+			JSONObject o = JSONObjectUtils.parse(json, new HashSet<>(Arrays.asList("a", "b", "z")));
+			assertEquals(2L, o.get("a"));
+			assertEquals("c", o.get("b"));
+			assertEquals(2, o.size());
+
+			assertEquals(Collections.singleton("selective"), calls);
+
+			try {
+				JSONObjectUtils.parse("{\"a\":1,\"skip\":[1,]}".getBytes(StandardCharset.UTF_8), new HashSet<>(Arrays.asList("a")));
+				fail();
+			} catch (java.text.ParseException e) {
+				assertTrue(e.getMessage().startsWith("Invalid JSON: "));
+			}
+
+		} finally {
+			JSONObjectUtils.setJSONProvider(null);
+		}
+	}
+
+
+	public void testParseSelectedMembersValidatesSkipped() {
+
+		try {
+			JSONObjectUtils.parse("{\"a\":1,\"skip\":[1,]}".getBytes(StandardCharset.UTF_8), new HashSet<>(Arrays.asList("a")));
+			fail();
+		} catch (java.text.ParseException e) {
+			assertEquals("Invalid JSON: Unexpected character (]) at position 17", e.getMessage());
+		}
+	}
 }
@@ -0,0 +1,255 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.util;
+
+
+import java.text.ParseException;
+
+import junit.framework.TestCase;
+import net.minidev.json.JSONObject;
+
+
+/**
+ * Tests the streaming JSON reader.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+public class JSONReaderTest extends TestCase {
+
+
+	private static JSONReader reader(final String json) {
+
+		return new JSONReader(json.getBytes(StandardCharset.UTF_8));
+	}
+
+
+	public void testIterateMembers()
+		throws ParseException {
+
+		JSONReader reader = reader("{\"iss\":\"https://c2id.com\",\"skip\":{\"a\":[1,{\"b\":\"\\\"}\"}],\"c\":null},\"exp\":123}");
+
+		reader.beginObject();
+
+		assertEquals("iss", reader.nextName());
+		assertEquals("https://c2id.com", reader.readValue());
+
+		assertEquals("skip", reader.nextName());
+		reader.skipValue();
+
+		assertEquals("exp", reader.nextName());
+		assertEquals(123L, reader.readValue());
+
+		assertNull(reader.nextName());
+		reader.endDocument();
+	}
+
+
+	public void testEmptyObject()
+		throws ParseException {
+
+		JSONReader reader = reader(" { } ");
+		reader.beginObject();
+		assertNull(reader.nextName());
+		reader.endDocument();
+	}
+
+
+	public void testNestedBeginObject()
+		throws ParseException {
+
+		JSONReader reader = reader("{\"a\":{\"b\":true},\"c\":1}");
+
+		reader.beginObject();
+		assertEquals("a", reader.nextName());
+		reader.beginObject();
+		assertEquals("b", reader.nextName());
+		assertEquals(Boolean.TRUE, reader.readValue());
+		assertNull(reader.nextName());
+		assertEquals("c", reader.nextName());
+		assertEquals(1L, reader.readValue());
+		assertNull(reader.nextName());
+		reader.endDocument();
+	}
+
+
+	public void testReadValueObject()
+		throws ParseException {
+
+		Object o = reader("{\"a\":[1,2]}").readValue();
+		assertTrue(o instanceof JSONObject);
+		assertEquals(1, ((JSONObject)o).size());
+	}
+
+
+	public void testOffsetAndLength()
+		throws ParseException {
+
+		byte[] bytes = "xx{\"a\":1}yy".getBytes(StandardCharset.UTF_8);
+		JSONReader reader = new JSONReader(bytes, 2, 7);
+		assertEquals(2, reader.getPosition());
+		assertTrue(reader.readValue() instanceof JSONObject);
+		reader.endDocument();
+		assertEquals(9, reader.getPosition());
+	}
+
+
+	public void testSkipValueValidates() {
+
+		for (String json: new String[]{"{\"a\":[1,]}", "{\"a\":\"\\q\"}", "{\"a\":01}", "{\"a\":nul}"}) {
+
+			JSONReader reader = reader(json);
+
+			try {
+				reader.beginObject();
+				reader.nextName();
+				reader.skipValue();
+				fail("Accepted invalid JSON: " + json);
+			} catch (ParseException e) {
+				assertTrue(e.getMessage().startsWith("Invalid JSON: "));
+			}
+		}
+	}
+
+
+	public void testMissingSeparator() {
+
+		JSONReader reader = reader("{\"a\":1 \"b\":2}");
+
+		try {
+			reader.beginObject();
+			reader.nextName();
+			reader.skipValue();
+			reader.nextName();
+			fail();
+		} catch (ParseException e) {
+			assertEquals(7, e.getErrorOffset());
+		}
+	}
+
+
+	public void testEndDocumentRejectsTrailingContent()
+		throws ParseException {
+
+		JSONReader reader = reader("{} {}");
+		reader.skipValue();
+
+		try {
+			reader.endDocument();
+			fail();
+		} catch (ParseException e) {
+			assertEquals("Invalid JSON: Unexpected character ({) at position 3", e.getMessage());
+		}
+	}
+
+
+	private static String nestedArrays(final int depth) {
+
+		StringBuilder sb = new StringBuilder();
+		for (int i=0; i < depth; i++) {
+			sb.append('[');
+		}
+		for (int i=0; i < depth; i++) {
+			sb.append(']');
+		}
+		return sb.toString();
+	}
+
+
+	public void testMaxNestingDepth()
+		throws ParseException {
+
+		assertEquals(256, JSONReader.MAX_NESTING_DEPTH);
+
+		String json = nestedArrays(JSONReader.MAX_NESTING_DEPTH);
+
+		JSONReader reader = reader(json);
+		reader.readValue();
+		reader.endDocument();
+
+		reader = reader(json);
+		reader.skipValue();
+		reader.endDocument();
+
+		// Object at the top, begun by the caller
+		reader = reader("{\"a\":" + nestedArrays(JSONReader.MAX_NESTING_DEPTH - 1) + "}");
+		reader.beginObject();
+		assertEquals("a", reader.nextName());
+		reader.readValue();
+		assertNull(reader.nextName());
+		reader.endDocument();
+	}
+
+
+	public void testMaxNestingDepthExceeded() {
+
+		String json = nestedArrays(JSONReader.MAX_NESTING_DEPTH + 1);
+
+		try {
+			reader(json).readValue();
+			fail();
+		} catch (ParseException e) {
+			assertEquals("Invalid JSON: Maximum nesting depth of 256 exceeded at position 256", e.getMessage());
+			assertEquals(256, e.getErrorOffset());
+		}
+
+		try {
+			reader(json).skipValue();
+			fail();
+		} catch (ParseException e) {
+			assertEquals("Invalid JSON: Maximum nesting depth of 256 exceeded at position 256", e.getMessage());
+		}
+
+		try {
+			JSONReader reader = reader("{\"a\":" + nestedArrays(JSONReader.MAX_NESTING_DEPTH) + "}");
+			reader.beginObject();
+			reader.nextName();
+			reader.skipValue();
+			fail();
+		} catch (ParseException e) {
+			assertEquals(260, e.getErrorOffset());
+		}
+	}
+
+
+	public void testDeepNestingDoesNotOverflowStack() {
+
+		StringBuilder sb = new StringBuilder();
+		for (int i=0; i < 100000; i++) {
+			sb.append("{\"a\":");
+		}
+
+		try {
+			reader(sb.toString()).readValue();
+			fail();
+		} catch (ParseException e) {
+			assertTrue(e.getMessage().startsWith("Invalid JSON: Maximum nesting depth of 256 exceeded"));
+		}
+	}
+
+
+	public void testInvalidOffset() {
+
+		try {
+			new JSONReader(new byte[2], 1, 2);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Invalid offset or length", e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,215 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.util;
+
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+import net.minidev.json.JSONArray;
+import net.minidev.json.JSONObject;
+
+
+/**
+ * Tests the streaming JSON provider against the JSON Smart provider.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+public class StreamingJSONProviderTest extends TestCase {
+
+
+	private static final JSONProvider STREAMING = new StreamingJSONProvider();
+
+
+	private static final JSONProvider JSON_SMART = new JSONSmartProvider();
+
+
+	public void testParseTypeMapping()
+		throws ParseException {
+
+		String json = "{" +
+			"\"str\":\"a\\\"b\\\\c\\/d\\u0041\\n\"," +
+			"\"int\":123," +
+			"\"neg\":-0," +
+			"\"long\":9223372036854775807," +
+			"\"bigint\":9223372036854775808," +
+			"\"double\":1.5e3," +
+			"\"bigdec\":1.50000000000000000001," +
+			"\"true\":true," +
+			"\"false\":false," +
+			"\"null\":null," +
+			"\"arr\":[1,\"x\",[]]," +
+			"\"obj\":{\"nested\":{}}" +
+			"}";
+
+		JSONObject o = STREAMING.parse(json);
+
+		assertEquals("a\"b\\c/dA\n", o.get("str"));
+		assertEquals(123L, o.get("int"));
+		assertEquals(0L, o.get("neg"));
+		assertEquals(Long.MAX_VALUE, o.get("long"));
+		assertEquals(new BigInteger("9223372036854775808"), o.get("bigint"));
+		assertEquals(1500.0d, o.get("double"));
+		assertEquals(new BigDecimal("1.50000000000000000001"), o.get("bigdec"));
+		assertEquals(Boolean.TRUE, o.get("true"));
+		assertEquals(Boolean.FALSE, o.get("false"));
+		assertTrue(o.containsKey("null"));
+		assertNull(o.get("null"));
+		assertTrue(o.get("arr") instanceof JSONArray);
+		assertTrue(o.get("obj") instanceof JSONObject);
+		assertEquals(12, o.size());
+
+		assertEquals(JSON_SMART.parse(json), o);
+	}
+
+
+	public void testParseBytes()
+		throws ParseException {
+
+		String json = "{\"iss\":\"\u00fcber\",\"emoji\":\"\ud83d\ude00\"}";
+
+		JSONObject o = STREAMING.parse(json.getBytes(StandardCharset.UTF_8));
+
+		assertEquals("\u00fcber", o.get("iss"));
+		assertEquals("\ud83d\ude00", o.get("emoji"));
+	}
+
+
+	public void testParseDuplicateMemberLastWins()
+		throws ParseException {
+
+		assertEquals(2L, STREAMING.parse("{\"a\":1,\"a\":2}").get("a"));
+	}
+
+
+	public void testParseWhiteSpace()
+		throws ParseException {
+
+		assertEquals(1, STREAMING.parse(" \t\r\n{ \"a\" : [ 1 , 2 ] }\r\n").size());
+	}
+
+
+	public void testParseRejectInvalid() {
+
+		for (String json: Arrays.asList(
+			"",
+			"{",
+			"[]",
+			"\"a\"",
+			"{}x",
+			"{\"a\"}",
+			"{\"a\":}",
+			"{\"a\":1,}",
+			"{\"a\":[1,]}",
+			"{\"a\":[1 2]}",
+			"{'a':1}",
+			"{a:1}",
+			"{\"a\":01}",
+			"{\"a\":1.}",
+			"{\"a\":.5}",
+			"{\"a\":-}",
+			"{\"a\":1e}",
+			"{\"a\":NaN}",
+			"{\"a\":tru}",
+			"{\"a\":truex}",
+			"{\"a\":\"\t\"}",
+			"{\"a\":\"\\x\"}",
+			"{\"a\":\"\\u00g0\"}",
+			"{\"a\":\"abc}",
+			"{\"a\":1e999999999999999999}")) {
+
+			try {
+				STREAMING.parse(json);
+				fail("Accepted invalid JSON: " + json);
+			} catch (ParseException e) {
+				assertNotNull(e.getMessage());
+			}
+		}
+	}
+
+
+	public void testSerializeSameAsJSONSmart() {
+
+		JSONObject o = new JSONObject();
+		o.put("url", "https://c2id.com/path");
+		o.put("escape", "\"\\\b\f\n\r\t\u0001\u007f\u0085\u2028 </");
+		o.put("unicode", "\u00fc\u20ac\u4e2d\ud83d\ude00");
+		o.put("int", 1);
+		o.put("long", 12345678901L);
+		o.put("bigint", new BigInteger("123456789012345678901234567890"));
+		o.put("double", 1.5d);
+		o.put("true", true);
+		o.put("null", null);
+		o.put("list", Arrays.asList("a", 1L, null));
+		o.put("array", new String[]{"x", "y"});
+		o.put("base64", new Base64URL("abc"));
+
+		Map<String,Object> nested = new LinkedHashMap<>();
+		nested.put("z", "1");
+		nested.put("a", new JSONArray());
+		o.put("map", nested);
+
+		String expected = o.toJSONString();
+
+		assertEquals(expected, STREAMING.toJSONString(o));
+		assertEquals(expected, JSON_SMART.toJSONString(o));
+		assertTrue(Arrays.equals(expected.getBytes(StandardCharset.UTF_8), STREAMING.toJSONBytes(o)));
+	}
+
+
+	public void testRoundTrip()
+		throws ParseException {
+
+		JSONObject o = new JSONObject();
+		o.put("sub", "alice");
+		o.put("exp", 1500000000L);
+		o.put("aud", Arrays.asList("a", "b"));
+		o.put("x", "\u0000\u2000\ud83d\ude00");
+
+		assertEquals(o, STREAMING.parse(STREAMING.toJSONBytes(o)));
+		assertEquals(o, STREAMING.parse(STREAMING.toJSONString(o)));
+	}
+
+
+	public void testSerializeLoneSurrogates()
+		throws ParseException {
+
+		JSONObject o = new JSONObject();
+		o.put("high", "a\ud83db");
+		o.put("low", "\ude00");
+		o.put("reversed", "\ude00\ud83d");
+		o.put("pair", "\ud83d\ude00");
+
+		String json = STREAMING.toJSONString(o);
+		assertTrue(json.contains("\"high\":\"a\\uD83Db\""));
+		assertTrue(json.contains("\"low\":\"\\uDE00\""));
+		assertTrue(json.contains("\"reversed\":\"\\uDE00\\uD83D\""));
+		assertTrue(json.contains("\"pair\":\"\ud83d\ude00\""));
+
+		// Not lost
+		assertEquals(o, STREAMING.parse(json));
+		assertEquals(o, STREAMING.parse(STREAMING.toJSONBytes(o)));
+		assertEquals(o, JSON_SMART.parse(json));
+	}
+}
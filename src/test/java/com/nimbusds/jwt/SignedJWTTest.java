@@ -24,7 +24,9 @@ import java.security.KeyPairGenerator;
 import java.security.SecureRandom;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.HashSet;
 
 import com.nimbusds.jose.crypto.MACSigner;
 import com.nimbusds.jose.crypto.MACVerifier;
@@ -143,4 +145,54 @@ public class SignedJWTTest extends TestCase {
 		jwt = SignedJWT.parse(jwtString);
 		assertTrue(jwt.verify(new MACVerifier(secret)));
 	}
+
+	
+	
+	public void testGetSelectedClaims()
+		throws Exception {
+
+		byte[] secret = new byte[32];
+		new SecureRandom().nextBytes(secret);
+
+		Date exp = new Date(1500000000000L);
+
+		JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
+			.issuer("https://c2id.com")
+			.subject("alice")
+			.expirationTime(exp)
+			.claim("tenant", "t1")
+			.claim("roles", Arrays.asList("admin", "user"))
+			.build();
+
+		SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.HS256), claimsSet);
+		jwt.sign(new MACSigner(secret));
+
+		jwt = SignedJWT.parse(jwt.serialize());
+
+		JWTClaimsSet selected = jwt.getJWTClaimsSet(new HashSet<>(Arrays.asList("iss", "exp", "tenant")));
+
+		assertEquals("https://c2id.com", selected.getIssuer());
+		assertEquals(exp, selected.getExpirationTime());
+		assertEquals("t1", selected.getStringClaim("tenant"));
+		assertNull(selected.getSubject());
+		assertNull(selected.getClaim("roles"));
+		assertEquals(3, selected.getClaims().size());
+	}
+	
+	
+	public void testGetSelectedClaimsInvalidType()
+		throws Exception {
+
+		SignedJWT jwt = new SignedJWT(
+			new JWSHeader(JWSAlgorithm.HS256).toBase64URL(),
+			Base64URL.encode("{\"exp\":\"tomorrow\"}"),
+			Base64URL.encode("sig"));
+
+		try {
+			jwt.getJWTClaimsSet(new HashSet<>(Arrays.asList("exp")));
+			fail();
+		} catch (java.text.ParseException e) {
+			// ok
+		}
+	}
 }
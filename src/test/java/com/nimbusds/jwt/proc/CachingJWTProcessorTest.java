@@ -0,0 +1,302 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.nimbusds.jwt.proc;
+
+
+import java.security.Key;
+import java.security.SecureRandom;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.jwk.source.KeyGenerationAware;
+import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.JWSKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import junit.framework.TestCase;
+
+
+/**
+ * Tests the caching JWT processor.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-18
+ */
+public class CachingJWTProcessorTest extends TestCase {
+
+
+	private SecretKey key;
+
+
+	private AtomicInteger keySelections;
+
+
+	private DefaultJWTProcessor<SecurityContext> processor;
+
+
+	@Override
+	public void setUp()
+		throws Exception {
+
+		byte[] keyBytes = new byte[32];
+		new SecureRandom().nextBytes(keyBytes);
+		key = new SecretKeySpec(keyBytes, "HMACSHA256");
+
+		keySelections = new AtomicInteger();
+
+		processor = new DefaultJWTProcessor<>();
+		processor.setJWSKeySelector(new JWSKeySelector<SecurityContext>() {
+			@Override
+			public List<? extends Key> selectJWSKeys(JWSHeader header, SecurityContext context) {
+				keySelections.incrementAndGet();
+				return Collections.singletonList(key);
+			}
+		});
+	}
+
+
+	private String createJWT(final Date exp)
+		throws Exception {
+
+		JWTClaimsSet claims = new JWTClaimsSet.Builder()
+			.subject("alice")
+			.expirationTime(exp)
+			.build();
+
+		SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.HS256), claims);
+		jwt.sign(new MACSigner(key));
+		return jwt.serialize();
+	}
+
+
+	private static Date secondsFromNow(final long seconds) {
+
+		return new Date(System.currentTimeMillis() / 1000 * 1000 + seconds * 1000);
+	}
+
+
+	public void testConstructor() {
+
+		CachingJWTProcessor<SecurityContext> cachingProcessor = new CachingJWTProcessor<>(processor, 10, null);
+
+		assertSame(processor, cachingProcessor.getJWTProcessor());
+		assertEquals(10, cachingProcessor.getMaxEntries());
+		assertEquals(0, cachingProcessor.size());
+	}
+
+
+	public void testRejectInvalidMaxEntries() {
+
+		try {
+			new CachingJWTProcessor<>(processor, 0, null);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The maximum number of cached JWTs must be positive", e.getMessage());
+		}
+	}
+
+
+	public void testCacheHit()
+		throws Exception {
+
+		CachingJWTProcessor<SecurityContext> cachingProcessor = new CachingJWTProcessor<>(processor, 10, null);
+
+		String jwt = createJWT(secondsFromNow(600));
+
+		assertEquals("alice", cachingProcessor.process(jwt, null).getSubject());
+		assertEquals(1, keySelections.get());
+		assertEquals(1, cachingProcessor.size());
+
+		for (int i=0; i < 5; i++) {
+			assertEquals("alice", cachingProcessor.process(jwt, null).getSubject());
+			assertEquals("alice", cachingProcessor.process(SignedJWT.parse(jwt), null).getSubject());
+		}
+
+		assertEquals(1, keySelections.get());
+	}
+
+
+	public void testBadSignatureNotCached()
+		throws Exception {
+
+		CachingJWTProcessor<SecurityContext> cachingProcessor = new CachingJWTProcessor<>(processor, 10, null);
+
+		String jwt = createJWT(secondsFromNow(600));
+		String[] parts = jwt.split("\\.");
+		String badJWT = parts[0] + "." + parts[1] + "." + parts[2].substring(0, parts[2].length() - 2) + "AA";
+
+		for (int i=0; i < 2; i++) {
+			try {
+				cachingProcessor.process(badJWT, null);
+				fail();
+			} catch (BadJOSEException e) {
+				assertEquals("Signed JWT rejected: Invalid signature", e.getMessage());
+			}
+		}
+
+		assertEquals(0, cachingProcessor.size());
+		assertEquals(2, keySelections.get());
+	}
+
+
+	public void testWithoutExpirationNotCached()
+		throws Exception {
+
+		CachingJWTProcessor<SecurityContext> cachingProcessor = new CachingJWTProcessor<>(processor, 10, null);
+
+		String jwt = createJWT(null);
+
+		cachingProcessor.process(jwt, null);
+		cachingProcessor.process(jwt, null);
+
+		assertEquals(0, cachingProcessor.size());
+		assertEquals(2, keySelections.get());
+	}
+
+
+	public void testExpirationWithinClockSkewNotCached()
+		throws Exception {
+
+		CachingJWTProcessor<SecurityContext> cachingProcessor = new CachingJWTProcessor<>(processor, 10, null);
+
+		// Accepted by the default claims verifier, but within its
+		// 60 seconds max clock skew
+		String jwt = createJWT(secondsFromNow(30));
+
+		cachingProcessor.process(jwt, null);
+
+		assertEquals(0, cachingProcessor.size());
+	}
+
+
+	public void testClaimsVerifiedOnCacheHit()
+		throws Exception {
+
+		final AtomicInteger verifications = new AtomicInteger();
+		final AtomicInteger rejectAfter = new AtomicInteger(Integer.MAX_VALUE);
+
+		processor.setJWTClaimsSetVerifier(new JWTClaimsSetVerifier<SecurityContext>() {
+			@Override
+			public void verify(JWTClaimsSet claimsSet, SecurityContext context)
+				throws BadJWTException {
+				if (verifications.incrementAndGet() > rejectAfter.get()) {
+					throw new BadJWTException("Rejected");
+				}
+			}
+		});
+
+		CachingJWTProcessor<SecurityContext> cachingProcessor = new CachingJWTProcessor<>(processor, 10, null);
+
+		String jwt = createJWT(secondsFromNow(600));
+
+		cachingProcessor.process(jwt, null);
+		cachingProcessor.process(jwt, null);
+		assertEquals(2, verifications.get());
+		assertEquals(1, keySelections.get());
+
+		rejectAfter.set(2);
+
+		try {
+			cachingProcessor.process(jwt, null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("Rejected", e.getMessage());
+		}
+	}
+
+
+	public void testKeyGenerationChange()
+		throws Exception {
+
+		final AtomicLong generation = new AtomicLong();
+
+		CachingJWTProcessor<SecurityContext> cachingProcessor = new CachingJWTProcessor<>(processor, 10, new KeyGenerationAware() {
+			@Override
+			public long getKeyGeneration() {
+				return generation.get();
+			}
+		});
+
+		String jwt = createJWT(secondsFromNow(600));
+
+		cachingProcessor.process(jwt, null);
+		cachingProcessor.process(jwt, null);
+		assertEquals(1, keySelections.get());
+
+		generation.incrementAndGet();
+
+		cachingProcessor.process(jwt, null);
+		assertEquals(2, keySelections.get());
+
+		cachingProcessor.process(jwt, null);
+		assertEquals(2, keySelections.get());
+	}
+
+
+	public void testMaxEntries()
+		throws Exception {
+
+		CachingJWTProcessor<SecurityContext> cachingProcessor = new CachingJWTProcessor<>(processor, 3, null);
+
+		for (int i=0; i < 10; i++) {
+			cachingProcessor.process(createJWT(secondsFromNow(600 + i)), null);
+			assertTrue(cachingProcessor.size() <= 3);
+		}
+
+		cachingProcessor.clear();
+		assertEquals(0, cachingProcessor.size());
+	}
+
+
+	public void testLeastRecentlyUsedEvicted()
+		throws Exception {
+
+		CachingJWTProcessor<SecurityContext> cachingProcessor = new CachingJWTProcessor<>(processor, 2, null);
+
+		String jwt1 = createJWT(secondsFromNow(601));
+		String jwt2 = createJWT(secondsFromNow(602));
+		String jwt3 = createJWT(secondsFromNow(603));
+
+		cachingProcessor.process(jwt1, null);
+		cachingProcessor.process(jwt2, null);
+		assertEquals(2, keySelections.get());
+
+		// Hit, jwt2 becomes the least recently used
+		cachingProcessor.process(jwt1, null);
+		assertEquals(2, keySelections.get());
+
+		cachingProcessor.process(jwt3, null);
+		assertEquals(3, keySelections.get());
+		assertEquals(2, cachingProcessor.size());
+
+		cachingProcessor.process(jwt1, null);
+		cachingProcessor.process(jwt3, null);
+		assertEquals(3, keySelections.get());
+
+		cachingProcessor.process(jwt2, null);
+		assertEquals(4, keySelections.get());
+	}
+}
@@ -0,0 +1,269 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.nimbusds.jwt.proc;
+
+
+import java.util.*;
+
+import junit.framework.TestCase;
+
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jwt.EncryptedJWT;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.PlainJWT;
+import com.nimbusds.jwt.SignedJWT;
+
+
+/**
+ * Tests the default JWT pre-check.
+ */
+public class DefaultJWTPrecheckTest extends TestCase {
+
+
+	private static SignedJWT createUnverifiedJWT(final JWSHeader header, final JWTClaimsSet claimsSet)
+		throws Exception {
+
+		return new SignedJWT(
+			header.toBase64URL(),
+			Base64URL.encode(claimsSet.toJSONObject().toJSONString()),
+			Base64URL.encode("invalid"));
+	}
+
+
+	public void testDefaultConstructor()
+		throws Exception {
+
+		DefaultJWTPrecheck<?> precheck = new DefaultJWTPrecheck<>();
+
+		assertEquals(0, precheck.getMaxHeaderLength());
+		assertNull(precheck.getAcceptedTypes());
+		assertNull(precheck.getAcceptedIssuers());
+		assertNull(precheck.getAcceptedAudience());
+		assertEquals(DefaultJWTClaimsVerifier.DEFAULT_MAX_CLOCK_SKEW_SECONDS, precheck.getMaxClockSkew());
+
+		precheck.setMaxClockSkew(120);
+		assertEquals(120, precheck.getMaxClockSkew());
+	}
+
+
+	public void testRejectNegativeMaxHeaderLength() {
+
+		try {
+			new DefaultJWTPrecheck<>(-1, null, null, null);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The maximum header length must not be negative", e.getMessage());
+		}
+	}
+
+
+	public void testPassNoClaims()
+		throws Exception {
+
+		new DefaultJWTPrecheck<>().precheck(
+			createUnverifiedJWT(new JWSHeader(JWSAlgorithm.RS256), new JWTClaimsSet.Builder().build()),
+			null);
+	}
+
+
+	public void testExpired()
+		throws Exception {
+
+		Date yesterday = new Date(new Date().getTime() - 24 * 60 * 60 * 1000);
+
+		SignedJWT jwt = createUnverifiedJWT(
+			new JWSHeader(JWSAlgorithm.RS256),
+			new JWTClaimsSet.Builder().expirationTime(yesterday).build());
+
+		try {
+			new DefaultJWTPrecheck<>().precheck(jwt, null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("Expired JWT", e.getMessage());
+		}
+	}
+
+
+	public void testExpiredWithinClockSkew()
+		throws Exception {
+
+		Date thirtySecondsAgo = new Date(new Date().getTime() - 30 * 1000);
+
+		new DefaultJWTPrecheck<>().precheck(
+			createUnverifiedJWT(
+				new JWSHeader(JWSAlgorithm.RS256),
+				new JWTClaimsSet.Builder().expirationTime(thirtySecondsAgo).build()),
+			null);
+	}
+
+
+	public void testHeaderTooLarge()
+		throws Exception {
+
+		JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.RS256)
+			.customParam("x", new String(new char[200]).replace('\0', 'x'))
+			.build();
+
+		SignedJWT jwt = createUnverifiedJWT(header, new JWTClaimsSet.Builder().build());
+
+		new DefaultJWTPrecheck<>(1000, null, null, null).precheck(jwt, null);
+
+		try {
+			new DefaultJWTPrecheck<>(100, null, null, null).precheck(jwt, null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("JWT header too large", e.getMessage());
+		}
+	}
+
+
+	public void testType()
+		throws Exception {
+
+		JWTClaimsSet claimsSet = new JWTClaimsSet.Builder().build();
+
+		SignedJWT typedJWT = createUnverifiedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).type(JOSEObjectType.JWT).build(), claimsSet);
+		SignedJWT untypedJWT = createUnverifiedJWT(new JWSHeader(JWSAlgorithm.RS256), claimsSet);
+
+		DefaultJWTPrecheck<?> precheck = new DefaultJWTPrecheck<>(0, Collections.singleton(JOSEObjectType.JWT), null, null);
+
+		precheck.precheck(typedJWT, null);
+
+		try {
+			precheck.precheck(untypedJWT, null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("Unexpected JWT type", e.getMessage());
+		}
+
+		// Accept no type
+		precheck = new DefaultJWTPrecheck<>(0, new HashSet<>(Arrays.asList(JOSEObjectType.JWT, null)), null, null);
+		precheck.precheck(typedJWT, null);
+		precheck.precheck(untypedJWT, null);
+	}
+
+
+	public void testIssuer()
+		throws Exception {
+
+		DefaultJWTPrecheck<?> precheck = new DefaultJWTPrecheck<>(0, null, Collections.singleton("https://c2id.com"), null);
+
+		precheck.precheck(
+			createUnverifiedJWT(new JWSHeader(JWSAlgorithm.RS256), new JWTClaimsSet.Builder().issuer("https://c2id.com").build()),
+			null);
+
+		try {
+			precheck.precheck(
+				createUnverifiedJWT(new JWSHeader(JWSAlgorithm.RS256), new JWTClaimsSet.Builder().issuer("https://example.com").build()),
+				null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("Unexpected JWT issuer", e.getMessage());
+		}
+
+		try {
+			precheck.precheck(
+				createUnverifiedJWT(new JWSHeader(JWSAlgorithm.RS256), new JWTClaimsSet.Builder().build()),
+				null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("Unexpected JWT issuer", e.getMessage());
+		}
+	}
+
+
+	public void testAudience()
+		throws Exception {
+
+		DefaultJWTPrecheck<?> precheck = new DefaultJWTPrecheck<>(0, null, null, Collections.singleton("client-1"));
+
+		precheck.precheck(
+			createUnverifiedJWT(new JWSHeader(JWSAlgorithm.RS256), new JWTClaimsSet.Builder().audience(Arrays.asList("client-2", "client-1")).build()),
+			null);
+
+		try {
+			precheck.precheck(
+				createUnverifiedJWT(new JWSHeader(JWSAlgorithm.RS256), new JWTClaimsSet.Builder().audience("client-2").build()),
+				null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("Unexpected JWT audience", e.getMessage());
+		}
+
+		try {
+			precheck.precheck(
+				createUnverifiedJWT(new JWSHeader(JWSAlgorithm.RS256), new JWTClaimsSet.Builder().build()),
+				null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("Unexpected JWT audience", e.getMessage());
+		}
+	}
+
+
+	public void testPlainJWTClaimsChecked()
+		throws Exception {
+
+		PlainJWT jwt = new PlainJWT(new JWTClaimsSet.Builder().issuer("https://example.com").build());
+
+		try {
+			new DefaultJWTPrecheck<>(0, null, Collections.singleton("https://c2id.com"), null).precheck(jwt, null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("Unexpected JWT issuer", e.getMessage());
+		}
+	}
+
+
+	public void testEncryptedJWTOnlyHeaderChecked()
+		throws Exception {
+
+		EncryptedJWT jwt = new EncryptedJWT(
+			new JWEHeader(JWEAlgorithm.DIR, EncryptionMethod.A128GCM),
+			new JWTClaimsSet.Builder().issuer("https://example.com").build());
+
+		jwt = EncryptedJWT.parse(jwt.getHeader().toBase64URL() + "..AAAAAAAAAAAAAAAA.AAAA.AAAAAAAAAAAAAAAAAAAAAA");
+
+		// Issuer not readable
+		new DefaultJWTPrecheck<>(0, null, Collections.singleton("https://c2id.com"), null).precheck(jwt, null);
+
+		try {
+			new DefaultJWTPrecheck<>(0, Collections.singleton(JOSEObjectType.JWT), null, null).precheck(jwt, null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("Unexpected JWT type", e.getMessage());
+		}
+	}
+
+
+	public void testRejectPayloadNotJSONObject()
+		throws Exception {
+
+		SignedJWT jwt = new SignedJWT(
+			new JWSHeader(JWSAlgorithm.RS256).toBase64URL(),
+			Base64URL.encode("not a JSON object"),
+			Base64URL.encode("invalid"));
+
+		try {
+			new DefaultJWTPrecheck<>().precheck(jwt, null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("Payload of JWS object is not a valid JSON object", e.getMessage());
+		}
+	}
+}
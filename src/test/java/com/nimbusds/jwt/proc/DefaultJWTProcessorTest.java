@@ -22,6 +22,8 @@ import java.net.URL;
 import java.security.*;
 import java.security.interfaces.RSAPublicKey;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
@@ -53,7 +55,7 @@ import junit.framework.TestCase;
 /**
  * Tests the default JWT processor.
  *
- * @version 2017-05-05
+ * @version 2026-10-18
  */
 public class DefaultJWTProcessorTest extends TestCase {
 
@@ -1109,4 +1111,197 @@ public class DefaultJWTProcessorTest extends TestCase {
 			assertEquals("The payload is not a nested signed JWT", e.getMessage());
 		}
 	}
+
+
+	public void testPrecheckRejectsBeforeKeySelection()
+		throws Exception {
+
+		final Date now = new Date();
+		final Date yesterday = new Date(now.getTime() - 24*60*60*1000);
+
+		JWTClaimsSet claims = new JWTClaimsSet.Builder()
+			.issuer("https://openid.c2id.com")
+			.subject("alice")
+			.expirationTime(yesterday)
+			.build();
+
+		SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.HS256), claims);
+
+		byte[] keyBytes = new byte[32];
+		new SecureRandom().nextBytes(keyBytes);
+		final SecretKey key = new SecretKeySpec(keyBytes, "HMAC");
+
+		jwt.sign(new MACSigner(key));
+
+		DefaultJWTProcessor<SimpleSecurityContext> processor = new DefaultJWTProcessor<>();
+
+		assertNull(processor.getJWTPrecheck());
+
+		final int[] keySelections = new int[1];
+
+		processor.setJWSKeySelector(new JWSKeySelector<SimpleSecurityContext>() {
+			@Override
+			public List<? extends Key> selectJWSKeys(JWSHeader header, SimpleSecurityContext context) {
+				keySelections[0]++;
+				return Collections.singletonList(key);
+			}
+		});
+
+		JWTPrecheck<SimpleSecurityContext> precheck = new DefaultJWTPrecheck<>();
+		processor.setJWTPrecheck(precheck);
+		assertEquals(precheck, processor.getJWTPrecheck());
+
+		try {
+			processor.process(jwt.serialize(), null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("Expired JWT", e.getMessage());
+		}
+
+		assertEquals(0, keySelections[0]);
+
+		// Wrong issuer
+		processor.setJWTPrecheck(new DefaultJWTPrecheck<SimpleSecurityContext>(
+			0, null, Collections.singleton("https://c2id.com"), null));
+
+		claims = new JWTClaimsSet.Builder()
+			.issuer("https://openid.c2id.com")
+			.subject("alice")
+			.build();
+
+		jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.HS256), claims);
+		jwt.sign(new MACSigner(key));
+
+		try {
+			processor.process(jwt.serialize(), null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("Unexpected JWT issuer", e.getMessage());
+		}
+
+		assertEquals(0, keySelections[0]);
+
+		// Pass, key selection and signature check proceed
+		processor.setJWTPrecheck(new DefaultJWTPrecheck<SimpleSecurityContext>(
+			0, null, Collections.singleton("https://openid.c2id.com"), null));
+
+		assertEquals("alice", processor.process(jwt.serialize(), null).getSubject());
+		assertEquals(1, keySelections[0]);
+	}
+
+
+	public void testPrecheckEncryptedJWTHeaderOnly()
+		throws Exception {
+
+		JWTClaimsSet claims = new JWTClaimsSet.Builder()
+			.issuer("https://openid.c2id.com")
+			.subject("alice")
+			.build();
+
+		EncryptedJWT jwt = new EncryptedJWT(
+			new JWEHeader.Builder(JWEAlgorithm.DIR, EncryptionMethod.A128GCM).type(JOSEObjectType.JWT).build(),
+			claims);
+
+		final SecretKey key = new SecretKeySpec(new byte[16], "AES");
+		jwt.encrypt(new DirectEncrypter(key));
+
+		DefaultJWTProcessor<SimpleSecurityContext> processor = new DefaultJWTProcessor<>();
+
+		processor.setJWEKeySelector(new JWEKeySelector<SimpleSecurityContext>() {
+			@Override
+			public List<? extends Key> selectJWEKeys(JWEHeader header, SimpleSecurityContext context) {
+				return Collections.singletonList(key);
+			}
+		});
+
+		// Unexpected type
+		processor.setJWTPrecheck(new DefaultJWTPrecheck<SimpleSecurityContext>(
+			0, Collections.singleton(new JOSEObjectType("at+jwt")), null, null));
+
+		try {
+			processor.process(jwt.serialize(), null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("Unexpected JWT type", e.getMessage());
+		}
+
+		// Issuer only checked after decryption
+		processor.setJWTPrecheck(new DefaultJWTPrecheck<SimpleSecurityContext>(
+			0, Collections.singleton(JOSEObjectType.JWT), Collections.singleton("https://openid.c2id.com"), null));
+
+		assertEquals("alice", processor.process(jwt.serialize(), null).getSubject());
+	}
+
+
+	public void testConcurrentJWSVerification()
+		throws Exception {
+
+		JWTClaimsSet claims = new JWTClaimsSet.Builder()
+			.issuer("https://openid.c2id.com")
+			.subject("alice")
+			.build();
+
+		final List<SecretKey> keys = new ArrayList<>();
+
+		for (int i=0; i < 5; i++) {
+			byte[] keyBytes = new byte[32];
+			new SecureRandom().nextBytes(keyBytes);
+			keys.add(new SecretKeySpec(keyBytes, "HMAC"));
+		}
+
+		SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.HS256), claims);
+		jwt.sign(new MACSigner(keys.get(4)));
+
+		DefaultJWTProcessor<SimpleSecurityContext> processor = new DefaultJWTProcessor<>();
+
+		processor.setJWSKeySelector(new JWSKeySelector<SimpleSecurityContext>() {
+			@Override
+			public List<? extends Key> selectJWSKeys(JWSHeader header, SimpleSecurityContext context) {
+				return keys;
+			}
+		});
+
+		assertNull(processor.getJWSVerificationExecutor());
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+
+		try {
+			processor.setJWSVerificationExecutor(executor);
+			assertEquals(executor, processor.getJWSVerificationExecutor());
+
+			assertEquals("alice", processor.process(jwt.serialize(), null).getSubject());
+
+			SignedJWT parsedJWT = SignedJWT.parse(jwt.serialize());
+			assertEquals("alice", processor.process(parsedJWT, null).getSubject());
+			assertEquals(JWSObject.State.VERIFIED, parsedJWT.getState());
+
+			// Invalid signature
+			SignedJWT otherJWT = new SignedJWT(new JWSHeader(JWSAlgorithm.HS256), claims);
+			byte[] otherKeyBytes = new byte[32];
+			new SecureRandom().nextBytes(otherKeyBytes);
+			otherJWT.sign(new MACSigner(otherKeyBytes));
+
+			try {
+				processor.process(otherJWT.serialize(), null);
+				fail();
+			} catch (BadJWSException e) {
+				assertEquals("Signed JWT rejected: Invalid signature", e.getMessage());
+			}
+
+			// Claims still verified
+			SignedJWT expiredJWT = new SignedJWT(
+				new JWSHeader(JWSAlgorithm.HS256),
+				new JWTClaimsSet.Builder().expirationTime(new Date(new Date().getTime() - 24*60*60*1000)).build());
+			expiredJWT.sign(new MACSigner(keys.get(2)));
+
+			try {
+				processor.process(expiredJWT.serialize(), null);
+				fail();
+			} catch (BadJWTException e) {
+				assertEquals("Expired JWT", e.getMessage());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
 }